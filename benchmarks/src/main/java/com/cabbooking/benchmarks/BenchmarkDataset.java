@@ -0,0 +1,193 @@
+package com.cabbooking.benchmarks;
+
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.Cab;
+import com.cabbooking.entity.Driver;
+import com.cabbooking.entity.User;
+import com.cabbooking.repository.BookingRepository;
+import com.cabbooking.repository.CabRepository;
+import com.cabbooking.repository.DriverRepository;
+import com.cabbooking.repository.UserRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A city-sized dataset for the repository benchmarks: customers, verified drivers with a
+ * cab each, and a booking history that is mostly completed rides with a small live tail.
+ * Generated from a fixed seed, so every run queries the same rows.
+ */
+final class BenchmarkDataset {
+
+    // Bengaluru, roughly
+    static final double MIN_LATITUDE = 12.85;
+    static final double MIN_LONGITUDE = 77.45;
+    static final double LATITUDE_SPAN = 0.25;
+    static final double LONGITUDE_SPAN = 0.30;
+
+    static final int CUSTOMERS = 5_000;
+    static final int DRIVERS = 1_000;
+    static final int BOOKINGS = 50_000;
+
+    private static final int CHUNK = 1_000;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private BenchmarkDataset() {}
+
+    // Source of individual sample rows, for benchmarks that need no database
+    static BenchmarkDataset forSamples() {
+        return new BenchmarkDataset();
+    }
+
+    /**
+     * Inserts the dataset and returns the generated ids, so benchmarks can pick rows that exist.
+     */
+    static SeededIds seed(ApplicationContext context) {
+        return new BenchmarkDataset().seedInto(context);
+    }
+
+    record SeededIds(long[] customerIds, long[] bookingIds) {}
+
+    private SeededIds seedInto(ApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        DriverRepository driverRepository = context.getBean(DriverRepository.class);
+        CabRepository cabRepository = context.getBean(CabRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        List<User> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i += CHUNK) {
+            int from = i;
+            customers.addAll(transaction.execute(status -> {
+                List<User> chunk = new ArrayList<>(CHUNK);
+                for (int n = from; n < Math.min(from + CHUNK, CUSTOMERS); n++) {
+                    chunk.add(user(n, User.UserRole.CUSTOMER));
+                }
+                return userRepository.saveAll(chunk);
+            }));
+        }
+
+        List<Driver> drivers = new ArrayList<>(DRIVERS);
+        List<Cab> cabs = new ArrayList<>(DRIVERS);
+        transaction.executeWithoutResult(status -> {
+            for (int n = 0; n < DRIVERS; n++) {
+                Driver driver = driverRepository.save(driver(n, userRepository.save(user(CUSTOMERS + n, User.UserRole.DRIVER))));
+                drivers.add(driver);
+                cabs.add(cabRepository.save(cab(n, driver)));
+            }
+        });
+
+        long[] bookingIds = new long[BOOKINGS];
+        for (int i = 0; i < BOOKINGS; i += CHUNK) {
+            int from = i;
+            transaction.executeWithoutResult(status -> {
+                List<Booking> chunk = new ArrayList<>(CHUNK);
+                for (int n = from; n < Math.min(from + CHUNK, BOOKINGS); n++) {
+                    int driver = random.nextInt(DRIVERS);
+                    chunk.add(booking(n, customers.get(random.nextInt(CUSTOMERS)), drivers.get(driver), cabs.get(driver)));
+                }
+                List<Booking> saved = bookingRepository.saveAll(chunk);
+                for (int n = 0; n < saved.size(); n++) {
+                    bookingIds[from + n] = saved.get(n).getId();
+                }
+            });
+        }
+        return new SeededIds(customers.stream().mapToLong(User::getId).toArray(), bookingIds);
+    }
+
+    static User user(int n, User.UserRole role) {
+        User user = new User();
+        user.setFirstName("First" + n);
+        user.setLastName("Last" + n);
+        user.setEmail("user" + n + "@bench.example");
+        user.setPhoneNumber(String.format("9%09d", n));
+        user.setPassword("password");
+        user.setRole(role);
+        user.setStatus(User.UserStatus.ACTIVE);
+        return user;
+    }
+
+    Driver driver(int n, User user) {
+        Driver driver = new Driver();
+        driver.setUser(user);
+        driver.setLicenseNumber(String.format("KA-DL-%06d", n));
+        driver.setLicenseExpiryDate("2030-12-31");
+        driver.setRating(3.5 + random.nextDouble(1.5));
+        driver.setTotalRides(random.nextInt(2_000));
+        driver.setStatus(random.nextInt(10) < 6 ? Driver.DriverStatus.ONLINE : Driver.DriverStatus.OFFLINE);
+        driver.setVerificationStatus(random.nextInt(10) < 9
+                ? Driver.VerificationStatus.VERIFIED : Driver.VerificationStatus.PENDING);
+        driver.setCurrentLatitude(latitude());
+        driver.setCurrentLongitude(longitude());
+        return driver;
+    }
+
+    static Cab cab(int n, Driver driver) {
+        Cab.CabType[] cabTypes = Cab.CabType.values();
+        Cab cab = new Cab();
+        cab.setDriver(driver);
+        cab.setLicensePlate(String.format("KA-01-%05d", n));
+        cab.setMake("Toyota");
+        cab.setModel("Etios");
+        cab.setColor("White");
+        cab.setYear(2018 + n % 6);
+        cab.setCabType(cabTypes[n % cabTypes.length]);
+        cab.setSeatingCapacity(4);
+        return cab;
+    }
+
+    Booking booking(int n, User user, Driver driver, Cab cab) {
+        LocalDateTime requested = now.minusMinutes(random.nextInt(60 * 24 * 90));
+        int roll = random.nextInt(100);
+        Booking.BookingStatus status = roll < 2 ? Booking.BookingStatus.REQUESTED
+                : roll < 3 ? Booking.BookingStatus.IN_PROGRESS
+                : roll < 12 ? Booking.BookingStatus.CANCELLED
+                : Booking.BookingStatus.COMPLETED;
+
+        Booking booking = new Booking();
+        booking.setBookingNumber(String.format("CAB%08d", n));
+        booking.setUser(user);
+        booking.setPickupAddress(n + " Pickup Road");
+        booking.setPickupLatitude(latitude());
+        booking.setPickupLongitude(longitude());
+        booking.setDropoffAddress(n + " Dropoff Road");
+        booking.setDropoffLatitude(latitude());
+        booking.setDropoffLongitude(longitude());
+        booking.setRequestedTime(requested);
+        booking.setRequestedCabType(Booking.CabType.valueOf(cab.getCabType().name()));
+        booking.setStatus(status);
+        booking.setEstimatedFare(BigDecimal.valueOf(5_000 + random.nextInt(50_000), 2));
+        booking.setDistance(BigDecimal.valueOf(random.nextDouble(25.0)));
+        booking.setEstimatedDuration(5 + random.nextInt(60));
+        booking.setPaymentMethod(Booking.PaymentMethod.values()[n % Booking.PaymentMethod.values().length]);
+        if (status != Booking.BookingStatus.REQUESTED) {
+            booking.setDriver(driver);
+            booking.setCab(cab);
+            booking.setAcceptedTime(requested.plusMinutes(2));
+        }
+        if (status == Booking.BookingStatus.COMPLETED) {
+            booking.setStartTime(requested.plusMinutes(8));
+            booking.setEndTime(requested.plusMinutes(8 + booking.getEstimatedDuration()));
+            booking.setActualFare(booking.getEstimatedFare());
+            booking.setActualDuration(booking.getEstimatedDuration());
+            booking.setPaymentStatus(Booking.PaymentStatus.COMPLETED);
+        }
+        return booking;
+    }
+
+    private double latitude() {
+        return MIN_LATITUDE + random.nextDouble(LATITUDE_SPAN);
+    }
+
+    private double longitude() {
+        return MIN_LONGITUDE + random.nextDouble(LONGITUDE_SPAN);
+    }
+}
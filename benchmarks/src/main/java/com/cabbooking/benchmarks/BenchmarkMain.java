@@ -0,0 +1,23 @@
+package com.cabbooking.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs JMH with machine-readable output: unless the caller picks a format, results are
+ * written as JSON ({@code jmh-result.json}, or the file given with {@code -rff}) so runs on
+ * different commits can be compared.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(List.of(args));
+        if (!options.contains("-rf")) {
+            options.add("-rf");
+            options.add("json");
+        }
+        org.openjdk.jmh.Main.main(options.toArray(String[]::new));
+    }
+}
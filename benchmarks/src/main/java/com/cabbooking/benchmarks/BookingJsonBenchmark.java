@@ -0,0 +1,76 @@
+package com.cabbooking.benchmarks;
+
+import com.cabbooking.dto.BookingResponseDto;
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.Cab;
+import com.cabbooking.entity.Driver;
+import com.cabbooking.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a booking as JSON: the entity itself, the response DTO the read endpoints return,
+ * and the entity mapped to that DTO first, as the write endpoints do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ModelMapper modelMapper;
+    private Booking booking;
+    private BookingResponseDto response;
+
+    @Setup
+    public void setUp() {
+        // Same module set Spring Boot registers on its ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        modelMapper = new ModelMapper();
+
+        User rider = BenchmarkDataset.user(1, User.UserRole.CUSTOMER);
+        rider.setId(1L);
+        User driverUser = BenchmarkDataset.user(2, User.UserRole.DRIVER);
+        driverUser.setId(2L);
+        BenchmarkDataset dataset = BenchmarkDataset.forSamples();
+        Driver driver = dataset.driver(1, driverUser);
+        driver.setId(1L);
+        Cab cab = BenchmarkDataset.cab(1, driver);
+        cab.setId(1L);
+        booking = dataset.booking(1, rider, driver, cab);
+        booking.setId(1L);
+        response = modelMapper.map(booking, BookingResponseDto.class);
+    }
+
+    @Benchmark
+    public String entity() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(booking);
+    }
+
+    @Benchmark
+    public String responseDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(response);
+    }
+
+    @Benchmark
+    public String mappedEntity() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(modelMapper.map(booking, BookingResponseDto.class));
+    }
+}
@@ -0,0 +1,97 @@
+package com.cabbooking.benchmarks;
+
+import com.cabbooking.entity.Booking;
+import com.cabbooking.pricing.FareEngine;
+import com.cabbooking.pricing.FareQuote;
+import com.cabbooking.pricing.RateCard;
+import com.cabbooking.pricing.RateCardFareEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prices a fixed set of random city trips with the legacy {@code BigDecimal} calculation
+ * and with {@link RateCardFareEngine}. Both variants fill in fare, distance and duration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FareEngineBenchmark {
+
+    private static final int TRIPS = 1024;
+
+    private Booking[] trips;
+    private FareEngine fareEngine;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        Booking.CabType[] cabTypes = Booking.CabType.values();
+        trips = new Booking[TRIPS];
+        for (int i = 0; i < TRIPS; i++) {
+            Booking trip = new Booking();
+            trip.setPickupLatitude(28.5 + random.nextDouble(0.3));
+            trip.setPickupLongitude(77.0 + random.nextDouble(0.3));
+            trip.setDropoffLatitude(28.5 + random.nextDouble(0.3));
+            trip.setDropoffLongitude(77.0 + random.nextDouble(0.3));
+            trip.setRequestedCabType(cabTypes[i % cabTypes.length]);
+            trips[i] = trip;
+        }
+
+        Map<Booking.CabType, RateCard> rateCards = new EnumMap<>(Booking.CabType.class);
+        rateCards.put(Booking.CabType.HATCHBACK, new RateCard(5000, 1000));
+        rateCards.put(Booking.CabType.SEDAN, new RateCard(5000, 1200));
+        rateCards.put(Booking.CabType.SUV, new RateCard(5000, 1500));
+        rateCards.put(Booking.CabType.LUXURY, new RateCard(5000, 2000));
+        fareEngine = new RateCardFareEngine(rateCards, 30.0);
+    }
+
+    @Benchmark
+    public Booking legacyBigDecimal() {
+        Booking trip = nextTrip();
+        LegacyFareCalculation.price(trip);
+        return trip;
+    }
+
+    @Benchmark
+    public Booking rateCardEngine() {
+        Booking trip = nextTrip();
+        FareQuote quote = fareEngine.quote(
+                trip.getPickupLatitude(), trip.getPickupLongitude(),
+                trip.getDropoffLatitude(), trip.getDropoffLongitude(),
+                trip.getRequestedCabType());
+        trip.setEstimatedFare(quote.fare());
+        trip.setDistance(quote.distance());
+        trip.setEstimatedDuration(quote.getDurationMinutes());
+        return trip;
+    }
+
+    @Benchmark
+    public long rateCardEngineQuoteOnly() {
+        Booking trip = nextTrip();
+        return fareEngine.quote(
+                trip.getPickupLatitude(), trip.getPickupLongitude(),
+                trip.getDropoffLatitude(), trip.getDropoffLongitude(),
+                trip.getRequestedCabType()).getFareMinor();
+    }
+
+    private Booking nextTrip() {
+        return trips[next++ & (TRIPS - 1)];
+    }
+}
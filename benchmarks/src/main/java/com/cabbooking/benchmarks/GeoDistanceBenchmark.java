@@ -0,0 +1,58 @@
+package com.cabbooking.benchmarks;
+
+import com.cabbooking.util.GeoUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two great-circle formulas: haversine (trip distance and fares) and the spherical law
+ * of cosines (nearby-driver search, in SQL and in the spatial index).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoDistanceBenchmark {
+
+    private static final int POINTS = 1024;
+
+    private final double[] latitudes = new double[POINTS];
+    private final double[] longitudes = new double[POINTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = BenchmarkDataset.MIN_LATITUDE + random.nextDouble(BenchmarkDataset.LATITUDE_SPAN);
+            longitudes[i] = BenchmarkDataset.MIN_LONGITUDE + random.nextDouble(BenchmarkDataset.LONGITUDE_SPAN);
+        }
+    }
+
+    @Benchmark
+    public double haversine() {
+        int i = next++ & (POINTS - 1);
+        int j = (i + 1) & (POINTS - 1);
+        return GeoUtils.haversineKm(latitudes[i], longitudes[i], latitudes[j], longitudes[j]);
+    }
+
+    @Benchmark
+    public double sphericalLawOfCosines() {
+        int i = next++ & (POINTS - 1);
+        int j = (i + 1) & (POINTS - 1);
+        return GeoUtils.sphericalDistanceKm(latitudes[i], longitudes[i], latitudes[j], longitudes[j]);
+    }
+}
@@ -0,0 +1,74 @@
+package com.cabbooking.benchmarks;
+
+import com.cabbooking.entity.Booking;
+
+import java.math.BigDecimal;
+
+/**
+ * The {@code BigDecimal} fare calculation {@code BookingService} used before the fare engine,
+ * kept verbatim (distance computed twice included) as the benchmark baseline.
+ */
+final class LegacyFareCalculation {
+
+    private static final BigDecimal BASE_FARE = new BigDecimal("50.00");
+    private static final BigDecimal HATCHBACK_FARE = new BigDecimal("10.00");
+    private static final BigDecimal SEDAN_FARE = new BigDecimal("12.00");
+    private static final BigDecimal SUV_FARE = new BigDecimal("15.00");
+    private static final BigDecimal LUXURY_FARE = new BigDecimal("20.00");
+    private static final double EARTH_RADIUS = 6371;
+    private static final double DEFAULT_AVG_SPEED_KMH = 30.0;
+    private static final int MINUTES_IN_HOUR = 60;
+
+    private LegacyFareCalculation() {}
+
+    static void price(Booking booking) {
+        BigDecimal estimatedFare = calculateEstimatedFare(
+                booking.getPickupLatitude(), booking.getPickupLongitude(),
+                booking.getDropoffLatitude(), booking.getDropoffLongitude(),
+                booking.getRequestedCabType());
+
+        booking.setEstimatedFare(estimatedFare);
+        booking.setDistance(calculateDistance(
+                booking.getPickupLatitude(), booking.getPickupLongitude(),
+                booking.getDropoffLatitude(), booking.getDropoffLongitude()));
+
+        booking.setEstimatedDuration(calculateEstimatedDuration(booking.getDistance()));
+    }
+
+    private static BigDecimal calculateEstimatedFare(Double pickupLat, Double pickupLng,
+            Double dropoffLat, Double dropoffLng,
+            Booking.CabType cabType) {
+        BigDecimal distance = calculateDistance(pickupLat, pickupLng, dropoffLat, dropoffLng);
+        BigDecimal perKmRate = getPerKmRate(cabType);
+
+        return BASE_FARE.add(distance.multiply(perKmRate));
+    }
+
+    private static BigDecimal getPerKmRate(Booking.CabType cabType) {
+        return switch (cabType) {
+            case HATCHBACK -> HATCHBACK_FARE;
+            case SEDAN -> SEDAN_FARE;
+            case SUV -> SUV_FARE;
+            case LUXURY -> LUXURY_FARE;
+        };
+    }
+
+    private static BigDecimal calculateDistance(Double lat1, Double lng1, Double lat2, Double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                        Math.sin(dLng / 2) * Math.sin(dLng / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        double distance = EARTH_RADIUS * c;
+
+        return BigDecimal.valueOf(distance);
+    }
+
+    private static Integer calculateEstimatedDuration(BigDecimal distance) {
+        double durationHours = distance.doubleValue() / DEFAULT_AVG_SPEED_KMH;
+        return (int) (durationHours * MINUTES_IN_HOUR);
+    }
+}
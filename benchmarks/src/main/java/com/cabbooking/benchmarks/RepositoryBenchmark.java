@@ -0,0 +1,119 @@
+package com.cabbooking.benchmarks;
+
+import com.cabbooking.CabBookingSystemApplication;
+import com.cabbooking.dto.BookingResponseDto;
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.Driver;
+import com.cabbooking.repository.BookingRepository;
+import com.cabbooking.repository.DriverRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository reads against an embedded H2 database holding {@link BenchmarkDataset}. The
+ * application context is started once per fork with the {@code bench} profile, which turns
+ * off background jobs and sample data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final double NEARBY_RADIUS_KM = 3.0;
+
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private DriverRepository driverRepository;
+    private BenchmarkDataset.SeededIds ids;
+
+    @State(Scope.Thread)
+    public static class Keys {
+        private final SplittableRandom random = new SplittableRandom(7);
+
+        long bookingId(RepositoryBenchmark benchmark) {
+            long[] bookingIds = benchmark.ids.bookingIds();
+            return bookingIds[random.nextInt(bookingIds.length)];
+        }
+
+        long userId(RepositoryBenchmark benchmark) {
+            long[] customerIds = benchmark.ids.customerIds();
+            return customerIds[random.nextInt(customerIds.length)];
+        }
+
+        double latitude() {
+            return BenchmarkDataset.MIN_LATITUDE + random.nextDouble(BenchmarkDataset.LATITUDE_SPAN);
+        }
+
+        double longitude() {
+            return BenchmarkDataset.MIN_LONGITUDE + random.nextDouble(BenchmarkDataset.LONGITUDE_SPAN);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CabBookingSystemApplication.class)
+                .profiles("bench")
+                .run();
+        ids = BenchmarkDataset.seed(context);
+        bookingRepository = context.getBean(BookingRepository.class);
+        driverRepository = context.getBean(DriverRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<BookingResponseDto> bookingResponseById(Keys keys) {
+        return bookingRepository.findResponseById(keys.bookingId(this));
+    }
+
+    @Benchmark
+    public Optional<Booking> bookingEntityById(Keys keys) {
+        return bookingRepository.findById(keys.bookingId(this));
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> userBookingsPage(Keys keys) {
+        return bookingRepository.findResponsesByUserIdAfter(keys.userId(this), 0L, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<Driver> nearbyAvailableDrivers(Keys keys) {
+        return driverRepository.findNearbyAvailableDrivers(keys.latitude(), keys.longitude(), NEARBY_RADIUS_KM);
+    }
+
+    @Benchmark
+    public List<Booking> dispatchableBookings() {
+        return bookingRepository.findDispatchableBookings(LocalDateTime.now(), PageRequest.of(0, 200));
+    }
+
+    @Benchmark
+    public Long countRequested() {
+        return bookingRepository.countByStatus(Booking.BookingStatus.REQUESTED);
+    }
+}
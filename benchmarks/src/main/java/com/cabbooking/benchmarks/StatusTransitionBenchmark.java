@@ -0,0 +1,37 @@
+package com.cabbooking.benchmarks;
+
+import com.cabbooking.entity.Booking;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The booking status-transition check {@code BookingService.updateBookingStatus} runs
+ * before every change, cycled over all from/to pairs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusTransitionBenchmark {
+
+    private static final Booking.BookingStatus[] STATUSES = Booking.BookingStatus.values();
+
+    private int next;
+
+    @Benchmark
+    public boolean canTransitionTo() {
+        int pair = next++ % (STATUSES.length * STATUSES.length);
+        return STATUSES[pair / STATUSES.length].canTransitionTo(STATUSES[pair % STATUSES.length]);
+    }
+}
@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# Runs the same city simulation against platform-thread and virtual-thread request handling and
+# keeps both reports side by side. Both runs use one JDK 21 build, so threading is the only
+# difference. Defaults hold ~10k client connections open (one per rider, plus the pingers);
+# raise the open-file limit on both ends first, e.g. `ulimit -n 65536`.
+#
+#   JAVA_HOME=/path/to/jdk-21 loadtest/compare-threading.sh
+#
+# Override RIDERS, DRIVERS, DRIVER_THREADS, DURATION or OUT to change the load or output folder.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RIDERS=${RIDERS:-10000}
+DRIVERS=${DRIVERS:-2000}
+DRIVER_THREADS=${DRIVER_THREADS:-64}
+DURATION=${DURATION:-PT5M}
+OUT=${OUT:-loadtest-results/threading}
+BASE_URL=http://localhost:8080/cab-booking-api
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+"$JAVA" -version 2>&1 | grep -q 'version "2[1-9]' || { echo "JAVA_HOME must point to JDK 21 or newer" >&2; exit 1; }
+
+mvn -q -B -Pjava21 package -DskipTests
+mvn -q -B -f loadtest/pom.xml package
+
+run() {
+    local name=$1 profiles=$2
+    mkdir -p "$OUT/$name"
+    "$JAVA" -jar target/cab-booking-system-0.0.1-SNAPSHOT-exec.jar \
+        --spring.profiles.active="$profiles" > "$OUT/$name/server.log" 2>&1 &
+    local server=$!
+    trap 'kill $server 2>/dev/null' EXIT
+    until curl -sf "$BASE_URL/actuator/health" > /dev/null; do
+        kill -0 $server 2>/dev/null || { echo "$name: server did not start, see $OUT/$name/server.log" >&2; exit 1; }
+        sleep 1
+    done
+
+    "$JAVA" -jar loadtest/target/loadtest.jar --base-url="$BASE_URL" --riders="$RIDERS" \
+        --drivers="$DRIVERS" --driver-threads="$DRIVER_THREADS" --duration="$DURATION" \
+        --output="$OUT/$name" | tee "$OUT/$name/summary.txt"
+
+    kill $server
+    wait $server || true
+    trap - EXIT
+}
+
+run platform-threads loadtest,h2
+run virtual-threads loadtest,h2,virtual-threads
+
+# Endpoint names contain spaces, so p99 is counted from the end of each row of the table
+p99() {
+    awk '/^endpoint/ { table = 1; next }
+         table && NF >= 9 && $NF ~ /^[0-9.]+$/ {
+             key = $1; for (i = 2; i <= NF - 8; i++) key = key "_" $i; print key, $(NF - 2)
+         }' "$1" | sort
+}
+
+echo
+echo "p99 ms by endpoint: platform threads, virtual threads"
+join <(p99 "$OUT/platform-threads/summary.txt") <(p99 "$OUT/virtual-threads/summary.txt") | column -t
@@ -0,0 +1,109 @@
+package com.cabbooking.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Blocking JSON calls against the API, each timed into the {@link LatencyRecorder} under
+ * the endpoint label the caller passes.
+ */
+final class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    ApiClient(String baseUrl, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.recorder = recorder;
+    }
+
+    JsonNode get(String endpoint, String path) {
+        return send(endpoint, request(path).GET().build(), 0);
+    }
+
+    JsonNode post(String endpoint, String path, Object body) {
+        return post(endpoint, path, body, 0);
+    }
+
+    JsonNode post(String endpoint, String path, Object body, long expectedIntervalNanos) {
+        HttpRequest request = request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(body)))
+                .build();
+        return send(endpoint, request, expectedIntervalNanos);
+    }
+
+    JsonNode put(String endpoint, String path) {
+        return put(endpoint, path, 0);
+    }
+
+    JsonNode put(String endpoint, String path, long expectedIntervalNanos) {
+        return send(endpoint, request(path).PUT(HttpRequest.BodyPublishers.noBody()).build(), expectedIntervalNanos);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private JsonNode send(String endpoint, HttpRequest request, long expectedIntervalNanos) {
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, expectedIntervalNanos, true);
+            throw new ApiException(endpoint, 0, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(endpoint, 0, "interrupted");
+        }
+        int status = response.statusCode();
+        recorder.record(endpoint, System.nanoTime() - start, expectedIntervalNanos, status >= 400);
+
+        if (status >= 400) {
+            throw new ApiException(endpoint, status, response.body());
+        }
+        try {
+            return response.body().isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+        } catch (JsonProcessingException e) {
+            throw new ApiException(endpoint, status, "unreadable body: " + e.getOriginalMessage());
+        }
+    }
+
+    private String json(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    static final class ApiException extends RuntimeException {
+
+        private final int status;
+
+        ApiException(String endpoint, int status, String detail) {
+            super(endpoint + " failed (" + status + "): " + detail);
+            this.status = status;
+        }
+
+        int status() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.cabbooking.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * A circular city on a flat local approximation, which is accurate enough at city scale.
+ */
+final class CityMap {
+
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+
+    private final double centerLatitude;
+    private final double centerLongitude;
+    private final double radiusKm;
+    private final double kmPerDegreeLongitude;
+
+    CityMap(double centerLatitude, double centerLongitude, double radiusKm) {
+        this.centerLatitude = centerLatitude;
+        this.centerLongitude = centerLongitude;
+        this.radiusKm = radiusKm;
+        this.kmPerDegreeLongitude = KM_PER_DEGREE_LATITUDE * Math.cos(Math.toRadians(centerLatitude));
+    }
+
+    /**
+     * A uniformly distributed point inside the city, as {latitude, longitude}.
+     */
+    double[] randomPoint(SplittableRandom random) {
+        double distance = radiusKm * Math.sqrt(random.nextDouble());
+        double bearing = random.nextDouble(2 * Math.PI);
+        return new double[] {
+                centerLatitude + distance * Math.cos(bearing) / KM_PER_DEGREE_LATITUDE,
+                centerLongitude + distance * Math.sin(bearing) / kmPerDegreeLongitude
+        };
+    }
+
+    double distanceKm(double[] from, double[] to) {
+        double north = (to[0] - from[0]) * KM_PER_DEGREE_LATITUDE;
+        double east = (to[1] - from[1]) * kmPerDegreeLongitude;
+        return Math.hypot(north, east);
+    }
+
+    /**
+     * Heading in degrees clockwise from north.
+     */
+    double headingDegrees(double[] from, double[] to) {
+        double north = (to[0] - from[0]) * KM_PER_DEGREE_LATITUDE;
+        double east = (to[1] - from[1]) * kmPerDegreeLongitude;
+        return (Math.toDegrees(Math.atan2(east, north)) + 360.0) % 360.0;
+    }
+
+    /**
+     * The point {@code km} along the straight line from {@code from} to {@code to}, stopping at {@code to}.
+     */
+    double[] advance(double[] from, double[] to, double km) {
+        double total = distanceKm(from, to);
+        if (total <= km) {
+            return to.clone();
+        }
+        double fraction = km / total;
+        return new double[] {
+                from[0] + (to[0] - from[0]) * fraction,
+                from[1] + (to[1] - from[1]) * fraction
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package com.cabbooking.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers the virtual drivers and riders, then runs them against the API for the
+ * configured duration and reports latency per endpoint. Setup calls are not measured.
+ */
+final class CitySimulator {
+
+    private final SimulationOptions options;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final ApiClient api;
+    private final CityMap city;
+
+    CitySimulator(SimulationOptions options) {
+        this.options = options;
+        this.api = new ApiClient(options.baseUrl(), recorder);
+        this.city = new CityMap(options.centerLatitude(), options.centerLongitude(), options.radiusKm());
+    }
+
+    void run(PrintStream out) throws InterruptedException, IOException {
+        SplittableRandom random = new SplittableRandom(options.seed());
+        String runId = Long.toString(System.currentTimeMillis());
+
+        out.printf("Registering %d drivers and %d riders against %s%n",
+                options.drivers(), options.riders(), options.baseUrl());
+        List<VirtualDriver> drivers = new ArrayList<>(options.drivers());
+        for (int i = 0; i < options.drivers(); i++) {
+            drivers.add(VirtualDriver.register(api, city, random.split(), runId, i));
+        }
+        List<VirtualRider> riders = new ArrayList<>(options.riders());
+        for (int i = 0; i < options.riders(); i++) {
+            riders.add(VirtualRider.register(api, city, random.split(), options, runId, i));
+        }
+
+        recorder.start();
+        Instant started = Instant.now();
+        Instant deadline = started.plus(options.duration());
+        out.printf("Running until %s%n", deadline);
+
+        long intervalNanos = options.pingInterval().toNanos();
+        ScheduledExecutorService pingers = Executors.newScheduledThreadPool(options.driverThreads());
+        for (int i = 0; i < drivers.size(); i++) {
+            VirtualDriver driver = drivers.get(i);
+            // Spread first pings over one interval so drivers do not report in lockstep
+            long offset = intervalNanos * i / Math.max(1, drivers.size());
+            pingers.scheduleAtFixedRate(() -> driver.tick(intervalNanos), offset, intervalNanos, TimeUnit.NANOSECONDS);
+        }
+
+        ExecutorService riderThreads = Executors.newFixedThreadPool(Math.max(1, riders.size()));
+        List<Future<Integer>> rides = new ArrayList<>(riders.size());
+        for (VirtualRider rider : riders) {
+            rides.add(riderThreads.submit(() -> rider.run(deadline)));
+        }
+
+        int completedRides = 0;
+        for (Future<Integer> ride : rides) {
+            try {
+                completedRides += ride.get();
+            } catch (ExecutionException e) {
+                out.println("Rider stopped: " + e.getCause());
+            }
+        }
+        pingers.shutdownNow();
+        riderThreads.shutdownNow();
+        pingers.awaitTermination(10, TimeUnit.SECONDS);
+        recorder.stop();
+
+        double seconds = Duration.between(started, Instant.now()).toMillis() / 1000.0;
+        out.printf("%nCompleted rides: %d (%.2f/s)%n%n", completedRides, completedRides / seconds);
+        recorder.printSummary(out, seconds);
+        recorder.writeDistributions(options.output());
+        out.printf("%nPercentile distributions written to %s%n", options.output().toAbsolutePath());
+    }
+}
@@ -0,0 +1,98 @@
+package com.cabbooking.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and error counts per endpoint, keyed by method and path template
+ * (e.g. {@code PUT /api/bookings/{id}/status}) so calls for different ids share a histogram.
+ */
+final class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    /**
+     * Calls made before this are not recorded, so setup traffic stays out of the results.
+     */
+    void start() {
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+    }
+
+    /**
+     * Records a call. Calls started late because the previous one overran their schedule are
+     * back-filled from {@code expectedIntervalNanos}, so a stalled server shows up as latency
+     * instead of as fewer samples.
+     */
+    void record(String endpoint, long latencyNanos, long expectedIntervalNanos, boolean failed) {
+        if (!recording) {
+            return;
+        }
+        Histogram histogram = histograms.computeIfAbsent(endpoint,
+                key -> new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3));
+        long value = Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS);
+        if (expectedIntervalNanos > 0) {
+            histogram.recordValueWithExpectedInterval(value, expectedIntervalNanos);
+        } else {
+            histogram.recordValue(value);
+        }
+        if (failed) {
+            errors.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+        }
+    }
+
+    void printSummary(PrintStream out, double seconds) {
+        out.printf("%-48s %9s %7s %8s %8s %8s %8s %8s %8s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        new TreeMap<>(histograms).forEach((endpoint, histogram) -> out.printf(
+                "%-48s %9d %7d %8.1f %8.2f %8.2f %8.2f %8.2f %8.2f%n",
+                endpoint, histogram.getTotalCount(), errorCount(endpoint), histogram.getTotalCount() / seconds,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / NANOS_PER_MILLI));
+    }
+
+    /**
+     * Writes each endpoint's full percentile distribution in HdrHistogram's {@code .hgrm}
+     * format, which the HdrHistogram plotter and most comparison scripts read.
+     */
+    void writeDistributions(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Path file = directory.resolve(fileName(entry.getKey()));
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+    }
+
+    private long errorCount(String endpoint) {
+        LongAdder count = errors.get(endpoint);
+        return count == null ? 0 : count.sum();
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    private static String fileName(String endpoint) {
+        return endpoint.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+    }
+}
@@ -0,0 +1,17 @@
+package com.cabbooking.loadtest;
+
+/**
+ * Entry point: {@code java -jar loadtest/target/loadtest.jar [--option=value ...]}.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1 && ("--help".equals(args[0]) || "-h".equals(args[0]))) {
+            System.out.print(SimulationOptions.USAGE);
+            return;
+        }
+        new CitySimulator(SimulationOptions.parse(args)).run(System.out);
+    }
+}
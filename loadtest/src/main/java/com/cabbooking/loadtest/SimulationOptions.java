@@ -0,0 +1,78 @@
+package com.cabbooking.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Simulator settings, from {@code --name=value} arguments.
+ */
+record SimulationOptions(
+        String baseUrl,
+        int drivers,
+        int riders,
+        Duration duration,
+        Duration pingInterval,
+        int driverThreads,
+        Duration acceptTimeout,
+        Duration tripStep,
+        Duration riderThinkTime,
+        double centerLatitude,
+        double centerLongitude,
+        double radiusKm,
+        long seed,
+        Path output) {
+
+    static final String USAGE = """
+            Options (all optional):
+              --base-url=http://localhost:8080/cab-booking-api
+              --drivers=200            virtual drivers pinging their position
+              --riders=50              virtual riders booking rides back to back
+              --duration=PT5M          measured run length (ISO-8601)
+              --ping-interval=PT1S     time between a driver's position pings
+              --driver-threads=16      threads sending driver pings
+              --accept-timeout=PT20S   wait for dispatch before assigning a driver directly
+              --trip-step=PT2S         time between a ride's status changes
+              --rider-think-time=PT3S  pause between a rider's rides
+              --center-latitude=12.9716 --center-longitude=77.5946 --radius-km=10
+              --seed=42
+              --output=target/loadtest  per-endpoint .hgrm percentile files
+            """;
+
+    static SimulationOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unrecognised argument " + arg + "\n" + USAGE);
+            }
+            int split = arg.indexOf('=');
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        SimulationOptions options = new SimulationOptions(
+                values.getOrDefault("base-url", "http://localhost:8080/cab-booking-api"),
+                Integer.parseInt(values.getOrDefault("drivers", "200")),
+                Integer.parseInt(values.getOrDefault("riders", "50")),
+                Duration.parse(values.getOrDefault("duration", "PT5M")),
+                Duration.parse(values.getOrDefault("ping-interval", "PT1S")),
+                Integer.parseInt(values.getOrDefault("driver-threads", "16")),
+                Duration.parse(values.getOrDefault("accept-timeout", "PT20S")),
+                Duration.parse(values.getOrDefault("trip-step", "PT2S")),
+                Duration.parse(values.getOrDefault("rider-think-time", "PT3S")),
+                Double.parseDouble(values.getOrDefault("center-latitude", "12.9716")),
+                Double.parseDouble(values.getOrDefault("center-longitude", "77.5946")),
+                Double.parseDouble(values.getOrDefault("radius-km", "10")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("output", "target/loadtest")));
+
+        values.keySet().removeAll(Set.of("base-url", "drivers", "riders", "duration", "ping-interval",
+                "driver-threads", "accept-timeout", "trip-step", "rider-think-time", "center-latitude",
+                "center-longitude", "radius-km", "seed", "output"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + values.keySet() + "\n" + USAGE);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,112 @@
+package com.cabbooking.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * A driver wandering the city between random waypoints and reporting its position on a
+ * fixed schedule. Even-numbered drivers report through the location log
+ * ({@code POST /api/locations}), odd-numbered ones through the driver resource
+ * ({@code PUT /api/drivers/{id}/location}), so both ingestion paths carry load.
+ */
+final class VirtualDriver {
+
+    private static final String[] CAB_TYPES = {"SEDAN", "HATCHBACK", "SUV", "LUXURY"};
+
+    private final ApiClient api;
+    private final CityMap city;
+    private final SplittableRandom random;
+    private final int index;
+    private final long driverId;
+    private final double speedKmh;
+
+    private double[] position;
+    private double[] destination;
+    private double heading;
+
+    private VirtualDriver(ApiClient api, CityMap city, SplittableRandom random, int index, long driverId,
+            double[] position) {
+        this.api = api;
+        this.city = city;
+        this.random = random;
+        this.index = index;
+        this.driverId = driverId;
+        this.speedKmh = 20 + random.nextDouble(20);
+        this.position = position;
+        this.destination = city.randomPoint(random);
+    }
+
+    /**
+     * Registers the driver's user, driver profile and cab, verifies it and brings it online.
+     */
+    static VirtualDriver register(ApiClient api, CityMap city, SplittableRandom random, String runId, int index) {
+        double[] start = city.randomPoint(random);
+        // Drivers and cabs validate their nested user and driver in full, so those are sent whole
+        Map<String, Object> user = new HashMap<>(Map.of(
+                "firstName", "Driver",
+                "lastName", "D" + index,
+                "email", "driver-" + runId + "-" + index + "@loadtest.example",
+                "phoneNumber", phoneNumber(runId, index),
+                "password", "loadtest-password",
+                "role", "DRIVER"));
+        user.put("id", api.post("POST /api/users/register", "/api/users/register", user).get("id").asLong());
+
+        Map<String, Object> driver = new HashMap<>(Map.of(
+                "user", user,
+                "licenseNumber", "LT-" + runId + "-" + index,
+                "licenseExpiryDate", "2035-12-31",
+                "currentLatitude", start[0],
+                "currentLongitude", start[1]));
+        long driverId = api.post("POST /api/drivers", "/api/drivers", driver).get("id").asLong();
+        driver.put("id", driverId);
+
+        api.put("PUT /api/drivers/{id}/verification",
+                "/api/drivers/" + driverId + "/verification?verificationStatus=VERIFIED");
+        api.post("POST /api/cabs", "/api/cabs", Map.of(
+                "driver", driver,
+                "licensePlate", "LT-" + runId + "-" + index,
+                "make", "Maruti",
+                "model", "Dzire",
+                "color", "White",
+                "year", 2022,
+                "cabType", CAB_TYPES[index % CAB_TYPES.length],
+                "seatingCapacity", 4));
+        api.put("PUT /api/drivers/{id}/status", "/api/drivers/" + driverId + "/status?status=ONLINE");
+
+        return new VirtualDriver(api, city, random, index, driverId, start);
+    }
+
+    /**
+     * Moves the driver by one interval and reports the new position.
+     */
+    void tick(long intervalNanos) {
+        double km = speedKmh * intervalNanos / 3.6e12;
+        heading = city.headingDegrees(position, destination);
+        position = city.advance(position, destination, km);
+        if (city.distanceKm(position, destination) < 1e-6) {
+            destination = city.randomPoint(random);
+        }
+
+        try {
+            if (index % 2 == 0) {
+                api.post("POST /api/locations", "/api/locations", Map.of(
+                        "driver", Map.of("id", driverId),
+                        "latitude", position[0],
+                        "longitude", position[1],
+                        "speed", speedKmh,
+                        "heading", heading), intervalNanos);
+            } else {
+                api.put("PUT /api/drivers/{id}/location", "/api/drivers/" + driverId
+                        + "/location?latitude=" + position[0] + "&longitude=" + position[1], intervalNanos);
+            }
+        } catch (ApiClient.ApiException e) {
+            // Already counted as an error; the next tick reports again
+        }
+    }
+
+    static String phoneNumber(String runId, int index) {
+        // Three digits of run id keep repeated runs against one database from colliding
+        return String.format("%s%07d", runId.substring(runId.length() - 3), index);
+    }
+}
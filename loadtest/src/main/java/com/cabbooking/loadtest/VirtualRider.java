@@ -0,0 +1,127 @@
+package com.cabbooking.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * A rider booking rides back to back and walking each one through the full lifecycle:
+ * requested, accepted (by the dispatch engine, or assigned directly if dispatch does not
+ * pick it up in time), driver assigned, arrived, in progress, completed, fare and payment.
+ */
+final class VirtualRider {
+
+    private static final String[] CAB_TYPES = {"SEDAN", "HATCHBACK", "SUV", "LUXURY"};
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+    private static final String[] TRIP_STATUSES = {"DRIVER_ASSIGNED", "DRIVER_ARRIVED", "IN_PROGRESS", "COMPLETED"};
+
+    private final ApiClient api;
+    private final CityMap city;
+    private final SplittableRandom random;
+    private final SimulationOptions options;
+    private final long userId;
+
+    private VirtualRider(ApiClient api, CityMap city, SplittableRandom random, SimulationOptions options,
+            long userId) {
+        this.api = api;
+        this.city = city;
+        this.random = random;
+        this.options = options;
+        this.userId = userId;
+    }
+
+    static VirtualRider register(ApiClient api, CityMap city, SplittableRandom random, SimulationOptions options,
+            String runId, int index) {
+        long userId = api.post("POST /api/users/register", "/api/users/register", Map.of(
+                "firstName", "Rider",
+                "lastName", "R" + index,
+                "email", "rider-" + runId + "-" + index + "@loadtest.example",
+                // Offset past the drivers' numbers
+                "phoneNumber", VirtualDriver.phoneNumber(runId, 5_000_000 + index),
+                "password", "loadtest-password",
+                "role", "CUSTOMER")).get("id").asLong();
+        return new VirtualRider(api, city, random, options, userId);
+    }
+
+    /**
+     * Books rides until the deadline. Returns the number of rides completed.
+     */
+    int run(Instant deadline) throws InterruptedException {
+        int completed = 0;
+        while (Instant.now().isBefore(deadline)) {
+            try {
+                if (ride(deadline)) {
+                    completed++;
+                }
+            } catch (ApiClient.ApiException e) {
+                // Already counted as an error; start over with a new booking
+            }
+            Thread.sleep(options.riderThinkTime().toMillis());
+        }
+        return completed;
+    }
+
+    private boolean ride(Instant deadline) throws InterruptedException {
+        double[] pickup = city.randomPoint(random);
+        double[] dropoff = city.randomPoint(random);
+        JsonNode booking = api.post("POST /api/bookings", "/api/bookings", Map.ofEntries(
+                Map.entry("user", Map.of("id", userId)),
+                // Overwritten by the server; required by validation
+                Map.entry("bookingNumber", "PENDING"),
+                Map.entry("status", "REQUESTED"),
+                Map.entry("requestedTime", LocalDateTime.now().toString()),
+                Map.entry("pickupAddress", "Pickup " + random.nextInt(1000)),
+                Map.entry("pickupLatitude", pickup[0]),
+                Map.entry("pickupLongitude", pickup[1]),
+                Map.entry("dropoffAddress", "Dropoff " + random.nextInt(1000)),
+                Map.entry("dropoffLatitude", dropoff[0]),
+                Map.entry("dropoffLongitude", dropoff[1]),
+                Map.entry("requestedCabType", CAB_TYPES[random.nextInt(CAB_TYPES.length)])));
+        long bookingId = booking.get("id").asLong();
+
+        if (!awaitAcceptance(bookingId, pickup, deadline)) {
+            api.put("PUT /api/bookings/{id}/status", "/api/bookings/" + bookingId + "/status?status=CANCELLED");
+            return false;
+        }
+
+        for (String status : TRIP_STATUSES) {
+            Thread.sleep(options.tripStep().toMillis());
+            api.put("PUT /api/bookings/{id}/status", "/api/bookings/" + bookingId + "/status?status=" + status);
+        }
+        JsonNode completed = api.get("GET /api/bookings/{id}", "/api/bookings/" + bookingId);
+        api.put("PUT /api/bookings/{id}/fare", "/api/bookings/" + bookingId
+                + "/fare?actualFare=" + completed.path("estimatedFare").asText("0"));
+        api.put("PUT /api/bookings/{id}/payment-status", "/api/bookings/" + bookingId
+                + "/payment-status?paymentStatus=COMPLETED");
+        return true;
+    }
+
+    private boolean awaitAcceptance(long bookingId, double[] pickup, Instant deadline) throws InterruptedException {
+        Instant giveUp = Instant.now().plus(options.acceptTimeout());
+        while (Instant.now().isBefore(giveUp) && Instant.now().isBefore(deadline)) {
+            JsonNode booking = api.get("GET /api/bookings/{id}", "/api/bookings/" + bookingId);
+            if (!"REQUESTED".equals(booking.path("status").asText())) {
+                return "ACCEPTED".equals(booking.path("status").asText());
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+
+        // Dispatch is off or saturated: take one of the nearest drivers directly
+        JsonNode nearest = api.get("GET /api/drivers/nearest",
+                "/api/drivers/nearest?latitude=" + pickup[0] + "&longitude=" + pickup[1] + "&k=5");
+        for (JsonNode driver : nearest) {
+            try {
+                api.put("PUT /api/bookings/{id}/assign-driver/{driverId}",
+                        "/api/bookings/" + bookingId + "/assign-driver/" + driver.get("id").asLong());
+                return true;
+            } catch (ApiClient.ApiException e) {
+                // Busy or reserved by another booking; try the next one
+            }
+        }
+        return false;
+    }
+}
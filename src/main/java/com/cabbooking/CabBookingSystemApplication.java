@@ -2,12 +2,16 @@ package com.cabbooking;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+// The reactive stack builds its own R2DBC pool (ReactiveConfig). Boot's R2DBC beans would switch
+// off the JDBC DataSource and put a reactive transaction manager in place of the JPA one
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class CabBookingSystemApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(CabBookingSystemApplication.class, args);
     }
 
-}
\ No newline at end of file
+}
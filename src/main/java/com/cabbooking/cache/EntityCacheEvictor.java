@@ -0,0 +1,21 @@
+package com.cabbooking.cache;
+
+import com.cabbooking.util.TransactionHooks;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops entities from the second-level cache once the writing transaction commits, so the
+ * next read on this node goes back to the row instead of an entry a rollback never saw.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictAfterCommit(Class<?> entityType, Object id) {
+        TransactionHooks.afterCommit(() -> entityManagerFactory.getCache().evict(entityType, id));
+    }
+}
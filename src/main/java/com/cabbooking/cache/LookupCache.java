@@ -0,0 +1,71 @@
+package com.cabbooking.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Size-bounded, expiring cache for hot point lookups. Concurrent misses on one key share a
+ * single load, which runs on the first caller's thread; the others wait for its result.
+ * Lookups that find nothing are not cached.
+ */
+public class LookupCache<K, V> {
+
+    private final AsyncCache<K, V> cache;
+
+    public LookupCache(long maximumSize, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+    }
+
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = cache.asMap().putIfAbsent(key, load);
+        if (inFlight != null) {
+            return Optional.ofNullable(await(inFlight));
+        }
+
+        try {
+            V value = loader.apply(key).orElse(null);
+            // A null result removes the entry, so the next caller loads again
+            load.complete(value);
+            return Optional.ofNullable(value);
+        } catch (RuntimeException e) {
+            cache.asMap().remove(key, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    /**
+     * Drops every cached value the predicate matches, for writes that know the value but not
+     * its key. Entries still loading are dropped too, since what they will hold is unknown.
+     */
+    public void invalidateIf(Predicate<V> matches) {
+        cache.asMap().values().removeIf(future -> !future.isDone()
+                || (!future.isCompletedExceptionally() && matches.test(future.join())));
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
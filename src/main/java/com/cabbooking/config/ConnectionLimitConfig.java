@@ -0,0 +1,37 @@
+package com.cabbooking.config;
+
+import com.cabbooking.util.ConnectionLimitingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts the application's DataSource behind a {@link ConnectionLimitingDataSource} when
+ * {@code datasource.concurrency-limit.enabled} is set. Meant for virtual threads, where
+ * requests far outnumber pooled connections; permits default to the Hikari pool size.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.concurrency-limit.enabled", havingValue = "true")
+public class ConnectionLimitConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        int permits = environment.getProperty("datasource.concurrency-limit.permits", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        long acquireTimeoutMillis = environment.getProperty(
+                "datasource.concurrency-limit.acquire-timeout-ms", Long.class, 2000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    return new ConnectionLimitingDataSource(dataSource, permits, acquireTimeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.cabbooking.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import static com.cabbooking.util.ApplicationConstants.*;
+
+/**
+ * Second-level cache regions for the reference-style entities, held in Caffeine through
+ * JCache. Regions are per node; the TTLs bound how long an update made on another node
+ * can go unseen here.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    @Value("${entity-cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${entity-cache.users-ttl:10m}")
+    private Duration usersTtl;
+
+    @Value("${entity-cache.cabs-ttl:10m}")
+    private Duration cabsTtl;
+
+    @Value("${entity-cache.drivers-ttl:1m}")
+    private Duration driversTtl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager() {
+        CaffeineCachingProvider provider = (CaffeineCachingProvider)
+                Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // One manager per application context; the provider would otherwise hand every
+        // context in the JVM (tests keep several alive) the same regions
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("entity-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache(USER_CACHE_REGION, region(usersTtl));
+        cacheManager.createCache(DRIVER_CACHE_REGION, region(driversTtl));
+        cacheManager.createCache(CAB_CACHE_REGION, region(cabsTtl));
+        cacheManager.createCache(CAB_BY_DRIVER_CACHE_REGION, region(cabsTtl));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    private CaffeineConfiguration<Object, Object> region(Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return configuration;
+    }
+}
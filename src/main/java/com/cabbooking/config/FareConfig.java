@@ -0,0 +1,22 @@
+package com.cabbooking.config;
+
+import com.cabbooking.pricing.FareEngine;
+import com.cabbooking.pricing.FareProperties;
+import com.cabbooking.pricing.RateCardFareEngine;
+import com.cabbooking.pricing.SurgeMultipliers;
+import com.cabbooking.pricing.SurgeProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({FareProperties.class, SurgeProperties.class})
+public class FareConfig {
+
+    // Another FareEngine (e.g. one reading rate cards from a table) takes over when declared @Primary
+    @Bean
+    public FareEngine fareEngine(FareProperties fareProperties, SurgeMultipliers surgeMultipliers) {
+        return new RateCardFareEngine(fareProperties.getRateCards(), fareProperties.getAverageSpeedKmh(),
+                surgeMultipliers);
+    }
+}
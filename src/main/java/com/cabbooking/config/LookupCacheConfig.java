@@ -0,0 +1,41 @@
+package com.cabbooking.config;
+
+import com.cabbooking.cache.LookupCache;
+import com.cabbooking.dto.BookingResponseDto;
+import com.cabbooking.dto.CabSummaryDto;
+import com.cabbooking.dto.DriverSummaryDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Caches for the lookups partner integrations poll: bookings by number, drivers by licence
+ * and cabs by plate. Every entry carries a status, so TTLs are kept short; writes on this
+ * node invalidate the affected key as soon as they commit.
+ */
+@Configuration
+public class LookupCacheConfig {
+
+    @Value("${lookup-cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Bean
+    public LookupCache<String, BookingResponseDto> bookingsByNumber(
+            @Value("${lookup-cache.bookings-ttl:2s}") Duration ttl) {
+        return new LookupCache<>(maxEntries, ttl);
+    }
+
+    @Bean
+    public LookupCache<String, DriverSummaryDto> driversByLicense(
+            @Value("${lookup-cache.drivers-ttl:5s}") Duration ttl) {
+        return new LookupCache<>(maxEntries, ttl);
+    }
+
+    @Bean
+    public LookupCache<String, CabSummaryDto> cabsByPlate(
+            @Value("${lookup-cache.cabs-ttl:5s}") Duration ttl) {
+        return new LookupCache<>(maxEntries, ttl);
+    }
+}
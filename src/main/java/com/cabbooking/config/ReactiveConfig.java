@@ -0,0 +1,78 @@
+package com.cabbooking.config;
+
+import com.cabbooking.reactive.ReactiveDriverHandler;
+import com.cabbooking.reactive.ReactiveLocationHandler;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.time.Duration;
+
+import static com.cabbooking.util.ApplicationConstants.API_DRIVERS_BASE_PATH;
+import static com.cabbooking.util.ApplicationConstants.API_LOCATIONS_BASE_PATH;
+import static com.cabbooking.util.ApplicationConstants.REACTIVE_API_PREFIX;
+
+/**
+ * The optional reactive stack for location and nearby-driver traffic, enabled with
+ * {@code reactive.enabled}. It reads over its own R2DBC pool against the same database as the
+ * JPA DataSource; credentials default to the DataSource's. The R2DBC side runs no
+ * transactions, so no reactive transaction manager sits next to JPA's.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "reactive", name = "enabled", havingValue = "true")
+public class ReactiveConfig {
+
+    private ConnectionPool connectionPool;
+
+    // The pool is deliberately not a bean: Boot's JDBC DataSource backs off when a ConnectionFactory bean exists
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(
+            @Value("${reactive.r2dbc.url}") String url,
+            @Value("${reactive.r2dbc.username:${spring.datasource.username:}}") String username,
+            @Value("${reactive.r2dbc.password:${spring.datasource.password:}}") String password,
+            @Value("${reactive.r2dbc.pool.max-size:20}") int maxSize,
+            @Value("${reactive.r2dbc.pool.max-acquire-time-ms:2000}") long maxAcquireTimeMillis) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive")
+                .initialSize(Math.min(2, maxSize))
+                .maxSize(maxSize)
+                .maxAcquireTime(Duration.ofMillis(maxAcquireTimeMillis))
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveRoutes(ReactiveLocationHandler locations, ReactiveDriverHandler drivers) {
+        return RouterFunctions.route()
+                .path(REACTIVE_API_PREFIX + API_LOCATIONS_BASE_PATH, routes -> routes
+                        .POST(locations::logLocation)
+                        .GET("/driver/{driverId}", locations::getDriverLocationHistory)
+                        .GET("/booking/{bookingId}", locations::getBookingLocationHistory)
+                        .GET("/driver/{driverId}/date-range", locations::getDriverLocationHistoryInRange)
+                        .GET("/booking/{bookingId}/date-range", locations::getBookingLocationHistoryInRange)
+                        .GET("/driver/{driverId}/latest", locations::getLatestDriverLocation))
+                .GET(REACTIVE_API_PREFIX + API_DRIVERS_BASE_PATH + "/nearby", drivers::getNearbyDrivers)
+                .build();
+    }
+}
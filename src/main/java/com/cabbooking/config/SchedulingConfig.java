@@ -0,0 +1,14 @@
+package com.cabbooking.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} jobs on Boot's task scheduler, sized by
+ * {@code spring.task.scheduling.pool.size} so that long jobs (compaction, outbox batches) do
+ * not delay the frequent ones (event projection, dispatch, checkpoints).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,12 +1,16 @@
 package com.cabbooking.controller;
 
+import com.cabbooking.dto.BookingResponseDto;
 import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.BookingEvent;
 import com.cabbooking.service.BookingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
@@ -14,6 +18,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static com.cabbooking.util.ApplicationConstants.API_BOOKINGS_BASE_PATH;
+import static com.cabbooking.util.ApplicationConstants.DEFAULT_PAGE_SIZE;
 import static com.cabbooking.util.ApplicationConstants.HTTP_CREATED;
 
 @RestController
@@ -23,133 +28,168 @@ import static com.cabbooking.util.ApplicationConstants.HTTP_CREATED;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
-    public ResponseEntity<Booking> createBooking(@Valid @RequestBody Booking booking) {
+    public ResponseEntity<BookingResponseDto> createBooking(@Valid @RequestBody Booking booking) {
         try {
             Booking createdBooking = bookingService.createBooking(booking);
-            return new ResponseEntity<>(createdBooking, HttpStatus.valueOf(HTTP_CREATED));
+            return new ResponseEntity<>(bookingService.toResponse(createdBooking), HttpStatus.valueOf(HTTP_CREATED));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Booking> getBookingById(@PathVariable Long id) {
-        return bookingService.findById(id)
+    public ResponseEntity<BookingResponseDto> getBookingById(@PathVariable Long id) {
+        return bookingService.findResponseById(id)
                 .map(booking -> ResponseEntity.ok(booking))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Status history from the append-only event log, oldest first
+    @GetMapping("/{id}/events")
+    public ResponseEntity<List<BookingEvent>> getBookingEvents(@PathVariable Long id) {
+        List<BookingEvent> events = bookingService.findBookingEvents(id);
+        return events.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(events);
+    }
+
     @GetMapping("/number/{bookingNumber}")
-    public ResponseEntity<Booking> getBookingByNumber(@PathVariable String bookingNumber) {
-        return bookingService.findByBookingNumber(bookingNumber)
+    public ResponseEntity<BookingResponseDto> getBookingByNumber(@PathVariable String bookingNumber) {
+        return bookingService.findResponseByBookingNumber(bookingNumber)
                 .map(booking -> ResponseEntity.ok(booking))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Booking>> getBookingsByUserId(@PathVariable Long userId) {
-        List<Booking> bookings = bookingService.findBookingsByUserId(userId);
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByUserId(@PathVariable Long userId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (!CursorResponses.isValidLimit(limit)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<BookingResponseDto> bookings = bookingService.findBookingsByUserId(userId, after, limit);
+        return CursorResponses.page(bookings, limit, BookingResponseDto::getId);
     }
 
     @GetMapping("/driver/{driverId}")
-    public ResponseEntity<List<Booking>> getBookingsByDriverId(@PathVariable Long driverId) {
-        List<Booking> bookings = bookingService.findBookingsByDriverId(driverId);
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByDriverId(@PathVariable Long driverId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (!CursorResponses.isValidLimit(limit)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<BookingResponseDto> bookings = bookingService.findBookingsByDriverId(driverId, after, limit);
+        return CursorResponses.page(bookings, limit, BookingResponseDto::getId);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Booking>> getBookingsByStatus(@PathVariable Booking.BookingStatus status) {
-        List<Booking> bookings = bookingService.findBookingsByStatus(status);
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByStatus(@PathVariable Booking.BookingStatus status,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (!CursorResponses.isValidLimit(limit)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<BookingResponseDto> bookings = bookingService.findBookingsByStatus(status, after, limit);
+        return CursorResponses.page(bookings, limit, BookingResponseDto::getId);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings() {
+        return CursorResponses.ndjson(objectMapper, bookingService::exportBookings);
     }
 
     @GetMapping("/pending")
-    public ResponseEntity<List<Booking>> getPendingBookings() {
-        List<Booking> bookings = bookingService.findPendingBookings();
+    public ResponseEntity<List<BookingResponseDto>> getPendingBookings() {
+        List<BookingResponseDto> bookings = bookingService.findPendingBookings();
         return ResponseEntity.ok(bookings);
     }
 
     @GetMapping("/driver/{driverId}/active")
-    public ResponseEntity<Booking> getActiveBookingByDriverId(@PathVariable Long driverId) {
+    public ResponseEntity<BookingResponseDto> getActiveBookingByDriverId(@PathVariable Long driverId) {
         return bookingService.findActiveBookingByDriverId(driverId)
                 .map(booking -> ResponseEntity.ok(booking))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PutMapping("/{bookingId}/assign-driver/{driverId}")
-    public ResponseEntity<Booking> assignDriverToBooking(
+    public ResponseEntity<BookingResponseDto> assignDriverToBooking(
             @PathVariable Long bookingId,
             @PathVariable Long driverId) {
         try {
             Booking updatedBooking = bookingService.assignDriverToBooking(bookingId, driverId);
-            return ResponseEntity.ok(updatedBooking);
+            return ResponseEntity.ok(bookingService.toResponse(updatedBooking));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * Accepted once the change is appended to the booking's event log; the response carries
+     * the new status. {@code GET /{id}/events} shows it at once, while {@code GET /{id}},
+     * {@code /number/{bookingNumber}} and the listings read the {@code bookings} row and show
+     * it once the projector has applied it, normally within
+     * {@code booking-events.projection-interval-ms}.
+     */
     @PutMapping("/{bookingId}/status")
-    public ResponseEntity<Booking> updateBookingStatus(
+    public ResponseEntity<BookingResponseDto> updateBookingStatus(
             @PathVariable Long bookingId,
             @RequestParam Booking.BookingStatus status) {
         try {
             Booking updatedBooking = bookingService.updateBookingStatus(bookingId, status);
-            return ResponseEntity.ok(updatedBooking);
+            return ResponseEntity.ok(bookingService.toResponse(updatedBooking));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /** Answers with the booking id and the new fare only; the other fields are left out. */
     @PutMapping("/{bookingId}/fare")
-    public ResponseEntity<Booking> updateBookingFare(
+    public ResponseEntity<BookingResponseDto> updateBookingFare(
             @PathVariable Long bookingId,
             @RequestParam BigDecimal actualFare) {
         try {
-            Booking updatedBooking = bookingService.updateBookingFare(bookingId, actualFare);
-            return ResponseEntity.ok(updatedBooking);
+            return ResponseEntity.ok(bookingService.updateBookingFare(bookingId, actualFare));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    /** Answers with the booking id and the new payment status only. */
     @PutMapping("/{bookingId}/payment-status")
-    public ResponseEntity<Booking> updatePaymentStatus(
+    public ResponseEntity<BookingResponseDto> updatePaymentStatus(
             @PathVariable Long bookingId,
             @RequestParam Booking.PaymentStatus paymentStatus) {
         try {
-            Booking updatedBooking = bookingService.updatePaymentStatus(bookingId, paymentStatus);
-            return ResponseEntity.ok(updatedBooking);
+            return ResponseEntity.ok(bookingService.updatePaymentStatus(bookingId, paymentStatus));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @GetMapping("/date-range")
-    public ResponseEntity<List<Booking>> getBookingsByDateRange(
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        List<Booking> bookings = bookingService.findBookingsByDateRange(startDate, endDate);
+        List<BookingResponseDto> bookings = bookingService.findBookingsByDateRange(startDate, endDate);
         return ResponseEntity.ok(bookings);
     }
 
     @GetMapping("/user/{userId}/date-range")
-    public ResponseEntity<List<Booking>> getUserBookingsByDateRange(
+    public ResponseEntity<List<BookingResponseDto>> getUserBookingsByDateRange(
             @PathVariable Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        List<Booking> bookings = bookingService.findUserBookingsByDateRange(userId, startDate, endDate);
+        List<BookingResponseDto> bookings = bookingService.findUserBookingsByDateRange(userId, startDate, endDate);
         return ResponseEntity.ok(bookings);
     }
 
     @GetMapping("/driver/{driverId}/date-range")
-    public ResponseEntity<List<Booking>> getDriverBookingsByDateRange(
+    public ResponseEntity<List<BookingResponseDto>> getDriverBookingsByDateRange(
             @PathVariable Long driverId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        List<Booking> bookings = bookingService.findDriverBookingsByDateRange(driverId, startDate, endDate);
+        List<BookingResponseDto> bookings = bookingService.findDriverBookingsByDateRange(driverId, startDate, endDate);
         return ResponseEntity.ok(bookings);
     }
 
@@ -1,16 +1,20 @@
 package com.cabbooking.controller;
 
+import com.cabbooking.dto.CabSummaryDto;
 import com.cabbooking.entity.Cab;
 import com.cabbooking.service.CabService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
 
 import static com.cabbooking.util.ApplicationConstants.API_CABS_BASE_PATH;
+import static com.cabbooking.util.ApplicationConstants.DEFAULT_PAGE_SIZE;
 import static com.cabbooking.util.ApplicationConstants.HTTP_CREATED;
 
 @RestController
@@ -20,89 +24,100 @@ import static com.cabbooking.util.ApplicationConstants.HTTP_CREATED;
 public class CabController {
 
     private final CabService cabService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
-    public ResponseEntity<Cab> createCab(@Valid @RequestBody Cab cab) {
+    public ResponseEntity<CabSummaryDto> createCab(@Valid @RequestBody Cab cab) {
         try {
             Cab createdCab = cabService.createCab(cab);
-            return new ResponseEntity<>(createdCab, HttpStatus.valueOf(HTTP_CREATED));
+            return new ResponseEntity<>(cabService.toSummary(createdCab), HttpStatus.valueOf(HTTP_CREATED));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Cab> getCabById(@PathVariable Long id) {
-        return cabService.findById(id)
+    public ResponseEntity<CabSummaryDto> getCabById(@PathVariable Long id) {
+        return cabService.findSummaryById(id)
                 .map(cab -> ResponseEntity.ok(cab))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/driver/{driverId}")
-    public ResponseEntity<Cab> getCabByDriverId(@PathVariable Long driverId) {
-        return cabService.findByDriverId(driverId)
+    public ResponseEntity<CabSummaryDto> getCabByDriverId(@PathVariable Long driverId) {
+        return cabService.findSummaryByDriverId(driverId)
                 .map(cab -> ResponseEntity.ok(cab))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/license/{licensePlate}")
-    public ResponseEntity<Cab> getCabByLicensePlate(@PathVariable String licensePlate) {
-        return cabService.findByLicensePlate(licensePlate)
+    public ResponseEntity<CabSummaryDto> getCabByLicensePlate(@PathVariable String licensePlate) {
+        return cabService.findSummaryByLicensePlate(licensePlate)
                 .map(cab -> ResponseEntity.ok(cab))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping
-    public ResponseEntity<List<Cab>> getAllCabs() {
-        List<Cab> cabs = cabService.findAllCabs();
-        return ResponseEntity.ok(cabs);
+    public ResponseEntity<List<CabSummaryDto>> getAllCabs(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (!CursorResponses.isValidLimit(limit)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<CabSummaryDto> cabs = cabService.findAllCabs(after, limit);
+        return CursorResponses.page(cabs, limit, CabSummaryDto::getId);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCabs() {
+        return CursorResponses.ndjson(objectMapper, cabService::exportCabs);
     }
 
     @GetMapping("/type/{cabType}")
-    public ResponseEntity<List<Cab>> getCabsByType(@PathVariable Cab.CabType cabType) {
-        List<Cab> cabs = cabService.findCabsByType(cabType);
+    public ResponseEntity<List<CabSummaryDto>> getCabsByType(@PathVariable Cab.CabType cabType) {
+        List<CabSummaryDto> cabs = cabService.findCabsByType(cabType);
         return ResponseEntity.ok(cabs);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Cab>> getCabsByStatus(@PathVariable Cab.CabStatus status) {
-        List<Cab> cabs = cabService.findCabsByStatus(status);
+    public ResponseEntity<List<CabSummaryDto>> getCabsByStatus(@PathVariable Cab.CabStatus status) {
+        List<CabSummaryDto> cabs = cabService.findCabsByStatus(status);
         return ResponseEntity.ok(cabs);
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<Cab>> getAvailableCabs() {
-        List<Cab> cabs = cabService.findAvailableCabs();
+    public ResponseEntity<List<CabSummaryDto>> getAvailableCabs() {
+        List<CabSummaryDto> cabs = cabService.findAvailableCabs();
         return ResponseEntity.ok(cabs);
     }
 
     @GetMapping("/available/type/{cabType}")
-    public ResponseEntity<List<Cab>> getAvailableCabsByType(@PathVariable Cab.CabType cabType) {
-        List<Cab> cabs = cabService.findAvailableCabsByType(cabType);
+    public ResponseEntity<List<CabSummaryDto>> getAvailableCabsByType(@PathVariable Cab.CabType cabType) {
+        List<CabSummaryDto> cabs = cabService.findAvailableCabsByType(cabType);
         return ResponseEntity.ok(cabs);
     }
 
     @GetMapping("/year/{year}")
-    public ResponseEntity<List<Cab>> getCabsByMinimumYear(@PathVariable Integer year) {
-        List<Cab> cabs = cabService.findCabsByMinimumYear(year);
+    public ResponseEntity<List<CabSummaryDto>> getCabsByMinimumYear(@PathVariable Integer year) {
+        List<CabSummaryDto> cabs = cabService.findCabsByMinimumYear(year);
         return ResponseEntity.ok(cabs);
     }
 
     @PutMapping("/{id}/status")
-    public ResponseEntity<Cab> updateCabStatus(@PathVariable Long id, @RequestParam Cab.CabStatus status) {
+    public ResponseEntity<CabSummaryDto> updateCabStatus(@PathVariable Long id, @RequestParam Cab.CabStatus status) {
         try {
             Cab updatedCab = cabService.updateCabStatus(id, status);
-            return ResponseEntity.ok(updatedCab);
+            return ResponseEntity.ok(cabService.toSummary(updatedCab));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Cab> updateCab(@PathVariable Long id, @Valid @RequestBody Cab cab) {
+    public ResponseEntity<CabSummaryDto> updateCab(@PathVariable Long id, @Valid @RequestBody Cab cab) {
         try {
             Cab updatedCab = cabService.updateCab(id, cab);
-            return ResponseEntity.ok(updatedCab);
+            return ResponseEntity.ok(cabService.toSummary(updatedCab));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -0,0 +1,61 @@
+package com.cabbooking.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.cabbooking.util.ApplicationConstants.MAX_PAGE_SIZE;
+import static com.cabbooking.util.ApplicationConstants.NDJSON_MEDIA_TYPE;
+import static com.cabbooking.util.ApplicationConstants.NEXT_CURSOR_HEADER;
+
+/**
+ * Response helpers shared by the keyset-paginated list endpoints and the NDJSON exports.
+ */
+final class CursorResponses {
+
+    private CursorResponses() {}
+
+    static boolean isValidLimit(int limit) {
+        return limit >= 1 && limit <= MAX_PAGE_SIZE;
+    }
+
+    /**
+     * The page as the body. A full page also carries the cursor for the next one, which is
+     * the id of its last row (for location history, its {@code LocationHistoryCursor}); a short page is the last.
+     */
+    static <T> ResponseEntity<List<T>> page(List<T> items, int limit, Function<T, ?> cursorOf) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (items.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(cursorOf.apply(items.get(items.size() - 1))));
+        }
+        return response.body(items);
+    }
+
+    /**
+     * Streams the rows the exporter produces as newline-delimited JSON, writing each row as
+     * soon as it is read instead of building the whole result first.
+     */
+    static <T> ResponseEntity<StreamingResponseBody> ndjson(ObjectMapper objectMapper,
+            Consumer<Consumer<T>> exporter) {
+        ObjectWriter writer = objectMapper.writer();
+        StreamingResponseBody body = out -> exporter.accept(row -> {
+            try {
+                out.write(writer.writeValueAsBytes(row));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                .body(body);
+    }
+}
@@ -1,17 +1,23 @@
 package com.cabbooking.controller;
 
+import com.cabbooking.dto.DriverSummaryDto;
 import com.cabbooking.entity.Driver;
+import com.cabbooking.geo.DriverPosition;
 import com.cabbooking.service.DriverService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
 
 import static com.cabbooking.util.ApplicationConstants.API_DRIVERS_BASE_PATH;
+import static com.cabbooking.util.ApplicationConstants.DEFAULT_PAGE_SIZE;
 import static com.cabbooking.util.ApplicationConstants.HTTP_CREATED;
+import static com.cabbooking.util.ApplicationConstants.MAX_NEAREST_DRIVERS;
 
 @RestController
 @RequestMapping(API_DRIVERS_BASE_PATH)
@@ -20,128 +26,153 @@ import static com.cabbooking.util.ApplicationConstants.HTTP_CREATED;
 public class DriverController {
 
     private final DriverService driverService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
-    public ResponseEntity<Driver> createDriver(@Valid @RequestBody Driver driver) {
+    public ResponseEntity<DriverSummaryDto> createDriver(@Valid @RequestBody Driver driver) {
         try {
             Driver createdDriver = driverService.createDriver(driver);
-            return new ResponseEntity<>(createdDriver, HttpStatus.valueOf(HTTP_CREATED));
+            return new ResponseEntity<>(driverService.toSummary(createdDriver), HttpStatus.valueOf(HTTP_CREATED));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Driver> getDriverById(@PathVariable Long id) {
-        return driverService.findById(id)
+    public ResponseEntity<DriverSummaryDto> getDriverById(@PathVariable Long id) {
+        return driverService.findSummaryById(id)
                 .map(driver -> ResponseEntity.ok(driver))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<Driver> getDriverByUserId(@PathVariable Long userId) {
-        return driverService.findByUserId(userId)
+    public ResponseEntity<DriverSummaryDto> getDriverByUserId(@PathVariable Long userId) {
+        return driverService.findSummaryByUserId(userId)
                 .map(driver -> ResponseEntity.ok(driver))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/license/{licenseNumber}")
-    public ResponseEntity<Driver> getDriverByLicenseNumber(@PathVariable String licenseNumber) {
-        return driverService.findByLicenseNumber(licenseNumber)
+    public ResponseEntity<DriverSummaryDto> getDriverByLicenseNumber(@PathVariable String licenseNumber) {
+        return driverService.findSummaryByLicenseNumber(licenseNumber)
                 .map(driver -> ResponseEntity.ok(driver))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping
-    public ResponseEntity<List<Driver>> getAllDrivers() {
-        List<Driver> drivers = driverService.findAllDrivers();
-        return ResponseEntity.ok(drivers);
+    public ResponseEntity<List<DriverSummaryDto>> getAllDrivers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (!CursorResponses.isValidLimit(limit)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<DriverSummaryDto> drivers = driverService.findAllDrivers(after, limit);
+        return CursorResponses.page(drivers, limit, DriverSummaryDto::getId);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDrivers() {
+        return CursorResponses.ndjson(objectMapper, driverService::exportDrivers);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Driver>> getDriversByStatus(@PathVariable Driver.DriverStatus status) {
-        List<Driver> drivers = driverService.findDriversByStatus(status);
+    public ResponseEntity<List<DriverSummaryDto>> getDriversByStatus(@PathVariable Driver.DriverStatus status) {
+        List<DriverSummaryDto> drivers = driverService.findDriversByStatus(status);
         return ResponseEntity.ok(drivers);
     }
 
     @GetMapping("/verification/{verificationStatus}")
-    public ResponseEntity<List<Driver>> getDriversByVerificationStatus(
+    public ResponseEntity<List<DriverSummaryDto>> getDriversByVerificationStatus(
             @PathVariable Driver.VerificationStatus verificationStatus) {
-        List<Driver> drivers = driverService.findDriversByVerificationStatus(verificationStatus);
+        List<DriverSummaryDto> drivers = driverService.findDriversByVerificationStatus(verificationStatus);
         return ResponseEntity.ok(drivers);
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<Driver>> getAvailableDrivers() {
-        List<Driver> drivers = driverService.findAvailableDrivers();
+    public ResponseEntity<List<DriverSummaryDto>> getAvailableDrivers() {
+        List<DriverSummaryDto> drivers = driverService.findAvailableDriverSummaries();
         return ResponseEntity.ok(drivers);
     }
 
     @GetMapping("/nearby")
-    public ResponseEntity<List<Driver>> getNearbyDrivers(
+    public ResponseEntity<List<DriverSummaryDto>> getNearbyDrivers(
             @RequestParam Double latitude,
             @RequestParam Double longitude,
             @RequestParam(defaultValue = "5.0") Double radiusKm) {
-        List<Driver> drivers = driverService.findNearbyDrivers(latitude, longitude, radiusKm);
+        List<DriverSummaryDto> drivers = driverService.findNearbyDrivers(latitude, longitude, radiusKm);
+        return ResponseEntity.ok(drivers);
+    }
+
+    @GetMapping("/nearest")
+    public ResponseEntity<List<DriverSummaryDto>> getNearestDrivers(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(defaultValue = "10") Integer k) {
+        if (k < 1 || k > MAX_NEAREST_DRIVERS) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<DriverSummaryDto> drivers = driverService.findNearestDrivers(latitude, longitude, k);
         return ResponseEntity.ok(drivers);
     }
 
     @GetMapping("/top-rated")
-    public ResponseEntity<List<Driver>> getTopRatedDrivers(@RequestParam(defaultValue = "4.0") Double minRating) {
-        List<Driver> drivers = driverService.findTopRatedDrivers(minRating);
+    public ResponseEntity<List<DriverSummaryDto>> getTopRatedDrivers(
+            @RequestParam(defaultValue = "4.0") Double minRating) {
+        List<DriverSummaryDto> drivers = driverService.findTopRatedDrivers(minRating);
         return ResponseEntity.ok(drivers);
     }
 
     @PutMapping("/{id}/status")
-    public ResponseEntity<Driver> updateDriverStatus(@PathVariable Long id, @RequestParam Driver.DriverStatus status) {
+    public ResponseEntity<DriverSummaryDto> updateDriverStatus(@PathVariable Long id,
+            @RequestParam Driver.DriverStatus status) {
         try {
             Driver updatedDriver = driverService.updateDriverStatus(id, status);
-            return ResponseEntity.ok(updatedDriver);
+            return ResponseEntity.ok(driverService.toSummary(updatedDriver));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @PutMapping("/{id}/location")
-    public ResponseEntity<Driver> updateDriverLocation(
+    public ResponseEntity<DriverPosition> updateDriverLocation(
             @PathVariable Long id,
             @RequestParam Double latitude,
             @RequestParam Double longitude) {
         try {
-            Driver updatedDriver = driverService.updateDriverLocation(id, latitude, longitude);
-            return ResponseEntity.ok(updatedDriver);
+            DriverPosition position = driverService.updateDriverLocation(id, latitude, longitude);
+            return ResponseEntity.ok(position);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @PutMapping("/{id}/verification")
-    public ResponseEntity<Driver> updateVerificationStatus(
+    public ResponseEntity<DriverSummaryDto> updateVerificationStatus(
             @PathVariable Long id,
             @RequestParam Driver.VerificationStatus verificationStatus) {
         try {
             Driver updatedDriver = driverService.updateVerificationStatus(id, verificationStatus);
-            return ResponseEntity.ok(updatedDriver);
+            return ResponseEntity.ok(driverService.toSummary(updatedDriver));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @PutMapping("/{id}/rating")
-    public ResponseEntity<Driver> updateDriverRating(@PathVariable Long id, @RequestParam Double rating) {
+    public ResponseEntity<DriverSummaryDto> updateDriverRating(@PathVariable Long id, @RequestParam Double rating) {
         try {
             Driver updatedDriver = driverService.updateDriverRating(id, rating);
-            return ResponseEntity.ok(updatedDriver);
+            return ResponseEntity.ok(driverService.toSummary(updatedDriver));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Driver> updateDriver(@PathVariable Long id, @Valid @RequestBody Driver driver) {
+    public ResponseEntity<DriverSummaryDto> updateDriver(@PathVariable Long id, @Valid @RequestBody Driver driver) {
         try {
             Driver updatedDriver = driverService.updateDriver(id, driver);
-            return ResponseEntity.ok(updatedDriver);
+            return ResponseEntity.ok(driverService.toSummary(updatedDriver));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -1,18 +1,40 @@
 package com.cabbooking.controller;
 
+import com.cabbooking.dto.LocationBatchDto;
+import com.cabbooking.dto.LocationBatchResponseDto;
+import com.cabbooking.dto.LocationPointDto;
 import com.cabbooking.entity.LocationLog;
+import com.cabbooking.geo.DriverPosition;
+import com.cabbooking.ingestion.LocationIngestionPipeline;
+import com.cabbooking.service.LocationHistoryCursor;
+import com.cabbooking.service.LocationHistoryPage;
 import com.cabbooking.service.LocationService;
+import com.cabbooking.util.ObjectValidator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.cabbooking.util.ApplicationConstants.API_LOCATIONS_BASE_PATH;
+import static com.cabbooking.util.ApplicationConstants.DEFAULT_PAGE_SIZE;
+import static com.cabbooking.util.ApplicationConstants.HTTP_ACCEPTED;
 import static com.cabbooking.util.ApplicationConstants.HTTP_CREATED;
+import static com.cabbooking.util.ApplicationConstants.MAX_LOCATION_BATCH_SIZE;
+import static com.cabbooking.util.ApplicationConstants.NDJSON_MEDIA_TYPE;
+import static com.cabbooking.util.ApplicationConstants.HTTP_TOO_MANY_REQUESTS;
+import static com.cabbooking.util.ApplicationConstants.INGESTION_RETRY_AFTER_SECONDS;
 
 @RestController
 @RequestMapping(API_LOCATIONS_BASE_PATH)
@@ -21,18 +43,86 @@ import static com.cabbooking.util.ApplicationConstants.HTTP_CREATED;
 public class LocationController {
 
     private final LocationService locationService;
+    private final LocationIngestionPipeline locationIngestionPipeline;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
-    public ResponseEntity<LocationLog> logLocation(@Valid @RequestBody LocationLog locationLog) {
-        LocationLog savedLocation = locationService.logLocation(locationLog);
-        return ResponseEntity.status(HTTP_CREATED).body(savedLocation);
+    public ResponseEntity<Void> logLocation(@Valid @RequestBody LocationLog locationLog) {
+        // Checked here because the writer cannot report back, and partitioned location_logs
+        // has no foreign key to catch an unknown driver
+        if (!locationService.isKnownDriver(locationLog.getDriver().getId())) {
+            return ResponseEntity.notFound().build();
+        }
+        // Pings are persisted asynchronously in batches; a full buffer is pushed back to the client
+        if (locationIngestionPipeline.submit(locationLog)) {
+            return ResponseEntity.status(HTTP_ACCEPTED).build();
+        }
+        return ResponseEntity.status(HTTP_TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(INGESTION_RETRY_AFTER_SECONDS))
+                .build();
+    }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<LocationBatchResponseDto> logLocationBatch(@Valid @RequestBody LocationBatchDto batch) {
+        try {
+            LocationBatchResponseDto result = locationService.logLocationBatch(batch);
+            return ResponseEntity.status(HTTP_CREATED).body(result);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Same as {@link #logLocationBatch(LocationBatchDto)} but takes one point per line, so the
+     * app can stream its offline buffer without assembling a JSON array first.
+     */
+    @PostMapping(value = "/batch", consumes = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<LocationBatchResponseDto> logLocationBatchNdjson(
+            @RequestParam Long driverId,
+            @RequestParam(required = false) Long bookingId,
+            InputStream body) {
+        try {
+            LocationBatchDto batch = ObjectValidator.validate(
+                    new LocationBatchDto(driverId, bookingId, readNdjsonPoints(body)));
+            LocationBatchResponseDto result = locationService.logLocationBatch(batch);
+            return ResponseEntity.status(HTTP_CREATED).body(result);
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
+    private List<LocationPointDto> readNdjsonPoints(InputStream body) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(LocationPointDto.class);
+        List<LocationPointDto> points = new ArrayList<>();
+        try (MappingIterator<LocationPointDto> lines = reader.readValues(body)) {
+            // Stop one past the limit so oversized uploads fail validation without being read in full
+            while (lines.hasNextValue() && points.size() <= MAX_LOCATION_BATCH_SIZE) {
+                points.add(lines.nextValue());
+            }
+        }
+        return points;
+    }
+
+    /**
+     * The driver's history newest first, one page at a time; pass the page's cursor back as
+     * {@code before} for the next, older one. A bare ISO timestamp is accepted too and starts
+     * the page just before it.
+     */
     @GetMapping("/driver/{driverId}")
-    public ResponseEntity<List<LocationLog>> getDriverLocationHistory(@PathVariable Long driverId) {
-        List<LocationLog> locations = locationService.getDriverLocationHistory(driverId);
-        return ResponseEntity.ok(locations);
+    public ResponseEntity<List<LocationLog>> getDriverLocationHistory(@PathVariable Long driverId,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (!CursorResponses.isValidLimit(limit)) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocationHistoryCursor cursor;
+        try {
+            cursor = before == null ? null : LocationHistoryCursor.parse(before);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocationHistoryPage page = locationService.getDriverLocationHistory(driverId, cursor, limit);
+        return CursorResponses.page(page.getLocations(), limit, last -> page.getNextCursor());
     }
 
     @GetMapping("/booking/{bookingId}")
@@ -60,8 +150,8 @@ public class LocationController {
     }
 
     @GetMapping("/driver/{driverId}/latest")
-    public ResponseEntity<LocationLog> getLatestDriverLocation(@PathVariable Long driverId) {
-        LocationLog location = locationService.getLatestDriverLocation(driverId);
+    public ResponseEntity<DriverPosition> getLatestDriverLocation(@PathVariable Long driverId) {
+        DriverPosition location = locationService.getLatestDriverLocation(driverId);
         if (location != null) {
             return ResponseEntity.ok(location);
         }
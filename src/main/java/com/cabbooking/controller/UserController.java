@@ -1,11 +1,14 @@
 package com.cabbooking.controller;
 
+import com.cabbooking.dto.UserSummaryDto;
 import com.cabbooking.entity.User;
 import com.cabbooking.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -19,70 +22,82 @@ import static com.cabbooking.util.ApplicationConstants.*;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/register")
-    public ResponseEntity<User> registerUser(@Valid @RequestBody User user) {
+    public ResponseEntity<UserSummaryDto> registerUser(@Valid @RequestBody User user) {
         try {
             User createdUser = userService.createUser(user);
-            return new ResponseEntity<>(createdUser, HttpStatus.CREATED);
+            return new ResponseEntity<>(userService.toSummary(createdUser), HttpStatus.CREATED);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        return userService.findById(id)
+    public ResponseEntity<UserSummaryDto> getUserById(@PathVariable Long id) {
+        return userService.findSummaryById(id)
                 .map(user -> ResponseEntity.ok(user))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/email/{email}")
-    public ResponseEntity<User> getUserByEmail(@PathVariable String email) {
-        return userService.findByEmail(email)
+    public ResponseEntity<UserSummaryDto> getUserByEmail(@PathVariable String email) {
+        return userService.findSummaryByEmail(email)
                 .map(user -> ResponseEntity.ok(user))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.findAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserSummaryDto>> getAllUsers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (!CursorResponses.isValidLimit(limit)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<UserSummaryDto> users = userService.findAllUsers(after, limit);
+        return CursorResponses.page(users, limit, UserSummaryDto::getId);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return CursorResponses.ndjson(objectMapper, userService::exportUsers);
     }
 
     @GetMapping("/role/{role}")
-    public ResponseEntity<List<User>> getUsersByRole(@PathVariable User.UserRole role) {
-        List<User> users = userService.findUsersByRole(role);
+    public ResponseEntity<List<UserSummaryDto>> getUsersByRole(@PathVariable User.UserRole role) {
+        List<UserSummaryDto> users = userService.findUsersByRole(role);
         return ResponseEntity.ok(users);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<User>> getUsersByStatus(@PathVariable User.UserStatus status) {
-        List<User> users = userService.findUsersByStatus(status);
+    public ResponseEntity<List<UserSummaryDto>> getUsersByStatus(@PathVariable User.UserStatus status) {
+        List<UserSummaryDto> users = userService.findUsersByStatus(status);
         return ResponseEntity.ok(users);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsersByName(@RequestParam String name) {
-        List<User> users = userService.searchUsersByName(name);
+    public ResponseEntity<List<UserSummaryDto>> searchUsersByName(@RequestParam String name) {
+        List<UserSummaryDto> users = userService.searchUsersByName(name);
         return ResponseEntity.ok(users);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable Long id, @Valid @RequestBody User user) {
+    public ResponseEntity<UserSummaryDto> updateUser(@PathVariable Long id, @Valid @RequestBody User user) {
         try {
             User updatedUser = userService.updateUser(id, user);
-            return ResponseEntity.ok(updatedUser);
+            return ResponseEntity.ok(userService.toSummary(updatedUser));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @PutMapping("/{id}/status")
-    public ResponseEntity<User> updateUserStatus(@PathVariable Long id, @RequestParam User.UserStatus status) {
+    public ResponseEntity<UserSummaryDto> updateUserStatus(@PathVariable Long id,
+            @RequestParam User.UserStatus status) {
         try {
             User updatedUser = userService.updateUserStatus(id, status);
-            return ResponseEntity.ok(updatedUser);
+            return ResponseEntity.ok(userService.toSummary(updatedUser));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -0,0 +1,127 @@
+package com.cabbooking.dispatch;
+
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.Cab;
+import com.cabbooking.geo.DriverSpatialIndex;
+import com.cabbooking.geo.NearbyDriver;
+import com.cabbooking.service.BookingService;
+import com.cabbooking.service.CabService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically matches every waiting REQUESTED booking against the nearby available
+ * drivers in one batch. Each window builds a booking x driver matrix of pickup distances
+ * from the spatial index and solves it as a minimum-cost assignment, which gives better
+ * total pickup distance than assigning bookings one at a time in arrival order.
+ * <p>
+ * Matches are committed one by one through {@link BookingService#assignDriverToBooking},
+ * so all of its validation still applies; a match that fails there is simply retried in
+ * the next window.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "dispatch", name = "enabled", havingValue = "true")
+public class DispatchEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchEngine.class);
+
+    private final BookingService bookingService;
+    private final CabService cabService;
+    private final DriverSpatialIndex driverSpatialIndex;
+
+    @Value("${dispatch.batch-size:200}")
+    private int batchSize;
+
+    @Value("${dispatch.candidates-per-booking:10}")
+    private int candidatesPerBooking;
+
+    @Value("${dispatch.max-pickup-distance-km:10.0}")
+    private double maxPickupDistanceKm;
+
+    @Scheduled(fixedDelayString = "${dispatch.interval-ms:2000}")
+    public void dispatchPendingBookings() {
+        List<Booking> bookings = bookingService.findDispatchableBookings(batchSize);
+        if (bookings.isEmpty()) {
+            return;
+        }
+
+        // Candidate drivers per booking, and the union of them as matrix columns
+        List<List<NearbyDriver>> candidates = new ArrayList<>(bookings.size());
+        Map<Long, Integer> columnOfDriver = new LinkedHashMap<>();
+        for (Booking booking : bookings) {
+            List<NearbyDriver> nearest = driverSpatialIndex.findNearest(
+                    booking.getPickupLatitude(), booking.getPickupLongitude(),
+                    candidatesPerBooking, maxPickupDistanceKm);
+            candidates.add(nearest);
+            for (NearbyDriver driver : nearest) {
+                columnOfDriver.putIfAbsent(driver.getDriverId(), columnOfDriver.size());
+            }
+        }
+        if (columnOfDriver.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Cab> cabsByDriver = cabService.findByDriverIds(columnOfDriver.keySet()).stream()
+                // The schema allows one cab per driver; should a second slip in, prefer an available one
+                .collect(Collectors.toMap(cab -> cab.getDriver().getId(), Function.identity(),
+                        (first, second) -> first.getStatus() == Cab.CabStatus.AVAILABLE ? first : second));
+
+        double[][] cost = new double[bookings.size()][columnOfDriver.size()];
+        for (double[] row : cost) {
+            Arrays.fill(row, HungarianAlgorithm.FORBIDDEN);
+        }
+        for (int row = 0; row < bookings.size(); row++) {
+            Booking booking = bookings.get(row);
+            for (NearbyDriver driver : candidates.get(row)) {
+                if (canServe(cabsByDriver.get(driver.getDriverId()), booking)) {
+                    cost[row][columnOfDriver.get(driver.getDriverId())] = driver.getDistanceKm();
+                }
+            }
+        }
+
+        List<Long> drivers = new ArrayList<>(columnOfDriver.keySet());
+        int[] assignment = HungarianAlgorithm.solve(cost);
+
+        int assigned = 0;
+        Map<String, Integer> failures = new HashMap<>();
+        for (int row = 0; row < assignment.length; row++) {
+            if (assignment[row] < 0) {
+                continue;
+            }
+            Long bookingId = bookings.get(row).getId();
+            Long driverId = drivers.get(assignment[row]);
+            try {
+                bookingService.assignDriverToBooking(bookingId, driverId);
+                assigned++;
+            } catch (RuntimeException e) {
+                failures.merge(String.valueOf(e.getMessage()), 1, Integer::sum);
+                log.debug("Dispatch of booking {} to driver {} failed: {}", bookingId, driverId, e.getMessage());
+            }
+        }
+
+        log.info("Dispatch window: {} pending bookings, {} candidate drivers, {} assigned, failures {}",
+                bookings.size(), drivers.size(), assigned, failures);
+    }
+
+    private boolean canServe(Cab cab, Booking booking) {
+        return cab != null
+                && cab.getStatus() == Cab.CabStatus.AVAILABLE
+                && cab.getCabType() != null
+                && cab.getCabType().name().equals(booking.getRequestedCabType().name());
+    }
+}
@@ -0,0 +1,51 @@
+package com.cabbooking.dispatch;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free, per-node guard against assigning one driver to two bookings at once.
+ * <p>
+ * Every driver has a state word that is either {@link #FREE} or the id of the booking
+ * currently being assigned to it. Claiming and releasing are single compare-and-set
+ * operations, so concurrent assignments of the same driver fail fast without waiting on
+ * a database row lock. Across nodes the {@code @Version} columns on drivers, cabs and
+ * bookings catch whatever slips past this in-memory check.
+ */
+@Component
+public class DriverReservationRegistry {
+
+    static final long FREE = 0L;
+
+    private final Map<Long, AtomicLong> states = new ConcurrentHashMap<>();
+
+    /**
+     * @return true if the driver was free and is now held for {@code bookingId}
+     */
+    public boolean tryReserve(Long driverId, Long bookingId) {
+        if (bookingId == null || bookingId == FREE) {
+            throw new IllegalArgumentException("Booking id must be a non-zero value");
+        }
+        return states.computeIfAbsent(driverId, id -> new AtomicLong(FREE))
+                .compareAndSet(FREE, bookingId);
+    }
+
+    /**
+     * Releases the driver only if it is still held for {@code bookingId}; releasing twice,
+     * or releasing someone else's reservation, is a no-op.
+     */
+    public void release(Long driverId, Long bookingId) {
+        AtomicLong state = states.get(driverId);
+        if (state != null) {
+            state.compareAndSet(bookingId, FREE);
+        }
+    }
+
+    public boolean isReserved(Long driverId) {
+        AtomicLong state = states.get(driverId);
+        return state != null && state.get() != FREE;
+    }
+}
@@ -0,0 +1,120 @@
+package com.cabbooking.dispatch;
+
+import java.util.Arrays;
+
+/**
+ * Minimum-cost rectangular assignment (Kuhn-Munkres with row/column potentials), O(n^2 m).
+ * <p>
+ * Pairs that must never be matched should carry {@link #FORBIDDEN} cost; a row whose only
+ * options are forbidden comes back unassigned.
+ */
+public final class HungarianAlgorithm {
+
+    public static final double FORBIDDEN = 1e12;
+
+    private HungarianAlgorithm() {}
+
+    /**
+     * @param cost cost[row][column], all rows of equal length
+     * @return for every row the assigned column, or -1 when the row is left unassigned
+     */
+    public static int[] solve(double[][] cost) {
+        int rows = cost.length;
+        if (rows == 0) {
+            return new int[0];
+        }
+        int columns = cost[0].length;
+        if (columns == 0) {
+            int[] unassigned = new int[rows];
+            Arrays.fill(unassigned, -1);
+            return unassigned;
+        }
+
+        int[] assignment;
+        if (rows <= columns) {
+            assignment = solveRowsNotExceedingColumns(cost, rows, columns);
+        } else {
+            double[][] transposed = new double[columns][rows];
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    transposed[column][row] = cost[row][column];
+                }
+            }
+            int[] columnToRow = solveRowsNotExceedingColumns(transposed, columns, rows);
+            assignment = new int[rows];
+            Arrays.fill(assignment, -1);
+            for (int column = 0; column < columns; column++) {
+                assignment[columnToRow[column]] = column;
+            }
+        }
+
+        for (int row = 0; row < rows; row++) {
+            if (assignment[row] >= 0 && cost[row][assignment[row]] >= FORBIDDEN) {
+                assignment[row] = -1;
+            }
+        }
+        return assignment;
+    }
+
+    private static int[] solveRowsNotExceedingColumns(double[][] cost, int n, int m) {
+        // 1-based arrays; index 0 is the virtual starting column of each augmenting path
+        double[] rowPotential = new double[n + 1];
+        double[] columnPotential = new double[m + 1];
+        int[] rowOfColumn = new int[m + 1];
+        int[] previousColumn = new int[m + 1];
+
+        for (int row = 1; row <= n; row++) {
+            rowOfColumn[0] = row;
+            int column = 0;
+            double[] minSlack = new double[m + 1];
+            boolean[] used = new boolean[m + 1];
+            Arrays.fill(minSlack, Double.POSITIVE_INFINITY);
+
+            do {
+                used[column] = true;
+                int currentRow = rowOfColumn[column];
+                double delta = Double.POSITIVE_INFINITY;
+                int nextColumn = 0;
+                for (int candidate = 1; candidate <= m; candidate++) {
+                    if (used[candidate]) {
+                        continue;
+                    }
+                    double slack = cost[currentRow - 1][candidate - 1]
+                            - rowPotential[currentRow] - columnPotential[candidate];
+                    if (slack < minSlack[candidate]) {
+                        minSlack[candidate] = slack;
+                        previousColumn[candidate] = column;
+                    }
+                    if (minSlack[candidate] < delta) {
+                        delta = minSlack[candidate];
+                        nextColumn = candidate;
+                    }
+                }
+                for (int candidate = 0; candidate <= m; candidate++) {
+                    if (used[candidate]) {
+                        rowPotential[rowOfColumn[candidate]] += delta;
+                        columnPotential[candidate] -= delta;
+                    } else {
+                        minSlack[candidate] -= delta;
+                    }
+                }
+                column = nextColumn;
+            } while (rowOfColumn[column] != 0);
+
+            do {
+                int previous = previousColumn[column];
+                rowOfColumn[column] = rowOfColumn[previous];
+                column = previous;
+            } while (column != 0);
+        }
+
+        int[] assignment = new int[n];
+        Arrays.fill(assignment, -1);
+        for (int column = 1; column <= m; column++) {
+            if (rowOfColumn[column] != 0) {
+                assignment[rowOfColumn[column] - 1] = column - 1;
+            }
+        }
+        return assignment;
+    }
+}
@@ -1,11 +1,13 @@
 package com.cabbooking.dto;
 
+import com.cabbooking.entity.Booking;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Objects;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
@@ -55,4 +57,24 @@ public class BookingResponseDto {
     private UserSummaryDto user;
     private DriverSummaryDto driver;
     private CabSummaryDto cab;
+
+    /**
+     * Used by the JPQL constructor expressions in {@code BookingRepository}. The driver and
+     * cab come from outer joins, so an unassigned booking arrives with empty summaries for
+     * them; those are dropped here.
+     */
+    public BookingResponseDto(Long id, String bookingNumber, Booking.BookingStatus status,
+            String pickupAddress, String dropoffAddress,
+            BigDecimal estimatedFare, BigDecimal actualFare, BigDecimal distance,
+            Integer estimatedDuration, Integer actualDuration,
+            LocalDateTime requestedTime, LocalDateTime acceptedTime, LocalDateTime startTime, LocalDateTime endTime,
+            Booking.PaymentStatus paymentStatus, Booking.PaymentMethod paymentMethod,
+            UserSummaryDto user, DriverSummaryDto driver, CabSummaryDto cab) {
+        this(id, bookingNumber, Objects.toString(status, null), pickupAddress, dropoffAddress,
+                estimatedFare, actualFare, distance, estimatedDuration, actualDuration,
+                requestedTime, acceptedTime, startTime, endTime,
+                Objects.toString(paymentStatus, null), Objects.toString(paymentMethod, null), user,
+                driver != null && driver.getId() != null ? driver : null,
+                cab != null && cab.getId() != null ? cab : null);
+    }
 }
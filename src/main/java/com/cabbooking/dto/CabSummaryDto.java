@@ -1,5 +1,6 @@
 package com.cabbooking.dto;
 
+import com.cabbooking.entity.Cab;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -7,6 +8,8 @@ import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Max;
 
+import java.util.Objects;
+
 import static com.cabbooking.util.ApplicationConstants.*;
 
 @Data
@@ -38,4 +41,13 @@ public class CabSummaryDto {
 
     @Min(value = MIN_SEATING_CAPACITY, message = "Seating capacity must be at least " + MIN_SEATING_CAPACITY)
     private Integer seatingCapacity;
+
+    /**
+     * Used by the JPQL constructor expressions in {@code CabRepository}.
+     */
+    public CabSummaryDto(Long id, String licensePlate, String make, String model, String color, Integer year,
+            Cab.CabType cabType, Cab.CabStatus status, Integer seatingCapacity) {
+        this(id, licensePlate, make, model, color, year,
+                Objects.toString(cabType, null), Objects.toString(status, null), seatingCapacity);
+    }
 }
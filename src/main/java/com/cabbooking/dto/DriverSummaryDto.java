@@ -1,5 +1,6 @@
 package com.cabbooking.dto;
 
+import com.cabbooking.entity.Driver;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,6 +9,8 @@ import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Size;
 
+import java.util.Objects;
+
 import static com.cabbooking.util.ApplicationConstants.*;
 
 @Data
@@ -42,4 +45,15 @@ public class DriverSummaryDto {
     private Double currentLongitude;
 
     private UserSummaryDto user;
+
+    /**
+     * Used by the JPQL constructor expressions in {@code DriverRepository}.
+     */
+    public DriverSummaryDto(Long id, String licenseNumber, Double rating, Integer totalRides,
+            Driver.DriverStatus status, Driver.VerificationStatus verificationStatus,
+            Double currentLatitude, Double currentLongitude, UserSummaryDto user) {
+        this(id, licenseNumber, rating, totalRides,
+                Objects.toString(status, null), Objects.toString(verificationStatus, null),
+                currentLatitude, currentLongitude, user);
+    }
 }
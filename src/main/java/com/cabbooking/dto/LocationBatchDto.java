@@ -0,0 +1,34 @@
+package com.cabbooking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+import static com.cabbooking.util.ApplicationConstants.*;
+
+/**
+ * GPS points buffered by one driver's app, uploaded together once it is back in coverage.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationBatchDto {
+
+    @NotNull(message = "Driver ID is required")
+    @Positive(message = "Driver ID must be a positive number")
+    private Long driverId;
+
+    @Positive(message = "Booking ID must be a positive number")
+    private Long bookingId;
+
+    @NotEmpty(message = "At least one location point is required")
+    @Size(max = MAX_LOCATION_BATCH_SIZE, message = "A batch can hold at most " + MAX_LOCATION_BATCH_SIZE + " points")
+    private List<@Valid @NotNull LocationPointDto> points;
+}
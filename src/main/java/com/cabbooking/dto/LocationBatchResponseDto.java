@@ -0,0 +1,17 @@
+package com.cabbooking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationBatchResponseDto {
+
+    private Long driverId;
+    private int savedPoints;
+    private LocalDateTime latestTimestamp;
+}
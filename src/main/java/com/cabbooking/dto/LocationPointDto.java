@@ -0,0 +1,41 @@
+package com.cabbooking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+import static com.cabbooking.util.ApplicationConstants.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationPointDto {
+
+    @NotNull(message = "Latitude is required")
+    @DecimalMin(value = MIN_LATITUDE_STRING, message = "Latitude must be >= " + MIN_LATITUDE_STRING)
+    @DecimalMax(value = MAX_LATITUDE_STRING, message = "Latitude must be <= " + MAX_LATITUDE_STRING)
+    private Double latitude;
+
+    @NotNull(message = "Longitude is required")
+    @DecimalMin(value = MIN_LONGITUDE_STRING, message = "Longitude must be >= " + MIN_LONGITUDE_STRING)
+    @DecimalMax(value = MAX_LONGITUDE_STRING, message = "Longitude must be <= " + MAX_LONGITUDE_STRING)
+    private Double longitude;
+
+    @NotNull(message = "Speed is required")
+    @DecimalMin(value = "0.0", message = "Speed cannot be negative")
+    private Double speed;
+
+    @NotNull(message = "Heading is required")
+    @DecimalMin(value = MIN_HEADING_STRING, message = "Heading must be >= " + MIN_HEADING_STRING)
+    @DecimalMax(value = MAX_HEADING_STRING, message = "Heading must be <= " + MAX_HEADING_STRING)
+    private Double heading;
+
+    // Replayed points are only useful with the time they were recorded on the device
+    @NotNull(message = "Timestamp is required")
+    private LocalDateTime timestamp;
+}
@@ -1,5 +1,6 @@
 package com.cabbooking.dto;
 
+import com.cabbooking.entity.User;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -7,6 +8,8 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Pattern;
 
+import java.util.Objects;
+
 import static com.cabbooking.util.ApplicationConstants.*;
 
 @Data
@@ -28,4 +31,13 @@ public class UserSummaryDto {
     private String role;
     @Size(max = MAX_NAME_LENGTH, message = "Status must be 50 characters or fewer")
     private String status;
-}
\ No newline at end of file
+
+    /**
+     * Used by the JPQL constructor expressions in {@code UserRepository}.
+     */
+    public UserSummaryDto(Long id, String firstName, String lastName, String email, String phoneNumber,
+            User.UserRole role, User.UserStatus status) {
+        this(id, firstName, lastName, email, phoneNumber,
+                Objects.toString(role, null), Objects.toString(status, null));
+    }
+}
@@ -9,14 +9,27 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 
 @Entity
 @Table(name = "bookings")
+@NamedEntityGraph(name = Booking.DETAILS_GRAPH, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode(value = "driver", subgraph = "driver"),
+        @NamedAttributeNode("cab")
+}, subgraphs = @NamedSubgraph(name = "driver", attributeNodes = @NamedAttributeNode("user")))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Booking {
 
+    // Booking with its user, driver (and the driver's user) and cab, fetched in one join
+    public static final String DETAILS_GRAPH = "Booking.details";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -25,16 +38,16 @@ public class Booking {
     @jakarta.validation.constraints.NotBlank(message = "Booking number is required")
     private String bookingNumber;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @jakarta.validation.constraints.NotNull(message = "User is required")
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "driver_id")
     private Driver driver;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cab_id")
     private Cab cab;
 
@@ -96,6 +109,13 @@ public class Booking {
 
     private String specialInstructions;
 
+    // Last booking_events sequence applied to this row; see BookingEvent
+    @Column(nullable = false)
+    private Integer eventSequence = 0;
+
+    @Version
+    private Long version;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -124,7 +144,41 @@ public class Booking {
 
     public enum BookingStatus {
         REQUESTED, ACCEPTED, DRIVER_ASSIGNED, DRIVER_ARRIVED,
-        IN_PROGRESS, COMPLETED, CANCELLED
+        IN_PROGRESS, COMPLETED, CANCELLED;
+
+        public boolean canTransitionTo(BookingStatus to) {
+            return switch (this) {
+                case REQUESTED -> to == ACCEPTED || to == CANCELLED;
+                case ACCEPTED -> to == DRIVER_ASSIGNED || to == CANCELLED;
+                case DRIVER_ASSIGNED -> to == DRIVER_ARRIVED || to == CANCELLED;
+                case DRIVER_ARRIVED -> to == IN_PROGRESS || to == CANCELLED;
+                case IN_PROGRESS -> to == COMPLETED;
+                case COMPLETED, CANCELLED -> false; // Terminal states
+            };
+        }
+
+        // canTransitionTo read backwards, for writes that check the current status in their WHERE clause
+        private static final Map<BookingStatus, Set<BookingStatus>> ALLOWED_FROM = new EnumMap<>(BookingStatus.class);
+
+        static {
+            for (BookingStatus to : values()) {
+                Set<BookingStatus> from = EnumSet.noneOf(BookingStatus.class);
+                for (BookingStatus candidate : values()) {
+                    if (candidate.canTransitionTo(to)) {
+                        from.add(candidate);
+                    }
+                }
+                ALLOWED_FROM.put(to, Collections.unmodifiableSet(from));
+            }
+        }
+
+        /**
+         * The statuses a booking can move to this one from; empty for {@code REQUESTED},
+         * which a booking only ever starts in.
+         */
+        public Set<BookingStatus> allowedFrom() {
+            return ALLOWED_FROM.get(this);
+        }
     }
 
     public enum CabType {
@@ -0,0 +1,76 @@
+package com.cabbooking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * One booking status transition in the append-only {@code booking_events} log. The booking
+ * is referenced by id only, so appending never loads or locks the booking row.
+ */
+@Entity
+@Immutable
+@Table(name = "booking_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long bookingId;
+
+    // 1 for the REQUESTED event, then one more per transition
+    @Column(nullable = false)
+    private Integer sequenceNumber;
+
+    // The status the booking entered
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Booking.BookingStatus status;
+
+    // Set when a driver and cab were assigned
+    private Long driverId;
+    private Long cabId;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    public static BookingEvent next(Booking booking, Booking.BookingStatus status, LocalDateTime occurredAt) {
+        return new BookingEvent(null, booking.getId(), booking.getEventSequence() + 1, status, null, null, occurredAt);
+    }
+
+    /**
+     * Folds this event into the booking's status and timestamps. Driver and cab references
+     * are set by the assignment itself, which applies its event as it appends it.
+     */
+    public void applyTo(Booking booking) {
+        booking.setStatus(status);
+        switch (status) {
+            case ACCEPTED -> booking.setAcceptedTime(occurredAt);
+            case IN_PROGRESS -> booking.setStartTime(occurredAt);
+            case COMPLETED -> {
+                booking.setEndTime(occurredAt);
+                if (booking.getStartTime() != null) {
+                    booking.setActualDuration((int) Duration.between(booking.getStartTime(), occurredAt).toMinutes());
+                }
+            }
+            default -> {
+                // No timestamp of its own
+            }
+        }
+        booking.setEventSequence(sequenceNumber);
+    }
+
+    public boolean endsRide() {
+        return status == Booking.BookingStatus.COMPLETED || status == Booking.BookingStatus.CANCELLED;
+    }
+}
@@ -4,14 +4,23 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static com.cabbooking.util.ApplicationConstants.CAB_BY_DRIVER_CACHE_REGION;
+import static com.cabbooking.util.ApplicationConstants.CAB_CACHE_REGION;
+
 @Entity
 @Table(name = "cabs")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CAB_CACHE_REGION)
+@NaturalIdCache(region = CAB_BY_DRIVER_CACHE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,8 +30,12 @@ public class Cab {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
-    @JoinColumn(name = "driver_id", nullable = false)
+    // Owned here only: an inverse Driver.cab could never be lazy and would cost one
+    // extra select per loaded driver. A cab never changes driver, which makes the driver
+    // its natural id and lets lookups by driver resolve from the cache
+    @NaturalId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "driver_id", unique = true, nullable = false)
     @jakarta.validation.constraints.NotNull(message = "Driver is required")
     @jakarta.validation.Valid
     private Driver driver;
@@ -60,6 +73,9 @@ public class Cab {
     @OneToMany(mappedBy = "cab", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Booking> bookings;
 
+    @Version
+    private Long version;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -4,14 +4,25 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLock;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static com.cabbooking.util.ApplicationConstants.DRIVER_CACHE_REGION;
+
+// Cached for the profile, status and rating, which only change through Hibernate. The
+// position columns in a cached entry may lag the row: checkpoints write them with plain
+// JDBC, and every reader takes positions from DriverPositionStore instead
 @Entity
 @Table(name = "drivers")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = DRIVER_CACHE_REGION)
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,7 +32,7 @@ public class Driver {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @jakarta.validation.constraints.NotNull(message = "User is required")
     @jakarta.validation.Valid
@@ -47,16 +58,20 @@ public class Driver {
     @Column(nullable = false)
     private VerificationStatus verificationStatus = VerificationStatus.PENDING;
 
-    @OneToOne(mappedBy = "driver", cascade = CascadeType.ALL)
-    private Cab cab;
-
     @OneToMany(mappedBy = "driver", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Booking> bookings;
 
-    // Current location
+    // Current location; position pings must not conflict with status changes, so they
+    // neither bump nor check the version
+    @OptimisticLock(excluded = true)
     private Double currentLatitude;
+
+    @OptimisticLock(excluded = true)
     private Double currentLongitude;
 
+    @Version
+    private Long version;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -71,13 +86,13 @@ public class Driver {
                 ", totalRides=" + totalRides +
                 ", status=" + status +
                 ", verificationStatus=" + verificationStatus +
-                ", cabId=" + (cab != null ? cab.getId() : "null") +
                 ", currentLatitude=" + currentLatitude +
                 ", currentLongitude=" + currentLongitude +
                 '}';
     }
 
     @UpdateTimestamp
+    @OptimisticLock(excluded = true)
     private LocalDateTime updatedAt;
 
     public enum DriverStatus {
@@ -1,11 +1,12 @@
 package com.cabbooking.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
-
+import lombok.ToString;
 import java.time.LocalDateTime;
 
 @Entity
@@ -15,17 +16,30 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class LocationLog {
 
+    // Pooled table ids instead of IDENTITY so Hibernate can batch inserts; allocationSize
+    // must match the seed in V3__Location_log_id_generator.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "location_log_id")
+    @TableGenerator(name = "location_log_id", table = "id_generators",
+            pkColumnName = "generator_name", valueColumnName = "next_value",
+            pkColumnValue = "location_logs", allocationSize = 100)
     private Long id;
 
-    @ManyToOne
+    // Accepted as {"id": ...} on input; responses carry driverId / bookingId instead so
+    // serialising a log never initialises the lazy associations
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "driver_id", nullable = false)
     @jakarta.validation.constraints.NotNull(message = "Driver is required")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Driver driver;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booking_id")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Booking booking;
 
     @Column(nullable = false)
@@ -44,7 +58,25 @@ public class LocationLog {
     @jakarta.validation.constraints.NotNull(message = "Heading is required")
     private Double heading;
 
-    @CreationTimestamp
+    // Stamped when the ping is received, not when a buffered batch is flushed
     @Column(updatable = false)
     private LocalDateTime timestamp;
+
+    // Not bean getters: a "bookingId" property would shadow the booking.id path in derived queries
+    @JsonProperty(value = "driverId", access = JsonProperty.Access.READ_ONLY)
+    public Long driverId() {
+        return driver != null ? driver.getId() : null;
+    }
+
+    @JsonProperty(value = "bookingId", access = JsonProperty.Access.READ_ONLY)
+    public Long bookingId() {
+        return booking != null ? booking.getId() : null;
+    }
+
+    @PrePersist
+    void defaultTimestamp() {
+        if (timestamp == null) {
+            timestamp = LocalDateTime.now();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.cabbooking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A compacted stretch of location history; see {@code TrajectoryCodec} for the blob layout.
+ */
+@Entity
+@Table(name = "location_trajectories")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationTrajectory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "driver_id", nullable = false)
+    private Driver driver;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booking_id")
+    private Booking booking;
+
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(nullable = false)
+    private Integer pointCount;
+
+    // Number of raw location_logs rows the segment replaced
+    @Column(nullable = false)
+    private Integer sourcePointCount;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] encodedPoints;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public String toString() {
+        return "LocationTrajectory{" +
+                "id=" + id +
+                ", driverId=" + (driver != null ? driver.getId() : "null") +
+                ", bookingId=" + (booking != null ? booking.getId() : "null") +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                ", pointCount=" + pointCount +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package com.cabbooking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A side effect waiting to be run, written in the same transaction as the change that calls
+ * for it. Carries only what happened and to which booking; handlers read anything else they
+ * need when they run.
+ */
+@Entity
+@Table(name = "outbox_messages")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type messageType;
+
+    // The booking the message is about
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Not picked up before this; pushed back after each failed attempt
+    @Column(nullable = false)
+    private LocalDateTime availableAt;
+
+    private LocalDateTime processedAt;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    private String lastError;
+
+    public static OutboxMessage of(Type messageType, Long aggregateId, LocalDateTime now) {
+        return new OutboxMessage(null, messageType, aggregateId, now, now, null, 0, null);
+    }
+
+    public enum Type {
+        // A booking reached COMPLETED or CANCELLED
+        RIDE_ENDED
+    }
+}
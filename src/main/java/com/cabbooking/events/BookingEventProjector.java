@@ -0,0 +1,146 @@
+package com.cabbooking.events;
+
+import com.cabbooking.cache.LookupCache;
+import com.cabbooking.dto.BookingResponseDto;
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.BookingEvent;
+import com.cabbooking.repository.BookingEventRepository;
+import com.cabbooking.repository.BookingRepository;
+import com.cabbooking.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies appended {@link BookingEvent}s to their projection, the {@code bookings} row. Runs
+ * in the background in batches, one transaction per batch, so a status transition only has to
+ * append its event. Releasing the driver and cab of a finished ride is left to the outbox.
+ * <p>
+ * Each event is applied with one conditional UPDATE that only matches while the row is at the
+ * event's previous sequence number and in a status the event can follow, so an event another
+ * node's projector got to first simply matches nothing. A batch that fails for any other
+ * reason is retried booking by booking, so one booking that cannot be projected does not hold
+ * up the rest. Applied and failed events and batch latency are published under
+ * {@code booking.events.projection.*}.
+ */
+@Component
+public class BookingEventProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingEventProjector.class);
+
+    private static final Collection<Booking.BookingStatus> LIVE_STATUSES = EnumSet.complementOf(
+            EnumSet.of(Booking.BookingStatus.COMPLETED, Booking.BookingStatus.CANCELLED));
+
+    private final BookingEventRepository bookingEventRepository;
+    private final BookingRepository bookingRepository;
+    private final LookupCache<String, BookingResponseDto> bookingsByNumber;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+
+    private final Counter appliedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    public BookingEventProjector(
+            BookingEventRepository bookingEventRepository,
+            BookingRepository bookingRepository,
+            LookupCache<String, BookingResponseDto> bookingsByNumber,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${booking-events.projection-batch-size:500}") int batchSize) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.bookingRepository = bookingRepository;
+        this.bookingsByNumber = bookingsByNumber;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+
+        this.appliedCounter = meterRegistry.counter("booking.events.projection.applied");
+        this.failedCounter = meterRegistry.counter("booking.events.projection.failed");
+        this.batchTimer = meterRegistry.timer("booking.events.projection.batch");
+    }
+
+    @Scheduled(fixedDelayString = "${booking-events.projection-interval-ms:200}")
+    public void project() {
+        List<BookingEvent> events;
+        do {
+            events = bookingEventRepository.findUnprojected(LIVE_STATUSES, PageRequest.of(0, batchSize));
+            if (events.isEmpty()) {
+                return;
+            }
+            List<BookingEvent> batch = events;
+            try {
+                batchTimer.record(() -> transaction.executeWithoutResult(status -> apply(batch)));
+            } catch (RuntimeException e) {
+                log.warn("Projection of {} booking events failed, retrying booking by booking: {}",
+                        batch.size(), e.getMessage());
+                projectEachBooking(batch);
+                // A booking that still fails would come back first in the next batch
+                return;
+            }
+        } while (events.size() == batchSize);
+    }
+
+    private void projectEachBooking(List<BookingEvent> batch) {
+        Map<Long, List<BookingEvent>> byBooking = batch.stream().collect(
+                Collectors.groupingBy(BookingEvent::getBookingId, LinkedHashMap::new, Collectors.toList()));
+        byBooking.forEach((bookingId, events) -> {
+            try {
+                transaction.executeWithoutResult(status -> apply(events));
+            } catch (RuntimeException e) {
+                failedCounter.increment(events.size());
+                log.warn("Events of booking {} not projected, will retry: {}", bookingId, e.getMessage());
+            }
+        });
+    }
+
+    private void apply(List<BookingEvent> events) {
+        Map<Long, BookingRepository.TransitionTarget> targets = bookingRepository.findTransitionTargetsByIdIn(
+                        events.stream().map(BookingEvent::getBookingId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(BookingRepository.TransitionTarget::getId, Function.identity()));
+        // A ride's duration needs its start time, which may come from an earlier event of this batch
+        Map<Long, LocalDateTime> startTimes = new HashMap<>();
+
+        int applied = 0;
+        for (BookingEvent event : events) {
+            BookingRepository.TransitionTarget target = targets.get(event.getBookingId());
+            if (target == null) {
+                continue;
+            }
+            // The event decides which columns it sets; a scratch booking collects them
+            Booking changes = new Booking();
+            changes.setStartTime(startTimes.getOrDefault(target.getId(), target.getStartTime()));
+            event.applyTo(changes);
+            // No match: already applied, e.g. by a projector on another node
+            if (bookingRepository.transition(target.getId(), event.getStatus().allowedFrom(), event.getStatus(),
+                    event.getSequenceNumber(), changes.getAcceptedTime(), changes.getStartTime(),
+                    changes.getEndTime(), changes.getActualDuration()) == 0) {
+                continue;
+            }
+            startTimes.put(target.getId(), changes.getStartTime());
+            String bookingNumber = target.getBookingNumber();
+            TransactionHooks.afterCommit(() -> bookingsByNumber.invalidate(bookingNumber));
+            applied++;
+        }
+        int appliedInBatch = applied;
+        TransactionHooks.afterCommit(() -> appliedCounter.increment(appliedInBatch));
+    }
+}
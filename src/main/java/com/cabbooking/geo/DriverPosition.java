@@ -0,0 +1,20 @@
+package com.cabbooking.geo;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last known position of a driver. Heading and speed are null when the update that
+ * produced the position did not carry them.
+ */
+@Value
+public class DriverPosition {
+
+    Long driverId;
+    double latitude;
+    double longitude;
+    Double heading;
+    Double speed;
+    LocalDateTime timestamp;
+}
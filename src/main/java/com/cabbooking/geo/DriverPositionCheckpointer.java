@@ -0,0 +1,53 @@
+package com.cabbooking.geo;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically writes the positions changed in {@link DriverPositionStore} back to the
+ * {@code drivers} table in one JDBC batch. Only the position columns are touched, so the
+ * checkpoint neither bumps the optimistic-lock version nor {@code updated_at}.
+ */
+@Component
+@RequiredArgsConstructor
+public class DriverPositionCheckpointer {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverPositionCheckpointer.class);
+
+    private static final String UPDATE_POSITION_SQL =
+            "UPDATE drivers SET current_latitude = ?, current_longitude = ? WHERE id = ?";
+
+    private final DriverPositionStore driverPositionStore;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Scheduled(fixedDelayString = "${driver.position-store.checkpoint-interval-ms:1000}")
+    public void checkpoint() {
+        List<DriverPosition> positions = driverPositionStore.drainDirty();
+        if (positions.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_POSITION_SQL, positions, positions.size(), (statement, position) -> {
+                statement.setDouble(1, position.getLatitude());
+                statement.setDouble(2, position.getLongitude());
+                statement.setLong(3, position.getDriverId());
+            });
+        } catch (DataAccessException e) {
+            log.warn("Checkpoint of {} driver positions failed, will retry: {}", positions.size(), e.getMessage());
+            driverPositionStore.markDirty(positions);
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        checkpoint();
+    }
+}
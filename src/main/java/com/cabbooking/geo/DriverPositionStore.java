@@ -0,0 +1,262 @@
+package com.cabbooking.geo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live driver positions held in parallel primitive arrays, one slot per driver, so the
+ * highest-frequency write in the system is a handful of array stores instead of a
+ * load-and-save of the {@code Driver} entity graph.
+ * <p>
+ * Each slot is guarded by a sequence lock: writers make the slot's sequence odd while they
+ * write and even again when done, and readers retry until they see the same even sequence
+ * before and after copying the fields. Reads therefore never block and never see a torn
+ * position. Updated slots are marked dirty and written back to the {@code drivers} table by
+ * {@link DriverPositionCheckpointer}.
+ * <p>
+ * Dispatchable drivers are moved in the {@link DriverSpatialIndex} as their position changes.
+ */
+@Component
+public class DriverPositionStore {
+
+    // Timestamp of positions seeded from the database rather than reported live
+    private static final long NOT_LIVE = Long.MIN_VALUE;
+
+    private final DriverSpatialIndex driverSpatialIndex;
+    private final int capacity;
+
+    private final AtomicLongArray sequences;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] headings;
+    private final double[] speeds;
+    private final long[] timestamps;
+
+    private final Map<Long, Integer> slots = new ConcurrentHashMap<>();
+    private final Queue<Integer> freeSlots = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public DriverPositionStore(DriverSpatialIndex driverSpatialIndex,
+            @Value("${driver.position-store.capacity:100000}") int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.driverSpatialIndex = driverSpatialIndex;
+        this.capacity = capacity;
+        this.sequences = new AtomicLongArray(capacity);
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.headings = new double[capacity];
+        this.speeds = new double[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    /**
+     * Starts tracking the driver, seeding the slot with its persisted position. Does nothing
+     * if the driver is already tracked.
+     *
+     * @return false when the store is full
+     */
+    public boolean register(Long driverId, Double latitude, Double longitude) {
+        if (slots.containsKey(driverId)) {
+            return true;
+        }
+        Integer slot = allocateSlot();
+        if (slot == null) {
+            return false;
+        }
+        write(slot, latitude != null ? latitude : Double.NaN, longitude != null ? longitude : Double.NaN,
+                Double.NaN, Double.NaN, NOT_LIVE, false);
+        if (slots.putIfAbsent(driverId, slot) != null) {
+            freeSlots.add(slot);
+        }
+        return true;
+    }
+
+    public void remove(Long driverId) {
+        Integer slot = slots.remove(driverId);
+        dirty.remove(driverId);
+        if (slot != null) {
+            freeSlots.add(slot);
+        }
+    }
+
+    public boolean contains(Long driverId) {
+        return slots.containsKey(driverId);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Records a reported position. Reports older than the one already held are ignored, so
+     * replayed offline buffers cannot move a driver backwards.
+     *
+     * @return false if the driver is not tracked by this store
+     */
+    public boolean record(Long driverId, double latitude, double longitude, Double heading, Double speed,
+            LocalDateTime timestamp) {
+        Integer slot = slots.get(driverId);
+        if (slot == null) {
+            return false;
+        }
+        long millis = toMillis(timestamp);
+        if (write(slot, latitude, longitude, heading != null ? heading : Double.NaN,
+                speed != null ? speed : Double.NaN, millis, true)) {
+            dirty.add(driverId);
+            driverSpatialIndex.move(driverId, latitude, longitude);
+        }
+        return true;
+    }
+
+    /**
+     * The last position reported for the driver since this node started, if any.
+     */
+    public Optional<DriverPosition> findLive(Long driverId) {
+        return read(driverId, true);
+    }
+
+    /**
+     * The driver's current position, live or as last persisted.
+     */
+    public Optional<DriverPosition> find(Long driverId) {
+        return read(driverId, false);
+    }
+
+    /**
+     * Removes and returns the positions updated since the previous call. A driver updated
+     * concurrently is marked dirty again and shows up in the next drain.
+     */
+    public List<DriverPosition> drainDirty() {
+        List<DriverPosition> positions = new ArrayList<>();
+        Iterator<Long> ids = dirty.iterator();
+        while (ids.hasNext()) {
+            Long driverId = ids.next();
+            ids.remove();
+            read(driverId, true).ifPresent(positions::add);
+        }
+        return positions;
+    }
+
+    /**
+     * Marks positions whose checkpoint failed so they are written again next time.
+     */
+    public void markDirty(List<DriverPosition> positions) {
+        for (DriverPosition position : positions) {
+            if (slots.containsKey(position.getDriverId())) {
+                dirty.add(position.getDriverId());
+            }
+        }
+    }
+
+    private Integer allocateSlot() {
+        Integer slot = freeSlots.poll();
+        if (slot != null) {
+            return slot;
+        }
+        int next = nextSlot.getAndIncrement();
+        if (next >= capacity) {
+            nextSlot.set(capacity);
+            return null;
+        }
+        return next;
+    }
+
+    private boolean write(int slot, double latitude, double longitude, double heading, double speed,
+            long timestamp, boolean onlyIfNewer) {
+        long sequence = lock(slot);
+        try {
+            if (onlyIfNewer && timestamp < timestamps[slot]) {
+                return false;
+            }
+            latitudes[slot] = latitude;
+            longitudes[slot] = longitude;
+            headings[slot] = heading;
+            speeds[slot] = speed;
+            timestamps[slot] = timestamp;
+            return true;
+        } finally {
+            // Volatile store publishes the fields above before the sequence turns even
+            sequences.set(slot, sequence + 2);
+        }
+    }
+
+    private long lock(int slot) {
+        while (true) {
+            long sequence = sequences.get(slot);
+            if ((sequence & 1) == 0 && sequences.compareAndSet(slot, sequence, sequence + 1)) {
+                return sequence;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private Optional<DriverPosition> read(Long driverId, boolean liveOnly) {
+        Integer slot = slots.get(driverId);
+        if (slot == null) {
+            return Optional.empty();
+        }
+
+        double latitude;
+        double longitude;
+        double heading;
+        double speed;
+        long timestamp;
+        while (true) {
+            long before = sequences.get(slot);
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            latitude = latitudes[slot];
+            longitude = longitudes[slot];
+            heading = headings[slot];
+            speed = speeds[slot];
+            timestamp = timestamps[slot];
+            // Keep the field loads above from being reordered after the re-check
+            VarHandle.acquireFence();
+            if (sequences.get(slot) == before) {
+                break;
+            }
+        }
+
+        // The slot may have been handed to another driver while it was being read
+        if (!slot.equals(slots.get(driverId))) {
+            return Optional.empty();
+        }
+        if (Double.isNaN(latitude) || Double.isNaN(longitude) || (liveOnly && timestamp == NOT_LIVE)) {
+            return Optional.empty();
+        }
+        return Optional.of(new DriverPosition(driverId, latitude, longitude,
+                Double.isNaN(heading) ? null : heading,
+                Double.isNaN(speed) ? null : speed,
+                timestamp == NOT_LIVE ? null : toLocalDateTime(timestamp)));
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        LocalDateTime value = timestamp != null ? timestamp : LocalDateTime.now();
+        return value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,340 @@
+package com.cabbooking.geo;
+
+import com.cabbooking.entity.Driver;
+import com.cabbooking.util.GeoUtils;
+import com.cabbooking.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.cabbooking.util.ApplicationConstants.EARTH_RADIUS;
+import static com.cabbooking.util.GeoUtils.KM_PER_DEGREE;
+
+/**
+ * In-memory uniform lat/lng grid over the drivers that can be dispatched right now
+ * (ONLINE + VERIFIED with a known position). Radius queries only visit the cells that
+ * overlap the search circle instead of evaluating a distance expression for every row
+ * of the drivers table.
+ * <p>
+ * The index is local to this node and is kept current by {@code DriverService}; writes made
+ * inside a transaction are applied only once that transaction commits.
+ */
+@Component
+public class DriverSpatialIndex {
+
+    private final double cellSizeDegrees;
+    private final int rows;
+    private final int columns;
+
+    // cell key -> ids of the drivers currently inside that cell
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedDriver> drivers = new ConcurrentHashMap<>();
+    // Dispatchable drivers that have not reported a position yet; their first ping indexes them
+    private final Set<Long> awaitingPosition = ConcurrentHashMap.newKeySet();
+
+    public DriverSpatialIndex(@Value("${driver.index.cell-size-degrees:0.01}") double cellSizeDegrees) {
+        if (cellSizeDegrees <= 0 || cellSizeDegrees > 10) {
+            throw new IllegalArgumentException("Cell size must be in (0, 10] degrees");
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.rows = (int) Math.ceil(180.0 / cellSizeDegrees);
+        this.columns = (int) Math.ceil(360.0 / cellSizeDegrees);
+    }
+
+    /**
+     * Re-indexes the driver once the current transaction commits. Drivers that are not
+     * eligible for dispatch are dropped from the index.
+     */
+    public void update(Driver driver) {
+        Long id = driver.getId();
+        Driver.DriverStatus status = driver.getStatus();
+        Driver.VerificationStatus verificationStatus = driver.getVerificationStatus();
+        Double latitude = driver.getCurrentLatitude();
+        Double longitude = driver.getCurrentLongitude();
+
+        TransactionHooks.afterCommit(() -> put(id, status, verificationStatus, latitude, longitude));
+    }
+
+    /**
+     * Removes the driver once the current transaction commits.
+     */
+    public void remove(Long driverId) {
+        TransactionHooks.afterCommit(() -> evict(driverId));
+    }
+
+    public void put(Long driverId, Driver.DriverStatus status, Driver.VerificationStatus verificationStatus,
+            Double latitude, Double longitude) {
+        boolean eligible = status == Driver.DriverStatus.ONLINE
+                && verificationStatus == Driver.VerificationStatus.VERIFIED;
+
+        if (!eligible) {
+            evict(driverId);
+            return;
+        }
+        if (latitude == null || longitude == null) {
+            evict(driverId);
+            awaitingPosition.add(driverId);
+            return;
+        }
+
+        awaitingPosition.remove(driverId);
+        long cellKey = cellKey(rowOf(latitude), columnOf(longitude));
+        drivers.compute(driverId, (id, previous) -> {
+            if (previous != null && previous.cellKey != cellKey) {
+                leaveCell(previous.cellKey, id);
+            }
+            joinCell(cellKey, id);
+            return new IndexedDriver(latitude, longitude, cellKey);
+        });
+    }
+
+    /**
+     * Moves a dispatchable driver to a new position. Drivers that are not dispatchable are
+     * left out, so position pings alone never put a driver into the index.
+     */
+    public void move(Long driverId, double latitude, double longitude) {
+        long cellKey = cellKey(rowOf(latitude), columnOf(longitude));
+        drivers.compute(driverId, (id, previous) -> {
+            if (previous == null) {
+                if (!awaitingPosition.remove(id)) {
+                    return null;
+                }
+            } else if (previous.cellKey != cellKey) {
+                leaveCell(previous.cellKey, id);
+            }
+            joinCell(cellKey, id);
+            return new IndexedDriver(latitude, longitude, cellKey);
+        });
+    }
+
+    public void evict(Long driverId) {
+        awaitingPosition.remove(driverId);
+        drivers.computeIfPresent(driverId, (id, previous) -> {
+            leaveCell(previous.cellKey, id);
+            return null;
+        });
+    }
+
+    public void clear() {
+        drivers.clear();
+        cells.clear();
+        awaitingPosition.clear();
+    }
+
+    public int size() {
+        return drivers.size();
+    }
+
+    public boolean contains(Long driverId) {
+        return drivers.containsKey(driverId);
+    }
+
+    /**
+     * Drivers within {@code radiusKm} of the point, nearest first (ties broken by id).
+     */
+    public List<NearbyDriver> findWithinRadius(double latitude, double longitude, double radiusKm) {
+        List<NearbyDriver> matches = new ArrayList<>();
+        if (radiusKm < 0) {
+            return matches;
+        }
+
+        // One extra cell on each side keeps the box conservative near the poles and
+        // for the small-angle approximation of the longitude span
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        int minRow = Math.max(0, rowOf(latitude - latDelta) - 1);
+        int maxRow = Math.min(rows - 1, rowOf(latitude + latDelta) + 1);
+
+        double maxAbsLat = Math.min(90.0, Math.abs(latitude) + latDelta);
+        double cosLat = Math.cos(Math.toRadians(maxAbsLat));
+        int minColumn;
+        int maxColumn;
+        if (cosLat < 1e-9 || radiusKm / (KM_PER_DEGREE * cosLat) >= 180.0) {
+            minColumn = 0;
+            maxColumn = columns - 1;
+        } else {
+            double lngDelta = radiusKm / (KM_PER_DEGREE * cosLat);
+            minColumn = unwrappedColumnOf(longitude - lngDelta) - 1;
+            maxColumn = unwrappedColumnOf(longitude + lngDelta) + 1;
+            if (maxColumn - minColumn + 1 >= columns) {
+                minColumn = 0;
+                maxColumn = columns - 1;
+            }
+        }
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                Set<Long> ids = cells.get(cellKey(row, Math.floorMod(column, columns)));
+                if (ids == null) {
+                    continue;
+                }
+                for (Long id : ids) {
+                    IndexedDriver driver = drivers.get(id);
+                    if (driver == null) {
+                        continue;
+                    }
+                    double distance = GeoUtils.sphericalDistanceKm(
+                            latitude, longitude, driver.latitude, driver.longitude);
+                    if (distance <= radiusKm) {
+                        matches.add(new NearbyDriver(id, distance));
+                    }
+                }
+            }
+        }
+
+        matches.sort(Comparator.comparingDouble(NearbyDriver::getDistanceKm)
+                .thenComparing(NearbyDriver::getDriverId));
+        return matches;
+    }
+
+    /**
+     * The {@code k} drivers closest to the point, nearest first, never farther than
+     * {@code maxRadiusKm}. Cells are visited ring by ring around the point's cell and the
+     * search stops as soon as no unvisited cell can hold a closer driver than the current
+     * k-th best, so the cost tracks k rather than the local driver density.
+     */
+    public List<NearbyDriver> findNearest(double latitude, double longitude, int k, double maxRadiusKm) {
+        if (k <= 0 || maxRadiusKm < 0) {
+            return new ArrayList<>();
+        }
+
+        Comparator<NearbyDriver> nearestFirst = Comparator.comparingDouble(NearbyDriver::getDistanceKm)
+                .thenComparing(NearbyDriver::getDriverId);
+        // Max-heap holding the best k candidates seen so far; its head is the current k-th best
+        PriorityQueue<NearbyDriver> best = new PriorityQueue<>(k + 1, nearestFirst.reversed());
+
+        int centerRow = rowOf(latitude);
+        int centerColumn = unwrappedColumnOf(longitude);
+        int maxRing = (columns - 1) / 2;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                if (row < 0 || row >= rows) {
+                    continue;
+                }
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int column = centerColumn - ring; column <= centerColumn + ring; column += step) {
+                    collectCell(cellKey(row, Math.floorMod(column, columns)),
+                            latitude, longitude, k, maxRadiusKm, best);
+                }
+            }
+
+            double unvisitedBound = distanceBeyondRing(latitude, longitude, centerRow, centerColumn, ring);
+            if (unvisitedBound > maxRadiusKm) {
+                break;
+            }
+            if (best.size() == k && best.peek().getDistanceKm() <= unvisitedBound) {
+                break;
+            }
+        }
+
+        List<NearbyDriver> nearest = new ArrayList<>(best);
+        nearest.sort(nearestFirst);
+        return nearest;
+    }
+
+    private void collectCell(long cellKey, double latitude, double longitude, int k, double maxRadiusKm,
+            PriorityQueue<NearbyDriver> best) {
+        Set<Long> ids = cells.get(cellKey);
+        if (ids == null) {
+            return;
+        }
+        for (Long id : ids) {
+            IndexedDriver driver = drivers.get(id);
+            if (driver == null) {
+                continue;
+            }
+            double distance = GeoUtils.sphericalDistanceKm(latitude, longitude, driver.latitude, driver.longitude);
+            if (distance > maxRadiusKm) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(new NearbyDriver(id, distance));
+            } else if (best.comparator().compare(new NearbyDriver(id, distance), best.peek()) > 0) {
+                best.poll();
+                best.add(new NearbyDriver(id, distance));
+            }
+        }
+    }
+
+    /**
+     * Lower bound on the distance from the point to any location outside the square of
+     * cells already visited. Points outside the visited latitude band are at least the
+     * latitude gap away; points inside the band but outside the longitude span are bounded
+     * with the haversine term using the smallest cosine that band can contain.
+     */
+    private double distanceBeyondRing(double latitude, double longitude, int centerRow, int centerColumn, int ring) {
+        double southEdge = (centerRow - ring) * cellSizeDegrees - 90.0;
+        double northEdge = (centerRow + ring + 1) * cellSizeDegrees - 90.0;
+        double westEdge = (centerColumn - ring) * cellSizeDegrees - 180.0;
+        double eastEdge = (centerColumn + ring + 1) * cellSizeDegrees - 180.0;
+
+        double latitudeGap = Math.min(
+                southEdge <= -90.0 ? Double.MAX_VALUE : latitude - southEdge,
+                northEdge >= 90.0 ? Double.MAX_VALUE : northEdge - latitude);
+        double latitudeBound = latitudeGap * KM_PER_DEGREE;
+
+        double longitudeGap = Math.toRadians(Math.min(longitude - westEdge, eastEdge - longitude));
+        double bandCos = Math.cos(Math.toRadians(Math.min(90.0,
+                Math.max(Math.abs(Math.max(southEdge, -90.0)), Math.abs(Math.min(northEdge, 90.0))))));
+        double sinHalfGap = Math.sin(longitudeGap / 2);
+        double haversine = Math.cos(Math.toRadians(latitude)) * bandCos * sinHalfGap * sinHalfGap;
+        double longitudeBound = 2 * EARTH_RADIUS
+                * Math.asin(Math.sqrt(Math.max(0.0, Math.min(1.0, haversine))));
+
+        return Math.min(latitudeBound, longitudeBound);
+    }
+
+    private void joinCell(long cellKey, Long driverId) {
+        // compute() rather than computeIfAbsent().add() so a concurrent leaveCell cannot
+        // drop the set between lookup and insert
+        cells.compute(cellKey, (key, ids) -> {
+            Set<Long> members = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            members.add(driverId);
+            return members;
+        });
+    }
+
+    private void leaveCell(long cellKey, Long driverId) {
+        cells.computeIfPresent(cellKey, (key, ids) -> {
+            ids.remove(driverId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private int rowOf(double latitude) {
+        int row = (int) Math.floor((latitude + 90.0) / cellSizeDegrees);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    private int columnOf(double longitude) {
+        return Math.floorMod(unwrappedColumnOf(longitude), columns);
+    }
+
+    private int unwrappedColumnOf(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / cellSizeDegrees);
+    }
+
+    private long cellKey(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    private static final class IndexedDriver {
+        private final double latitude;
+        private final double longitude;
+        private final long cellKey;
+
+        private IndexedDriver(double latitude, double longitude, long cellKey) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cellKey = cellKey;
+        }
+    }
+}
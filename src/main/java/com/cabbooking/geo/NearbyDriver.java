@@ -0,0 +1,13 @@
+package com.cabbooking.geo;
+
+import lombok.Value;
+
+/**
+ * A driver id together with its great-circle distance from a query point.
+ */
+@Value
+public class NearbyDriver {
+
+    Long driverId;
+    double distanceKm;
+}
@@ -0,0 +1,202 @@
+package com.cabbooking.ingestion;
+
+import com.cabbooking.entity.LocationLog;
+import com.cabbooking.geo.DriverPositionStore;
+import com.cabbooking.service.LocationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decouples location pings from the database. Requests only enqueue onto a bounded ring
+ * buffer; a single writer thread drains it and persists the pings in JDBC batches, flushing
+ * when a batch is full or when the flush interval has passed, whichever comes first.
+ * <p>
+ * When the buffer is full {@link #submit} refuses the ping instead of blocking, so callers
+ * can push back on the client. Accepted pings from tracked drivers also update the
+ * {@link DriverPositionStore} right away. Buffer depth, accepted, rejected, persisted and
+ * dropped pings and flush latency are published under {@code location.ingestion.*}.
+ */
+@Component
+public class LocationIngestionPipeline implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(LocationIngestionPipeline.class);
+
+    private final LocationService locationService;
+    private final DriverPositionStore driverPositionStore;
+    private final BlockingQueue<LocationLog> buffer;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter persistedCounter;
+    private final Counter droppedCounter;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public LocationIngestionPipeline(
+            LocationService locationService,
+            DriverPositionStore driverPositionStore,
+            MeterRegistry meterRegistry,
+            @Value("${location.ingestion.buffer-capacity:50000}") int bufferCapacity,
+            @Value("${location.ingestion.batch-size:500}") int batchSize,
+            @Value("${location.ingestion.flush-interval-ms:200}") long flushIntervalMillis) {
+        this.locationService = locationService;
+        this.driverPositionStore = driverPositionStore;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+
+        Gauge.builder("location.ingestion.buffer.size", buffer, BlockingQueue::size)
+                .description("Pings waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("location.ingestion.buffer.capacity", () -> bufferCapacity)
+                .register(meterRegistry);
+        this.acceptedCounter = meterRegistry.counter("location.ingestion.accepted");
+        this.rejectedCounter = meterRegistry.counter("location.ingestion.rejected");
+        this.persistedCounter = meterRegistry.counter("location.ingestion.persisted");
+        this.droppedCounter = meterRegistry.counter("location.ingestion.dropped");
+        this.flushTimer = meterRegistry.timer("location.ingestion.flush");
+    }
+
+    /**
+     * @return false when the buffer is full and the ping was not accepted
+     */
+    public boolean submit(LocationLog locationLog) {
+        if (locationLog.getTimestamp() == null) {
+            locationLog.setTimestamp(LocalDateTime.now());
+        }
+        if (buffer.offer(locationLog)) {
+            acceptedCounter.increment();
+            // The live position is visible immediately; the history row follows with the next flush
+            if (locationLog.getDriver() != null && locationLog.getDriver().getId() != null) {
+                driverPositionStore.record(locationLog.getDriver().getId(), locationLog.getLatitude(),
+                        locationLog.getLongitude(), locationLog.getHeading(), locationLog.getSpeed(),
+                        locationLog.getTimestamp());
+            }
+            return true;
+        }
+        rejectedCounter.increment();
+        return false;
+    }
+
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "location-ingestion-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        List<LocationLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                // stop() was called; fall through to the final drain
+                break;
+            }
+            flush(batch);
+        }
+        // An interrupted fillBatch may leave a partial batch; flush it on its own so the
+        // drain below never exceeds the batch size
+        flush(batch);
+
+        // Persist whatever is still buffered before the context closes
+        while (!buffer.isEmpty()) {
+            buffer.drainTo(batch, batchSize);
+            flush(batch);
+        }
+    }
+
+    /**
+     * Blocks until the batch is full or the flush interval since the first ping has elapsed.
+     */
+    private void fillBatch(List<LocationLog> batch) throws InterruptedException {
+        LocationLog first = buffer.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        while (batch.size() < batchSize) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            LocationLog next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    void flush(List<LocationLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            flushTimer.record(() -> locationService.saveLocationBatch(batch));
+            persistedCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            // One bad ping (e.g. an unknown driver id) fails the whole batch; retry row by
+            // row so only the offending pings are dropped
+            log.warn("Location batch of {} failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (LocationLog locationLog : batch) {
+                try {
+                    locationService.saveLocationBatch(List.of(locationLog));
+                    persistedCounter.increment();
+                } catch (RuntimeException rowFailure) {
+                    droppedCounter.increment();
+                    log.warn("Dropping location ping for driver {}: {}",
+                            locationLog.getDriver() != null ? locationLog.getDriver().getId() : null,
+                            rowFailure.getMessage());
+                }
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+}
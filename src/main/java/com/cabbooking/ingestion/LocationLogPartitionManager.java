@@ -0,0 +1,148 @@
+package com.cabbooking.ingestion;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Maintains the daily range partitions of {@code location_logs} on MySQL (see the
+ * {@code db/vendor/mysql} migration): keeps partitions for the coming days split off the
+ * catch-all {@code p_future} partition, and drops whole partitions once every row in them
+ * is past retention. Does nothing on databases where the table is not partitioned.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "location.partitioning", name = "enabled", havingValue = "true")
+public class LocationLogPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(LocationLogPartitionManager.class);
+
+    static final String FUTURE_PARTITION = "p_future";
+    // MySQL's TO_DAYS() of 1970-01-01
+    private static final long TO_DAYS_EPOCH_OFFSET = 719528;
+    private static final DateTimeFormatter PARTITION_NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+
+    private static final String LIST_PARTITIONS_SQL =
+            "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'location_logs' AND PARTITION_NAME IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${location.partitioning.days-ahead:7}")
+    private int daysAhead;
+
+    @Value("${location.partitioning.retention-days:30}")
+    private int retentionDays;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${location.partitioning.cron:0 5 0 * * *}")
+    public void maintainPartitions() {
+        if (!isMySql()) {
+            return;
+        }
+        List<Partition> partitions = jdbcTemplate.query(LIST_PARTITIONS_SQL, (rs, rowNum) -> new Partition(
+                rs.getString(1),
+                "MAXVALUE".equals(rs.getString(2)) ? null : Long.parseLong(rs.getString(2))));
+        if (partitions.isEmpty()) {
+            return;
+        }
+
+        for (String statement : plan(partitions, LocalDate.now(), daysAhead, retentionDays)) {
+            try {
+                jdbcTemplate.execute(statement);
+                log.info("Applied location_logs partition change: {}", statement);
+            } catch (DataAccessException e) {
+                log.warn("Partition maintenance statement failed: {}: {}", statement, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The DDL that brings the partition layout up to date for {@code today}: at most one
+     * REORGANIZE adding the missing daily partitions up to {@code daysAhead} ahead, and at
+     * most one DROP for the partitions whose rows are all older than {@code retentionDays}.
+     */
+    static List<String> plan(List<Partition> partitions, LocalDate today, int daysAhead, int retentionDays) {
+        List<Partition> bounded = partitions.stream()
+                .filter(partition -> partition.getUpperBound() != null)
+                .sorted(Comparator.comparing(Partition::getUpperBound))
+                .toList();
+        boolean hasFuture = partitions.stream().anyMatch(partition -> partition.getUpperBound() == null);
+        List<String> statements = new ArrayList<>();
+
+        long highestBound = bounded.isEmpty() ? Long.MIN_VALUE : bounded.get(bounded.size() - 1).getUpperBound();
+        List<String> additions = new ArrayList<>();
+        long todayStart = toDays(today);
+        if (highestBound < todayStart) {
+            // Days missed while the job was not running share one catch-up partition
+            additions.add(partitionClause(today.minusDays(1), todayStart));
+            highestBound = todayStart;
+        }
+        for (LocalDate day = today; !day.isAfter(today.plusDays(daysAhead)); day = day.plusDays(1)) {
+            long dayEnd = toDays(day.plusDays(1));
+            if (dayEnd > highestBound) {
+                additions.add(partitionClause(day, dayEnd));
+                highestBound = dayEnd;
+            }
+        }
+        if (hasFuture && !additions.isEmpty()) {
+            additions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE");
+            statements.add("ALTER TABLE location_logs REORGANIZE PARTITION " + FUTURE_PARTITION
+                    + " INTO (" + String.join(", ", additions) + ")");
+        }
+
+        long retainFrom = toDays(today.minusDays(retentionDays));
+        List<String> expired = bounded.stream()
+                .filter(partition -> partition.getUpperBound() <= retainFrom)
+                .map(Partition::getName)
+                .toList();
+        // MySQL refuses to drop every partition, so always keep at least one bounded partition
+        if (!expired.isEmpty() && (expired.size() < bounded.size() || hasFuture)) {
+            statements.add("ALTER TABLE location_logs DROP PARTITION " + String.join(", ", expired));
+        }
+        return statements;
+    }
+
+    static long toDays(LocalDate date) {
+        return date.toEpochDay() + TO_DAYS_EPOCH_OFFSET;
+    }
+
+    private static String partitionClause(LocalDate day, long upperBound) {
+        return "PARTITION " + day.format(PARTITION_NAME_FORMAT) + " VALUES LESS THAN (" + upperBound + ")";
+    }
+
+    private boolean isMySql() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(
+                    jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName);
+            return product != null && product.toLowerCase().contains("mysql");
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not determine database vendor, skipping partition maintenance: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @lombok.Value
+    static class Partition {
+        String name;
+        // TO_DAYS() value the partition is bounded by; null for MAXVALUE
+        Long upperBound;
+    }
+}
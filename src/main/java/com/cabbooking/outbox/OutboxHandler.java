@@ -0,0 +1,16 @@
+package com.cabbooking.outbox;
+
+import com.cabbooking.entity.OutboxMessage;
+
+/**
+ * Runs one kind of side effect for {@link OutboxRelay}. Handlers are called inside the
+ * transaction that marks the message processed, so their database writes commit exactly once
+ * with it; anything they do outside the database (a receipt mail, a push) may be repeated
+ * after a failure and has to tolerate that.
+ */
+public interface OutboxHandler {
+
+    OutboxMessage.Type type();
+
+    void handle(OutboxMessage message);
+}
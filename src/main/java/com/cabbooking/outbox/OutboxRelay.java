@@ -0,0 +1,209 @@
+package com.cabbooking.outbox;
+
+import com.cabbooking.entity.OutboxMessage;
+import com.cabbooking.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the outbox: polls for due messages in batches and hands each one to a worker, which
+ * claims it, runs every {@link OutboxHandler} registered for its type and commits, all in one
+ * transaction. A message another node has already claimed is skipped.
+ * <p>
+ * When a handler fails the transaction rolls back, leaving the message unprocessed, and the
+ * failure is recorded on it with a retry time that backs off exponentially up to
+ * {@code outbox.relay.max-backoff-ms}. Messages are not ordered relative to each other.
+ * Processed and failed messages, batch latency and the unprocessed backlog are published
+ * under {@code outbox.relay.*}.
+ * <p>
+ * Processed messages are kept for {@code outbox.retention.keep-processed} and then purged in
+ * batches on {@code outbox.retention.cron}; purged rows are counted as {@code outbox.relay.purged}.
+ * <p>
+ * Workers are a pool of {@code outbox.relay.workers} platform threads, or as many virtual
+ * threads at a time when {@code spring.threads.virtual.enabled} is set on Java 21.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final Map<OutboxMessage.Type, List<OutboxHandler>> handlers;
+    private final TransactionTemplate transaction;
+    private final AsyncTaskExecutor workers;
+    private final int batchSize;
+    private final long maxBackoffMillis;
+    private final Duration keepProcessed;
+
+    private final Counter processedCounter;
+    private final Counter failedCounter;
+    private final Counter purgedCounter;
+    private final Timer batchTimer;
+
+    public OutboxRelay(
+            OutboxMessageRepository outboxMessageRepository,
+            List<OutboxHandler> handlers,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            Environment environment,
+            @Value("${outbox.relay.batch-size:100}") int batchSize,
+            @Value("${outbox.relay.workers:4}") int workerCount,
+            @Value("${outbox.relay.max-backoff-ms:300000}") long maxBackoffMillis,
+            @Value("${outbox.retention.keep-processed:7d}") Duration keepProcessed) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.handlers = handlers.stream().collect(Collectors.groupingBy(
+                OutboxHandler::type, () -> new EnumMap<>(OutboxMessage.Type.class), Collectors.toList()));
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.keepProcessed = keepProcessed;
+
+        this.workers = workers(workerCount, Threading.VIRTUAL.isActive(environment));
+
+        Gauge.builder("outbox.relay.pending", outboxMessageRepository,
+                        OutboxMessageRepository::countByProcessedAtIsNull)
+                .description("Outbox messages not processed yet")
+                .register(meterRegistry);
+        this.processedCounter = meterRegistry.counter("outbox.relay.processed");
+        this.failedCounter = meterRegistry.counter("outbox.relay.failed");
+        this.purgedCounter = meterRegistry.counter("outbox.relay.purged");
+        this.batchTimer = meterRegistry.timer("outbox.relay.batch");
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:200}")
+    public void relay() {
+        List<OutboxMessage> messages;
+        do {
+            messages = outboxMessageRepository.findDue(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (messages.isEmpty()) {
+                return;
+            }
+            List<OutboxMessage> batch = messages;
+            try {
+                batchTimer.record(() -> CompletableFuture.allOf(batch.stream()
+                                .map(message -> CompletableFuture.runAsync(() -> process(message), workers))
+                                .toArray(CompletableFuture[]::new))
+                        .join());
+            } catch (RuntimeException e) {
+                // process() handles its own failures; this is the executor refusing work
+                log.warn("Outbox batch of {} messages failed: {}", batch.size(), e.getMessage());
+                return;
+            }
+        } while (messages.size() == batchSize);
+    }
+
+    void process(OutboxMessage message) {
+        try {
+            boolean claimed = Boolean.TRUE.equals(transaction.execute(status -> {
+                if (outboxMessageRepository.markProcessed(message.getId(), LocalDateTime.now()) == 0) {
+                    return false;
+                }
+                handlers.getOrDefault(message.getMessageType(), List.of())
+                        .forEach(handler -> handler.handle(message));
+                return true;
+            }));
+            if (claimed) {
+                processedCounter.increment();
+            }
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            Duration backoff = backoff(message.getAttempts());
+            log.warn("Outbox message {} ({} of booking {}) failed, retrying in {}: {}", message.getId(),
+                    message.getMessageType(), message.getAggregateId(), backoff, e.getMessage());
+            recordFailure(message, e, backoff);
+        }
+    }
+
+    private void recordFailure(OutboxMessage message, RuntimeException failure, Duration backoff) {
+        String error = String.valueOf(failure.getMessage());
+        String truncated = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        try {
+            transaction.executeWithoutResult(status -> outboxMessageRepository.recordFailure(
+                    message.getId(), truncated, LocalDateTime.now().plus(backoff)));
+        } catch (RuntimeException e) {
+            // The message is still unprocessed, so the next poll simply tries it again
+            log.warn("Could not record failure of outbox message {}: {}", message.getId(), e.getMessage());
+        }
+    }
+
+    // 1s, 2s, 4s, ... per earlier attempt, capped
+    Duration backoff(int attempts) {
+        long millis = TimeUnit.SECONDS.toMillis(1L << Math.min(attempts, 20));
+        return Duration.ofMillis(Math.min(millis, maxBackoffMillis));
+    }
+
+    /**
+     * Deletes messages processed longer ago than the retention period, one batch per
+     * transaction so the purge never holds many row locks at once.
+     */
+    @Scheduled(cron = "${outbox.retention.cron:0 45 * * * *}")
+    public void purgeProcessed() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(keepProcessed);
+        List<Long> ids;
+        do {
+            ids = outboxMessageRepository.findIdsProcessedBefore(cutoff, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return;
+            }
+            List<Long> batch = ids;
+            Integer deleted = transaction.execute(status -> outboxMessageRepository.deleteByIds(batch));
+            purgedCounter.increment(deleted != null ? deleted : 0);
+        } while (ids.size() == batchSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (workers instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        } else if (workers instanceof SimpleAsyncTaskExecutor executor) {
+            executor.close();
+        }
+    }
+
+    private static AsyncTaskExecutor workers(int workerCount, boolean virtualThreads) {
+        if (virtualThreads) {
+            // A fresh virtual thread per message, throttled to the same concurrency as the pool
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("outbox-relay-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(workerCount);
+            executor.setTaskTerminationTimeout(TimeUnit.SECONDS.toMillis(30));
+            return executor;
+        }
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(workerCount);
+        pool.setMaxPoolSize(workerCount);
+        pool.setThreadNamePrefix("outbox-relay-");
+        pool.setDaemon(true);
+        pool.setWaitForTasksToCompleteOnShutdown(true);
+        pool.setAwaitTerminationSeconds(30);
+        pool.initialize();
+        return pool;
+    }
+}
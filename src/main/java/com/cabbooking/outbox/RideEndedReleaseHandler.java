@@ -0,0 +1,44 @@
+package com.cabbooking.outbox;
+
+import com.cabbooking.entity.Cab;
+import com.cabbooking.entity.Driver;
+import com.cabbooking.entity.OutboxMessage;
+import com.cabbooking.repository.BookingRepository;
+import com.cabbooking.service.CabService;
+import com.cabbooking.service.DriverService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Makes the driver and cab of a finished ride available again. Assignment writes both onto the
+ * booking row right away, so they are current even while the row's status still trails its log.
+ */
+@Component
+@RequiredArgsConstructor
+public class RideEndedReleaseHandler implements OutboxHandler {
+
+    private final BookingRepository bookingRepository;
+    private final DriverService driverService;
+    private final CabService cabService;
+
+    @Override
+    public OutboxMessage.Type type() {
+        return OutboxMessage.Type.RIDE_ENDED;
+    }
+
+    @Override
+    public void handle(OutboxMessage message) {
+        for (BookingRepository.TransitionTarget booking
+                : bookingRepository.findTransitionTargetsByIdIn(List.of(message.getAggregateId()))) {
+            // A booking cancelled before assignment has nothing to release
+            if (booking.getDriverId() != null) {
+                driverService.updateDriverStatus(booking.getDriverId(), Driver.DriverStatus.ONLINE);
+                if (booking.getCabId() != null) {
+                    cabService.updateCabStatus(booking.getCabId(), Cab.CabStatus.AVAILABLE);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.cabbooking.pricing;
+
+import com.cabbooking.entity.Booking;
+
+/**
+ * Prices a trip between two points for a requested cab type.
+ */
+public interface FareEngine {
+
+    FareQuote quote(double pickupLatitude, double pickupLongitude,
+            double dropoffLatitude, double dropoffLongitude, Booking.CabType cabType);
+}
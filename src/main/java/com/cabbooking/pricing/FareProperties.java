@@ -0,0 +1,22 @@
+package com.cabbooking.pricing;
+
+import com.cabbooking.entity.Booking;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.cabbooking.util.ApplicationConstants.DEFAULT_AVG_SPEED_KMH;
+
+/**
+ * Rate cards per cab type, bound from {@code fare.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "fare")
+public class FareProperties {
+
+    private double averageSpeedKmh = DEFAULT_AVG_SPEED_KMH;
+
+    private Map<Booking.CabType, RateCard> rateCards = new EnumMap<>(Booking.CabType.class);
+}
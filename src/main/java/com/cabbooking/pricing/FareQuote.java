@@ -0,0 +1,30 @@
+package com.cabbooking.pricing;
+
+import com.cabbooking.entity.Booking;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+import static com.cabbooking.util.ApplicationConstants.FARE_SCALE;
+
+/**
+ * Estimated fare, distance and duration of a trip. The fare is held in minor units; the
+ * {@code BigDecimal} views exist for the columns that store them.
+ */
+@Value
+public class FareQuote {
+
+    Booking.CabType cabType;
+    double distanceKm;
+    long fareMinor;
+    double surgeMultiplier;
+    int durationMinutes;
+
+    public BigDecimal fare() {
+        return BigDecimal.valueOf(fareMinor, FARE_SCALE);
+    }
+
+    public BigDecimal distance() {
+        return BigDecimal.valueOf(distanceKm);
+    }
+}
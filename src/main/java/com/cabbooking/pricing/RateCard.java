@@ -0,0 +1,13 @@
+package com.cabbooking.pricing;
+
+import lombok.Value;
+
+/**
+ * Tariff for one cab type, in minor currency units (1/100 of the fare currency).
+ */
+@Value
+public class RateCard {
+
+    long baseFareMinor;
+    long perKmMinor;
+}
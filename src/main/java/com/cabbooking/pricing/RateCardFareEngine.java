@@ -0,0 +1,60 @@
+package com.cabbooking.pricing;
+
+import com.cabbooking.entity.Booking;
+import com.cabbooking.util.GeoUtils;
+
+import java.util.Map;
+
+import static com.cabbooking.util.ApplicationConstants.MINUTES_IN_HOUR;
+
+/**
+ * Prices trips as base fare plus a per-kilometre rate from the cab type's rate card, scaled
+ * by the surge multiplier at the pickup point. Cards are copied into arrays indexed by cab
+ * type, and all arithmetic is in {@code long} minor units, so a quote allocates nothing but
+ * the quote itself.
+ */
+public class RateCardFareEngine implements FareEngine {
+
+    private final long[] baseFareMinor;
+    private final long[] perKmMinor;
+    private final double minutesPerKm;
+    private final SurgeMultipliers surgeMultipliers;
+
+    public RateCardFareEngine(Map<Booking.CabType, RateCard> rateCards, double averageSpeedKmh) {
+        this(rateCards, averageSpeedKmh, SurgeMultipliers.NONE);
+    }
+
+    public RateCardFareEngine(Map<Booking.CabType, RateCard> rateCards, double averageSpeedKmh,
+            SurgeMultipliers surgeMultipliers) {
+        if (averageSpeedKmh <= 0) {
+            throw new IllegalArgumentException("Average speed must be positive: " + averageSpeedKmh);
+        }
+        Booking.CabType[] cabTypes = Booking.CabType.values();
+        this.baseFareMinor = new long[cabTypes.length];
+        this.perKmMinor = new long[cabTypes.length];
+        for (Booking.CabType cabType : cabTypes) {
+            RateCard rateCard = rateCards.get(cabType);
+            if (rateCard == null) {
+                throw new IllegalArgumentException("No rate card for cab type " + cabType);
+            }
+            baseFareMinor[cabType.ordinal()] = rateCard.getBaseFareMinor();
+            perKmMinor[cabType.ordinal()] = rateCard.getPerKmMinor();
+        }
+        this.minutesPerKm = MINUTES_IN_HOUR / averageSpeedKmh;
+        this.surgeMultipliers = surgeMultipliers;
+    }
+
+    @Override
+    public FareQuote quote(double pickupLatitude, double pickupLongitude,
+            double dropoffLatitude, double dropoffLongitude, Booking.CabType cabType) {
+        double distanceKm = GeoUtils.haversineKm(pickupLatitude, pickupLongitude, dropoffLatitude, dropoffLongitude);
+        int type = cabType.ordinal();
+        long fareMinor = baseFareMinor[type] + Math.round(distanceKm * perKmMinor[type]);
+        double surgeMultiplier = surgeMultipliers.multiplierAt(pickupLatitude, pickupLongitude);
+        if (surgeMultiplier != 1.0) {
+            fareMinor = Math.round(fareMinor * surgeMultiplier);
+        }
+        int durationMinutes = (int) (distanceKm * minutesPerKm);
+        return new FareQuote(cabType, distanceKm, fareMinor, surgeMultiplier, durationMinutes);
+    }
+}
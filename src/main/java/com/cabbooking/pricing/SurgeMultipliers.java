@@ -0,0 +1,13 @@
+package com.cabbooking.pricing;
+
+/**
+ * Current surge multiplier at a point. Lookups are served from memory and must be cheap
+ * enough to run on every quote.
+ */
+@FunctionalInterface
+public interface SurgeMultipliers {
+
+    SurgeMultipliers NONE = (latitude, longitude) -> 1.0;
+
+    double multiplierAt(double latitude, double longitude);
+}
@@ -0,0 +1,184 @@
+package com.cabbooking.pricing;
+
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.Driver;
+import com.cabbooking.geo.DriverPositionStore;
+import com.cabbooking.util.TransactionHooks;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Surge multipliers per geo zone from the local balance of demand (REQUESTED bookings by
+ * pickup point) and supply (ONLINE, VERIFIED drivers). Counters are atomics updated as
+ * bookings and drivers change state, and each zone's multiplier is recomputed on a fixed
+ * delay and published through a volatile field, so a quote's lookup is one map read and
+ * never touches the database.
+ * <p>
+ * Counts are per node and seeded from the database at startup. Drivers are counted in the
+ * zone they were last seen in; moves are picked up from the live position store on each
+ * recompute. Zones are kept once created, which bounds memory by the area ever served.
+ */
+@Component
+public class SurgePricingEngine implements SurgeMultipliers {
+
+    private final DriverPositionStore driverPositionStore;
+    private final SurgeProperties properties;
+    private final int columns;
+
+    private final Map<Long, Zone> zones = new ConcurrentHashMap<>();
+    // driver id -> zone key the driver is counted in
+    private final Map<Long, Long> driverZones = new ConcurrentHashMap<>();
+
+    public SurgePricingEngine(DriverPositionStore driverPositionStore, SurgeProperties properties) {
+        double cellSizeDegrees = properties.getCellSizeDegrees();
+        if (cellSizeDegrees <= 0 || cellSizeDegrees > 10) {
+            throw new IllegalArgumentException("Cell size must be in (0, 10] degrees");
+        }
+        if (properties.getMaxMultiplier() < 1.0) {
+            throw new IllegalArgumentException("Max multiplier must be at least 1");
+        }
+        this.driverPositionStore = driverPositionStore;
+        this.properties = properties;
+        this.columns = (int) Math.ceil(360.0 / cellSizeDegrees);
+    }
+
+    @Override
+    public double multiplierAt(double latitude, double longitude) {
+        Zone zone = zones.get(zoneKey(latitude, longitude));
+        return zone == null ? 1.0 : zone.multiplier;
+    }
+
+    /**
+     * Counts a new REQUESTED booking once the current transaction commits.
+     */
+    public void bookingRequested(Booking booking) {
+        adjustDemand(booking, 1);
+    }
+
+    /**
+     * Stops counting a booking that has left REQUESTED, once the current transaction commits.
+     */
+    public void bookingLeftRequested(Booking booking) {
+        adjustDemand(booking, -1);
+    }
+
+    /**
+     * Recounts the driver as supply, or drops it, once the current transaction commits.
+     * Mirrors the eligibility rule of the driver spatial index.
+     */
+    public void update(Driver driver) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Long id = driver.getId();
+        boolean available = driver.getStatus() == Driver.DriverStatus.ONLINE
+                && driver.getVerificationStatus() == Driver.VerificationStatus.VERIFIED
+                && driver.getCurrentLatitude() != null && driver.getCurrentLongitude() != null;
+        double latitude = available ? driver.getCurrentLatitude() : 0;
+        double longitude = available ? driver.getCurrentLongitude() : 0;
+
+        TransactionHooks.afterCommit(() -> {
+            if (available) {
+                putDriver(id, latitude, longitude);
+            } else {
+                evictDriver(id);
+            }
+        });
+    }
+
+    /**
+     * Stops counting the driver once the current transaction commits.
+     */
+    public void remove(Long driverId) {
+        TransactionHooks.afterCommit(() -> evictDriver(driverId));
+    }
+
+    public void putDriver(Long driverId, double latitude, double longitude) {
+        long zoneKey = zoneKey(latitude, longitude);
+        Long previous = driverZones.put(driverId, zoneKey);
+        if (previous == null || previous != zoneKey) {
+            zone(zoneKey).supply.incrementAndGet();
+            if (previous != null) {
+                zone(previous).supply.decrementAndGet();
+            }
+        }
+    }
+
+    public void evictDriver(Long driverId) {
+        Long previous = driverZones.remove(driverId);
+        if (previous != null) {
+            zone(previous).supply.decrementAndGet();
+        }
+    }
+
+    public void addDemand(double latitude, double longitude, int delta) {
+        zone(zoneKey(latitude, longitude)).demand.addAndGet(delta);
+    }
+
+    public void clear() {
+        zones.clear();
+        driverZones.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${surge.recompute-interval-ms:5000}")
+    public void recompute() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        relocateMovedDrivers();
+        zones.values().forEach(zone -> zone.multiplier = multiplier(zone.demand.get(), zone.supply.get()));
+    }
+
+    double multiplier(int demand, int supply) {
+        // Bookings accepted on another node can leave a counter briefly below zero
+        if (demand < Math.max(1, properties.getMinDemand())) {
+            return 1.0;
+        }
+        double ratio = demand / (double) Math.max(1, supply);
+        double multiplier = 1.0 + properties.getSensitivity() * (ratio - 1.0);
+        multiplier = Math.max(1.0, Math.min(properties.getMaxMultiplier(), multiplier));
+        // Riders see tenths; avoids a quote changing on every small fluctuation
+        return Math.round(multiplier * 10) / 10.0;
+    }
+
+    private void relocateMovedDrivers() {
+        driverZones.forEach((driverId, zoneKey) -> driverPositionStore.findLive(driverId).ifPresent(position -> {
+            long current = zoneKey(position.getLatitude(), position.getLongitude());
+            // Conditional so a concurrent status change for the driver wins
+            if (current != zoneKey && driverZones.replace(driverId, zoneKey, current)) {
+                zone(current).supply.incrementAndGet();
+                zone(zoneKey).supply.decrementAndGet();
+            }
+        }));
+    }
+
+    private void adjustDemand(Booking booking, int delta) {
+        Double latitude = booking.getPickupLatitude();
+        Double longitude = booking.getPickupLongitude();
+        if (!properties.isEnabled() || latitude == null || longitude == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> addDemand(latitude, longitude, delta));
+    }
+
+    private Zone zone(long zoneKey) {
+        return zones.computeIfAbsent(zoneKey, key -> new Zone());
+    }
+
+    private long zoneKey(double latitude, double longitude) {
+        double cellSizeDegrees = properties.getCellSizeDegrees();
+        long row = (long) Math.floor((latitude + 90.0) / cellSizeDegrees);
+        long column = Math.floorMod((long) Math.floor((longitude + 180.0) / cellSizeDegrees), columns);
+        return row * columns + column;
+    }
+
+    private static final class Zone {
+        private final AtomicInteger demand = new AtomicInteger();
+        private final AtomicInteger supply = new AtomicInteger();
+        private volatile double multiplier = 1.0;
+    }
+}
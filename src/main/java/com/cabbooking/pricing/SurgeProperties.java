@@ -0,0 +1,25 @@
+package com.cabbooking.pricing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Surge zone size and multiplier curve, bound from {@code surge.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "surge")
+public class SurgeProperties {
+
+    private boolean enabled = true;
+
+    // Zone edge in degrees (~2.2 km at 0.02)
+    private double cellSizeDegrees = 0.02;
+
+    // Zones with fewer waiting bookings never surge
+    private int minDemand = 3;
+
+    // Multiplier added per unit of demand/supply ratio above 1
+    private double sensitivity = 0.5;
+
+    private double maxMultiplier = 3.0;
+}
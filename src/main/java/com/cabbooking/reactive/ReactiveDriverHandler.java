@@ -0,0 +1,34 @@
+package com.cabbooking.reactive;
+
+import com.cabbooking.dto.DriverSummaryDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@code GET /api/drivers/nearby}. Searches the drivers table over
+ * R2DBC rather than this node's spatial index, so results reflect positions as last
+ * checkpointed.
+ */
+@Component
+@ConditionalOnProperty(prefix = "reactive", name = "enabled", havingValue = "true")
+public class ReactiveDriverHandler {
+
+    private static final double DEFAULT_RADIUS_KM = 5.0;
+
+    private final ReactiveDriverRepository driverRepository;
+
+    public ReactiveDriverHandler(ReactiveDriverRepository driverRepository) {
+        this.driverRepository = driverRepository;
+    }
+
+    public Mono<ServerResponse> getNearbyDrivers(ServerRequest request) {
+        Double latitude = RequestParams.queryParam(request, "latitude", Double::valueOf);
+        Double longitude = RequestParams.queryParam(request, "longitude", Double::valueOf);
+        Double radiusKm = RequestParams.queryParam(request, "radiusKm", Double::valueOf, DEFAULT_RADIUS_KM);
+        return ServerResponse.ok().body(
+                driverRepository.findNearbyAvailableDrivers(latitude, longitude, radiusKm), DriverSummaryDto.class);
+    }
+}
@@ -0,0 +1,68 @@
+package com.cabbooking.reactive;
+
+import com.cabbooking.dto.DriverSummaryDto;
+import com.cabbooking.dto.UserSummaryDto;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC counterpart of {@code DriverRepository.findNearbyAvailableDrivers}, returning the same
+ * summary projection the servlet API serves for nearby drivers, and of its {@code existsById}.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "reactive", name = "enabled", havingValue = "true")
+public class ReactiveDriverRepository {
+
+    private static final String DISTANCE_KM = "(6371 * ACOS(COS(RADIANS(:latitude)) * COS(RADIANS(d.current_latitude)) * " +
+            "COS(RADIANS(d.current_longitude) - RADIANS(:longitude)) + " +
+            "SIN(RADIANS(:latitude)) * SIN(RADIANS(d.current_latitude))))";
+
+    private static final String NEARBY_AVAILABLE = "SELECT d.id, d.license_number, d.rating, d.total_rides, " +
+            "d.status, d.verification_status, d.current_latitude, d.current_longitude, " +
+            "u.id AS user_id, u.first_name, u.last_name, u.email, u.phone_number, u.role, u.status AS user_status " +
+            "FROM drivers d JOIN users u ON u.id = d.user_id " +
+            "WHERE d.status = 'ONLINE' AND d.verification_status = 'VERIFIED' " +
+            "AND d.current_latitude IS NOT NULL AND d.current_longitude IS NOT NULL " +
+            "AND " + DISTANCE_KM + " <= :radiusKm " +
+            "ORDER BY " + DISTANCE_KM;
+
+    private static final String EXISTS = "SELECT 1 FROM drivers WHERE id = :id";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveDriverRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<DriverSummaryDto> findNearbyAvailableDrivers(Double latitude, Double longitude, Double radiusKm) {
+        return databaseClient.sql(NEARBY_AVAILABLE)
+                .bind("latitude", latitude)
+                .bind("longitude", longitude)
+                .bind("radiusKm", radiusKm)
+                .map(ReactiveDriverRepository::toSummary)
+                .all();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql(EXISTS)
+                .bind("id", id)
+                .fetch()
+                .first()
+                .hasElement();
+    }
+
+    private static DriverSummaryDto toSummary(Readable row) {
+        UserSummaryDto user = new UserSummaryDto(row.get("user_id", Long.class),
+                row.get("first_name", String.class), row.get("last_name", String.class),
+                row.get("email", String.class), row.get("phone_number", String.class),
+                row.get("role", String.class), row.get("user_status", String.class));
+        return new DriverSummaryDto(row.get("id", Long.class), row.get("license_number", String.class),
+                row.get("rating", Double.class), row.get("total_rides", Integer.class),
+                row.get("status", String.class), row.get("verification_status", String.class),
+                row.get("current_latitude", Double.class), row.get("current_longitude", Double.class), user);
+    }
+}
@@ -0,0 +1,100 @@
+package com.cabbooking.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+/**
+ * Serves the reactive routes on their own Reactor Netty server next to the servlet container,
+ * so the booking flow keeps its MVC request threads while location traffic is multiplexed over
+ * {@code reactive.server.event-loop-threads} event loops (0 = one per core). Started when
+ * {@code reactive.enabled} is set; JSON goes through the application's ObjectMapper. Request
+ * metrics are published under {@code reactor.netty.http.server.*}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "reactive", name = "enabled", havingValue = "true")
+public class ReactiveHttpServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveHttpServer.class);
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpHandler httpHandler;
+    private final int port;
+    private final int eventLoopThreads;
+
+    private volatile LoopResources loops;
+    private volatile DisposableServer server;
+
+    public ReactiveHttpServer(
+            RouterFunction<ServerResponse> reactiveRoutes,
+            ObjectMapper objectMapper,
+            @Value("${reactive.server.port:8081}") int port,
+            @Value("${reactive.server.event-loop-threads:0}") int eventLoopThreads) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        this.httpHandler = RouterFunctions.toHttpHandler(reactiveRoutes, strategies);
+        this.port = port;
+        this.eventLoopThreads = eventLoopThreads > 0 ? eventLoopThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public void start() {
+        loops = LoopResources.create("reactive-http", eventLoopThreads, true);
+        server = HttpServer.create()
+                .port(port)
+                .runOn(loops)
+                // Ids in paths would give every driver and booking its own meter
+                .metrics(true, uri -> uri.replaceAll("/\\d+", "/{id}"))
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive API listening on port {} with {} event loop threads", server.port(), eventLoopThreads);
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer running = server;
+        if (running != null) {
+            running.disposeNow(SHUTDOWN_TIMEOUT);
+            server = null;
+        }
+        if (loops != null) {
+            loops.disposeLater().block(SHUTDOWN_TIMEOUT);
+            loops = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * The bound port, which differs from the configured one when that is 0.
+     */
+    public int getPort() {
+        DisposableServer running = server;
+        return running != null ? running.port() : port;
+    }
+}
@@ -0,0 +1,135 @@
+package com.cabbooking.reactive;
+
+import com.cabbooking.entity.LocationLog;
+import com.cabbooking.geo.DriverPosition;
+import com.cabbooking.geo.DriverPositionStore;
+import com.cabbooking.ingestion.LocationIngestionPipeline;
+import com.cabbooking.service.LocationHistoryCursor;
+import com.cabbooking.util.ObjectValidator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static com.cabbooking.util.ApplicationConstants.DEFAULT_PAGE_SIZE;
+import static com.cabbooking.util.ApplicationConstants.HTTP_ACCEPTED;
+import static com.cabbooking.util.ApplicationConstants.HTTP_TOO_MANY_REQUESTS;
+import static com.cabbooking.util.ApplicationConstants.INGESTION_RETRY_AFTER_SECONDS;
+import static com.cabbooking.util.ApplicationConstants.MAX_PAGE_SIZE;
+
+/**
+ * Reactive counterpart of {@code LocationController}'s single-ping and history endpoints.
+ * Pings go into the same ingestion buffer, which never blocks; history is read over R2DBC
+ * from {@code location_logs} only, so points already compacted into trajectories are served
+ * by the servlet API alone. History is a JSON array, or one log per line when the client
+ * accepts {@code application/x-ndjson}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "reactive", name = "enabled", havingValue = "true")
+public class ReactiveLocationHandler {
+
+    private final ReactiveLocationLogRepository locationLogRepository;
+    private final ReactiveDriverRepository driverRepository;
+    private final LocationIngestionPipeline locationIngestionPipeline;
+    private final DriverPositionStore driverPositionStore;
+
+    public ReactiveLocationHandler(
+            ReactiveLocationLogRepository locationLogRepository,
+            ReactiveDriverRepository driverRepository,
+            LocationIngestionPipeline locationIngestionPipeline,
+            DriverPositionStore driverPositionStore) {
+        this.locationLogRepository = locationLogRepository;
+        this.driverRepository = driverRepository;
+        this.locationIngestionPipeline = locationIngestionPipeline;
+        this.driverPositionStore = driverPositionStore;
+    }
+
+    public Mono<ServerResponse> logLocation(ServerRequest request) {
+        return request.bodyToMono(LocationLog.class)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is missing")))
+                .map(locationLog -> {
+                    try {
+                        return ObjectValidator.validate(locationLog);
+                    } catch (IllegalArgumentException e) {
+                        throw new ServerWebInputException(e.getMessage());
+                    }
+                })
+                .flatMap(locationLog -> isKnownDriver(locationLog.getDriver().getId())
+                        .flatMap(known -> known ? submit(locationLog) : ServerResponse.notFound().build()));
+    }
+
+    // As in LocationController: tracked drivers are known without a query
+    private Mono<Boolean> isKnownDriver(Long driverId) {
+        return driverPositionStore.contains(driverId) ? Mono.just(true) : driverRepository.existsById(driverId);
+    }
+
+    private Mono<ServerResponse> submit(LocationLog locationLog) {
+        return locationIngestionPipeline.submit(locationLog)
+                ? ServerResponse.status(HTTP_ACCEPTED).build()
+                : ServerResponse.status(HTTP_TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(INGESTION_RETRY_AFTER_SECONDS))
+                        .build();
+    }
+
+    // Paged like the servlet route over the raw rows; the next page's cursor is the
+    // LocationHistoryCursor of the last log, its timestamp and id
+    public Mono<ServerResponse> getDriverLocationHistory(ServerRequest request) {
+        Long driverId = RequestParams.pathVariable(request, "driverId", Long::valueOf);
+        LocationHistoryCursor before = RequestParams.queryParam(request, "before", LocationHistoryCursor::parse, null);
+        Integer limit = RequestParams.queryParam(request, "limit", Integer::valueOf, DEFAULT_PAGE_SIZE);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ServerWebInputException("Invalid value for 'limit': " + limit);
+        }
+        Flux<LocationLog> page;
+        if (before == null) {
+            page = locationLogRepository.findPageByDriverId(driverId, limit);
+        } else if (before.isRow()) {
+            page = locationLogRepository.findPageByDriverIdBeforeRow(driverId, before.getTimestamp(), before.getId(), limit);
+        } else {
+            page = locationLogRepository.findPageByDriverIdBefore(driverId, before.getTimestamp(), limit);
+        }
+        return ServerResponse.ok().body(page, LocationLog.class);
+    }
+
+    public Mono<ServerResponse> getBookingLocationHistory(ServerRequest request) {
+        Long bookingId = RequestParams.pathVariable(request, "bookingId", Long::valueOf);
+        return ServerResponse.ok().body(
+                locationLogRepository.findByBookingIdOrderByTimestampDesc(bookingId), LocationLog.class);
+    }
+
+    public Mono<ServerResponse> getDriverLocationHistoryInRange(ServerRequest request) {
+        Long driverId = RequestParams.pathVariable(request, "driverId", Long::valueOf);
+        LocalDateTime startTime = RequestParams.queryParam(request, "startTime", LocalDateTime::parse);
+        LocalDateTime endTime = RequestParams.queryParam(request, "endTime", LocalDateTime::parse);
+        return ServerResponse.ok().body(
+                locationLogRepository.findByDriverIdAndTimeRange(driverId, startTime, endTime), LocationLog.class);
+    }
+
+    public Mono<ServerResponse> getBookingLocationHistoryInRange(ServerRequest request) {
+        Long bookingId = RequestParams.pathVariable(request, "bookingId", Long::valueOf);
+        LocalDateTime startTime = RequestParams.queryParam(request, "startTime", LocalDateTime::parse);
+        LocalDateTime endTime = RequestParams.queryParam(request, "endTime", LocalDateTime::parse);
+        return ServerResponse.ok().body(
+                locationLogRepository.findByBookingIdAndTimeRange(bookingId, startTime, endTime), LocationLog.class);
+    }
+
+    /**
+     * Served from the live position store; falls back to the newest history row for drivers
+     * that have not reported since this node started.
+     */
+    public Mono<ServerResponse> getLatestDriverLocation(ServerRequest request) {
+        Long driverId = RequestParams.pathVariable(request, "driverId", Long::valueOf);
+        return Mono.justOrEmpty(driverPositionStore.findLive(driverId))
+                .switchIfEmpty(locationLogRepository.findLatestLocationByDriverId(driverId)
+                        .map(latest -> new DriverPosition(driverId, latest.getLatitude(), latest.getLongitude(),
+                                latest.getHeading(), latest.getSpeed(), latest.getTimestamp())))
+                .flatMap(position -> ServerResponse.ok().bodyValue(position))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+}
@@ -0,0 +1,108 @@
+package com.cabbooking.reactive;
+
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.Driver;
+import com.cabbooking.entity.LocationLog;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC counterpart of the read queries in {@code LocationLogRepository}. Rows come back as
+ * {@link LocationLog}s whose driver and booking carry only their ids, which is all a log
+ * serialises, so responses look the same as on the servlet API.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "reactive", name = "enabled", havingValue = "true")
+public class ReactiveLocationLogRepository {
+
+    private static final String SELECT = "SELECT id, driver_id, booking_id, latitude, longitude, speed, heading, " +
+            "timestamp FROM location_logs ";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveLocationLogRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<LocationLog> findPageByDriverId(Long driverId, int limit) {
+        return databaseClient.sql(SELECT + "WHERE driver_id = :driverId ORDER BY timestamp DESC, id DESC LIMIT " + limit)
+                .bind("driverId", driverId)
+                .map(ReactiveLocationLogRepository::toLocationLog)
+                .all();
+    }
+
+    public Flux<LocationLog> findPageByDriverIdBefore(Long driverId, LocalDateTime before, int limit) {
+        return databaseClient.sql(SELECT + "WHERE driver_id = :driverId AND timestamp < :before " +
+                        "ORDER BY timestamp DESC, id DESC LIMIT " + limit)
+                .bind("driverId", driverId)
+                .bind("before", before)
+                .map(ReactiveLocationLogRepository::toLocationLog)
+                .all();
+    }
+
+    public Flux<LocationLog> findPageByDriverIdBeforeRow(Long driverId, LocalDateTime before, Long beforeId, int limit) {
+        return databaseClient.sql(SELECT + "WHERE driver_id = :driverId " +
+                        "AND (timestamp < :before OR (timestamp = :before AND id < :beforeId)) " +
+                        "ORDER BY timestamp DESC, id DESC LIMIT " + limit)
+                .bind("driverId", driverId)
+                .bind("before", before)
+                .bind("beforeId", beforeId)
+                .map(ReactiveLocationLogRepository::toLocationLog)
+                .all();
+    }
+
+    public Flux<LocationLog> findByBookingIdOrderByTimestampDesc(Long bookingId) {
+        return databaseClient.sql(SELECT + "WHERE booking_id = :bookingId ORDER BY timestamp DESC")
+                .bind("bookingId", bookingId)
+                .map(ReactiveLocationLogRepository::toLocationLog)
+                .all();
+    }
+
+    public Flux<LocationLog> findByDriverIdAndTimeRange(Long driverId, LocalDateTime startTime, LocalDateTime endTime) {
+        return databaseClient.sql(SELECT + "WHERE driver_id = :driverId " +
+                        "AND timestamp BETWEEN :startTime AND :endTime ORDER BY timestamp DESC")
+                .bind("driverId", driverId)
+                .bind("startTime", startTime)
+                .bind("endTime", endTime)
+                .map(ReactiveLocationLogRepository::toLocationLog)
+                .all();
+    }
+
+    public Flux<LocationLog> findByBookingIdAndTimeRange(Long bookingId, LocalDateTime startTime, LocalDateTime endTime) {
+        return databaseClient.sql(SELECT + "WHERE booking_id = :bookingId " +
+                        "AND timestamp BETWEEN :startTime AND :endTime ORDER BY timestamp DESC")
+                .bind("bookingId", bookingId)
+                .bind("startTime", startTime)
+                .bind("endTime", endTime)
+                .map(ReactiveLocationLogRepository::toLocationLog)
+                .all();
+    }
+
+    public Mono<LocationLog> findLatestLocationByDriverId(Long driverId) {
+        return databaseClient.sql(SELECT + "WHERE driver_id = :driverId ORDER BY timestamp DESC LIMIT 1")
+                .bind("driverId", driverId)
+                .map(ReactiveLocationLogRepository::toLocationLog)
+                .one();
+    }
+
+    private static LocationLog toLocationLog(Readable row) {
+        Driver driver = new Driver();
+        driver.setId(row.get("driver_id", Long.class));
+        Long bookingId = row.get("booking_id", Long.class);
+        Booking booking = null;
+        if (bookingId != null) {
+            booking = new Booking();
+            booking.setId(bookingId);
+        }
+        return new LocationLog(row.get("id", Long.class), driver, booking,
+                row.get("latitude", Double.class), row.get("longitude", Double.class),
+                row.get("speed", Double.class), row.get("heading", Double.class),
+                row.get("timestamp", LocalDateTime.class));
+    }
+}
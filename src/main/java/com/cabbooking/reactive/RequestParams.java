@@ -0,0 +1,37 @@
+package com.cabbooking.reactive;
+
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.function.Function;
+
+/**
+ * Path variable and query parameter parsing for the reactive handlers. Missing or malformed
+ * values are rejected with a 400, as the servlet API's argument binding does.
+ */
+final class RequestParams {
+
+    private RequestParams() {}
+
+    static <T> T pathVariable(ServerRequest request, String name, Function<String, T> parser) {
+        return parse(name, request.pathVariable(name), parser);
+    }
+
+    static <T> T queryParam(ServerRequest request, String name, Function<String, T> parser) {
+        String value = request.queryParam(name)
+                .orElseThrow(() -> new ServerWebInputException("Required parameter '" + name + "' is not present"));
+        return parse(name, value, parser);
+    }
+
+    static <T> T queryParam(ServerRequest request, String name, Function<String, T> parser, T defaultValue) {
+        return request.queryParam(name).map(value -> parse(name, value, parser)).orElse(defaultValue);
+    }
+
+    private static <T> T parse(String name, String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new ServerWebInputException("Invalid value for '" + name + "': " + value);
+        }
+    }
+}
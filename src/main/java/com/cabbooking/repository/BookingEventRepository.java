@@ -0,0 +1,30 @@
+package com.cabbooking.repository;
+
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.BookingEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+
+    List<BookingEvent> findByBookingIdOrderBySequenceNumber(Long bookingId);
+
+    // Events a booking's row has not applied yet
+    List<BookingEvent> findByBookingIdAndSequenceNumberGreaterThanOrderBySequenceNumber(
+            Long bookingId, Integer sequenceNumber);
+
+    // A row trailing its log is never in a final state (nothing follows one), so only
+    // live bookings are probed for unapplied events
+    @Query("SELECT e FROM BookingEvent e, Booking b WHERE b.id = e.bookingId " +
+            "AND b.status IN :liveStatuses AND e.sequenceNumber > b.eventSequence " +
+            "ORDER BY e.bookingId, e.sequenceNumber")
+    List<BookingEvent> findUnprojected(@Param("liveStatuses") Collection<Booking.BookingStatus> liveStatuses,
+                                       Pageable pageable);
+}
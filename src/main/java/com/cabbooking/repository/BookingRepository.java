@@ -1,36 +1,65 @@
 package com.cabbooking.repository;
 
+import com.cabbooking.dto.BookingResponseDto;
 import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.Cab;
+import com.cabbooking.entity.Driver;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.cabbooking.util.ApplicationConstants.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    // Entity reads load the booking with everything a response shows in one join; the
+    // associations themselves are lazy, so a plain query here would select them one by one
+    @Override
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
     Optional<Booking> findByBookingNumber(String bookingNumber);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findByUserId(Long userId);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findByDriverId(Long driverId);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findByStatus(Booking.BookingStatus status);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     @Query("SELECT b FROM Booking b WHERE b.user.id = :userId AND b.status = :status")
     List<Booking> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") Booking.BookingStatus status);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     @Query("SELECT b FROM Booking b WHERE b.driver.id = :driverId AND b.status = :status")
     List<Booking> findByDriverIdAndStatus(@Param("driverId") Long driverId,
             @Param("status") Booking.BookingStatus status);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     @Query("SELECT b FROM Booking b WHERE b.createdAt BETWEEN :startDate AND :endDate")
     List<Booking> findByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     @Query("SELECT b FROM Booking b WHERE b.user.id = :userId " +
             "AND b.createdAt BETWEEN :startDate AND :endDate ORDER BY b.createdAt DESC")
     List<Booking> findByUserIdAndDateRange(
@@ -38,6 +67,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     @Query("SELECT b FROM Booking b WHERE b.driver.id = :driverId " +
             "AND b.createdAt BETWEEN :startDate AND :endDate ORDER BY b.createdAt DESC")
     List<Booking> findByDriverIdAndDateRange(
@@ -48,11 +78,156 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.status = :status")
     Long countByStatus(@Param("status") Booking.BookingStatus status);
 
+    @Query("SELECT b.pickupLatitude AS latitude, b.pickupLongitude AS longitude " +
+            "FROM Booking b WHERE b.status = :status")
+    List<PickupPoint> findPickupPointsByStatus(@Param("status") Booking.BookingStatus status);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
     @Query("SELECT b FROM Booking b WHERE b.status IN ('REQUESTED', 'ACCEPTED') " +
             "AND b.requestedTime <= :currentTime ORDER BY b.requestedTime ASC")
     List<Booking> findPendingBookings(@Param("currentTime") LocalDateTime currentTime);
 
+    // Dispatch only reads the booking's own columns, so no fetch plan
+    @Query("SELECT b FROM Booking b WHERE b.status = 'REQUESTED' " +
+            "AND b.requestedTime <= :currentTime ORDER BY b.requestedTime ASC")
+    List<Booking> findDispatchableBookings(@Param("currentTime") LocalDateTime currentTime, Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
     @Query("SELECT b FROM Booking b WHERE b.driver.id = :driverId " +
             "AND b.status IN ('ACCEPTED', 'DRIVER_ASSIGNED', 'DRIVER_ARRIVED', 'IN_PROGRESS')")
     Optional<Booking> findActiveBookingByDriverId(@Param("driverId") Long driverId);
-}
\ No newline at end of file
+
+    // Read views: each fills BookingResponseDto, with its user, driver and cab, straight from one SELECT
+
+    String RESPONSE = "SELECT NEW com.cabbooking.dto.BookingResponseDto(b.id, b.bookingNumber, b.status, " +
+            "b.pickupAddress, b.dropoffAddress, b.estimatedFare, b.actualFare, b.distance, " +
+            "b.estimatedDuration, b.actualDuration, b.requestedTime, b.acceptedTime, b.startTime, b.endTime, " +
+            "b.paymentStatus, b.paymentMethod, " +
+            "NEW com.cabbooking.dto.UserSummaryDto(u.id, u.firstName, u.lastName, u.email, u.phoneNumber, " +
+            "u.role, u.status), " +
+            "NEW com.cabbooking.dto.DriverSummaryDto(d.id, d.licenseNumber, d.rating, d.totalRides, " +
+            "d.status, d.verificationStatus, d.currentLatitude, d.currentLongitude, " +
+            "NEW com.cabbooking.dto.UserSummaryDto(du.id, du.firstName, du.lastName, du.email, du.phoneNumber, " +
+            "du.role, du.status)), " +
+            "NEW com.cabbooking.dto.CabSummaryDto(c.id, c.licensePlate, c.make, c.model, c.color, c.year, " +
+            "c.cabType, c.status, c.seatingCapacity)) " +
+            "FROM Booking b JOIN b.user u LEFT JOIN b.driver d LEFT JOIN d.user du LEFT JOIN b.cab c ";
+
+    @Query(RESPONSE + "WHERE b.id = :id")
+    Optional<BookingResponseDto> findResponseById(@Param("id") Long id);
+
+    @Query(RESPONSE + "WHERE b.bookingNumber = :bookingNumber")
+    Optional<BookingResponseDto> findResponseByBookingNumber(@Param("bookingNumber") String bookingNumber);
+
+    @Query(RESPONSE + "WHERE b.status IN ('REQUESTED', 'ACCEPTED') " +
+            "AND b.requestedTime <= :currentTime ORDER BY b.requestedTime ASC")
+    List<BookingResponseDto> findPendingResponses(@Param("currentTime") LocalDateTime currentTime);
+
+    @Query(RESPONSE + "WHERE b.driver.id = :driverId " +
+            "AND b.status IN ('ACCEPTED', 'DRIVER_ASSIGNED', 'DRIVER_ARRIVED', 'IN_PROGRESS')")
+    Optional<BookingResponseDto> findActiveResponseByDriverId(@Param("driverId") Long driverId);
+
+    @Query(RESPONSE + "WHERE b.createdAt BETWEEN :startDate AND :endDate")
+    List<BookingResponseDto> findResponsesByDateRange(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    @Query(RESPONSE + "WHERE b.user.id = :userId " +
+            "AND b.createdAt BETWEEN :startDate AND :endDate ORDER BY b.createdAt DESC")
+    List<BookingResponseDto> findResponsesByUserIdAndDateRange(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    @Query(RESPONSE + "WHERE b.driver.id = :driverId " +
+            "AND b.createdAt BETWEEN :startDate AND :endDate ORDER BY b.createdAt DESC")
+    List<BookingResponseDto> findResponsesByDriverIdAndDateRange(
+            @Param("driverId") Long driverId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    // Keyset pagination: rows after the given id, in id order
+
+    @Query(RESPONSE + "WHERE b.status = :status AND b.id > :after ORDER BY b.id ASC")
+    List<BookingResponseDto> findResponsesByStatusAfter(@Param("status") Booking.BookingStatus status,
+            @Param("after") Long after, Pageable pageable);
+
+    @Query(RESPONSE + "WHERE b.user.id = :userId AND b.id > :after ORDER BY b.id ASC")
+    List<BookingResponseDto> findResponsesByUserIdAfter(@Param("userId") Long userId,
+            @Param("after") Long after, Pageable pageable);
+
+    @Query(RESPONSE + "WHERE b.driver.id = :driverId AND b.id > :after ORDER BY b.id ASC")
+    List<BookingResponseDto> findResponsesByDriverIdAfter(@Param("driverId") Long driverId,
+            @Param("after") Long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(RESPONSE + "ORDER BY b.id ASC")
+    Stream<BookingResponseDto> streamResponses();
+
+    // What the event projector needs of each booking it moves forward
+    @Query("SELECT b.id AS id, b.bookingNumber AS bookingNumber, b.driver.id AS driverId, b.cab.id AS cabId, " +
+            "b.startTime AS startTime FROM Booking b WHERE b.id IN :ids")
+    List<TransitionTarget> findTransitionTargetsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Single-statement writes: each one only changes the row if it is still in the state the
+    // caller expects, and the affected-row count says whether it did. A null timestamp keeps
+    // the column as it is (the casts type parameters Hibernate cannot infer from a null).
+    // Bumping the version keeps optimistic locking of entity saves intact.
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :to, b.eventSequence = :sequence, " +
+            "b.acceptedTime = COALESCE(CAST(:acceptedTime AS LocalDateTime), b.acceptedTime), " +
+            "b.startTime = COALESCE(CAST(:startTime AS LocalDateTime), b.startTime), " +
+            "b.endTime = COALESCE(CAST(:endTime AS LocalDateTime), b.endTime), " +
+            "b.actualDuration = COALESCE(CAST(:actualDuration AS Integer), b.actualDuration), " +
+            "b.version = b.version + 1, b.updatedAt = LOCAL DATETIME " +
+            "WHERE b.id = :id AND b.status IN :allowedFrom AND b.eventSequence = :sequence - 1")
+    int transition(@Param("id") Long id,
+            @Param("allowedFrom") Collection<Booking.BookingStatus> allowedFrom,
+            @Param("to") Booking.BookingStatus to,
+            @Param("sequence") Integer sequence,
+            @Param("acceptedTime") LocalDateTime acceptedTime,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("actualDuration") Integer actualDuration);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = 'ACCEPTED', b.driver = :driver, b.cab = :cab, " +
+            "b.acceptedTime = :acceptedTime, b.eventSequence = :sequence, " +
+            "b.version = b.version + 1, b.updatedAt = LOCAL DATETIME " +
+            "WHERE b.id = :id AND b.status IN :allowedFrom AND b.eventSequence = :sequence - 1")
+    int assignDriver(@Param("id") Long id,
+            @Param("allowedFrom") Collection<Booking.BookingStatus> allowedFrom,
+            @Param("driver") Driver driver,
+            @Param("cab") Cab cab,
+            @Param("acceptedTime") LocalDateTime acceptedTime,
+            @Param("sequence") Integer sequence);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.actualFare = :actualFare, " +
+            "b.version = b.version + 1, b.updatedAt = LOCAL DATETIME WHERE b.id = :id")
+    int updateActualFare(@Param("id") Long id, @Param("actualFare") BigDecimal actualFare);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.paymentStatus = :paymentStatus, " +
+            "b.version = b.version + 1, b.updatedAt = LOCAL DATETIME WHERE b.id = :id")
+    int updatePaymentStatus(@Param("id") Long id, @Param("paymentStatus") Booking.PaymentStatus paymentStatus);
+
+    interface TransitionTarget {
+        Long getId();
+
+        String getBookingNumber();
+
+        Long getDriverId();
+
+        Long getCabId();
+
+        LocalDateTime getStartTime();
+    }
+
+    interface PickupPoint {
+        Double getLatitude();
+
+        Double getLongitude();
+    }
+}
@@ -1,21 +1,33 @@
 package com.cabbooking.repository;
 
+import com.cabbooking.dto.CabSummaryDto;
 import com.cabbooking.entity.Cab;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.cabbooking.util.ApplicationConstants.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface CabRepository extends JpaRepository<Cab, Long> {
+public interface CabRepository extends JpaRepository<Cab, Long>, CabRepositoryCustom {
 
     Optional<Cab> findByDriverId(Long driverId);
 
     Optional<Cab> findByLicensePlate(String licensePlate);
 
+    List<Cab> findByDriverIdIn(Collection<Long> driverIds);
+
     List<Cab> findByCabType(Cab.CabType cabType);
 
     List<Cab> findByStatus(Cab.CabStatus status);
@@ -35,4 +47,40 @@ public interface CabRepository extends JpaRepository<Cab, Long> {
 
     @Query("SELECT COUNT(c) FROM Cab c WHERE c.status = :status")
     Long countByStatus(@Param("status") Cab.CabStatus status);
+
+    // Read views: each fills CabSummaryDto straight from one SELECT
+
+    String SUMMARY = "SELECT NEW com.cabbooking.dto.CabSummaryDto(c.id, c.licensePlate, c.make, c.model, c.color, " +
+            "c.year, c.cabType, c.status, c.seatingCapacity) FROM Cab c ";
+
+    @Query(SUMMARY + "WHERE c.id = :id")
+    Optional<CabSummaryDto> findSummaryById(@Param("id") Long id);
+
+    @Query(SUMMARY + "WHERE c.driver.id = :driverId")
+    Optional<CabSummaryDto> findSummaryByDriverId(@Param("driverId") Long driverId);
+
+    @Query(SUMMARY + "WHERE c.licensePlate = :licensePlate")
+    Optional<CabSummaryDto> findSummaryByLicensePlate(@Param("licensePlate") String licensePlate);
+
+    @Query(SUMMARY + "WHERE c.cabType = :cabType")
+    List<CabSummaryDto> findSummariesByCabType(@Param("cabType") Cab.CabType cabType);
+
+    @Query(SUMMARY + "WHERE c.status = :status")
+    List<CabSummaryDto> findSummariesByStatus(@Param("status") Cab.CabStatus status);
+
+    @Query(SUMMARY + "JOIN c.driver d WHERE d.status = 'ONLINE' " +
+            "AND c.status = 'AVAILABLE' AND d.verificationStatus = 'VERIFIED' " +
+            "AND c.cabType = :cabType")
+    List<CabSummaryDto> findAvailableSummariesByType(@Param("cabType") Cab.CabType cabType);
+
+    @Query(SUMMARY + "WHERE c.year >= :year")
+    List<CabSummaryDto> findSummariesByMinimumYear(@Param("year") Integer year);
+
+    // Keyset pagination: rows after the given id, in id order
+    @Query(SUMMARY + "WHERE c.id > :after ORDER BY c.id ASC")
+    List<CabSummaryDto> findSummaryPageAfter(@Param("after") Long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SUMMARY + "ORDER BY c.id ASC")
+    Stream<CabSummaryDto> streamSummaries();
 }
\ No newline at end of file
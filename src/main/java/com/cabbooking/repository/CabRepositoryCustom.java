@@ -0,0 +1,14 @@
+package com.cabbooking.repository;
+
+import com.cabbooking.entity.Cab;
+
+import java.util.Optional;
+
+public interface CabRepositoryCustom {
+
+    /**
+     * Finds the driver's cab through its natural id, so repeat lookups resolve from the
+     * second-level cache instead of querying by {@code driver_id}.
+     */
+    Optional<Cab> loadByDriverId(Long driverId);
+}
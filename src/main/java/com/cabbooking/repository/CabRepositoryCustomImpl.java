@@ -0,0 +1,24 @@
+package com.cabbooking.repository;
+
+import com.cabbooking.entity.Cab;
+import com.cabbooking.entity.Driver;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class CabRepositoryCustomImpl implements CabRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Cab> loadByDriverId(Long driverId) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Cab.class)
+                .loadOptional(entityManager.getReference(Driver.class, driverId));
+    }
+}
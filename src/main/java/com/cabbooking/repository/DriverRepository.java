@@ -1,17 +1,33 @@
 package com.cabbooking.repository;
 
+import com.cabbooking.dto.DriverSummaryDto;
 import com.cabbooking.entity.Driver;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.cabbooking.util.ApplicationConstants.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface DriverRepository extends JpaRepository<Driver, Long> {
 
+    // Driver writes answer with a summary that includes the user
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Optional<Driver> findById(Long id);
+
     Optional<Driver> findByUserId(Long userId);
 
     Optional<Driver> findByLicenseNumber(String licenseNumber);
@@ -43,4 +59,58 @@ public interface DriverRepository extends JpaRepository<Driver, Long> {
 
     @Query("SELECT AVG(d.rating) FROM Driver d WHERE d.verificationStatus = 'VERIFIED'")
     Double getAverageRating();
+
+    @Query("SELECT d.id AS id, d.currentLatitude AS currentLatitude, d.currentLongitude AS currentLongitude " +
+            "FROM Driver d")
+    List<PersistedPosition> findAllPositions();
+
+    // Read views: each fills DriverSummaryDto, with its user, straight from one SELECT
+
+    String SUMMARY = "SELECT NEW com.cabbooking.dto.DriverSummaryDto(d.id, d.licenseNumber, d.rating, d.totalRides, " +
+            "d.status, d.verificationStatus, d.currentLatitude, d.currentLongitude, " +
+            "NEW com.cabbooking.dto.UserSummaryDto(u.id, u.firstName, u.lastName, u.email, u.phoneNumber, " +
+            "u.role, u.status)) FROM Driver d JOIN d.user u ";
+
+    @Query(SUMMARY + "WHERE d.id = :id")
+    Optional<DriverSummaryDto> findSummaryById(@Param("id") Long id);
+
+    @Query(SUMMARY + "WHERE d.id IN :ids")
+    List<DriverSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SUMMARY + "WHERE u.id = :userId")
+    Optional<DriverSummaryDto> findSummaryByUserId(@Param("userId") Long userId);
+
+    @Query(SUMMARY + "WHERE d.licenseNumber = :licenseNumber")
+    Optional<DriverSummaryDto> findSummaryByLicenseNumber(@Param("licenseNumber") String licenseNumber);
+
+    @Query(SUMMARY + "WHERE d.status = :status")
+    List<DriverSummaryDto> findSummariesByStatus(@Param("status") Driver.DriverStatus status);
+
+    @Query(SUMMARY + "WHERE d.verificationStatus = :verificationStatus")
+    List<DriverSummaryDto> findSummariesByVerificationStatus(
+            @Param("verificationStatus") Driver.VerificationStatus verificationStatus);
+
+    @Query(SUMMARY + "WHERE d.status = :status AND d.verificationStatus = :verificationStatus")
+    List<DriverSummaryDto> findSummariesByStatusAndVerificationStatus(
+            @Param("status") Driver.DriverStatus status,
+            @Param("verificationStatus") Driver.VerificationStatus verificationStatus);
+
+    @Query(SUMMARY + "WHERE d.rating >= :minRating ORDER BY d.rating DESC")
+    List<DriverSummaryDto> findSummariesByMinimumRating(@Param("minRating") Double minRating);
+
+    // Keyset pagination: rows after the given id, in id order
+    @Query(SUMMARY + "WHERE d.id > :after ORDER BY d.id ASC")
+    List<DriverSummaryDto> findSummaryPageAfter(@Param("after") Long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SUMMARY + "ORDER BY d.id ASC")
+    Stream<DriverSummaryDto> streamSummaries();
+
+    interface PersistedPosition {
+        Long getId();
+
+        Double getCurrentLatitude();
+
+        Double getCurrentLongitude();
+    }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.cabbooking.repository;
 
 import com.cabbooking.entity.LocationLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,6 +18,27 @@ public interface LocationLogRepository extends JpaRepository<LocationLog, Long>
 
     List<LocationLog> findByBookingIdOrderByTimestampDesc(Long bookingId);
 
+    // History pages, newest first; the first page has no cursor. Timestamps repeat, so rows at
+    // one are ordered by id and a cursor on a row carries both
+    @Query("SELECT l FROM LocationLog l WHERE l.driver.id = :driverId ORDER BY l.timestamp DESC, l.id DESC")
+    List<LocationLog> findPageByDriverId(@Param("driverId") Long driverId, Pageable pageable);
+
+    @Query("SELECT l FROM LocationLog l WHERE l.driver.id = :driverId AND l.timestamp < :before " +
+            "ORDER BY l.timestamp DESC, l.id DESC")
+    List<LocationLog> findPageByDriverIdBefore(
+            @Param("driverId") Long driverId,
+            @Param("before") LocalDateTime before,
+            Pageable pageable);
+
+    @Query("SELECT l FROM LocationLog l WHERE l.driver.id = :driverId " +
+            "AND (l.timestamp < :before OR (l.timestamp = :before AND l.id < :beforeId)) " +
+            "ORDER BY l.timestamp DESC, l.id DESC")
+    List<LocationLog> findPageByDriverIdBeforeRow(
+            @Param("driverId") Long driverId,
+            @Param("before") LocalDateTime before,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable);
+
     @Query("SELECT l FROM LocationLog l WHERE l.driver.id = :driverId " +
             "AND l.timestamp BETWEEN :startTime AND :endTime ORDER BY l.timestamp DESC")
     List<LocationLog> findByDriverIdAndTimeRange(
@@ -30,6 +53,28 @@ public interface LocationLogRepository extends JpaRepository<LocationLog, Long>
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
 
+    // location_logs has no foreign keys once partitioned, so driver deletes clean up explicitly
+    @Modifying
+    @Query("DELETE FROM LocationLog l WHERE l.driver.id = :driverId")
+    int deleteByDriverId(@Param("driverId") Long driverId);
+
+    // Likewise for the bookings a deleted user takes with them, which the database cascade removes
+    @Modifying
+    @Query("UPDATE LocationLog l SET l.booking = NULL " +
+            "WHERE l.booking.id IN (SELECT b.id FROM Booking b WHERE b.user.id = :userId)")
+    int clearBookingsOfUser(@Param("userId") Long userId);
+
+    // A range on the (timestamp, driver_id) index, which only covers rows not compacted yet
+    @Query("SELECT DISTINCT l.driver.id FROM LocationLog l WHERE l.timestamp < :cutoff")
+    List<Long> findDriverIdsWithLogsBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query("SELECT l FROM LocationLog l WHERE l.driver.id = :driverId AND l.timestamp < :cutoff " +
+            "ORDER BY l.timestamp ASC")
+    List<LocationLog> findByDriverIdBefore(
+            @Param("driverId") Long driverId,
+            @Param("cutoff") LocalDateTime cutoff,
+            Pageable pageable);
+
     @Query("SELECT l FROM LocationLog l WHERE l.driver.id = :driverId " +
             "ORDER BY l.timestamp DESC LIMIT 1")
     LocationLog findLatestLocationByDriverId(@Param("driverId") Long driverId);
@@ -0,0 +1,48 @@
+package com.cabbooking.repository;
+
+import com.cabbooking.entity.LocationTrajectory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LocationTrajectoryRepository extends JpaRepository<LocationTrajectory, Long> {
+
+    // History pages walk trajectories newest end first, so a page can stop at the first one
+    // ending before its oldest point
+    @Query("SELECT t FROM LocationTrajectory t WHERE t.driver.id = :driverId ORDER BY t.endTime DESC")
+    List<LocationTrajectory> findPageByDriverId(@Param("driverId") Long driverId, Pageable pageable);
+
+    // Inclusive: a trajectory starting at the cursor's timestamp may hold points that follow it
+    @Query("SELECT t FROM LocationTrajectory t WHERE t.driver.id = :driverId AND t.startTime <= :before " +
+            "ORDER BY t.endTime DESC")
+    List<LocationTrajectory> findPageByDriverIdStartingBy(
+            @Param("driverId") Long driverId,
+            @Param("before") LocalDateTime before,
+            Pageable pageable);
+
+    List<LocationTrajectory> findByBookingIdOrderByStartTimeDesc(Long bookingId);
+
+    @Query("SELECT t FROM LocationTrajectory t WHERE t.driver.id = :driverId " +
+            "AND t.startTime <= :endTime AND t.endTime >= :startTime ORDER BY t.startTime DESC")
+    List<LocationTrajectory> findByDriverIdOverlapping(
+            @Param("driverId") Long driverId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime);
+
+    @Query("SELECT t FROM LocationTrajectory t WHERE t.booking.id = :bookingId " +
+            "AND t.startTime <= :endTime AND t.endTime >= :startTime ORDER BY t.startTime DESC")
+    List<LocationTrajectory> findByBookingIdOverlapping(
+            @Param("bookingId") Long bookingId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime);
+
+    @Query("SELECT t FROM LocationTrajectory t WHERE t.driver.id = :driverId " +
+            "ORDER BY t.endTime DESC LIMIT 1")
+    LocationTrajectory findLatestByDriverId(@Param("driverId") Long driverId);
+}
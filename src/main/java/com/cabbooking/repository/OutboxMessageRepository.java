@@ -0,0 +1,41 @@
+package com.cabbooking.repository;
+
+import com.cabbooking.entity.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    @Query("SELECT m FROM OutboxMessage m WHERE m.processedAt IS NULL AND m.availableAt <= :now ORDER BY m.id")
+    List<OutboxMessage> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Claims the message for the calling transaction; 0 when another relay already processed it.
+    // The row stays locked until that transaction ends, so a concurrent claim waits and then misses
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.processedAt = :now, m.attempts = m.attempts + 1 " +
+            "WHERE m.id = :id AND m.processedAt IS NULL")
+    int markProcessed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.attempts = m.attempts + 1, m.lastError = :error, " +
+            "m.availableAt = :retryAt WHERE m.id = :id AND m.processedAt IS NULL")
+    int recordFailure(@Param("id") Long id, @Param("error") String error, @Param("retryAt") LocalDateTime retryAt);
+
+    long countByProcessedAtIsNull();
+
+    // Processed messages are kept for a while for inspection; these two purge them in batches
+    @Query("SELECT m.id FROM OutboxMessage m WHERE m.processedAt < :cutoff")
+    List<Long> findIdsProcessedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM OutboxMessage m WHERE m.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
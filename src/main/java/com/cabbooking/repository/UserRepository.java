@@ -1,13 +1,22 @@
 package com.cabbooking.repository;
 
+import com.cabbooking.dto.UserSummaryDto;
 import com.cabbooking.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.cabbooking.util.ApplicationConstants.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -30,4 +39,33 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE LOWER(u.firstName) LIKE LOWER(CONCAT('%', :name, '%')) " +
             "OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<User> findByNameContaining(@Param("name") String name);
+
+    // Read views: each fills UserSummaryDto straight from one SELECT
+
+    String SUMMARY = "SELECT NEW com.cabbooking.dto.UserSummaryDto(u.id, u.firstName, u.lastName, u.email, " +
+            "u.phoneNumber, u.role, u.status) FROM User u ";
+
+    @Query(SUMMARY + "WHERE u.id = :id")
+    Optional<UserSummaryDto> findSummaryById(@Param("id") Long id);
+
+    @Query(SUMMARY + "WHERE u.email = :email")
+    Optional<UserSummaryDto> findSummaryByEmail(@Param("email") String email);
+
+    @Query(SUMMARY + "WHERE u.role = :role")
+    List<UserSummaryDto> findSummariesByRole(@Param("role") User.UserRole role);
+
+    @Query(SUMMARY + "WHERE u.status = :status")
+    List<UserSummaryDto> findSummariesByStatus(@Param("status") User.UserStatus status);
+
+    @Query(SUMMARY + "WHERE LOWER(u.firstName) LIKE LOWER(CONCAT('%', :name, '%')) " +
+            "OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :name, '%'))")
+    List<UserSummaryDto> findSummariesByNameContaining(@Param("name") String name);
+
+    // Keyset pagination: rows after the given id, in id order
+    @Query(SUMMARY + "WHERE u.id > :after ORDER BY u.id ASC")
+    List<UserSummaryDto> findSummaryPageAfter(@Param("after") Long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SUMMARY + "ORDER BY u.id ASC")
+    Stream<UserSummaryDto> streamSummaries();
 }
\ No newline at end of file
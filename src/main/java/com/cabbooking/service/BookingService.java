@@ -1,9 +1,25 @@
 package com.cabbooking.service;
 
+import com.cabbooking.cache.LookupCache;
+import com.cabbooking.dispatch.DriverReservationRegistry;
+import com.cabbooking.dto.BookingResponseDto;
 import com.cabbooking.entity.*;
+import com.cabbooking.pricing.FareEngine;
+import com.cabbooking.pricing.FareQuote;
+import com.cabbooking.pricing.SurgePricingEngine;
+import com.cabbooking.repository.BookingEventRepository;
 import com.cabbooking.repository.BookingRepository;
+import com.cabbooking.repository.OutboxMessageRepository;
+import com.cabbooking.util.TransactionHooks;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.modelmapper.ModelMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -11,6 +27,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static com.cabbooking.util.ApplicationConstants.*;
 
@@ -20,65 +39,132 @@ import static com.cabbooking.util.ApplicationConstants.*;
 public class BookingService {
 
     private final BookingRepository bookingRepository;
+    private final BookingEventRepository bookingEventRepository;
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final EntityManager entityManager;
     private final UserService userService;
     private final DriverService driverService;
     private final CabService cabService;
+    private final DriverReservationRegistry driverReservations;
+    private final ModelMapper modelMapper;
+    private final FareEngine fareEngine;
+    private final SurgePricingEngine surgePricingEngine;
+    private final LookupCache<String, BookingResponseDto> bookingsByNumber;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUpSurgeDemand() {
+        for (BookingRepository.PickupPoint pickup
+                : bookingRepository.findPickupPointsByStatus(Booking.BookingStatus.REQUESTED)) {
+            if (pickup.getLatitude() != null && pickup.getLongitude() != null) {
+                surgePricingEngine.addDemand(pickup.getLatitude(), pickup.getLongitude(), 1);
+            }
+        }
+    }
 
     public Booking createBooking(Booking booking) {
         // Validate user exists
-        userService.findById(booking.getUser().getId())
+        User user = userService.findById(booking.getUser().getId())
                 .orElseThrow(() -> new RuntimeException(USER_NOT_FOUND));
+        booking.setUser(user);
 
         // Generate unique booking number
         booking.setBookingNumber(BOOKING_NUMBER_PREFIX + UUID.randomUUID().toString().substring(0, BOOKING_NUMBER_LENGTH).toUpperCase());
 
-        // Calculate estimated fare and duration (simplified calculation)
-        BigDecimal estimatedFare = calculateEstimatedFare(
+        // Distance, fare and duration all come from one quote
+        FareQuote quote = fareEngine.quote(
                 booking.getPickupLatitude(), booking.getPickupLongitude(),
                 booking.getDropoffLatitude(), booking.getDropoffLongitude(),
                 booking.getRequestedCabType());
+        booking.setEstimatedFare(quote.fare());
+        booking.setDistance(quote.distance());
+        booking.setEstimatedDuration(quote.getDurationMinutes());
+
+        // The row starts out caught up with its log: the REQUESTED event is written alongside it
+        booking.setStatus(Booking.BookingStatus.REQUESTED);
+        booking.setEventSequence(1);
+        Booking savedBooking = bookingRepository.save(booking);
+        appendEvent(new BookingEvent(null, savedBooking.getId(), 1, Booking.BookingStatus.REQUESTED,
+                null, null, LocalDateTime.now()));
+        surgePricingEngine.bookingRequested(savedBooking);
+        return savedBooking;
+    }
 
-        booking.setEstimatedFare(estimatedFare);
-        booking.setDistance(calculateDistance(
-                booking.getPickupLatitude(), booking.getPickupLongitude(),
-                booking.getDropoffLatitude(), booking.getDropoffLongitude()));
+    public Optional<Booking> findById(Long id) {
+        return bookingRepository.findById(id);
+    }
 
-        booking.setEstimatedDuration(calculateEstimatedDuration(booking.getDistance()));
+    @Transactional(readOnly = true)
+    public Optional<BookingResponseDto> findResponseById(Long id) {
+        return bookingRepository.findResponseById(id);
+    }
 
-        return bookingRepository.save(booking);
+    // No transaction: a caller waiting on another caller's load must not hold a connection
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<BookingResponseDto> findResponseByBookingNumber(String bookingNumber) {
+        return bookingsByNumber.get(bookingNumber, bookingRepository::findResponseByBookingNumber);
     }
 
-    public Optional<Booking> findById(Long id) {
-        return bookingRepository.findById(id);
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> findBookingsByUserId(Long userId, Long after, int limit) {
+        return bookingRepository.findResponsesByUserIdAfter(
+                userId, after == null ? 0L : after, PageRequest.of(0, limit));
     }
 
-    public Optional<Booking> findByBookingNumber(String bookingNumber) {
-        return bookingRepository.findByBookingNumber(bookingNumber);
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> findBookingsByDriverId(Long driverId, Long after, int limit) {
+        return bookingRepository.findResponsesByDriverIdAfter(
+                driverId, after == null ? 0L : after, PageRequest.of(0, limit));
     }
 
-    public List<Booking> findBookingsByUserId(Long userId) {
-        return bookingRepository.findByUserId(userId);
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> findBookingsByStatus(Booking.BookingStatus status, Long after, int limit) {
+        return bookingRepository.findResponsesByStatusAfter(
+                status, after == null ? 0L : after, PageRequest.of(0, limit));
     }
 
-    public List<Booking> findBookingsByDriverId(Long driverId) {
-        return bookingRepository.findByDriverId(driverId);
+    @Transactional(readOnly = true)
+    public void exportBookings(Consumer<BookingResponseDto> sink) {
+        try (Stream<BookingResponseDto> bookings = bookingRepository.streamResponses()) {
+            bookings.forEach(sink);
+        }
     }
 
-    public List<Booking> findBookingsByStatus(Booking.BookingStatus status) {
-        return bookingRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> findPendingBookings() {
+        return bookingRepository.findPendingResponses(LocalDateTime.now());
     }
 
-    public List<Booking> findPendingBookings() {
-        return bookingRepository.findPendingBookings(LocalDateTime.now());
+    public List<Booking> findDispatchableBookings(int limit) {
+        return bookingRepository.findDispatchableBookings(LocalDateTime.now(), PageRequest.of(0, limit));
     }
 
-    public Optional<Booking> findActiveBookingByDriverId(Long driverId) {
-        return bookingRepository.findActiveBookingByDriverId(driverId);
+    @Transactional(readOnly = true)
+    public Optional<BookingResponseDto> findActiveBookingByDriverId(Long driverId) {
+        return bookingRepository.findActiveResponseByDriverId(driverId);
     }
 
     public Booking assignDriverToBooking(Long bookingId, Long driverId) {
+        // Claim the driver in memory first so concurrent assignments of the same driver
+        // fail here instead of racing through the checks below; held until this transaction ends.
+        // The release is registered before claiming, so a call outside a transaction fails
+        // without leaving a claim behind, and runs only if this call took the claim
+        AtomicBoolean reserved = new AtomicBoolean();
+        TransactionHooks.afterCompletion(() -> {
+            if (reserved.get()) {
+                driverReservations.release(driverId, bookingId);
+            }
+        });
+        if (!driverReservations.tryReserve(driverId, bookingId)) {
+            throw new RuntimeException(DRIVER_RESERVED_FOR_ANOTHER_BOOKING);
+        }
+        reserved.set(true);
+
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException(BOOKING_NOT_FOUND));
+        // The row is written by the conditional update below; this copy only shapes the response
+        entityManager.detach(booking);
+        withPendingEvents(booking);
 
         Driver driver = driverService.findById(driverId)
                 .orElseThrow(() -> new RuntimeException(DRIVER_NOT_FOUND));
@@ -100,164 +186,162 @@ public class BookingService {
         Cab cab = cabService.findByDriverId(driverId)
                 .orElseThrow(() -> new RuntimeException(DRIVER_DOES_NOT_HAVE_CAB));
 
+        // Assignment claims the driver and cab, so unlike other transitions it updates its
+        // projections in the same transaction instead of leaving them to the projector
+        BookingEvent accepted = BookingEvent.next(booking, Booking.BookingStatus.ACCEPTED, LocalDateTime.now());
+        accepted.setDriverId(driverId);
+        accepted.setCabId(cab.getId());
+        appendEvent(accepted);
+        if (bookingRepository.assignDriver(bookingId, Booking.BookingStatus.ACCEPTED.allowedFrom(), driver, cab,
+                accepted.getOccurredAt(), accepted.getSequenceNumber()) == 0) {
+            throw new RuntimeException(BOOKING_CHANGED_CONCURRENTLY);
+        }
+        accepted.applyTo(booking);
         booking.setDriver(driver);
         booking.setCab(cab);
-        booking.setStatus(Booking.BookingStatus.ACCEPTED);
-        booking.setAcceptedTime(LocalDateTime.now());
+        invalidateLookup(booking.getBookingNumber());
+        surgePricingEngine.bookingLeftRequested(booking);
 
         // Update driver and cab status
         driverService.updateDriverStatus(driverId, Driver.DriverStatus.BUSY);
         cabService.updateCabStatus(cab.getId(), Cab.CabStatus.BUSY);
 
-        return bookingRepository.save(booking);
+        return booking;
     }
 
+    /**
+     * Appends the transition to the booking's event log and returns the booking as it now
+     * stands. The row and its pending events are read first to validate the transition; the
+     * append is the only write. The {@code bookings} row is a projection of the log that
+     * {@code BookingEventProjector} brings up to date shortly after, so reads served from the
+     * row show the new status only from then on; the booking-number cache entry is dropped
+     * on commit so it does not outlive that. When the ride ends, an outbox message written
+     * alongside the event has {@code OutboxRelay} release the driver and cab.
+     */
     public Booking updateBookingStatus(Long bookingId, Booking.BookingStatus status) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException(BOOKING_NOT_FOUND));
+        // Transitions reach the row through the projector; changes below only shape the response
+        entityManager.detach(booking);
+        withPendingEvents(booking);
 
         Booking.BookingStatus currentStatus = booking.getStatus();
 
         // Validate status transition
         validateStatusTransition(currentStatus, status);
 
-        booking.setStatus(status);
-
-        // Update timestamps based on status
-        switch (status) {
-            case REQUESTED:
-                // No specific action needed
-                break;
-            case ACCEPTED:
-                // No specific action needed
-                break;
-            case DRIVER_ASSIGNED:
-                break;
-            case DRIVER_ARRIVED:
-                break;
-            case IN_PROGRESS:
-                booking.setStartTime(LocalDateTime.now());
-                break;
-            case COMPLETED:
-                booking.setEndTime(LocalDateTime.now());
-                if (booking.getStartTime() != null) {
-                    booking.setActualDuration(
-                            (int) java.time.Duration.between(booking.getStartTime(), booking.getEndTime()).toMinutes());
-                }
-                // Update driver and cab status back to available
-                if (booking.getDriver() != null) {
-                    driverService.updateDriverStatus(booking.getDriver().getId(), Driver.DriverStatus.ONLINE);
-                    if (booking.getCab() != null) {
-                        cabService.updateCabStatus(booking.getCab().getId(), Cab.CabStatus.AVAILABLE);
-                    }
-                }
-                break;
-            case CANCELLED:
-                // Update driver and cab status back to available
-                if (booking.getDriver() != null) {
-                    driverService.updateDriverStatus(booking.getDriver().getId(), Driver.DriverStatus.ONLINE);
-                    if (booking.getCab() != null) {
-                        cabService.updateCabStatus(booking.getCab().getId(), Cab.CabStatus.AVAILABLE);
-                    }
-                }
-                break;
+        BookingEvent event = appendEvent(booking, status, LocalDateTime.now());
+        event.applyTo(booking);
+        invalidateLookup(booking.getBookingNumber());
+        if (event.endsRide()) {
+            outboxMessageRepository.save(OutboxMessage.of(
+                    OutboxMessage.Type.RIDE_ENDED, bookingId, event.getOccurredAt()));
         }
-
-        return bookingRepository.save(booking);
+        if (currentStatus == Booking.BookingStatus.REQUESTED) {
+            surgePricingEngine.bookingLeftRequested(booking);
+        }
+        return booking;
     }
 
-    public Booking updateBookingFare(Long bookingId, BigDecimal actualFare) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException(BOOKING_NOT_FOUND));
+    @Transactional(readOnly = true)
+    public List<BookingEvent> findBookingEvents(Long bookingId) {
+        return bookingEventRepository.findByBookingIdOrderBySequenceNumber(bookingId);
+    }
 
-        booking.setActualFare(actualFare);
-        return bookingRepository.save(booking);
+    /**
+     * Sets the fare with a single {@code UPDATE} and answers with what was written, the id
+     * and the new fare, rather than reading the row back.
+     */
+    public BookingResponseDto updateBookingFare(Long bookingId, BigDecimal actualFare) {
+        if (bookingRepository.updateActualFare(bookingId, actualFare) == 0) {
+            throw new RuntimeException(BOOKING_NOT_FOUND);
+        }
+        BookingResponseDto response = new BookingResponseDto();
+        response.setId(bookingId);
+        response.setActualFare(actualFare);
+        invalidateLookup(bookingId);
+        return response;
     }
 
-    public Booking updatePaymentStatus(Long bookingId, Booking.PaymentStatus paymentStatus) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException(BOOKING_NOT_FOUND));
+    /**
+     * Sets the payment status with a single {@code UPDATE} and answers with the id and the
+     * new payment status, rather than reading the row back.
+     */
+    public BookingResponseDto updatePaymentStatus(Long bookingId, Booking.PaymentStatus paymentStatus) {
+        if (bookingRepository.updatePaymentStatus(bookingId, paymentStatus) == 0) {
+            throw new RuntimeException(BOOKING_NOT_FOUND);
+        }
+        BookingResponseDto response = new BookingResponseDto();
+        response.setId(bookingId);
+        response.setPaymentStatus(paymentStatus.name());
+        invalidateLookup(bookingId);
+        return response;
+    }
 
-        booking.setPaymentStatus(paymentStatus);
-        return bookingRepository.save(booking);
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> findBookingsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return bookingRepository.findResponsesByDateRange(startDate, endDate);
     }
 
-    public List<Booking> findBookingsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return bookingRepository.findByDateRange(startDate, endDate);
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> findUserBookingsByDateRange(Long userId, LocalDateTime startDate,
+            LocalDateTime endDate) {
+        return bookingRepository.findResponsesByUserIdAndDateRange(userId, startDate, endDate);
     }
 
-    public List<Booking> findUserBookingsByDateRange(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
-        return bookingRepository.findByUserIdAndDateRange(userId, startDate, endDate);
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> findDriverBookingsByDateRange(Long driverId, LocalDateTime startDate,
+            LocalDateTime endDate) {
+        return bookingRepository.findResponsesByDriverIdAndDateRange(driverId, startDate, endDate);
     }
 
-    public List<Booking> findDriverBookingsByDateRange(Long driverId, LocalDateTime startDate, LocalDateTime endDate) {
-        return bookingRepository.findByDriverIdAndDateRange(driverId, startDate, endDate);
+    public BookingResponseDto toResponse(Booking booking) {
+        return modelMapper.map(booking, BookingResponseDto.class);
     }
 
     public Long getBookingCountByStatus(Booking.BookingStatus status) {
         return bookingRepository.countByStatus(status);
     }
 
-    private void validateStatusTransition(Booking.BookingStatus from, Booking.BookingStatus to) {
-        // Define valid status transitions
-        boolean isValidTransition = switch (from) {
-            case REQUESTED -> to == Booking.BookingStatus.ACCEPTED || to == Booking.BookingStatus.CANCELLED;
-            case ACCEPTED -> to == Booking.BookingStatus.DRIVER_ASSIGNED || to == Booking.BookingStatus.CANCELLED;
-            case DRIVER_ASSIGNED -> to == Booking.BookingStatus.DRIVER_ARRIVED || to == Booking.BookingStatus.CANCELLED;
-            case DRIVER_ARRIVED -> to == Booking.BookingStatus.IN_PROGRESS || to == Booking.BookingStatus.CANCELLED;
-            case IN_PROGRESS -> to == Booking.BookingStatus.COMPLETED;
-            case COMPLETED, CANCELLED -> false; // Terminal states
-        };
-
-        if (!isValidTransition) {
-            String message = String.format(
-                    INVALID_STATUS_TRANSITION_MSG,
-                    from,
-                    to
-            );
-
-            throw new RuntimeException(message);
-        }
+    // The row is a projection that can trail its log by the events not yet applied to it
+    private Booking withPendingEvents(Booking booking) {
+        bookingEventRepository.findByBookingIdAndSequenceNumberGreaterThanOrderBySequenceNumber(
+                booking.getId(), booking.getEventSequence()).forEach(event -> event.applyTo(booking));
+        return booking;
     }
 
-    private BigDecimal calculateEstimatedFare(Double pickupLat, Double pickupLng,
-            Double dropoffLat, Double dropoffLng,
-            Booking.CabType cabType) {
-        BigDecimal distance = calculateDistance(pickupLat, pickupLng, dropoffLat, dropoffLng);
-        BigDecimal perKmRate = getPerKmRate(cabType);
-
-        return BASE_FARE.add(distance.multiply(perKmRate));
+    private BookingEvent appendEvent(Booking booking, Booking.BookingStatus status, LocalDateTime occurredAt) {
+        return appendEvent(BookingEvent.next(booking, status, occurredAt));
     }
 
-    private BigDecimal getPerKmRate(Booking.CabType cabType) {
-        return switch (cabType) {
-                case HATCHBACK -> HATCHBACK_FARE;
-                case SEDAN -> SEDAN_FARE;
-                case SUV -> SUV_FARE;
-                case LUXURY -> LUXURY_FARE;
-        };
+    // Two transitions from the same state claim the same sequence number; the loser fails here
+    private BookingEvent appendEvent(BookingEvent event) {
+        try {
+            return bookingEventRepository.save(event);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException(BOOKING_CHANGED_CONCURRENTLY);
+        }
     }
 
-    private BigDecimal calculateDistance(Double lat1, Double lng1, Double lat2, Double lng2) {
-        // Haversine formula for distance calculation
-
-
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLng = Math.toRadians(lng2 - lng1);
-
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                        Math.sin(dLng / 2) * Math.sin(dLng / 2);
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        double distance = EARTH_RADIUS * c;
+    private void invalidateLookup(String bookingNumber) {
+        TransactionHooks.afterCommit(() -> bookingsByNumber.invalidate(bookingNumber));
+    }
 
-        return BigDecimal.valueOf(distance);
+    // The number is not at hand without reading the row, so match cached entries on the id
+    private void invalidateLookup(Long bookingId) {
+        TransactionHooks.afterCommit(() ->
+                bookingsByNumber.invalidateIf(cached -> bookingId.equals(cached.getId())));
     }
 
-    private Integer calculateEstimatedDuration(BigDecimal distance) {
-        // Assuming average speed of 30 km/h in city traffic
-        double durationHours = distance.doubleValue() / DEFAULT_AVG_SPEED_KMH;
-        return (int) (durationHours * MINUTES_IN_HOUR); // Convert to minutes
+    private void validateStatusTransition(Booking.BookingStatus from, Booking.BookingStatus to) {
+        if (!from.canTransitionTo(to)) {
+            String message = String.format(
+                    INVALID_STATUS_TRANSITION_MSG,
+                    from,
+                    to
+            );
+
+            throw new RuntimeException(message);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,468 @@
+package com.cabbooking.service;
+
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.Cab;
+import com.cabbooking.entity.Driver;
+import com.cabbooking.entity.User;
+import com.cabbooking.pricing.FareEngine;
+import com.cabbooking.pricing.FareQuote;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.cabbooking.util.ApplicationConstants.BOOKING_NUMBER_PREFIX;
+
+/**
+ * Seeds a city-sized dataset for performance testing straight through JDBC. Rows are
+ * generated in parallel chunks, each written as one batch in its own transaction (MySQL
+ * turns a batch into multi-row inserts under {@code rewriteBatchedStatements}). Ids are
+ * assigned here, so bookings can reference users, drivers and cabs without reading them back.
+ * <p>
+ * Positions cluster around a few hotspots over a uniform background, bookings follow a
+ * daily demand curve with quieter weekends, a small share of riders take most trips, and
+ * only the last hour of bookings is still in flight.
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkSampleDataLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkSampleDataLoader.class);
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (id, first_name, last_name, email, phone_number, password, role, status, "
+                    + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] USER_TYPES = {
+            Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP};
+
+    private static final String INSERT_DRIVER_SQL =
+            "INSERT INTO drivers (id, user_id, license_number, license_expiry_date, rating, total_rides, status, "
+                    + "verification_status, current_latitude, current_longitude, version, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+    private static final int[] DRIVER_TYPES = {
+            Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.DOUBLE, Types.INTEGER,
+            Types.VARCHAR, Types.VARCHAR, Types.DOUBLE, Types.DOUBLE, Types.TIMESTAMP, Types.TIMESTAMP};
+
+    private static final String INSERT_CAB_SQL =
+            "INSERT INTO cabs (id, driver_id, license_plate, make, model, color, manufacture_year, cab_type, "
+                    + "status, seating_capacity, version, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+    private static final int[] CAB_TYPES = {
+            Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.TIMESTAMP, Types.TIMESTAMP};
+
+    private static final String INSERT_BOOKING_SQL =
+            "INSERT INTO bookings (id, booking_number, user_id, driver_id, cab_id, pickup_address, pickup_latitude, "
+                    + "pickup_longitude, dropoff_address, dropoff_latitude, dropoff_longitude, requested_time, "
+                    + "accepted_time, start_time, end_time, status, requested_cab_type, estimated_fare, actual_fare, "
+                    + "distance, estimated_duration, actual_duration, payment_status, payment_method, version, "
+                    + "created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+    private static final int[] BOOKING_TYPES = {
+            Types.BIGINT, Types.VARCHAR, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.DOUBLE,
+            Types.DOUBLE, Types.VARCHAR, Types.DOUBLE, Types.DOUBLE, Types.TIMESTAMP,
+            Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.DECIMAL,
+            Types.DECIMAL, Types.DECIMAL, Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.VARCHAR,
+            Types.TIMESTAMP, Types.TIMESTAMP};
+
+    // Bengaluru: where trips start and end, and where idle drivers wait
+    private static final Hotspot[] HOTSPOTS = {
+            new Hotspot("MG Road", 12.9756, 77.6050, 1.5, 25),
+            new Hotspot("Koramangala", 12.9352, 77.6245, 1.2, 15),
+            new Hotspot("Whitefield", 12.9698, 77.7500, 2.0, 15),
+            new Hotspot("Electronic City", 12.8452, 77.6602, 2.0, 12),
+            new Hotspot("Majestic", 12.9779, 77.5713, 0.8, 10),
+            new Hotspot("Airport", 13.1986, 77.7066, 0.8, 8)};
+    private static final double CENTER_LATITUDE = 12.9716;
+    private static final double CENTER_LONGITUDE = 77.5946;
+    private static final double BACKGROUND_RADIUS_KM = 15.0;
+    private static final int BACKGROUND_WEIGHT = 15;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    // Relative demand by hour of day: commute peaks, a quiet night
+    private static final int[] HOURLY_DEMAND = {
+            3, 2, 1, 1, 1, 2, 4, 8, 10, 9, 6, 5, 5, 5, 5, 6, 7, 9, 10, 9, 7, 6, 5, 4};
+    private static final int HOURLY_DEMAND_TOTAL = Arrays.stream(HOURLY_DEMAND).sum();
+    private static final double WEEKEND_DEMAND = 0.75;
+
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Ananya", "Rohan", "Priya", "Vikram", "Meera", "Arjun", "Kavya", "Rahul", "Sneha"};
+    private static final String[] LAST_NAMES = {
+            "Sharma", "Iyer", "Reddy", "Nair", "Gowda", "Rao", "Menon", "Patel", "Kumar", "Singh"};
+    private static final String[] COLORS = {"White", "Silver", "Grey", "Black", "Blue", "Red"};
+
+    private static final int LIVE_WINDOW_MINUTES = 60;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final PasswordEncoder passwordEncoder;
+    private final FareEngine fareEngine;
+
+    // 0 derives the count from the number of bookings
+    @Value("${sample.data.bulk.customers:0}")
+    private int customers;
+
+    @Value("${sample.data.bulk.drivers:0}")
+    private int drivers;
+
+    @Value("${sample.data.bulk.days:90}")
+    private int days;
+
+    @Value("${sample.data.bulk.chunk-size:5000}")
+    private int chunkSize;
+
+    // 0 uses one thread per core
+    @Value("${sample.data.bulk.threads:0}")
+    private int threads;
+
+    @Value("${sample.data.bulk.seed:42}")
+    private long seed;
+
+    /**
+     * Inserts {@code bookings} bookings with their customers, drivers and cabs. Meant for an
+     * empty database; ids continue after whatever the tables already hold.
+     */
+    public void load(int bookings) {
+        int customerCount = customers > 0 ? customers : Math.max(1, bookings / 10);
+        int driverCount = drivers > 0 ? drivers : Math.max(1, bookings / 50);
+        int threadCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        log.info("Bulk loading {} customers, {} drivers with cabs and {} bookings on {} threads",
+                customerCount, driverCount, bookings, threadCount);
+
+        Dataset dataset = new Dataset(customerCount, driverCount, nextId("users"), nextId("drivers"),
+                nextId("cabs"), nextId("bookings"), passwordEncoder.encode("password"), LocalDateTime.now());
+
+        ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+        try {
+            insert(pool, "users", customerCount + driverCount, 1, INSERT_USER_SQL, USER_TYPES, dataset::user);
+            insert(pool, "drivers", driverCount, 2, INSERT_DRIVER_SQL, DRIVER_TYPES, dataset::driver);
+            insert(pool, "cabs", driverCount, 3, INSERT_CAB_SQL, CAB_TYPES, dataset::cab);
+            insert(pool, "bookings", bookings, 4, INSERT_BOOKING_SQL, BOOKING_TYPES, dataset::booking);
+        } finally {
+            pool.shutdownNow();
+        }
+        for (String table : List.of("users", "drivers", "cabs", "bookings")) {
+            realignIdentity(table);
+        }
+    }
+
+    private void insert(ExecutorService pool, String table, int rows, long salt, String sql, int[] types,
+                        RowGenerator generator) {
+        long started = System.nanoTime();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Future<?>> chunks = new ArrayList<>();
+        for (int from = 0; from < rows; from += chunkSize) {
+            int start = from;
+            int end = Math.min(from + chunkSize, rows);
+            // Seeded per chunk, so the data does not depend on the thread count
+            SplittableRandom random = new SplittableRandom(seed * 31 + salt * 1_000_003L + start);
+            chunks.add(pool.submit(() -> {
+                List<Object[]> batch = new ArrayList<>(end - start);
+                for (int n = start; n < end; n++) {
+                    batch.add(generator.row(n, random));
+                }
+                transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch, types));
+            }));
+        }
+        try {
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bulk load of " + table + " was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Bulk load of " + table + " failed", e.getCause());
+        }
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Inserted {} {} in {} ms ({} rows/s)", rows, table, millis, rows * 1000L / millis);
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    // MySQL moves AUTO_INCREMENT past explicitly inserted ids by itself; H2 does not
+    private void realignIdentity(String table) {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if ("H2".equals(database)) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId(table));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowGenerator {
+        Object[] row(int n, SplittableRandom random);
+    }
+
+    private record Hotspot(String name, double latitude, double longitude, double spreadKm, int weight) {}
+
+    /**
+     * Row contents by index. Users are the customers followed by one user per driver; driver
+     * {@code n} owns cab {@code n}.
+     */
+    private final class Dataset {
+
+        private final int customerCount;
+        private final int driverCount;
+        private final long firstUserId;
+        private final long firstDriverId;
+        private final long firstCabId;
+        private final long firstBookingId;
+        private final String password;
+        private final LocalDateTime now;
+        private final int totalWeight;
+
+        Dataset(int customerCount, int driverCount, long firstUserId, long firstDriverId, long firstCabId,
+                long firstBookingId, String password, LocalDateTime now) {
+            this.customerCount = customerCount;
+            this.driverCount = driverCount;
+            this.firstUserId = firstUserId;
+            this.firstDriverId = firstDriverId;
+            this.firstCabId = firstCabId;
+            this.firstBookingId = firstBookingId;
+            this.password = password;
+            this.now = now;
+            int weight = BACKGROUND_WEIGHT;
+            for (Hotspot hotspot : HOTSPOTS) {
+                weight += hotspot.weight();
+            }
+            this.totalWeight = weight;
+        }
+
+        Object[] user(int n, SplittableRandom random) {
+            boolean driver = n >= customerCount;
+            Timestamp created = Timestamp.valueOf(now.minusDays(days + random.nextInt(730)));
+            return new Object[]{
+                    firstUserId + n,
+                    FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                    LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    (driver ? "driver" : "rider") + n + "@sample.cabbooking.example",
+                    String.format("8%09d", n),
+                    password,
+                    (driver ? User.UserRole.DRIVER : User.UserRole.CUSTOMER).name(),
+                    (random.nextInt(100) < 98 ? User.UserStatus.ACTIVE : User.UserStatus.INACTIVE).name(),
+                    created,
+                    created};
+        }
+
+        Object[] driver(int n, SplittableRandom random) {
+            double[] position = position(random);
+            int roll = random.nextInt(100);
+            Driver.DriverStatus status = roll < 35 ? Driver.DriverStatus.ONLINE
+                    : roll < 45 ? Driver.DriverStatus.BUSY
+                    : Driver.DriverStatus.OFFLINE;
+            Timestamp created = Timestamp.valueOf(now.minusDays(days + random.nextInt(365)));
+            return new Object[]{
+                    firstDriverId + n,
+                    firstUserId + customerCount + n,
+                    String.format("KA%02d-%011d", 1 + n % 60, n),
+                    LocalDate.of(2027 + random.nextInt(5), 1 + random.nextInt(12), 1).toString(),
+                    Math.round((5.0 - Math.abs(random.nextGaussian()) * 0.4) * 10) / 10.0,
+                    random.nextInt(3_000),
+                    status.name(),
+                    (random.nextInt(100) < 92 ? Driver.VerificationStatus.VERIFIED
+                            : Driver.VerificationStatus.PENDING).name(),
+                    position[0],
+                    position[1],
+                    created,
+                    created};
+        }
+
+        Object[] cab(int n, SplittableRandom random) {
+            Cab.CabType cabType = cabType(n);
+            String[] makeAndModel = switch (cabType) {
+                case HATCHBACK -> new String[]{"Maruti", "Swift"};
+                case SEDAN -> new String[]{"Toyota", "Etios"};
+                case SUV -> new String[]{"Toyota", "Innova"};
+                case LUXURY -> new String[]{"Mercedes-Benz", "E-Class"};
+            };
+            Timestamp created = Timestamp.valueOf(now.minusDays(days + random.nextInt(365)));
+            return new Object[]{
+                    firstCabId + n,
+                    firstDriverId + n,
+                    String.format("KA%02d-%08d", 1 + n % 60, n),
+                    makeAndModel[0],
+                    makeAndModel[1],
+                    COLORS[random.nextInt(COLORS.length)],
+                    now.getYear() - random.nextInt(8),
+                    cabType.name(),
+                    (random.nextInt(100) < 97 ? Cab.CabStatus.AVAILABLE : Cab.CabStatus.MAINTENANCE).name(),
+                    cabType == Cab.CabType.SUV ? 6 : 4,
+                    created,
+                    created};
+        }
+
+        Object[] booking(int n, SplittableRandom random) {
+            LocalDateTime requested = requestedTime(random);
+            Booking.BookingStatus status = status(requested, random);
+            // Frequent riders: the lowest customer indexes take a disproportionate share of trips
+            int customer = (int) (customerCount * Math.pow(random.nextDouble(), 2.5));
+            int driver = (int) (driverCount * Math.pow(random.nextDouble(), 1.5));
+            Booking.CabType cabType = status == Booking.BookingStatus.REQUESTED
+                    ? Booking.CabType.values()[random.nextInt(Booking.CabType.values().length)]
+                    : Booking.CabType.valueOf(cabType(driver).name());
+
+            double[] pickup = position(random);
+            double[] dropoff = position(random);
+            FareQuote quote = fareEngine.quote(pickup[0], pickup[1], dropoff[0], dropoff[1], cabType);
+
+            boolean assigned = status != Booking.BookingStatus.REQUESTED;
+            boolean started = status == Booking.BookingStatus.IN_PROGRESS || status == Booking.BookingStatus.COMPLETED;
+            boolean completed = status == Booking.BookingStatus.COMPLETED;
+            LocalDateTime accepted = requested.plusSeconds(30 + random.nextInt(150));
+            LocalDateTime pickedUp = accepted.plusMinutes(3 + random.nextInt(8));
+            int actualDuration = Math.max(1, quote.getDurationMinutes() + random.nextInt(11) - 3);
+            LocalDateTime lastChange = completed ? pickedUp.plusMinutes(actualDuration)
+                    : started ? pickedUp
+                    : assigned ? accepted
+                    : requested;
+
+            return new Object[]{
+                    firstBookingId + n,
+                    // 'S' is not a hex digit, so these never collide with generated booking numbers
+                    String.format("%sS%07X", BOOKING_NUMBER_PREFIX, n),
+                    firstUserId + customer,
+                    assigned ? firstDriverId + driver : null,
+                    assigned ? firstCabId + driver : null,
+                    "Near " + nearest(pickup).name(),
+                    pickup[0],
+                    pickup[1],
+                    "Near " + nearest(dropoff).name(),
+                    dropoff[0],
+                    dropoff[1],
+                    Timestamp.valueOf(requested),
+                    assigned ? Timestamp.valueOf(accepted) : null,
+                    started ? Timestamp.valueOf(pickedUp) : null,
+                    completed ? Timestamp.valueOf(pickedUp.plusMinutes(actualDuration)) : null,
+                    status.name(),
+                    cabType.name(),
+                    quote.fare(),
+                    completed ? quote.fare() : null,
+                    quote.distance().setScale(2, RoundingMode.HALF_UP),
+                    quote.getDurationMinutes(),
+                    completed ? actualDuration : null,
+                    (completed ? Booking.PaymentStatus.COMPLETED : Booking.PaymentStatus.PENDING).name(),
+                    Booking.PaymentMethod.values()[random.nextInt(Booking.PaymentMethod.values().length)].name(),
+                    Timestamp.valueOf(requested),
+                    Timestamp.valueOf(lastChange)};
+        }
+
+        // Hatchbacks and sedans dominate the fleet
+        private Cab.CabType cabType(int driver) {
+            int roll = Math.floorMod(driver * 37 + 11, 100);
+            return roll < 35 ? Cab.CabType.HATCHBACK
+                    : roll < 75 ? Cab.CabType.SEDAN
+                    : roll < 93 ? Cab.CabType.SUV
+                    : Cab.CabType.LUXURY;
+        }
+
+        // A day weighted against weekends, then an hour from the daily curve
+        private LocalDateTime requestedTime(SplittableRandom random) {
+            while (true) {
+                LocalDate day = now.toLocalDate().minusDays(random.nextInt(days));
+                DayOfWeek dayOfWeek = day.getDayOfWeek();
+                boolean weekend = dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+                if (weekend && random.nextDouble() >= WEEKEND_DEMAND) {
+                    continue;
+                }
+                LocalDateTime time = day.atTime(hour(random), random.nextInt(60), random.nextInt(60));
+                if (time.isBefore(now)) {
+                    return time;
+                }
+            }
+        }
+
+        private int hour(SplittableRandom random) {
+            int roll = random.nextInt(HOURLY_DEMAND_TOTAL);
+            int hour = 0;
+            while (roll >= HOURLY_DEMAND[hour]) {
+                roll -= HOURLY_DEMAND[hour++];
+            }
+            return hour;
+        }
+
+        // Everything older than the live window has finished one way or the other
+        private Booking.BookingStatus status(LocalDateTime requested, SplittableRandom random) {
+            long ageMinutes = Duration.between(requested, now).toMinutes();
+            if (ageMinutes >= LIVE_WINDOW_MINUTES) {
+                return random.nextInt(100) < 89 ? Booking.BookingStatus.COMPLETED : Booking.BookingStatus.CANCELLED;
+            }
+            if (ageMinutes < 3) {
+                return Booking.BookingStatus.REQUESTED;
+            }
+            if (ageMinutes < 6) {
+                return Booking.BookingStatus.ACCEPTED;
+            }
+            if (ageMinutes < 10) {
+                return Booking.BookingStatus.DRIVER_ASSIGNED;
+            }
+            if (ageMinutes < 12) {
+                return Booking.BookingStatus.DRIVER_ARRIVED;
+            }
+            return random.nextInt(100) < 60 ? Booking.BookingStatus.IN_PROGRESS : Booking.BookingStatus.COMPLETED;
+        }
+
+        private double[] position(SplittableRandom random) {
+            int roll = random.nextInt(totalWeight);
+            for (Hotspot hotspot : HOTSPOTS) {
+                if (roll < hotspot.weight()) {
+                    return offset(hotspot.latitude(), hotspot.longitude(),
+                            random.nextGaussian() * hotspot.spreadKm(), random.nextGaussian() * hotspot.spreadKm());
+                }
+                roll -= hotspot.weight();
+            }
+            // Uniform over the disc around the centre
+            double distanceKm = BACKGROUND_RADIUS_KM * Math.sqrt(random.nextDouble());
+            double angle = random.nextDouble(2 * Math.PI);
+            return offset(CENTER_LATITUDE, CENTER_LONGITUDE,
+                    distanceKm * Math.cos(angle), distanceKm * Math.sin(angle));
+        }
+
+        private double[] offset(double latitude, double longitude, double northKm, double eastKm) {
+            return new double[]{
+                    latitude + northKm / KM_PER_DEGREE,
+                    longitude + eastKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(latitude)))};
+        }
+
+        private Hotspot nearest(double[] position) {
+            Hotspot nearest = HOTSPOTS[0];
+            double best = Double.MAX_VALUE;
+            for (Hotspot hotspot : HOTSPOTS) {
+                double dLat = hotspot.latitude() - position[0];
+                double dLng = hotspot.longitude() - position[1];
+                double distance = dLat * dLat + dLng * dLng;
+                if (distance < best) {
+                    best = distance;
+                    nearest = hotspot;
+                }
+            }
+            return nearest;
+        }
+    }
+}
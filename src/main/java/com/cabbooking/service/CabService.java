@@ -1,14 +1,24 @@
 package com.cabbooking.service;
 
+import com.cabbooking.cache.EntityCacheEvictor;
+import com.cabbooking.cache.LookupCache;
+import com.cabbooking.dto.CabSummaryDto;
 import com.cabbooking.entity.Cab;
 import com.cabbooking.entity.Driver;
 import com.cabbooking.repository.CabRepository;
+import com.cabbooking.util.TransactionHooks;
 import lombok.RequiredArgsConstructor;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static com.cabbooking.util.ApplicationConstants.*;
 
@@ -19,13 +29,16 @@ public class CabService {
 
     private final CabRepository cabRepository;
     private final DriverService driverService;
+    private final ModelMapper modelMapper;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final LookupCache<String, CabSummaryDto> cabsByPlate;
 
     public Cab createCab(Cab cab) {
         // Validate that the driver exists
         Driver driver = driverService.findById(cab.getDriver().getId())
                 .orElseThrow(() -> new RuntimeException(DRIVER_NOT_FOUND));
 
-        if (cabRepository.findByDriverId(driver.getId()).isPresent()) {
+        if (cabRepository.loadByDriverId(driver.getId()).isPresent()) {
             throw new RuntimeException(DRIVER_ALREADY_HAS_CAB_ASSIGNED);
         }
 
@@ -33,6 +46,7 @@ public class CabService {
             throw new RuntimeException(LICENSE_PLATE_ALREADY_EXISTS);
         }
 
+        cab.setDriver(driver);
         return cabRepository.save(cab);
     }
 
@@ -41,38 +55,77 @@ public class CabService {
     }
 
     public Optional<Cab> findByDriverId(Long driverId) {
-        return cabRepository.findByDriverId(driverId);
+        return cabRepository.loadByDriverId(driverId);
+    }
+
+    public List<Cab> findByDriverIds(Collection<Long> driverIds) {
+        return cabRepository.findByDriverIdIn(driverIds);
     }
 
     public Optional<Cab> findByLicensePlate(String licensePlate) {
         return cabRepository.findByLicensePlate(licensePlate);
     }
 
-    public List<Cab> findAllCabs() {
-        return cabRepository.findAll();
+    @Transactional(readOnly = true)
+    public Optional<CabSummaryDto> findSummaryById(Long id) {
+        return cabRepository.findSummaryById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CabSummaryDto> findSummaryByDriverId(Long driverId) {
+        return cabRepository.findSummaryByDriverId(driverId);
+    }
+
+    // No transaction: a caller waiting on another caller's load must not hold a connection
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<CabSummaryDto> findSummaryByLicensePlate(String licensePlate) {
+        return cabsByPlate.get(licensePlate, cabRepository::findSummaryByLicensePlate);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CabSummaryDto> findAllCabs(Long after, int limit) {
+        return cabRepository.findSummaryPageAfter(after == null ? 0L : after, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportCabs(Consumer<CabSummaryDto> sink) {
+        try (Stream<CabSummaryDto> cabs = cabRepository.streamSummaries()) {
+            cabs.forEach(sink);
+        }
     }
 
-    public List<Cab> findCabsByType(Cab.CabType cabType) {
-        return cabRepository.findByCabType(cabType);
+    @Transactional(readOnly = true)
+    public List<CabSummaryDto> findCabsByType(Cab.CabType cabType) {
+        return cabRepository.findSummariesByCabType(cabType);
     }
 
-    public List<Cab> findCabsByStatus(Cab.CabStatus status) {
-        return cabRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public List<CabSummaryDto> findCabsByStatus(Cab.CabStatus status) {
+        return cabRepository.findSummariesByStatus(status);
     }
 
-    public List<Cab> findAvailableCabsByType(Cab.CabType cabType) {
-        return cabRepository.findAvailableCabsByType(cabType);
+    @Transactional(readOnly = true)
+    public List<CabSummaryDto> findAvailableCabsByType(Cab.CabType cabType) {
+        return cabRepository.findAvailableSummariesByType(cabType);
     }
 
-    public List<Cab> findCabsByMinimumYear(Integer year) {
-        return cabRepository.findByMinimumYear(year);
+    @Transactional(readOnly = true)
+    public List<CabSummaryDto> findCabsByMinimumYear(Integer year) {
+        return cabRepository.findSummariesByMinimumYear(year);
+    }
+
+    public CabSummaryDto toSummary(Cab cab) {
+        return modelMapper.map(cab, CabSummaryDto.class);
     }
 
     public Cab updateCabStatus(Long id, Cab.CabStatus status) {
         Cab cab = cabRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException(CAB_NOT_FOUND));
 
+        // Runs on every ride transition: the cached entry is rewritten at commit rather
+        // than evicted, so the next assignment still finds the cab in the cache
         cab.setStatus(status);
+        invalidateLookup(cab.getLicensePlate());
         return cabRepository.save(cab);
     }
 
@@ -80,6 +133,8 @@ public class CabService {
         Cab existingCab = cabRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException(CAB_NOT_FOUND));
 
+        invalidateLookup(existingCab.getLicensePlate());
+        invalidateLookup(updatedCab.getLicensePlate());
         existingCab.setLicensePlate(updatedCab.getLicensePlate());
         existingCab.setMake(updatedCab.getMake());
         existingCab.setModel(updatedCab.getModel());
@@ -88,21 +143,28 @@ public class CabService {
         existingCab.setCabType(updatedCab.getCabType());
         existingCab.setSeatingCapacity(updatedCab.getSeatingCapacity());
 
+        entityCacheEvictor.evictAfterCommit(Cab.class, id);
         return cabRepository.save(existingCab);
     }
 
     public void deleteCab(Long id) {
-        if (!cabRepository.existsById(id)) {
-            throw new RuntimeException(CAB_NOT_FOUND);
-        }
-        cabRepository.deleteById(id);
+        Cab cab = cabRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException(CAB_NOT_FOUND));
+        cabRepository.delete(cab);
+        invalidateLookup(cab.getLicensePlate());
+        entityCacheEvictor.evictAfterCommit(Cab.class, id);
     }
 
     public Long getCabCountByStatus(Cab.CabStatus status) {
         return cabRepository.countByStatus(status);
     }
 
-    public List<Cab> findAvailableCabs() {
-        return cabRepository.findByStatus(Cab.CabStatus.AVAILABLE);
+    private void invalidateLookup(String licensePlate) {
+        TransactionHooks.afterCommit(() -> cabsByPlate.invalidate(licensePlate));
+    }
+
+    @Transactional(readOnly = true)
+    public List<CabSummaryDto> findAvailableCabs() {
+        return cabRepository.findSummariesByStatus(Cab.CabStatus.AVAILABLE);
     }
 }
\ No newline at end of file
@@ -1,14 +1,42 @@
 package com.cabbooking.service;
 
+import com.cabbooking.cache.EntityCacheEvictor;
+import com.cabbooking.cache.LookupCache;
+import com.cabbooking.dto.CabSummaryDto;
+import com.cabbooking.dto.DriverSummaryDto;
 import com.cabbooking.entity.Driver;
 import com.cabbooking.entity.User;
+import com.cabbooking.geo.DriverPosition;
+import com.cabbooking.geo.DriverPositionStore;
+import com.cabbooking.geo.DriverSpatialIndex;
+import com.cabbooking.geo.NearbyDriver;
+import com.cabbooking.pricing.SurgePricingEngine;
+import com.cabbooking.repository.CabRepository;
 import com.cabbooking.repository.DriverRepository;
+import com.cabbooking.repository.LocationLogRepository;
+import com.cabbooking.repository.UserRepository;
+import com.cabbooking.util.TransactionHooks;
 import lombok.RequiredArgsConstructor;
+import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.cabbooking.util.ApplicationConstants.*;
 
@@ -17,12 +45,44 @@ import static com.cabbooking.util.ApplicationConstants.*;
 @Transactional
 public class DriverService {
 
+    private static final Logger log = LoggerFactory.getLogger(DriverService.class);
+
     private final DriverRepository driverRepository;
-    private final UserService userService;
+    private final CabRepository cabRepository;
+    private final LocationLogRepository locationLogRepository;
+    private final UserRepository userRepository;
+    private final DriverSpatialIndex driverSpatialIndex;
+    private final DriverPositionStore driverPositionStore;
+    private final SurgePricingEngine surgePricingEngine;
+    private final ModelMapper modelMapper;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final LookupCache<String, DriverSummaryDto> driversByLicense;
+    private final LookupCache<String, CabSummaryDto> cabsByPlate;
+
+    @Value("${driver.index.max-search-radius-km:50.0}")
+    private double maxSearchRadiusKm;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUpSpatialIndex() {
+        driverSpatialIndex.clear();
+        for (Driver driver : findAvailableDrivers()) {
+            driverSpatialIndex.update(driver);
+            surgePricingEngine.update(driver);
+        }
+
+        for (DriverRepository.PersistedPosition position : driverRepository.findAllPositions()) {
+            if (!driverPositionStore.register(position.getId(),
+                    position.getCurrentLatitude(), position.getCurrentLongitude())) {
+                log.warn("Driver position store is full; remaining drivers write positions through to the database");
+                break;
+            }
+        }
+    }
 
     public Driver createDriver(Driver driver) {
         // Validate that the user exists and has driver role
-        User user = userService.findById(driver.getUser().getId())
+        User user = userRepository.findById(driver.getUser().getId())
                 .orElseThrow(() -> new RuntimeException(USER_NOT_FOUND));
 
         if (user.getRole() != User.UserRole.DRIVER) {
@@ -33,7 +93,15 @@ public class DriverService {
             throw new RuntimeException(LICENSE_NUMBER_ALREADY_EXISTS);
         }
 
-        return driverRepository.save(driver);
+        driver.setUser(user);
+        Driver savedDriver = driverRepository.save(driver);
+        driverSpatialIndex.update(savedDriver);
+        surgePricingEngine.update(savedDriver);
+        Long driverId = savedDriver.getId();
+        Double latitude = savedDriver.getCurrentLatitude();
+        Double longitude = savedDriver.getCurrentLongitude();
+        TransactionHooks.afterCommit(() -> driverPositionStore.register(driverId, latitude, longitude));
+        return savedDriver;
     }
 
     public Optional<Driver> findById(Long id) {
@@ -48,16 +116,46 @@ public class DriverService {
         return driverRepository.findByLicenseNumber(licenseNumber);
     }
 
-    public List<Driver> findAllDrivers() {
-        return driverRepository.findAll();
+    @Transactional(readOnly = true)
+    public Optional<DriverSummaryDto> findSummaryById(Long id) {
+        return driverRepository.findSummaryById(id).map(this::applyLivePosition);
     }
 
-    public List<Driver> findDriversByStatus(Driver.DriverStatus status) {
-        return driverRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public Optional<DriverSummaryDto> findSummaryByUserId(Long userId) {
+        return driverRepository.findSummaryByUserId(userId).map(this::applyLivePosition);
+    }
+
+    // No transaction: a caller waiting on another caller's load must not hold a connection
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<DriverSummaryDto> findSummaryByLicenseNumber(String licenseNumber) {
+        // Positions change too often to cache; copy so the shared entry is never written
+        return driversByLicense.get(licenseNumber, driverRepository::findSummaryByLicenseNumber)
+                .map(DriverService::copyOf)
+                .map(this::applyLivePosition);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DriverSummaryDto> findAllDrivers(Long after, int limit) {
+        return withLivePositions(
+                driverRepository.findSummaryPageAfter(after == null ? 0L : after, PageRequest.of(0, limit)));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportDrivers(Consumer<DriverSummaryDto> sink) {
+        try (Stream<DriverSummaryDto> drivers = driverRepository.streamSummaries()) {
+            drivers.map(this::applyLivePosition).forEach(sink);
+        }
     }
 
-    public List<Driver> findDriversByVerificationStatus(Driver.VerificationStatus verificationStatus) {
-        return driverRepository.findByVerificationStatus(verificationStatus);
+    @Transactional(readOnly = true)
+    public List<DriverSummaryDto> findDriversByStatus(Driver.DriverStatus status) {
+        return withLivePositions(driverRepository.findSummariesByStatus(status));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DriverSummaryDto> findDriversByVerificationStatus(Driver.VerificationStatus verificationStatus) {
+        return withLivePositions(driverRepository.findSummariesByVerificationStatus(verificationStatus));
     }
 
     public List<Driver> findAvailableDrivers() {
@@ -66,29 +164,82 @@ public class DriverService {
                 Driver.VerificationStatus.VERIFIED);
     }
 
-    public List<Driver> findNearbyDrivers(Double latitude, Double longitude, Double radiusKm) {
-        return driverRepository.findNearbyAvailableDrivers(latitude, longitude, radiusKm);
+    @Transactional(readOnly = true)
+    public List<DriverSummaryDto> findAvailableDriverSummaries() {
+        return withLivePositions(driverRepository.findSummariesByStatusAndVerificationStatus(
+                Driver.DriverStatus.ONLINE,
+                Driver.VerificationStatus.VERIFIED));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DriverSummaryDto> findNearbyDrivers(Double latitude, Double longitude, Double radiusKm) {
+        if (latitude == null || longitude == null || radiusKm == null) {
+            return List.of();
+        }
+        return loadInDistanceOrder(driverSpatialIndex.findWithinRadius(latitude, longitude, radiusKm));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DriverSummaryDto> findNearestDrivers(Double latitude, Double longitude, int k) {
+        if (latitude == null || longitude == null) {
+            return List.of();
+        }
+        int limit = Math.min(k, MAX_NEAREST_DRIVERS);
+        return loadInDistanceOrder(driverSpatialIndex.findNearest(latitude, longitude, limit, maxSearchRadiusKm));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DriverSummaryDto> findTopRatedDrivers(Double minRating) {
+        return withLivePositions(driverRepository.findSummariesByMinimumRating(minRating));
     }
 
-    public List<Driver> findTopRatedDrivers(Double minRating) {
-        return driverRepository.findByMinimumRating(minRating);
+    public DriverSummaryDto toSummary(Driver driver) {
+        return modelMapper.map(driver, DriverSummaryDto.class);
     }
 
     public Driver updateDriverStatus(Long id, Driver.DriverStatus status) {
         Driver driver = driverRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException(DRIVER_NOT_FOUND));
 
+        // Runs on every ride transition: the cached entry is rewritten at commit rather
+        // than evicted, so the next assignment still finds the driver in the cache
         driver.setStatus(status);
-        return driverRepository.save(driver);
+        applyLivePosition(driver);
+        invalidateLookup(driver.getLicenseNumber());
+        Driver savedDriver = driverRepository.save(driver);
+        driverSpatialIndex.update(savedDriver);
+        surgePricingEngine.update(savedDriver);
+        return savedDriver;
     }
 
-    public Driver updateDriverLocation(Long id, Double latitude, Double longitude) {
-        Driver driver = driverRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException(DRIVER_NOT_FOUND));
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public DriverPosition updateDriverLocation(Long id, Double latitude, Double longitude) {
+        return recordDriverPosition(id, latitude, longitude, null, null, LocalDateTime.now());
+    }
 
-        driver.setCurrentLatitude(latitude);
-        driver.setCurrentLongitude(longitude);
-        return driverRepository.save(driver);
+    /**
+     * Records a position in the live store without touching the {@code drivers} row; the
+     * store checkpoints it asynchronously. Drivers this node does not track yet (created on
+     * another node, or the store is full) are loaded once, and written through if they
+     * cannot be tracked.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public DriverPosition recordDriverPosition(Long id, Double latitude, Double longitude,
+            Double heading, Double speed, LocalDateTime timestamp) {
+        if (!driverPositionStore.record(id, latitude, longitude, heading, speed, timestamp)) {
+            Driver driver = driverRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException(DRIVER_NOT_FOUND));
+
+            if (!driverPositionStore.register(id, driver.getCurrentLatitude(), driver.getCurrentLongitude())) {
+                driver.setCurrentLatitude(latitude);
+                driver.setCurrentLongitude(longitude);
+                driverSpatialIndex.update(driverRepository.save(driver));
+                return new DriverPosition(id, latitude, longitude, heading, speed, timestamp);
+            }
+            driverPositionStore.record(id, latitude, longitude, heading, speed, timestamp);
+        }
+        return driverPositionStore.find(id)
+                .orElseThrow(() -> new RuntimeException(DRIVER_NOT_FOUND));
     }
 
     public Driver updateVerificationStatus(Long id, Driver.VerificationStatus verificationStatus) {
@@ -96,7 +247,13 @@ public class DriverService {
                 .orElseThrow(() -> new RuntimeException(DRIVER_NOT_FOUND));
 
         driver.setVerificationStatus(verificationStatus);
-        return driverRepository.save(driver);
+        applyLivePosition(driver);
+        invalidateLookup(driver.getLicenseNumber());
+        entityCacheEvictor.evictAfterCommit(Driver.class, id);
+        Driver savedDriver = driverRepository.save(driver);
+        driverSpatialIndex.update(savedDriver);
+        surgePricingEngine.update(savedDriver);
+        return savedDriver;
     }
 
     public Driver updateDriverRating(Long id, Double newRating) {
@@ -112,6 +269,7 @@ public class DriverService {
 
         driver.setRating(updatedRating);
         driver.setTotalRides(totalRides + SINGLE_RIDE_INCREMENT);
+        invalidateLookup(driver.getLicenseNumber());
 
         return driverRepository.save(driver);
     }
@@ -120,20 +278,92 @@ public class DriverService {
         Driver existingDriver = driverRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException(DRIVER_NOT_FOUND));
 
+        invalidateLookup(existingDriver.getLicenseNumber());
+        invalidateLookup(updatedDriver.getLicenseNumber());
         existingDriver.setLicenseNumber(updatedDriver.getLicenseNumber());
         existingDriver.setLicenseExpiryDate(updatedDriver.getLicenseExpiryDate());
 
+        entityCacheEvictor.evictAfterCommit(Driver.class, id);
         return driverRepository.save(existingDriver);
     }
 
     public void deleteDriver(Long id) {
-        if (!driverRepository.existsById(id)) {
-            throw new RuntimeException(DRIVER_NOT_FOUND);
-        }
-        driverRepository.deleteById(id);
+        Driver driver = driverRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException(DRIVER_NOT_FOUND));
+        locationLogRepository.deleteByDriverId(id);
+        // Driver has no mapped cab to cascade the delete through; see Cab.driver
+        cabRepository.loadByDriverId(id).ifPresent(cab -> {
+            cabRepository.delete(cab);
+            String licensePlate = cab.getLicensePlate();
+            TransactionHooks.afterCommit(() -> cabsByPlate.invalidate(licensePlate));
+        });
+        driverRepository.delete(driver);
+        invalidateLookup(driver.getLicenseNumber());
+        entityCacheEvictor.evictAfterCommit(Driver.class, id);
+        driverSpatialIndex.remove(id);
+        surgePricingEngine.remove(id);
+        TransactionHooks.afterCommit(() -> driverPositionStore.remove(id));
     }
 
     public Double getAverageDriverRating() {
         return driverRepository.getAverageRating();
     }
+
+    private List<DriverSummaryDto> loadInDistanceOrder(List<NearbyDriver> nearbyDrivers) {
+        if (nearbyDrivers.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, DriverSummaryDto> driversById = driverRepository.findSummariesByIdIn(
+                        nearbyDrivers.stream().map(NearbyDriver::getDriverId).toList())
+                .stream()
+                .collect(Collectors.toMap(DriverSummaryDto::getId, Function.identity()));
+
+        // Re-check eligibility against the loaded rows in case the index is momentarily behind
+        List<DriverSummaryDto> ordered = new ArrayList<>(nearbyDrivers.size());
+        for (NearbyDriver nearbyDriver : nearbyDrivers) {
+            DriverSummaryDto driver = driversById.get(nearbyDriver.getDriverId());
+            if (driver != null
+                    && Driver.DriverStatus.ONLINE.name().equals(driver.getStatus())
+                    && Driver.VerificationStatus.VERIFIED.name().equals(driver.getVerificationStatus())) {
+                ordered.add(applyLivePosition(driver));
+            }
+        }
+        return ordered;
+    }
+
+    private void invalidateLookup(String licenseNumber) {
+        TransactionHooks.afterCommit(() -> driversByLicense.invalidate(licenseNumber));
+    }
+
+    private static DriverSummaryDto copyOf(DriverSummaryDto driver) {
+        return new DriverSummaryDto(driver.getId(), driver.getLicenseNumber(), driver.getRating(),
+                driver.getTotalRides(), driver.getStatus(), driver.getVerificationStatus(),
+                driver.getCurrentLatitude(), driver.getCurrentLongitude(), driver.getUser());
+    }
+
+    private List<DriverSummaryDto> withLivePositions(List<DriverSummaryDto> drivers) {
+        drivers.forEach(this::applyLivePosition);
+        return drivers;
+    }
+
+    /**
+     * Copies the live position onto the entity, since the row may lag the store by up to
+     * one checkpoint interval.
+     */
+    private Driver applyLivePosition(Driver driver) {
+        driverPositionStore.findLive(driver.getId()).ifPresent(position -> {
+            driver.setCurrentLatitude(position.getLatitude());
+            driver.setCurrentLongitude(position.getLongitude());
+        });
+        return driver;
+    }
+
+    private DriverSummaryDto applyLivePosition(DriverSummaryDto driver) {
+        driverPositionStore.findLive(driver.getId()).ifPresent(position -> {
+            driver.setCurrentLatitude(position.getLatitude());
+            driver.setCurrentLongitude(position.getLongitude());
+        });
+        return driver;
+    }
 }
\ No newline at end of file
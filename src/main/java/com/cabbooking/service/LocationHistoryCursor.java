@@ -0,0 +1,96 @@
+package com.cabbooking.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+
+/**
+ * A point's place in a driver's history, newest first. Timestamps repeat (batched pings,
+ * decoded trajectory points), so the place also names the point: a raw row by its id, a
+ * trajectory point by its trajectory id and sequence within it. At one timestamp raw rows
+ * come first. Written as {@code <timestamp>~<id>} or
+ * {@code <timestamp>~t<trajectoryId>.<sequence>}; a bare timestamp stands before every
+ * point at that time.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class LocationHistoryCursor implements Comparable<LocationHistoryCursor> {
+
+    // Ranks within one timestamp; higher comes first in the history
+    private static final int BARE = 0;
+    private static final int TRAJECTORY_POINT = 1;
+    private static final int RAW_ROW = 2;
+
+    private static final char SEPARATOR = '~';
+    private static final char TRAJECTORY_PREFIX = 't';
+
+    private static final Comparator<LocationHistoryCursor> ORDER = Comparator
+            .comparing(LocationHistoryCursor::getTimestamp)
+            .thenComparingInt(cursor -> cursor.kind)
+            .thenComparingLong(cursor -> cursor.id)
+            .thenComparingInt(cursor -> cursor.sequence);
+
+    LocalDateTime timestamp;
+    int kind;
+    long id;
+    int sequence;
+
+    public static LocationHistoryCursor before(LocalDateTime timestamp) {
+        return new LocationHistoryCursor(timestamp, BARE, 0, 0);
+    }
+
+    public static LocationHistoryCursor ofRow(LocalDateTime timestamp, long id) {
+        return new LocationHistoryCursor(timestamp, RAW_ROW, id, 0);
+    }
+
+    public static LocationHistoryCursor ofTrajectoryPoint(LocalDateTime timestamp, long trajectoryId, int sequence) {
+        return new LocationHistoryCursor(timestamp, TRAJECTORY_POINT, trajectoryId, sequence);
+    }
+
+    public static LocationHistoryCursor parse(String value) {
+        try {
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return before(LocalDateTime.parse(value));
+            }
+            LocalDateTime timestamp = LocalDateTime.parse(value.substring(0, separator));
+            String point = value.substring(separator + 1);
+            if (point.isEmpty() || point.charAt(0) != TRAJECTORY_PREFIX) {
+                return ofRow(timestamp, Long.parseLong(point));
+            }
+            int dot = point.indexOf('.');
+            return ofTrajectoryPoint(timestamp, Long.parseLong(point.substring(1, dot)),
+                    Integer.parseInt(point.substring(dot + 1)));
+        } catch (DateTimeParseException | IndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid history cursor: " + value, e);
+        }
+    }
+
+    /** Whether the cursor names a raw row, so rows at its timestamp with a lower id follow it. */
+    public boolean isRow() {
+        return kind == RAW_ROW;
+    }
+
+    /** Whether the point at {@code other} comes after this one, that is, is older. */
+    public boolean isFollowedBy(LocationHistoryCursor other) {
+        return other.compareTo(this) < 0;
+    }
+
+    @Override
+    public int compareTo(LocationHistoryCursor other) {
+        return ORDER.compare(this, other);
+    }
+
+    @Override
+    public String toString() {
+        return switch (kind) {
+            case RAW_ROW -> timestamp.toString() + SEPARATOR + id;
+            case TRAJECTORY_POINT -> timestamp.toString() + SEPARATOR + TRAJECTORY_PREFIX + id + '.' + sequence;
+            default -> timestamp.toString();
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.cabbooking.service;
+
+import com.cabbooking.entity.LocationLog;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One page of a driver's history, newest first. Points decoded from trajectories have no
+ * row id, so the cursor for the next page travels with the page; it is null on the last one.
+ */
+@Value
+public class LocationHistoryPage {
+
+    List<LocationLog> locations;
+    LocationHistoryCursor nextCursor;
+}
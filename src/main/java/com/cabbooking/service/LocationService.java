@@ -1,13 +1,44 @@
 package com.cabbooking.service;
 
+import com.cabbooking.dto.LocationBatchDto;
+import com.cabbooking.dto.LocationBatchResponseDto;
+import com.cabbooking.dto.LocationPointDto;
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.Driver;
 import com.cabbooking.entity.LocationLog;
+import com.cabbooking.entity.LocationTrajectory;
+import com.cabbooking.geo.DriverPosition;
+import com.cabbooking.geo.DriverPositionStore;
+import com.cabbooking.repository.BookingRepository;
+import com.cabbooking.repository.DriverRepository;
 import com.cabbooking.repository.LocationLogRepository;
+import com.cabbooking.repository.LocationTrajectoryRepository;
+import com.cabbooking.trajectory.TrajectoryCodec;
+import com.cabbooking.trajectory.TrajectoryPoint;
+import com.cabbooking.trajectory.TrajectorySimplifier;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static com.cabbooking.util.ApplicationConstants.BOOKING_NOT_FOUND;
+import static com.cabbooking.util.ApplicationConstants.COMPACTION_DELETE_CHUNK_SIZE;
+import static com.cabbooking.util.ApplicationConstants.DRIVER_NOT_FOUND;
+import static com.cabbooking.util.ApplicationConstants.HISTORY_TRAJECTORY_FETCH_SIZE;
+import static com.cabbooking.util.ApplicationConstants.MAX_TRAJECTORY_SEGMENT_POINTS;
 
 @Service
 @RequiredArgsConstructor
@@ -15,28 +46,285 @@ import java.util.List;
 public class LocationService {
 
     private final LocationLogRepository locationLogRepository;
+    private final LocationTrajectoryRepository locationTrajectoryRepository;
+    private final DriverRepository driverRepository;
+    private final BookingRepository bookingRepository;
+    private final DriverService driverService;
+    private final DriverPositionStore driverPositionStore;
+
+    /**
+     * Whether pings from the driver can be accepted. Drivers tracked by the position store are
+     * known without a query; others (created on another node, or the store is full) are
+     * looked up by id.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean isKnownDriver(Long driverId) {
+        return driverPositionStore.contains(driverId) || driverRepository.existsById(driverId);
+    }
 
     public LocationLog logLocation(LocationLog locationLog) {
+        // The request body only carries ids; swap in managed references so versioned
+        // entities are not mistaken for new ones
+        locationLog.setDriver(driverRepository.getReferenceById(locationLog.getDriver().getId()));
+        if (locationLog.getBooking() != null && locationLog.getBooking().getId() != null) {
+            locationLog.setBooking(bookingRepository.getReferenceById(locationLog.getBooking().getId()));
+        }
         return locationLogRepository.save(locationLog);
     }
 
-    public List<LocationLog> getDriverLocationHistory(Long driverId) {
-        return locationLogRepository.findByDriverIdOrderByTimestampDesc(driverId);
+    /**
+     * Persists a batch of pings in one transaction. With pooled ids and
+     * {@code hibernate.jdbc.batch_size} set, the inserts go out as JDBC batches.
+     */
+    public List<LocationLog> saveLocationBatch(List<LocationLog> locationLogs) {
+        Map<Long, Driver> drivers = new HashMap<>();
+        Map<Long, Booking> bookings = new HashMap<>();
+        for (LocationLog locationLog : locationLogs) {
+            locationLog.setDriver(drivers.computeIfAbsent(
+                    locationLog.getDriver().getId(), driverRepository::getReferenceById));
+            if (locationLog.getBooking() != null && locationLog.getBooking().getId() != null) {
+                locationLog.setBooking(bookings.computeIfAbsent(
+                        locationLog.getBooking().getId(), bookingRepository::getReferenceById));
+            }
+        }
+        return locationLogRepository.saveAll(locationLogs);
+    }
+
+    /**
+     * Stores a driver's buffered points in one transaction and moves the driver to the
+     * most recent of them, so a replay costs one position update rather than one per point.
+     */
+    public LocationBatchResponseDto logLocationBatch(LocationBatchDto batch) {
+        if (!driverRepository.existsById(batch.getDriverId())) {
+            throw new RuntimeException(DRIVER_NOT_FOUND);
+        }
+        Driver driver = driverRepository.getReferenceById(batch.getDriverId());
+        Booking booking = null;
+        if (batch.getBookingId() != null) {
+            if (!bookingRepository.existsById(batch.getBookingId())) {
+                throw new RuntimeException(BOOKING_NOT_FOUND);
+            }
+            booking = bookingRepository.getReferenceById(batch.getBookingId());
+        }
+
+        List<LocationPointDto> points = new ArrayList<>(batch.getPoints());
+        points.sort(Comparator.comparing(LocationPointDto::getTimestamp));
+
+        List<LocationLog> locationLogs = new ArrayList<>(points.size());
+        for (LocationPointDto point : points) {
+            LocationLog locationLog = new LocationLog();
+            locationLog.setDriver(driver);
+            locationLog.setBooking(booking);
+            locationLog.setLatitude(point.getLatitude());
+            locationLog.setLongitude(point.getLongitude());
+            locationLog.setSpeed(point.getSpeed());
+            locationLog.setHeading(point.getHeading());
+            locationLog.setTimestamp(point.getTimestamp());
+            locationLogs.add(locationLog);
+        }
+        locationLogRepository.saveAll(locationLogs);
+
+        LocationPointDto latest = points.get(points.size() - 1);
+        driverService.recordDriverPosition(batch.getDriverId(), latest.getLatitude(), latest.getLongitude(),
+                latest.getHeading(), latest.getSpeed(), latest.getTimestamp());
+        return new LocationBatchResponseDto(batch.getDriverId(), locationLogs.size(), latest.getTimestamp());
+    }
+
+    // History reads merge the raw recent rows with the compacted older trajectories, newest first
+
+    /**
+     * One page of the driver's history: at most {@code limit} points that come after
+     * {@code before}, or the newest ones when it is null. Trajectories are decoded only as
+     * far back as the page reaches, so a long-lived driver costs no more than a new one.
+     */
+    public LocationHistoryPage getDriverLocationHistory(Long driverId, LocationHistoryCursor before, int limit) {
+        PageRequest rows = PageRequest.of(0, limit);
+        List<LocationLog> raw;
+        if (before == null) {
+            raw = locationLogRepository.findPageByDriverId(driverId, rows);
+        } else if (before.isRow()) {
+            raw = locationLogRepository.findPageByDriverIdBeforeRow(driverId, before.getTimestamp(), before.getId(), rows);
+        } else {
+            // Rows at the cursor's timestamp come before any trajectory point there
+            raw = locationLogRepository.findPageByDriverIdBefore(driverId, before.getTimestamp(), rows);
+        }
+        List<HistoryEntry> page = new ArrayList<>(raw.size());
+        for (LocationLog log : raw) {
+            page.add(new HistoryEntry(LocationHistoryCursor.ofRow(log.getTimestamp(), log.getId()), log));
+        }
+
+        for (int pageNumber = 0; ; pageNumber++) {
+            PageRequest fetch = PageRequest.of(pageNumber, HISTORY_TRAJECTORY_FETCH_SIZE);
+            List<LocationTrajectory> trajectories = before == null
+                    ? locationTrajectoryRepository.findPageByDriverId(driverId, fetch)
+                    : locationTrajectoryRepository.findPageByDriverIdStartingBy(driverId, before.getTimestamp(), fetch);
+            for (LocationTrajectory trajectory : trajectories) {
+                // Trajectories come newest end first, so none from here on reaches into a full page
+                if (page.size() == limit
+                        && trajectory.getEndTime().isBefore(page.get(limit - 1).getCursor().getTimestamp())) {
+                    return toHistoryPage(page, limit);
+                }
+                List<TrajectoryPoint> points = TrajectoryCodec.decode(trajectory.getEncodedPoints());
+                for (int sequence = 0; sequence < points.size(); sequence++) {
+                    TrajectoryPoint point = points.get(sequence);
+                    LocationHistoryCursor cursor = LocationHistoryCursor.ofTrajectoryPoint(
+                            point.getTimestamp(), trajectory.getId(), sequence);
+                    if (before == null || before.isFollowedBy(cursor)) {
+                        page.add(new HistoryEntry(cursor, toLocationLog(trajectory, point)));
+                    }
+                }
+                page.sort(Comparator.comparing(HistoryEntry::getCursor).reversed());
+                if (page.size() > limit) {
+                    page = new ArrayList<>(page.subList(0, limit));
+                }
+            }
+            if (trajectories.size() < HISTORY_TRAJECTORY_FETCH_SIZE) {
+                return toHistoryPage(page, limit);
+            }
+        }
     }
 
     public List<LocationLog> getBookingLocationHistory(Long bookingId) {
-        return locationLogRepository.findByBookingIdOrderByTimestampDesc(bookingId);
+        return merge(locationLogRepository.findByBookingIdOrderByTimestampDesc(bookingId),
+                locationTrajectoryRepository.findByBookingIdOrderByStartTimeDesc(bookingId), point -> true);
     }
 
     public List<LocationLog> getDriverLocationHistory(Long driverId, LocalDateTime startTime, LocalDateTime endTime) {
-        return locationLogRepository.findByDriverIdAndTimeRange(driverId, startTime, endTime);
+        return merge(locationLogRepository.findByDriverIdAndTimeRange(driverId, startTime, endTime),
+                locationTrajectoryRepository.findByDriverIdOverlapping(driverId, startTime, endTime),
+                inRange(startTime, endTime));
     }
 
     public List<LocationLog> getBookingLocationHistory(Long bookingId, LocalDateTime startTime, LocalDateTime endTime) {
-        return locationLogRepository.findByBookingIdAndTimeRange(bookingId, startTime, endTime);
+        return merge(locationLogRepository.findByBookingIdAndTimeRange(bookingId, startTime, endTime),
+                locationTrajectoryRepository.findByBookingIdOverlapping(bookingId, startTime, endTime),
+                inRange(startTime, endTime));
+    }
+
+    /**
+     * Served from the live position store; falls back to the location history for drivers
+     * that have not reported since this node started.
+     */
+    public DriverPosition getLatestDriverLocation(Long driverId) {
+        Optional<DriverPosition> live = driverPositionStore.findLive(driverId);
+        if (live.isPresent()) {
+            return live.get();
+        }
+        LocationLog latest = locationLogRepository.findLatestLocationByDriverId(driverId);
+        if (latest != null) {
+            return new DriverPosition(driverId, latest.getLatitude(), latest.getLongitude(),
+                    latest.getHeading(), latest.getSpeed(), latest.getTimestamp());
+        }
+        LocationTrajectory trajectory = locationTrajectoryRepository.findLatestByDriverId(driverId);
+        if (trajectory == null) {
+            return null;
+        }
+        List<TrajectoryPoint> points = TrajectoryCodec.decode(trajectory.getEncodedPoints());
+        TrajectoryPoint last = points.get(points.size() - 1);
+        return new DriverPosition(driverId, last.getLatitude(), last.getLongitude(),
+                last.getHeading(), last.getSpeed(), last.getTimestamp());
+    }
+
+    /**
+     * Rolls the driver's location rows older than {@code cutoff} into trajectories: one per
+     * booking, or per hour for driving outside a booking. Each is simplified with
+     * Douglas-Peucker before encoding, and the raw rows are deleted in the same transaction.
+     *
+     * @return number of raw rows compacted
+     */
+    public int compactDriverHistory(Long driverId, LocalDateTime cutoff, double toleranceMeters, int maxRows) {
+        List<LocationLog> logs = locationLogRepository.findByDriverIdBefore(
+                driverId, cutoff, PageRequest.of(0, maxRows));
+        if (logs.isEmpty()) {
+            return 0;
+        }
+
+        Map<SegmentKey, List<LocationLog>> segments = new LinkedHashMap<>();
+        for (LocationLog log : logs) {
+            Long bookingId = log.getBooking() != null ? log.getBooking().getId() : null;
+            LocalDateTime bucket = bookingId == null ? log.getTimestamp().truncatedTo(ChronoUnit.HOURS) : null;
+            segments.computeIfAbsent(new SegmentKey(bookingId, bucket), key -> new ArrayList<>()).add(log);
+        }
+
+        List<LocationTrajectory> trajectories = new ArrayList<>();
+        for (List<LocationLog> segment : segments.values()) {
+            List<TrajectoryPoint> points = new ArrayList<>(segment.size());
+            for (LocationLog log : segment) {
+                points.add(new TrajectoryPoint(log.getLatitude(), log.getLongitude(),
+                        log.getSpeed(), log.getHeading(), log.getTimestamp()));
+            }
+            List<TrajectoryPoint> simplified = TrajectorySimplifier.simplify(points, toleranceMeters);
+
+            for (int from = 0; from < simplified.size(); from += MAX_TRAJECTORY_SEGMENT_POINTS) {
+                List<TrajectoryPoint> chunk = simplified.subList(
+                        from, Math.min(simplified.size(), from + MAX_TRAJECTORY_SEGMENT_POINTS));
+                LocationTrajectory trajectory = new LocationTrajectory();
+                trajectory.setDriver(segment.get(0).getDriver());
+                trajectory.setBooking(segment.get(0).getBooking());
+                trajectory.setStartTime(chunk.get(0).getTimestamp());
+                trajectory.setEndTime(chunk.get(chunk.size() - 1).getTimestamp());
+                trajectory.setPointCount(chunk.size());
+                trajectory.setSourcePointCount(from == 0 ? segment.size() : 0);
+                trajectory.setEncodedPoints(TrajectoryCodec.encode(chunk));
+                trajectories.add(trajectory);
+            }
+        }
+
+        locationTrajectoryRepository.saveAll(trajectories);
+        // Bounded IN lists; a single statement over every id would exceed packet limits
+        List<Long> ids = logs.stream().map(LocationLog::getId).toList();
+        for (int from = 0; from < ids.size(); from += COMPACTION_DELETE_CHUNK_SIZE) {
+            locationLogRepository.deleteAllByIdInBatch(
+                    ids.subList(from, Math.min(ids.size(), from + COMPACTION_DELETE_CHUNK_SIZE)));
+        }
+        return logs.size();
+    }
+
+    private List<LocationLog> merge(List<LocationLog> raw, List<LocationTrajectory> trajectories,
+            Predicate<TrajectoryPoint> filter) {
+        if (trajectories.isEmpty()) {
+            return raw;
+        }
+        List<LocationLog> merged = new ArrayList<>(raw);
+        for (LocationTrajectory trajectory : trajectories) {
+            for (TrajectoryPoint point : TrajectoryCodec.decode(trajectory.getEncodedPoints())) {
+                if (filter.test(point)) {
+                    merged.add(toLocationLog(trajectory, point));
+                }
+            }
+        }
+        merged.sort(Comparator.comparing(LocationLog::getTimestamp).reversed());
+        return merged;
+    }
+
+    private static LocationLog toLocationLog(LocationTrajectory trajectory, TrajectoryPoint point) {
+        return new LocationLog(null, trajectory.getDriver(), trajectory.getBooking(),
+                point.getLatitude(), point.getLongitude(), point.getSpeed(), point.getHeading(),
+                point.getTimestamp());
+    }
+
+    private static LocationHistoryPage toHistoryPage(List<HistoryEntry> page, int limit) {
+        List<LocationLog> locations = new ArrayList<>(page.size());
+        for (HistoryEntry entry : page) {
+            locations.add(entry.getLog());
+        }
+        LocationHistoryCursor next = page.size() == limit ? page.get(limit - 1).getCursor() : null;
+        return new LocationHistoryPage(locations, next);
+    }
+
+    private static Predicate<TrajectoryPoint> inRange(LocalDateTime startTime, LocalDateTime endTime) {
+        return point -> !point.getTimestamp().isBefore(startTime) && !point.getTimestamp().isAfter(endTime);
+    }
+
+    @Value
+    private static class HistoryEntry {
+        LocationHistoryCursor cursor;
+        LocationLog log;
     }
 
-    public LocationLog getLatestDriverLocation(Long driverId) {
-        return locationLogRepository.findLatestLocationByDriverId(driverId);
+    @Value
+    private static class SegmentKey {
+        Long bookingId;
+        LocalDateTime hour;
     }
-}
\ No newline at end of file
+}
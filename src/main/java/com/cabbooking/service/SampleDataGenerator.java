@@ -31,12 +31,20 @@ public class SampleDataGenerator implements CommandLineRunner {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private BulkSampleDataLoader bulkSampleDataLoader;
+
     @Value("${sample.data.enabled:false}")
     private boolean sampleDataEnabled;
 
     @Value("${sample.data.count:5}")
     private int sampleCount;
 
+    // "entities" saves each set through the repositories; "bulk" seeds sample.data.count
+    // bookings, with customers, drivers and cabs to match, through JDBC batches
+    @Value("${sample.data.mode:entities}")
+    private String sampleMode;
+
     @Override
     public void run(String... args) {
         if (!sampleDataEnabled) {
@@ -50,6 +58,15 @@ public class SampleDataGenerator implements CommandLineRunner {
             return;
         }
 
+        if ("bulk".equalsIgnoreCase(sampleMode)) {
+            try {
+                bulkSampleDataLoader.load(sampleCount);
+            } catch (Exception e) {
+                log.error("Error during bulk sample data generation", e);
+            }
+            return;
+        }
+
         log.info("Generating {} sample data sets...", sampleCount);
 
         try {
@@ -1,14 +1,21 @@
 package com.cabbooking.service;
 
+import com.cabbooking.cache.EntityCacheEvictor;
+import com.cabbooking.dto.UserSummaryDto;
 import com.cabbooking.entity.User;
+import com.cabbooking.repository.LocationLogRepository;
 import com.cabbooking.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static com.cabbooking.util.ApplicationConstants.*;
 
@@ -19,6 +26,10 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ModelMapper modelMapper;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final DriverService driverService;
+    private final LocationLogRepository locationLogRepository;
 
     public User createUser(User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
@@ -44,20 +55,45 @@ public class UserService {
         return userRepository.findByPhoneNumber(phoneNumber);
     }
 
-    public List<User> findAllUsers() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public Optional<UserSummaryDto> findSummaryById(Long id) {
+        return userRepository.findSummaryById(id);
     }
 
-    public List<User> findUsersByRole(User.UserRole role) {
-        return userRepository.findByRole(role);
+    @Transactional(readOnly = true)
+    public Optional<UserSummaryDto> findSummaryByEmail(String email) {
+        return userRepository.findSummaryByEmail(email);
     }
 
-    public List<User> findUsersByStatus(User.UserStatus status) {
-        return userRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public List<UserSummaryDto> findAllUsers(Long after, int limit) {
+        return userRepository.findSummaryPageAfter(after == null ? 0L : after, PageRequest.of(0, limit));
     }
 
-    public List<User> searchUsersByName(String name) {
-        return userRepository.findByNameContaining(name);
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<UserSummaryDto> sink) {
+        try (Stream<UserSummaryDto> users = userRepository.streamSummaries()) {
+            users.forEach(sink);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSummaryDto> findUsersByRole(User.UserRole role) {
+        return userRepository.findSummariesByRole(role);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSummaryDto> findUsersByStatus(User.UserStatus status) {
+        return userRepository.findSummariesByStatus(status);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSummaryDto> searchUsersByName(String name) {
+        return userRepository.findSummariesByNameContaining(name);
+    }
+
+    public UserSummaryDto toSummary(User user) {
+        return modelMapper.map(user, UserSummaryDto.class);
     }
 
     public User updateUser(Long id, User updatedUser) {
@@ -72,6 +108,7 @@ public class UserService {
             existingUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
         }
 
+        entityCacheEvictor.evictAfterCommit(User.class, id);
         return userRepository.save(existingUser);
     }
 
@@ -80,6 +117,7 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException(USER_NOT_FOUND));
 
         user.setStatus(status);
+        entityCacheEvictor.evictAfterCommit(User.class, id);
         return userRepository.save(user);
     }
 
@@ -87,7 +125,14 @@ public class UserService {
         if (!userRepository.existsById(id)) {
             throw new RuntimeException(USER_NOT_FOUND);
         }
+        // Deleted through JPA rather than left to the database cascade, so the driver, its cab
+        // and their cache entries (including cabs-by-driver) go with it
+        driverService.findByUserId(id).ifPresent(driver -> driverService.deleteDriver(driver.getId()));
+        // location_logs has no foreign keys once partitioned, so nothing else detaches them
+        // from the user's bookings
+        locationLogRepository.clearBookingsOfUser(id);
         userRepository.deleteById(id);
+        entityCacheEvictor.evictAfterCommit(User.class, id);
     }
 
     public boolean validateCredentials(String email, String password) {
@@ -0,0 +1,62 @@
+package com.cabbooking.trajectory;
+
+import com.cabbooking.repository.LocationLogRepository;
+import com.cabbooking.service.LocationService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Periodically compacts location history older than the configured age into trajectories,
+ * one driver per transaction so a failure only holds back that driver's rows.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "location.compaction", name = "enabled", havingValue = "true")
+public class LocationCompactionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(LocationCompactionJob.class);
+
+    private final LocationService locationService;
+    private final LocationLogRepository locationLogRepository;
+
+    @Value("${location.compaction.older-than-hours:24}")
+    private long olderThanHours;
+
+    @Value("${location.compaction.tolerance-meters:5.0}")
+    private double toleranceMeters;
+
+    @Value("${location.compaction.drivers-per-run:500}")
+    private int driversPerRun;
+
+    @Value("${location.compaction.max-rows-per-driver:50000}")
+    private int maxRowsPerDriver;
+
+    @Scheduled(cron = "${location.compaction.cron:0 15 * * * *}")
+    public void compactOldLocations() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(olderThanHours);
+        List<Long> driverIds = locationLogRepository.findDriverIdsWithLogsBefore(
+                cutoff, PageRequest.of(0, driversPerRun));
+
+        int compacted = 0;
+        for (Long driverId : driverIds) {
+            try {
+                compacted += locationService.compactDriverHistory(
+                        driverId, cutoff, toleranceMeters, maxRowsPerDriver);
+            } catch (RuntimeException e) {
+                log.warn("Location compaction failed for driver {}: {}", driverId, e.getMessage());
+            }
+        }
+        if (compacted > 0) {
+            log.info("Compacted {} location rows for {} drivers", compacted, driverIds.size());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.cabbooking.trajectory;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding for a trajectory. Every field is quantised to a fixed-point long
+ * and stored as the zigzag varint of its difference from the previous point, so a typical
+ * fix costs 6-10 bytes instead of a 60+ byte row.
+ * <p>
+ * Layout: format version, point count, epoch of the first timestamp, then per point the
+ * deltas of time (ms), latitude and longitude (1e-6 degrees, ~0.1 m), speed and heading
+ * (0.1 units).
+ */
+public final class TrajectoryCodec {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final double COORDINATE_SCALE = 1_000_000d;
+    private static final double MOTION_SCALE = 10d;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private TrajectoryCodec() {}
+
+    public static byte[] encode(List<TrajectoryPoint> points) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + points.size() * 8);
+        writeVarLong(out, FORMAT_VERSION);
+        writeVarLong(out, points.size());
+
+        long previousTime = 0;
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+        long previousSpeed = 0;
+        long previousHeading = 0;
+        for (TrajectoryPoint point : points) {
+            long time = ChronoUnit.MILLIS.between(EPOCH, point.getTimestamp());
+            long latitude = Math.round(point.getLatitude() * COORDINATE_SCALE);
+            long longitude = Math.round(point.getLongitude() * COORDINATE_SCALE);
+            long speed = Math.round(point.getSpeed() * MOTION_SCALE);
+            long heading = Math.round(point.getHeading() * MOTION_SCALE);
+
+            writeVarLong(out, zigzag(time - previousTime));
+            writeVarLong(out, zigzag(latitude - previousLatitude));
+            writeVarLong(out, zigzag(longitude - previousLongitude));
+            writeVarLong(out, zigzag(speed - previousSpeed));
+            writeVarLong(out, zigzag(heading - previousHeading));
+
+            previousTime = time;
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+            previousSpeed = speed;
+            previousHeading = heading;
+        }
+        return out.toByteArray();
+    }
+
+    public static List<TrajectoryPoint> decode(byte[] data) {
+        Reader in = new Reader(data);
+        long version = in.readVarLong();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported trajectory format version " + version);
+        }
+        int count = (int) in.readVarLong();
+
+        List<TrajectoryPoint> points = new ArrayList<>(count);
+        long time = 0;
+        long latitude = 0;
+        long longitude = 0;
+        long speed = 0;
+        long heading = 0;
+        for (int i = 0; i < count; i++) {
+            time += unzigzag(in.readVarLong());
+            latitude += unzigzag(in.readVarLong());
+            longitude += unzigzag(in.readVarLong());
+            speed += unzigzag(in.readVarLong());
+            heading += unzigzag(in.readVarLong());
+            points.add(new TrajectoryPoint(
+                    latitude / COORDINATE_SCALE,
+                    longitude / COORDINATE_SCALE,
+                    speed / MOTION_SCALE,
+                    heading / MOTION_SCALE,
+                    EPOCH.plus(time, ChronoUnit.MILLIS)));
+        }
+        return points;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data) {
+            this.data = data;
+        }
+
+        private long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= data.length) {
+                    throw new IllegalArgumentException("Truncated trajectory data");
+                }
+                byte b = data[position++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in trajectory data");
+        }
+    }
+}
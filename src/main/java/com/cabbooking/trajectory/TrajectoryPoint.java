@@ -0,0 +1,18 @@
+package com.cabbooking.trajectory;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * One GPS fix of a compacted trajectory.
+ */
+@Value
+public class TrajectoryPoint {
+
+    double latitude;
+    double longitude;
+    double speed;
+    double heading;
+    LocalDateTime timestamp;
+}
@@ -0,0 +1,101 @@
+package com.cabbooking.trajectory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static com.cabbooking.util.GeoUtils.KM_PER_DEGREE;
+
+/**
+ * Douglas-Peucker line simplification for GPS tracks. A point is dropped when it lies
+ * within the tolerance of the straight line between the points kept on either side of it,
+ * so straight stretches collapse to their end points while turns are preserved.
+ */
+public final class TrajectorySimplifier {
+
+    private static final double METERS_PER_DEGREE = KM_PER_DEGREE * 1000;
+
+    private TrajectorySimplifier() {}
+
+    /**
+     * @param points track in time order
+     * @return the retained points, still in time order; first and last are always kept
+     */
+    public static List<TrajectoryPoint> simplify(List<TrajectoryPoint> points, double toleranceMeters) {
+        int size = points.size();
+        if (size <= 2 || toleranceMeters <= 0) {
+            return new ArrayList<>(points);
+        }
+
+        boolean[] keep = new boolean[size];
+        keep[0] = true;
+        keep[size - 1] = true;
+
+        // Explicit stack instead of recursion; long idle tracks can hold tens of thousands of points
+        Deque<int[]> ranges = new ArrayDeque<>();
+        ranges.push(new int[] {0, size - 1});
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.pop();
+            int first = range[0];
+            int last = range[1];
+            if (last - first < 2) {
+                continue;
+            }
+
+            double maxDistance = -1;
+            int farthest = -1;
+            for (int i = first + 1; i < last; i++) {
+                double distance = distanceToSegmentMeters(points.get(i), points.get(first), points.get(last));
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+
+            if (maxDistance > toleranceMeters) {
+                keep[farthest] = true;
+                ranges.push(new int[] {first, farthest});
+                ranges.push(new int[] {farthest, last});
+            }
+        }
+
+        List<TrajectoryPoint> simplified = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (keep[i]) {
+                simplified.add(points.get(i));
+            }
+        }
+        return simplified;
+    }
+
+    /**
+     * Distance from the point to the segment, on a local equirectangular projection centred
+     * on the segment start. Accurate to well under a metre at the segment lengths GPS
+     * tracks produce.
+     */
+    static double distanceToSegmentMeters(TrajectoryPoint point, TrajectoryPoint start, TrajectoryPoint end) {
+        double cosLat = Math.cos(Math.toRadians(start.getLatitude()));
+        double px = wrapLongitude(point.getLongitude() - start.getLongitude()) * cosLat * METERS_PER_DEGREE;
+        double py = (point.getLatitude() - start.getLatitude()) * METERS_PER_DEGREE;
+        double ex = wrapLongitude(end.getLongitude() - start.getLongitude()) * cosLat * METERS_PER_DEGREE;
+        double ey = (end.getLatitude() - start.getLatitude()) * METERS_PER_DEGREE;
+
+        double lengthSquared = ex * ex + ey * ey;
+        if (lengthSquared == 0) {
+            return Math.hypot(px, py);
+        }
+        double t = Math.max(0, Math.min(1, (px * ex + py * ey) / lengthSquared));
+        return Math.hypot(px - t * ex, py - t * ey);
+    }
+
+    private static double wrapLongitude(double delta) {
+        if (delta > 180) {
+            return delta - 360;
+        }
+        if (delta < -180) {
+            return delta + 360;
+        }
+        return delta;
+    }
+}
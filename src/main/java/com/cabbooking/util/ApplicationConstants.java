@@ -1,7 +1,5 @@
 package com.cabbooking.util;
 
-import java.math.BigDecimal;
-
 /**
  * Global application constants for the Cab Booking System.
  * Contains reusable strings, numeric constants, and configuration values.
@@ -24,10 +22,12 @@ public final class ApplicationConstants {
     public static final String USER_MUST_HAVE_DRIVER_ROLE = "User must have DRIVER role";
     public static final String DRIVER_IS_NOT_ONLINE = "Driver is not online";
     public static final String DRIVER_HAS_ACTIVE_BOOKING = "Driver already has an active booking";
+    public static final String DRIVER_RESERVED_FOR_ANOTHER_BOOKING = "Driver is being assigned to another booking";
     public static final String DRIVER_ALREADY_HAS_CAB_ASSIGNED = "Driver already has a cab assigned";
     public static final String DRIVER_DOES_NOT_HAVE_CAB = "Driver does not have a cab assigned";
     public static final String BOOKING_NOT_IN_REQUESTED_STATUS = "Booking is not in REQUESTED status";
     public static final String INVALID_STATUS_TRANSITION_MSG = "Invalid status transition from %s to %s";
+    public static final String BOOKING_CHANGED_CONCURRENTLY = "Booking was changed by another request, please retry";
 
     // ==========================================================
     // 🔹 Duplicate / Validation Errors
@@ -82,6 +82,8 @@ public final class ApplicationConstants {
     public static final String MAX_LATITUDE_STRING = "90.0";
     public static final String MIN_LONGITUDE_STRING = "-180.0";
     public static final String MAX_LONGITUDE_STRING = "180.0";
+    public static final String MIN_HEADING_STRING = "0.0";
+    public static final String MAX_HEADING_STRING = "360.0";
 
     // ==========================================================
     // 🔹 Booking Configuration
@@ -95,16 +97,39 @@ public final class ApplicationConstants {
     // ==========================================================
     // 🔹 Fare Configuration
     // ==========================================================
-    public static final BigDecimal BASE_FARE = new BigDecimal("50.00");
-    public static final BigDecimal HATCHBACK_FARE = new BigDecimal("10.00");
-    public static final BigDecimal SEDAN_FARE = new BigDecimal("12.00");
-    public static final BigDecimal SUV_FARE = new BigDecimal("15.00");
-    public static final BigDecimal LUXURY_FARE = new BigDecimal("20.00");
+    public static final int FARE_SCALE = 2; // Fares are priced in minor units (1/100)
 
     // ==========================================================
     // 🔹 Geo Calculations
     // ==========================================================
     public static final double EARTH_RADIUS = 6371; // Radius of Earth in kilometers
+    public static final int MAX_NEAREST_DRIVERS = 100;
+
+    // ==========================================================
+    // 🔹 Location Ingestion
+    // ==========================================================
+    public static final int INGESTION_RETRY_AFTER_SECONDS = 1;
+    public static final int MAX_LOCATION_BATCH_SIZE = 2000;
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    public static final int MAX_TRAJECTORY_SEGMENT_POINTS = 10000;
+    public static final int COMPACTION_DELETE_CHUNK_SIZE = 1000;
+    public static final int HISTORY_TRAJECTORY_FETCH_SIZE = 10;
+
+    // ==========================================================
+    // 🔹 Pagination & Export
+    // ==========================================================
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String EXPORT_FETCH_SIZE = "500";
+
+    // ==========================================================
+    // 🔹 Entity Cache Regions
+    // ==========================================================
+    public static final String USER_CACHE_REGION = "users";
+    public static final String DRIVER_CACHE_REGION = "drivers";
+    public static final String CAB_CACHE_REGION = "cabs";
+    public static final String CAB_BY_DRIVER_CACHE_REGION = "cabs-by-driver";
 
     // ==========================================================
     // 🔹 API Base Paths
@@ -114,15 +139,19 @@ public final class ApplicationConstants {
     public static final String API_DRIVERS_BASE_PATH = "/api/drivers";
     public static final String API_CABS_BASE_PATH = "/api/cabs";
     public static final String API_BOOKINGS_BASE_PATH = "/api/bookings";
+    // Prefix of the optional reactive server's routes, which mirror the API paths above
+    public static final String REACTIVE_API_PREFIX = "/reactive";
 
     // ==========================================================
     // 🔹 HTTP Status Codes
     // ==========================================================
     public static final int HTTP_OK = 200;
     public static final int HTTP_CREATED = 201;
+    public static final int HTTP_ACCEPTED = 202;
     public static final int HTTP_BAD_REQUEST = 400;
     public static final int HTTP_UNAUTHORIZED = 401;
     public static final int HTTP_NOT_FOUND = 404;
+    public static final int HTTP_TOO_MANY_REQUESTS = 429;
     public static final int HTTP_INTERNAL_SERVER_ERROR = 500;
 
     // ==========================================================
@@ -0,0 +1,42 @@
+package com.cabbooking.util;
+
+import static com.cabbooking.util.ApplicationConstants.EARTH_RADIUS;
+
+/**
+ * Great-circle helpers shared by the in-memory geo structures and fare pricing.
+ */
+public final class GeoUtils {
+
+    /** Length of one degree of latitude (and of longitude at the equator) in kilometers. */
+    public static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS / 180.0;
+
+    private GeoUtils() {}
+
+    /**
+     * Spherical law of cosines, the same formula {@code DriverRepository.findNearbyAvailableDrivers}
+     * evaluates in SQL, so in-memory results order exactly like the database query.
+     */
+    public static double sphericalDistanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double cosAngle = Math.cos(phi1) * Math.cos(phi2) * Math.cos(Math.toRadians(lng2) - Math.toRadians(lng1))
+                + Math.sin(phi1) * Math.sin(phi2);
+
+        // Rounding can push the cosine just past 1 for identical points
+        return EARTH_RADIUS * Math.acos(Math.max(-1.0, Math.min(1.0, cosAngle)));
+    }
+
+    /**
+     * Haversine distance, used for trip distances and fares.
+     */
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+
+        return EARTH_RADIUS * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,45 @@
+package com.cabbooking.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects until the surrounding transaction has finished, so
+ * caches and indexes never observe state that is later rolled back.
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {}
+
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Runs the action once the surrounding transaction finishes, whether it commits or
+     * rolls back. Used to release in-memory claims taken for the duration of a transaction,
+     * so there must be one: without it the claim would be released at once and guard nothing.
+     *
+     * @throws IllegalStateException if no transaction synchronization is active
+     */
+    public static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("No active transaction to release the claim at");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,18 @@
+-- Flyway Migration: transactional outbox
+-- Side effects of a booking change are recorded here in the transaction that makes the change
+-- and run afterwards by OutboxRelay. processed_at is set in the transaction that runs the
+-- handlers, so a message is done exactly when their database writes commit.
+
+CREATE TABLE IF NOT EXISTS outbox_messages (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    message_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    available_at TIMESTAMP NOT NULL,
+    processed_at TIMESTAMP NULL,
+    attempts INT DEFAULT 0 NOT NULL,
+    last_error VARCHAR(500)
+);
+
+-- The relay polls for unprocessed messages that are due
+CREATE INDEX idx_outbox_pending ON outbox_messages (processed_at, available_at);
@@ -0,0 +1,10 @@
+-- Flyway Migration: drop the user and driver keyset pagination indexes added in V8
+-- InnoDB appends the primary key to every secondary index, so the single-column
+-- foreign-key indexes on user_id and driver_id are already (user_id, id) and (driver_id, id)
+-- and serve "WHERE <fk> = ? AND id > :after ORDER BY id"; the V8 copies only added write
+-- cost. idx_booking_status_id stays: the only other status index is
+-- (status, requested_time), which cannot serve a status page ordered by id.
+
+DROP INDEX idx_booking_user_id_id ON bookings;
+
+DROP INDEX idx_booking_driver_id_id ON bookings;
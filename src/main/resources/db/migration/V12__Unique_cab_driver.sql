@@ -0,0 +1,6 @@
+-- Flyway Migration: one cab per driver
+-- Cab uses its driver as natural id (cabs-by-driver cache region) and dispatch pairs each
+-- driver with a single cab; this enforces that in the schema. The unique index also backs
+-- fk_cab_driver.
+
+ALTER TABLE cabs ADD CONSTRAINT uk_cab_driver UNIQUE (driver_id);
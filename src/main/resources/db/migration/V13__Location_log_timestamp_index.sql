@@ -0,0 +1,5 @@
+-- Flyway Migration: (timestamp, driver_id) index for the hourly compaction job
+-- Finding the drivers with logs older than the cutoff seeks the range below it instead of
+-- walking the whole (driver_id, timestamp) index; driver_id makes the lookup index-only.
+
+CREATE INDEX idx_location_time_driver ON location_logs (timestamp, driver_id);
@@ -0,0 +1,5 @@
+-- Flyway Migration: (driver_id, end_time) index for paging a driver's compacted history
+-- History pages walk trajectories newest end first, so they can stop at the first one that
+-- ends before the page does; trajectories are written only by compaction, so this is cheap.
+
+CREATE INDEX idx_trajectory_driver_end ON location_trajectories (driver_id, end_time);
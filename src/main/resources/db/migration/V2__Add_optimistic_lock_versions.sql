@@ -0,0 +1,7 @@
+-- Flyway Migration: optimistic locking for concurrently assigned rows
+
+ALTER TABLE drivers ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE cabs ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE bookings ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,11 @@
+-- Flyway Migration: table-backed pooled id generator so location_logs inserts can be batched
+
+CREATE TABLE IF NOT EXISTS id_generators (
+    generator_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
+
+-- Hibernate's pooled optimizer hands out (next_value - 99 .. next_value) first, so seed one
+-- allocation block (100, see LocationLog) above the highest existing id
+INSERT INTO id_generators (generator_name, next_value)
+SELECT 'location_logs', COALESCE(MAX(id), 0) + 100 FROM location_logs;
@@ -0,0 +1,20 @@
+-- Flyway Migration: compacted location history
+-- Older location_logs rows are simplified and packed into one delta/varint-encoded blob
+-- per booking (or per hour of driving without a booking)
+
+CREATE TABLE IF NOT EXISTS location_trajectories (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    driver_id BIGINT NOT NULL,
+    booking_id BIGINT,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    point_count INT NOT NULL,
+    source_point_count INT NOT NULL,
+    encoded_points MEDIUMBLOB NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_trajectory_driver FOREIGN KEY (driver_id) REFERENCES drivers(id) ON DELETE CASCADE,
+    CONSTRAINT fk_trajectory_booking FOREIGN KEY (booking_id) REFERENCES bookings(id) ON DELETE SET NULL
+);
+
+CREATE INDEX idx_trajectory_driver_time ON location_trajectories (driver_id, start_time, end_time);
+CREATE INDEX idx_trajectory_booking_time ON location_trajectories (booking_id, start_time, end_time);
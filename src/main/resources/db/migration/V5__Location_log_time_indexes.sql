@@ -0,0 +1,6 @@
+-- Flyway Migration: composite (owner, time) indexes for the location history queries
+-- Every location_logs lookup filters on driver or booking and orders or ranges on timestamp
+
+CREATE INDEX idx_location_driver_time ON location_logs (driver_id, timestamp);
+
+CREATE INDEX idx_location_booking_time ON location_logs (booking_id, timestamp);
@@ -0,0 +1,45 @@
+-- Flyway Migration: secondary indexes for the repository query paths
+-- Each index is named after the lookups it serves; RepositoryQueryPlanTest fails the
+-- build if a repository query stops using one. Foreign-key columns already carry an
+-- index, so single-column lookups on them need nothing extra.
+
+-- Users: findByRole, findByRoleAndStatus / findByStatus
+CREATE INDEX idx_user_role_status ON users (role, status);
+
+CREATE INDEX idx_user_status ON users (status);
+
+-- Drivers: findByStatus, findByStatusAndVerificationStatus, findNearbyAvailableDrivers
+CREATE INDEX idx_driver_status_verification ON drivers (status, verification_status);
+
+-- Drivers: findByVerificationStatus, getAverageRating (covering)
+CREATE INDEX idx_driver_verification_rating ON drivers (verification_status, rating);
+
+-- Drivers: findByMinimumRating
+CREATE INDEX idx_driver_rating ON drivers (rating);
+
+-- Cabs: findByCabType, findByCabTypeAndStatus, findAvailableCabsByType
+CREATE INDEX idx_cab_type_status ON cabs (cab_type, status);
+
+-- Cabs: findByStatus, countByStatus
+CREATE INDEX idx_cab_status ON cabs (status);
+
+-- Cabs: findByMinimumYear
+CREATE INDEX idx_cab_year ON cabs (manufacture_year);
+
+-- Bookings: findByStatus, countByStatus, findPendingBookings, findDispatchableBookings
+CREATE INDEX idx_booking_status_requested ON bookings (status, requested_time);
+
+-- Bookings: findByDateRange
+CREATE INDEX idx_booking_created ON bookings (created_at);
+
+-- Bookings: findByUserId, findByUserIdAndDateRange
+CREATE INDEX idx_booking_user_created ON bookings (user_id, created_at);
+
+-- Bookings: findByUserIdAndStatus
+CREATE INDEX idx_booking_user_status ON bookings (user_id, status);
+
+-- Bookings: findByDriverIdAndStatus, findActiveBookingByDriverId
+CREATE INDEX idx_booking_driver_status ON bookings (driver_id, status);
+
+-- Bookings: findByDriverIdAndDateRange
+CREATE INDEX idx_booking_driver_created ON bookings (driver_id, created_at);
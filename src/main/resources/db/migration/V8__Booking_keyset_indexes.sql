@@ -0,0 +1,12 @@
+-- Flyway Migration: indexes for keyset pagination over bookings
+-- Each page is "WHERE <filter> AND id > :after ORDER BY id LIMIT n"; with id as the
+-- last index column the database seeks straight to the cursor and reads n rows in order.
+
+-- Bookings: findByStatusAfter
+CREATE INDEX idx_booking_status_id ON bookings (status, id);
+
+-- Bookings: findByUserIdAfter
+CREATE INDEX idx_booking_user_id_id ON bookings (user_id, id);
+
+-- Bookings: findByDriverIdAfter
+CREATE INDEX idx_booking_driver_id_id ON bookings (driver_id, id);
@@ -0,0 +1,25 @@
+-- Flyway Migration: append-only booking transition log
+-- Every status change is one row; bookings.event_sequence records how far the bookings row
+-- (a projection of the log) has caught up. The unique key makes concurrent transitions of
+-- one booking race for the same sequence number, so exactly one of them wins.
+-- No foreign key to bookings: an append must not lock the row the projector updates.
+
+CREATE TABLE IF NOT EXISTS booking_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    booking_id BIGINT NOT NULL,
+    sequence_number INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    driver_id BIGINT,
+    cab_id BIGINT,
+    occurred_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_booking_event_sequence UNIQUE (booking_id, sequence_number)
+);
+
+ALTER TABLE bookings ADD COLUMN event_sequence INT DEFAULT 0 NOT NULL;
+
+-- Existing bookings start their history from a snapshot of their current status
+INSERT INTO booking_events (booking_id, sequence_number, status, driver_id, cab_id, occurred_at)
+SELECT id, 1, status, driver_id, cab_id, COALESCE(updated_at, created_at, requested_time)
+FROM bookings;
+
+UPDATE bookings SET event_sequence = 1;
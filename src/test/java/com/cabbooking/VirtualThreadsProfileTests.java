@@ -0,0 +1,29 @@
+package com.cabbooking;
+
+import com.cabbooking.repository.BookingRepository;
+import com.cabbooking.util.ConnectionLimitingDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles({"test", "virtual-threads"})
+class VirtualThreadsProfileTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void dataSourceIsConnectionLimited() {
+        assertThat(dataSource).isInstanceOf(ConnectionLimitingDataSource.class);
+        assertThat(bookingRepository.count()).isNotNegative();
+    }
+}
@@ -0,0 +1,107 @@
+package com.cabbooking.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LookupCacheTest {
+
+    private final LookupCache<String, String> cache = new LookupCache<>(100, Duration.ofMinutes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("a loaded value is served until invalidated")
+    void get_servesCachedValueUntilInvalidated() {
+        assertThat(cache.get("BK-1", this::load)).contains("value-BK-1");
+        assertThat(cache.get("BK-1", this::load)).contains("value-BK-1");
+        assertThat(loads).hasValue(1);
+
+        cache.invalidate("BK-1");
+        assertThat(cache.get("BK-1", this::load)).contains("value-BK-1");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("invalidateIf drops only the values it matches")
+    void invalidateIf_dropsMatchingValues() {
+        cache.get("BK-1", this::load);
+        cache.get("BK-2", this::load);
+
+        cache.invalidateIf("value-BK-1"::equals);
+        cache.get("BK-1", this::load);
+        cache.get("BK-2", this::load);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("empty results and failed loads are not cached")
+    void get_doesNotCacheMissesOrFailures() {
+        assertThat(cache.get("missing", key -> Optional.empty())).isEmpty();
+        assertThatThrownBy(() -> cache.get("broken", key -> {
+            throw new IllegalStateException("db down");
+        })).hasMessage("db down");
+
+        assertThat(cache.get("missing", this::load)).contains("value-missing");
+        assertThat(cache.get("broken", this::load)).contains("value-broken");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("concurrent misses on one key share a single load")
+    void get_underContentionLoadsOnce() throws Exception {
+        int callers = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            List<Future<Optional<String>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get("BK-7", key -> {
+                        awaitQuietly(release);
+                        return load(key);
+                    });
+                }));
+            }
+            start.countDown();
+            // Let every caller reach the cache before the single load completes
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<Optional<String>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).contains("value-BK-7");
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Optional<String> load(String key) {
+        loads.incrementAndGet();
+        return Optional.of("value-" + key);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.cabbooking.config;
+
+import com.cabbooking.cache.LookupCache;
+import com.cabbooking.events.BookingEventProjector;
+import com.cabbooking.repository.BookingEventRepository;
+import com.cabbooking.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Loads the application's scheduler settings with the event projector and a job that holds
+ * its thread the way a long compaction run does.
+ */
+@SpringBootTest(
+        classes = {SchedulingConfig.class, TaskSchedulingAutoConfiguration.class, SchedulingConfigTest.Jobs.class},
+        properties = "booking-events.projection-interval-ms=20")
+class SchedulingConfigTest {
+
+    @Autowired
+    private BookingEventRepository bookingEventRepository;
+
+    @Autowired
+    private LongJob longJob;
+
+    @AfterEach
+    void tearDown() {
+        longJob.release.countDown();
+    }
+
+    @Test
+    @DisplayName("the event projector keeps running while a long job holds its scheduler thread")
+    void projectorRunsDuringLongJob() throws InterruptedException {
+        assertThat(longJob.started.await(5, TimeUnit.SECONDS)).as("long job started").isTrue();
+        clearInvocations(bookingEventRepository);
+
+        verify(bookingEventRepository, timeout(2000).atLeast(3)).findUnprojected(any(), any());
+        assertThat(longJob.release.getCount()).as("long job still running").isEqualTo(1);
+    }
+
+    static class LongJob {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Scheduled(fixedDelay = 60_000)
+        public void run() throws InterruptedException {
+            started.countDown();
+            release.await(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @TestConfiguration
+    static class Jobs {
+
+        @Bean
+        LongJob longJob() {
+            return new LongJob();
+        }
+
+        @Bean
+        BookingEventRepository bookingEventRepository() {
+            BookingEventRepository repository = mock(BookingEventRepository.class);
+            when(repository.findUnprojected(any(), any())).thenReturn(List.of());
+            return repository;
+        }
+
+        @Bean
+        @SuppressWarnings("unchecked")
+        BookingEventProjector bookingEventProjector(BookingEventRepository bookingEventRepository) {
+            return new BookingEventProjector(bookingEventRepository, mock(BookingRepository.class),
+                    mock(LookupCache.class), mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 500);
+        }
+    }
+}
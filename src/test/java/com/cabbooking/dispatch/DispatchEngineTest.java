@@ -0,0 +1,62 @@
+package com.cabbooking.dispatch;
+
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.Cab;
+import com.cabbooking.entity.Driver;
+import com.cabbooking.geo.DriverSpatialIndex;
+import com.cabbooking.geo.NearbyDriver;
+import com.cabbooking.service.BookingService;
+import com.cabbooking.service.CabService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DispatchEngineTest {
+
+    private final BookingService bookingService = mock(BookingService.class);
+    private final CabService cabService = mock(CabService.class);
+    private final DriverSpatialIndex driverSpatialIndex = mock(DriverSpatialIndex.class);
+    private final DispatchEngine dispatchEngine = new DispatchEngine(bookingService, cabService, driverSpatialIndex);
+
+    @Test
+    @DisplayName("a driver with two cab rows is dispatched with the available one")
+    void dispatchPendingBookings_toleratesDriverWithTwoCabs() {
+        ReflectionTestUtils.setField(dispatchEngine, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatchEngine, "candidatesPerBooking", 5);
+        ReflectionTestUtils.setField(dispatchEngine, "maxPickupDistanceKm", 10.0);
+
+        Booking booking = new Booking();
+        booking.setId(1L);
+        booking.setPickupLatitude(19.43);
+        booking.setPickupLongitude(-99.13);
+        booking.setRequestedCabType(Booking.CabType.SEDAN);
+        when(bookingService.findDispatchableBookings(10)).thenReturn(List.of(booking));
+        when(driverSpatialIndex.findNearest(anyDouble(), anyDouble(), anyInt(), anyDouble()))
+                .thenReturn(List.of(new NearbyDriver(7L, 1.5)));
+        when(cabService.findByDriverIds(anyCollection()))
+                .thenReturn(List.of(cab(7L, Cab.CabStatus.BUSY), cab(7L, Cab.CabStatus.AVAILABLE)));
+
+        dispatchEngine.dispatchPendingBookings();
+
+        verify(bookingService).assignDriverToBooking(1L, 7L);
+    }
+
+    private static Cab cab(Long driverId, Cab.CabStatus status) {
+        Driver driver = new Driver();
+        driver.setId(driverId);
+        Cab cab = new Cab();
+        cab.setDriver(driver);
+        cab.setStatus(status);
+        cab.setCabType(Cab.CabType.SEDAN);
+        return cab;
+    }
+}
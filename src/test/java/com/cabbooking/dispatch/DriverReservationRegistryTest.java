@@ -0,0 +1,75 @@
+package com.cabbooking.dispatch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DriverReservationRegistryTest {
+
+    private final DriverReservationRegistry registry = new DriverReservationRegistry();
+
+    @Test
+    @DisplayName("a driver can only be held by one booking until released")
+    void tryReserve_isExclusiveUntilReleased() {
+        assertThat(registry.tryReserve(1L, 100L)).isTrue();
+        assertThat(registry.tryReserve(1L, 200L)).isFalse();
+        assertThat(registry.tryReserve(2L, 200L)).isTrue();
+        assertThat(registry.isReserved(1L)).isTrue();
+
+        registry.release(1L, 100L);
+        assertThat(registry.isReserved(1L)).isFalse();
+        assertThat(registry.tryReserve(1L, 200L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("release only clears the reservation held by the same booking")
+    void release_ignoresOtherBookings() {
+        registry.tryReserve(1L, 100L);
+
+        registry.release(1L, 999L);
+        registry.release(42L, 100L);
+
+        assertThat(registry.isReserved(1L)).isTrue();
+        assertThatThrownBy(() -> registry.tryReserve(1L, DriverReservationRegistry.FREE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("exactly one of many concurrent bookings wins the same driver")
+    void tryReserve_underContention() throws Exception {
+        int contenders = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(contenders);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (long bookingId = 1; bookingId <= contenders; bookingId++) {
+                long id = bookingId;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return registry.tryReserve(7L, id);
+                }));
+            }
+            start.countDown();
+
+            int winners = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(5, TimeUnit.SECONDS)) {
+                    winners++;
+                }
+            }
+            assertThat(winners).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
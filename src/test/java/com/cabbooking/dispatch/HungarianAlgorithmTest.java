@@ -0,0 +1,102 @@
+package com.cabbooking.dispatch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.cabbooking.dispatch.HungarianAlgorithm.FORBIDDEN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HungarianAlgorithmTest {
+
+    @Test
+    @DisplayName("solve beats greedy arrival-order matching on a square matrix")
+    void solve_findsOptimalSquareAssignment() {
+        // Greedy would give booking 0 driver 0 (1.0) and booking 1 driver 1 (10.0) = 11.0
+        double[][] cost = {
+                {1.0, 2.0},
+                {1.5, 10.0}
+        };
+
+        assertThat(HungarianAlgorithm.solve(cost)).containsExactly(1, 0);
+    }
+
+    @Test
+    @DisplayName("solve handles more drivers than bookings and more bookings than drivers")
+    void solve_handlesRectangularMatrices() {
+        double[][] wide = {
+                {4.0, 1.0, 3.0},
+                {2.0, 0.5, 5.0}
+        };
+        assertThat(HungarianAlgorithm.solve(wide)).containsExactly(1, 0);
+
+        double[][] tall = {
+                {4.0, 1.0},
+                {2.0, 0.5},
+                {0.1, 7.0}
+        };
+        assertThat(HungarianAlgorithm.solve(tall)).containsExactly(-1, 1, 0);
+    }
+
+    @Test
+    @DisplayName("solve leaves rows unassigned when only forbidden pairs remain")
+    void solve_respectsForbiddenPairs() {
+        double[][] cost = {
+                {1.0, FORBIDDEN},
+                {2.0, FORBIDDEN}
+        };
+
+        assertThat(HungarianAlgorithm.solve(cost)).containsExactly(0, -1);
+        assertThat(HungarianAlgorithm.solve(new double[0][0])).isEmpty();
+    }
+
+    @Test
+    @DisplayName("solve matches exhaustive search on small random matrices")
+    void solve_matchesBruteForce() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 200; trial++) {
+            int rows = 1 + random.nextInt(5);
+            int columns = 1 + random.nextInt(5);
+            double[][] cost = new double[rows][columns];
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    cost[row][column] = random.nextInt(10) == 0 ? FORBIDDEN : random.nextDouble() * 20;
+                }
+            }
+
+            int[] assignment = HungarianAlgorithm.solve(cost);
+            assertThat(score(cost, assignment)).isCloseTo(bestScore(cost, 0, new boolean[columns]), within(1e-6));
+        }
+    }
+
+    // Score = (number of matched rows, then lowest total cost); higher match count wins
+    private static double score(double[][] cost, int[] assignment) {
+        int matched = 0;
+        double total = 0;
+        for (int row = 0; row < assignment.length; row++) {
+            if (assignment[row] >= 0) {
+                matched++;
+                total += cost[row][assignment[row]];
+            }
+        }
+        return matched * 1_000_000.0 - total;
+    }
+
+    private static double bestScore(double[][] cost, int row, boolean[] usedColumns) {
+        if (row == cost.length) {
+            return 0;
+        }
+        double best = bestScore(cost, row + 1, usedColumns);
+        for (int column = 0; column < usedColumns.length; column++) {
+            if (!usedColumns[column] && cost[row][column] < FORBIDDEN) {
+                usedColumns[column] = true;
+                double candidate = 1_000_000.0 - cost[row][column] + bestScore(cost, row + 1, usedColumns);
+                usedColumns[column] = false;
+                best = Math.max(best, candidate);
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,133 @@
+package com.cabbooking.events;
+
+import com.cabbooking.cache.LookupCache;
+import com.cabbooking.dto.BookingResponseDto;
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.BookingEvent;
+import com.cabbooking.repository.BookingEventRepository;
+import com.cabbooking.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingEventProjectorTest {
+
+    private final BookingEventRepository bookingEventRepository = mock(BookingEventRepository.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    @SuppressWarnings("unchecked")
+    private final LookupCache<String, BookingResponseDto> bookingsByNumber = mock(LookupCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BookingEventProjector projector = new BookingEventProjector(
+            bookingEventRepository, bookingRepository, bookingsByNumber,
+            mock(PlatformTransactionManager.class), meterRegistry, 100);
+
+    private final LocalDateTime start = LocalDateTime.of(2024, 5, 1, 9, 0);
+
+    @Test
+    @DisplayName("pending events are applied in order, each with one conditional update")
+    void project_appliesEventsInOrder() {
+        targets(target(1L, null));
+        when(bookingRepository.transition(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+        unprojected(event(1L, 5, Booking.BookingStatus.IN_PROGRESS, 0),
+                event(1L, 6, Booking.BookingStatus.COMPLETED, 25));
+
+        projector.project();
+
+        InOrder inOrder = inOrder(bookingRepository);
+        inOrder.verify(bookingRepository).transition(1L, Booking.BookingStatus.IN_PROGRESS.allowedFrom(),
+                Booking.BookingStatus.IN_PROGRESS, 5, null, start, null, null);
+        inOrder.verify(bookingRepository).transition(1L, Booking.BookingStatus.COMPLETED.allowedFrom(),
+                Booking.BookingStatus.COMPLETED, 6, null, start, start.plusMinutes(25), 25);
+        verify(bookingsByNumber, times(2)).invalidate("CAB1");
+        assertThat(meterRegistry.counter("booking.events.projection.applied").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("an event whose conditional update matches nothing was already applied and is skipped")
+    void project_skipsAppliedEvents() {
+        targets(target(1L, start));
+        when(bookingRepository.transition(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(0);
+        unprojected(event(1L, 6, Booking.BookingStatus.COMPLETED, 30));
+
+        projector.project();
+
+        verify(bookingsByNumber, never()).invalidate(any());
+        assertThat(meterRegistry.counter("booking.events.projection.applied").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("a failing booking is retried alone and does not hold up the rest of the batch")
+    void project_retriesBookingByBookingAfterFailure() {
+        targets(target(1L, start), target(2L, null));
+        when(bookingRepository.transition(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+        when(bookingRepository.transition(eq(1L), any(), any(), any(), any(), any(), any(), any()))
+                .thenThrow(new RuntimeException("Lock wait timeout exceeded"));
+        unprojected(event(1L, 6, Booking.BookingStatus.COMPLETED, 20),
+                event(2L, 3, Booking.BookingStatus.DRIVER_ASSIGNED, 1));
+
+        projector.project();
+
+        verify(bookingRepository).transition(eq(2L), any(), eq(Booking.BookingStatus.DRIVER_ASSIGNED),
+                eq(3), any(), any(), any(), any());
+        assertThat(meterRegistry.counter("booking.events.projection.failed").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("booking.events.projection.applied").count()).isEqualTo(1);
+    }
+
+    private void targets(BookingRepository.TransitionTarget... targets) {
+        when(bookingRepository.findTransitionTargetsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<?> ids = invocation.getArgument(0);
+            return Stream.of(targets).filter(target -> ids.contains(target.getId())).toList();
+        });
+    }
+
+    private static BookingRepository.TransitionTarget target(Long id, LocalDateTime startTime) {
+        return new BookingRepository.TransitionTarget() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getBookingNumber() {
+                return "CAB" + id;
+            }
+
+            public Long getDriverId() {
+                return id * 10;
+            }
+
+            public Long getCabId() {
+                return id * 20;
+            }
+
+            public LocalDateTime getStartTime() {
+                return startTime;
+            }
+        };
+    }
+
+    private void unprojected(BookingEvent... events) {
+        when(bookingEventRepository.findUnprojected(any(), any())).thenReturn(List.of(events), List.of());
+    }
+
+    private BookingEvent event(Long bookingId, int sequenceNumber, Booking.BookingStatus status, int minutes) {
+        return new BookingEvent((long) sequenceNumber, bookingId, sequenceNumber, status, null, null,
+                start.plusMinutes(minutes));
+    }
+}
@@ -0,0 +1,139 @@
+package com.cabbooking.geo;
+
+import com.cabbooking.entity.Driver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DriverPositionStoreTest {
+
+    private final DriverSpatialIndex index = new DriverSpatialIndex(0.01);
+    private final DriverPositionStore store = new DriverPositionStore(index, 16);
+    private final LocalDateTime now = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Test
+    @DisplayName("positions are only recorded for registered drivers")
+    void record_requiresRegistration() {
+        assertThat(store.record(1L, 12.97, 77.59, 90.0, 20.0, now)).isFalse();
+
+        store.register(1L, null, null);
+        assertThat(store.findLive(1L)).isEmpty();
+        assertThat(store.record(1L, 12.97, 77.59, 90.0, 20.0, now)).isTrue();
+
+        DriverPosition position = store.findLive(1L).orElseThrow();
+        assertThat(position.getLatitude()).isEqualTo(12.97);
+        assertThat(position.getLongitude()).isEqualTo(77.59);
+        assertThat(position.getHeading()).isEqualTo(90.0);
+        assertThat(position.getSpeed()).isEqualTo(20.0);
+        assertThat(position.getTimestamp()).isEqualTo(now);
+    }
+
+    @Test
+    @DisplayName("a persisted position is readable but not reported as live")
+    void register_seedsPersistedPosition() {
+        store.register(1L, 12.97, 77.59);
+
+        assertThat(store.find(1L)).get().extracting(DriverPosition::getLatitude).isEqualTo(12.97);
+        assertThat(store.findLive(1L)).isEmpty();
+        assertThat(store.drainDirty()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("older reports do not move the driver backwards")
+    void record_ignoresOutOfOrderReports() {
+        store.register(1L, null, null);
+        store.record(1L, 12.97, 77.59, null, null, now);
+        store.record(1L, 12.00, 77.00, null, null, now.minusMinutes(1));
+
+        assertThat(store.findLive(1L)).get().extracting(DriverPosition::getLatitude).isEqualTo(12.97);
+    }
+
+    @Test
+    @DisplayName("updated drivers are drained once for checkpointing")
+    void drainDirty_returnsEachUpdatedDriverOnce() {
+        store.register(1L, null, null);
+        store.register(2L, null, null);
+        store.record(1L, 12.97, 77.59, null, null, now);
+        store.record(1L, 12.98, 77.60, null, null, now.plusSeconds(1));
+        store.record(2L, 13.00, 77.70, null, null, now);
+
+        List<DriverPosition> drained = store.drainDirty();
+        assertThat(drained).extracting(DriverPosition::getDriverId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(drained).filteredOn(p -> p.getDriverId() == 1L)
+                .extracting(DriverPosition::getLatitude).containsExactly(12.98);
+        assertThat(store.drainDirty()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("removed drivers free their slot for reuse")
+    void remove_freesSlot() {
+        DriverPositionStore small = new DriverPositionStore(index, 1);
+        assertThat(small.register(1L, 12.97, 77.59)).isTrue();
+        assertThat(small.register(2L, 12.97, 77.59)).isFalse();
+
+        small.remove(1L);
+        assertThat(small.register(2L, null, null)).isTrue();
+        assertThat(small.find(1L)).isEmpty();
+        assertThat(small.find(2L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("only dispatchable drivers are moved in the spatial index")
+    void record_movesDispatchableDriversInIndex() {
+        index.put(1L, Driver.DriverStatus.ONLINE, Driver.VerificationStatus.VERIFIED, null, null);
+        store.register(1L, null, null);
+        store.register(2L, null, null);
+
+        store.record(1L, 12.97, 77.59, null, null, now);
+        store.record(2L, 12.97, 77.59, null, null, now);
+
+        assertThat(index.findWithinRadius(12.97, 77.59, 1.0))
+                .extracting(NearbyDriver::getDriverId).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("concurrent readers never observe a torn position")
+    void reads_areNeverTorn() throws Exception {
+        store.register(1L, 0.0, 0.0);
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            // Latitude and longitude are always written as a matching pair
+            executor.submit(() -> {
+                for (int i = 1; !stop.get(); i++) {
+                    double value = i % 80;
+                    store.record(1L, value, value, null, null, now.plusNanos(i));
+                }
+            });
+            List<Future<Boolean>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(executor.submit(() -> {
+                    for (int i = 0; i < 200_000; i++) {
+                        DriverPosition position = store.find(1L).orElseThrow();
+                        if (position.getLatitude() != position.getLongitude()) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> reader : readers) {
+                assertThat(reader.get(30, TimeUnit.SECONDS)).isTrue();
+            }
+        } finally {
+            stop.set(true);
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.cabbooking.geo;
+
+import com.cabbooking.entity.Driver;
+import com.cabbooking.util.GeoUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DriverSpatialIndexTest {
+
+    private static final Driver.DriverStatus ONLINE = Driver.DriverStatus.ONLINE;
+    private static final Driver.VerificationStatus VERIFIED = Driver.VerificationStatus.VERIFIED;
+
+    private DriverSpatialIndex index;
+
+    private double refLat;
+    private double refLng;
+
+    @BeforeEach
+    void setUp() {
+        index = new DriverSpatialIndex(0.01);
+
+        // Reference point: Mexico City (CDMX), same fixture as DriverRepositoryTest
+        refLat = 19.4326;
+        refLng = -99.1332;
+
+        index.put(1L, ONLINE, VERIFIED, refLat, refLng);
+        index.put(2L, ONLINE, VERIFIED, 19.4000, -99.1500);
+        index.put(3L, ONLINE, Driver.VerificationStatus.PENDING, 19.4330, -99.1330);
+        index.put(4L, Driver.DriverStatus.OFFLINE, VERIFIED, 19.4330, -99.1330);
+        index.put(5L, ONLINE, VERIFIED, null, null);
+    }
+
+    @Test
+    @DisplayName("findWithinRadius returns only eligible drivers within radius, nearest first")
+    void findWithinRadius_withinRadius() {
+        assertThat(index.findWithinRadius(refLat, refLng, 5.0))
+                .extracting(NearbyDriver::getDriverId)
+                .containsExactly(1L, 2L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("findWithinRadius with tiny radius returns the driver at the exact location")
+    void findWithinRadius_tinyRadius() {
+        assertThat(index.findWithinRadius(refLat, refLng, 0.001))
+                .extracting(NearbyDriver::getDriverId)
+                .containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("findWithinRadius returns empty for far away points and negative radius")
+    void findWithinRadius_noResults() {
+        assertThat(index.findWithinRadius(0.0, 0.0, 1.0)).isEmpty();
+        assertThat(index.findWithinRadius(refLat, refLng, -1.0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("drivers move between cells and leave the index when they go offline")
+    void put_movesAndEvicts() {
+        index.put(1L, ONLINE, VERIFIED, 40.7128, -74.0060);
+        assertThat(index.findWithinRadius(refLat, refLng, 5.0))
+                .extracting(NearbyDriver::getDriverId)
+                .containsExactly(2L);
+        assertThat(index.findWithinRadius(40.7128, -74.0060, 1.0))
+                .extracting(NearbyDriver::getDriverId)
+                .containsExactly(1L);
+
+        index.put(1L, Driver.DriverStatus.BUSY, VERIFIED, 40.7128, -74.0060);
+        assertThat(index.findWithinRadius(40.7128, -74.0060, 1.0)).isEmpty();
+        assertThat(index.contains(1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("findWithinRadius matches a brute-force scan, including across the antimeridian")
+    void findWithinRadius_matchesBruteForce() {
+        Random random = new Random(42);
+        DriverSpatialIndex randomIndex = new DriverSpatialIndex(0.05);
+        List<double[]> positions = new ArrayList<>();
+        for (long id = 0; id < 2_000; id++) {
+            double lat = -60 + random.nextDouble() * 120;
+            double lng = id % 2 == 0 ? 179 + random.nextDouble() * 2 - 1 : -180 + random.nextDouble() * 360;
+            if (lng > 180) {
+                lng -= 360;
+            }
+            positions.add(new double[]{id, lat, lng});
+            randomIndex.put(id, ONLINE, VERIFIED, lat, lng);
+        }
+
+        for (int query = 0; query < 50; query++) {
+            double lat = -60 + random.nextDouble() * 120;
+            double lng = query % 2 == 0 ? 179.9 : -180 + random.nextDouble() * 360;
+            double radius = 50 + random.nextDouble() * 500;
+
+            List<Long> expected = positions.stream()
+                    .filter(p -> GeoUtils.sphericalDistanceKm(lat, lng, p[1], p[2]) <= radius)
+                    .sorted(Comparator.comparingDouble((double[] p) -> GeoUtils.sphericalDistanceKm(lat, lng, p[1], p[2]))
+                            .thenComparingDouble(p -> p[0]))
+                    .map(p -> (long) p[0])
+                    .toList();
+
+            assertThat(randomIndex.findWithinRadius(lat, lng, radius))
+                    .extracting(NearbyDriver::getDriverId)
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("findNearest returns the k closest eligible drivers")
+    void findNearest_returnsClosestK() {
+        assertThat(index.findNearest(refLat, refLng, 1, 50.0))
+                .extracting(NearbyDriver::getDriverId)
+                .containsExactly(1L);
+        assertThat(index.findNearest(refLat, refLng, 10, 50.0))
+                .extracting(NearbyDriver::getDriverId)
+                .containsExactly(1L, 2L);
+        assertThat(index.findNearest(refLat, refLng, 10, 1.0))
+                .extracting(NearbyDriver::getDriverId)
+                .containsExactly(1L);
+        assertThat(index.findNearest(refLat, refLng, 0, 50.0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("findNearest matches the first k entries of a brute-force scan")
+    void findNearest_matchesBruteForce() {
+        Random random = new Random(7);
+        DriverSpatialIndex denseIndex = new DriverSpatialIndex(0.01);
+        List<double[]> positions = new ArrayList<>();
+        for (long id = 0; id < 5_000; id++) {
+            double lat = refLat + random.nextGaussian() * 0.05;
+            double lng = refLng + random.nextGaussian() * 0.05;
+            positions.add(new double[]{id, lat, lng});
+            denseIndex.put(id, ONLINE, VERIFIED, lat, lng);
+        }
+
+        for (int query = 0; query < 50; query++) {
+            double lat = refLat + random.nextGaussian() * 0.1;
+            double lng = refLng + random.nextGaussian() * 0.1;
+            int k = 1 + random.nextInt(25);
+
+            List<Long> expected = positions.stream()
+                    .filter(p -> GeoUtils.sphericalDistanceKm(lat, lng, p[1], p[2]) <= 50.0)
+                    .sorted(Comparator.comparingDouble((double[] p) -> GeoUtils.sphericalDistanceKm(lat, lng, p[1], p[2]))
+                            .thenComparingDouble(p -> p[0]))
+                    .limit(k)
+                    .map(p -> (long) p[0])
+                    .toList();
+
+            assertThat(denseIndex.findNearest(lat, lng, k, 50.0))
+                    .extracting(NearbyDriver::getDriverId)
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.cabbooking.ingestion;
+
+import com.cabbooking.entity.Driver;
+import com.cabbooking.entity.LocationLog;
+import com.cabbooking.geo.DriverPositionStore;
+import com.cabbooking.service.LocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class LocationIngestionPipelineTest {
+
+    private final LocationService locationService = mock(LocationService.class);
+    private final DriverPositionStore driverPositionStore = mock(DriverPositionStore.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LocationIngestionPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null && pipeline.isRunning()) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("a full buffer rejects pings instead of blocking")
+    void submit_rejectsWhenBufferIsFull() {
+        pipeline = new LocationIngestionPipeline(locationService, driverPositionStore, meterRegistry, 2, 10, 50);
+
+        assertThat(pipeline.submit(ping(1L))).isTrue();
+        assertThat(pipeline.submit(ping(2L))).isTrue();
+        assertThat(pipeline.submit(ping(3L))).isFalse();
+
+        assertThat(pipeline.getBufferedCount()).isEqualTo(2);
+        assertThat(meterRegistry.counter("location.ingestion.rejected").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("location.ingestion.buffer.size").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("buffered pings are written in batches no larger than the batch size")
+    void writer_flushesInBatches() {
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            synchronized (batchSizes) {
+                batchSizes.add(invocation.<List<LocationLog>>getArgument(0).size());
+            }
+            return null;
+        }).when(locationService).saveLocationBatch(anyList());
+
+        pipeline = new LocationIngestionPipeline(locationService, driverPositionStore, meterRegistry, 100, 4, 20);
+        for (long i = 0; i < 10; i++) {
+            pipeline.submit(ping(i));
+        }
+        pipeline.start();
+        pipeline.stop();
+
+        synchronized (batchSizes) {
+            assertThat(batchSizes).allMatch(size -> size <= 4);
+            assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(10);
+        }
+        assertThat(meterRegistry.counter("location.ingestion.persisted").count()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("a failed batch is retried row by row and only the bad ping is dropped")
+    void flush_retriesRowsIndividuallyOnFailure() {
+        doAnswer(invocation -> {
+            List<LocationLog> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(log -> log.getDriver().getId() == 99L)) {
+                throw new RuntimeException("Driver not found");
+            }
+            return null;
+        }).when(locationService).saveLocationBatch(anyList());
+
+        pipeline = new LocationIngestionPipeline(locationService, driverPositionStore, meterRegistry, 10, 10, 20);
+        List<LocationLog> batch = new ArrayList<>(List.of(ping(1L), ping(99L), ping(2L)));
+        pipeline.flush(batch);
+
+        assertThat(batch).isEmpty();
+        assertThat(meterRegistry.counter("location.ingestion.persisted").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("location.ingestion.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("a partial batch is flushed once the flush interval elapses")
+    void writer_flushesPartialBatchAfterInterval() {
+        pipeline = new LocationIngestionPipeline(locationService, driverPositionStore, meterRegistry, 100, 500, 20);
+        pipeline.start();
+        pipeline.submit(ping(1L));
+
+        verify(locationService, timeout(2000)).saveLocationBatch(anyList());
+        assertThat(pipeline.getBufferedCount()).isZero();
+    }
+
+    private LocationLog ping(Long driverId) {
+        Driver driver = new Driver();
+        driver.setId(driverId);
+        LocationLog log = new LocationLog();
+        log.setDriver(driver);
+        log.setLatitude(12.9716);
+        log.setLongitude(77.5946);
+        return log;
+    }
+}
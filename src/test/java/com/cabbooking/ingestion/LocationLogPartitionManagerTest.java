@@ -0,0 +1,68 @@
+package com.cabbooking.ingestion;
+
+import com.cabbooking.ingestion.LocationLogPartitionManager.Partition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.cabbooking.ingestion.LocationLogPartitionManager.toDays;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocationLogPartitionManagerTest {
+
+    private final LocalDate today = LocalDate.of(2024, 3, 10);
+
+    @Test
+    @DisplayName("TO_DAYS matches MySQL")
+    void toDays_matchesMySql() {
+        // SELECT TO_DAYS('2024-01-01') = 739251
+        assertThat(toDays(LocalDate.of(2024, 1, 1))).isEqualTo(739251);
+    }
+
+    @Test
+    @DisplayName("the initial layout gets a catch-up partition and the coming days")
+    void plan_splitsFutureFromInitialLayout() {
+        List<Partition> partitions = List.of(
+                new Partition("p_history", toDays(LocalDate.of(2024, 1, 1))),
+                new Partition("p_future", null));
+
+        List<String> statements = LocationLogPartitionManager.plan(partitions, today, 2, 365);
+
+        assertThat(statements).containsExactly(
+                "ALTER TABLE location_logs REORGANIZE PARTITION p_future INTO ("
+                        + "PARTITION p20240309 VALUES LESS THAN (" + toDays(today) + "), "
+                        + "PARTITION p20240310 VALUES LESS THAN (" + toDays(today.plusDays(1)) + "), "
+                        + "PARTITION p20240311 VALUES LESS THAN (" + toDays(today.plusDays(2)) + "), "
+                        + "PARTITION p20240312 VALUES LESS THAN (" + toDays(today.plusDays(3)) + "), "
+                        + "PARTITION p_future VALUES LESS THAN MAXVALUE)");
+    }
+
+    @Test
+    @DisplayName("nothing changes when the coming days exist and nothing has expired")
+    void plan_isEmptyWhenUpToDate() {
+        List<Partition> partitions = List.of(
+                new Partition("p20240310", toDays(today.plusDays(1))),
+                new Partition("p20240311", toDays(today.plusDays(2))),
+                new Partition("p_future", null));
+
+        assertThat(LocationLogPartitionManager.plan(partitions, today, 1, 30)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("partitions whose rows are all past retention are dropped together")
+    void plan_dropsExpiredPartitions() {
+        List<Partition> partitions = List.of(
+                new Partition("p20240305", toDays(LocalDate.of(2024, 3, 6))),
+                new Partition("p20240306", toDays(LocalDate.of(2024, 3, 7))),
+                new Partition("p20240307", toDays(LocalDate.of(2024, 3, 8))),
+                new Partition("p20240310", toDays(today.plusDays(1))),
+                new Partition("p_future", null));
+
+        List<String> statements = LocationLogPartitionManager.plan(partitions, today, 0, 3);
+
+        assertThat(statements).containsExactly(
+                "ALTER TABLE location_logs DROP PARTITION p20240305, p20240306");
+    }
+}
@@ -0,0 +1,130 @@
+package com.cabbooking.outbox;
+
+import com.cabbooking.entity.OutboxMessage;
+import com.cabbooking.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final OutboxMessageRepository outboxMessageRepository = mock(OutboxMessageRepository.class);
+    private final OutboxHandler handler = mock(OutboxHandler.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboxRelay relay;
+
+    OutboxRelayTest() {
+        when(handler.type()).thenReturn(OutboxMessage.Type.RIDE_ENDED);
+        relay = new OutboxRelay(outboxMessageRepository, List.of(handler), mock(PlatformTransactionManager.class),
+                meterRegistry, new MockEnvironment(), 10, 2, Duration.ofMinutes(5).toMillis(), Duration.ofDays(7));
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.shutdown();
+    }
+
+    @Test
+    @DisplayName("due messages are claimed and handed to the handlers of their type")
+    void relay_runsHandlersOfClaimedMessages() {
+        OutboxMessage first = message(1L, 0);
+        OutboxMessage second = message(2L, 0);
+        due(first, second);
+        when(outboxMessageRepository.markProcessed(anyLong(), any())).thenReturn(1);
+
+        relay.relay();
+
+        verify(handler).handle(first);
+        verify(handler).handle(second);
+        assertThat(meterRegistry.counter("outbox.relay.processed").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("a message another relay has already processed is skipped")
+    void relay_skipsMessagesClaimedElsewhere() {
+        due(message(1L, 0));
+        when(outboxMessageRepository.markProcessed(anyLong(), any())).thenReturn(0);
+
+        relay.relay();
+
+        verify(handler, never()).handle(any());
+        assertThat(meterRegistry.counter("outbox.relay.processed").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("a failing handler leaves the message for a later attempt, backed off by its attempts")
+    void relay_recordsFailureWithBackoff() {
+        OutboxMessage message = message(1L, 2);
+        due(message);
+        when(outboxMessageRepository.markProcessed(anyLong(), any())).thenReturn(1);
+        doThrow(new RuntimeException("Driver not found")).when(handler).handle(message);
+
+        relay.relay();
+
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxMessageRepository).recordFailure(eq(1L), eq("Driver not found"), retryAt.capture());
+        assertThat(retryAt.getValue()).isCloseTo(LocalDateTime.now().plusSeconds(4), within(2, ChronoUnit.SECONDS));
+        assertThat(meterRegistry.counter("outbox.relay.failed").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("outbox.relay.processed").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("backoff doubles per attempt up to the configured maximum")
+    void backoff_isCapped() {
+        assertThat(relay.backoff(0)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(relay.backoff(3)).isEqualTo(Duration.ofSeconds(8));
+        assertThat(relay.backoff(40)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("messages processed before the retention period are purged batch by batch")
+    void purgeProcessed_deletesOldMessagesInBatches() {
+        List<Long> fullBatch = LongStream.rangeClosed(1, 10).boxed().toList();
+        List<Long> lastBatch = List.of(11L, 12L, 13L);
+        when(outboxMessageRepository.findIdsProcessedBefore(any(), any())).thenReturn(fullBatch, lastBatch);
+        when(outboxMessageRepository.deleteByIds(fullBatch)).thenReturn(10);
+        when(outboxMessageRepository.deleteByIds(lastBatch)).thenReturn(3);
+
+        relay.purgeProcessed();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxMessageRepository, times(2)).findIdsProcessedBefore(cutoff.capture(), any());
+        assertThat(cutoff.getValue()).isCloseTo(LocalDateTime.now().minusDays(7), within(2, ChronoUnit.SECONDS));
+        verify(outboxMessageRepository).deleteByIds(fullBatch);
+        verify(outboxMessageRepository).deleteByIds(lastBatch);
+        assertThat(meterRegistry.counter("outbox.relay.purged").count()).isEqualTo(13);
+    }
+
+    private void due(OutboxMessage... messages) {
+        when(outboxMessageRepository.findDue(any(), any())).thenReturn(List.of(messages), List.of());
+    }
+
+    private static OutboxMessage message(Long id, int attempts) {
+        OutboxMessage message = OutboxMessage.of(OutboxMessage.Type.RIDE_ENDED, 100L + id, LocalDateTime.now());
+        message.setId(id);
+        message.setAttempts(attempts);
+        return message;
+    }
+}
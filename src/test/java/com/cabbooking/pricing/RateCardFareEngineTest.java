@@ -0,0 +1,85 @@
+package com.cabbooking.pricing;
+
+import com.cabbooking.entity.Booking;
+import com.cabbooking.util.GeoUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateCardFareEngineTest {
+
+    // Connaught Place to India Gate, ~2.4 km
+    private static final double PICKUP_LAT = 28.6315;
+    private static final double PICKUP_LNG = 77.2167;
+    private static final double DROPOFF_LAT = 28.6129;
+    private static final double DROPOFF_LNG = 77.2295;
+
+    private final FareEngine engine = new RateCardFareEngine(rateCards(), 30.0);
+
+    @Test
+    @DisplayName("fare is base plus distance times the cab type's per-km rate, rounded to minor units")
+    void quote_matchesBigDecimalFormula() {
+        double distanceKm = GeoUtils.haversineKm(PICKUP_LAT, PICKUP_LNG, DROPOFF_LAT, DROPOFF_LNG);
+
+        FareQuote quote = engine.quote(PICKUP_LAT, PICKUP_LNG, DROPOFF_LAT, DROPOFF_LNG, Booking.CabType.SEDAN);
+
+        BigDecimal expected = new BigDecimal("50.00")
+                .add(BigDecimal.valueOf(distanceKm).multiply(new BigDecimal("12.00")))
+                .setScale(2, RoundingMode.HALF_UP);
+        assertThat(quote.getDistanceKm()).isEqualTo(distanceKm);
+        assertThat(quote.fare()).isEqualByComparingTo(expected);
+        assertThat(quote.fare().scale()).isEqualTo(2);
+        assertThat(quote.getDurationMinutes()).isEqualTo((int) (distanceKm / 30.0 * 60));
+    }
+
+    @Test
+    @DisplayName("each cab type is priced from its own rate card")
+    void quote_usesRateCardOfRequestedCabType() {
+        long hatchback = engine.quote(PICKUP_LAT, PICKUP_LNG, DROPOFF_LAT, DROPOFF_LNG, Booking.CabType.HATCHBACK).getFareMinor();
+        long luxury = engine.quote(PICKUP_LAT, PICKUP_LNG, DROPOFF_LAT, DROPOFF_LNG, Booking.CabType.LUXURY).getFareMinor();
+
+        assertThat(luxury).isGreaterThan(hatchback);
+        assertThat(engine.quote(PICKUP_LAT, PICKUP_LNG, PICKUP_LAT, PICKUP_LNG, Booking.CabType.LUXURY).getFareMinor())
+                .isEqualTo(5000);
+    }
+
+    @Test
+    @DisplayName("the surge multiplier at the pickup point scales the fare")
+    void quote_appliesSurgeAtPickup() {
+        FareEngine surging = new RateCardFareEngine(rateCards(), 30.0,
+                (latitude, longitude) -> latitude == PICKUP_LAT ? 1.5 : 1.0);
+
+        long base = engine.quote(PICKUP_LAT, PICKUP_LNG, DROPOFF_LAT, DROPOFF_LNG, Booking.CabType.SEDAN).getFareMinor();
+        FareQuote quote = surging.quote(PICKUP_LAT, PICKUP_LNG, DROPOFF_LAT, DROPOFF_LNG, Booking.CabType.SEDAN);
+
+        assertThat(quote.getSurgeMultiplier()).isEqualTo(1.5);
+        assertThat(quote.getFareMinor()).isEqualTo(Math.round(base * 1.5));
+    }
+
+    @Test
+    @DisplayName("every cab type needs a rate card")
+    void constructor_rejectsMissingRateCard() {
+        Map<Booking.CabType, RateCard> rateCards = rateCards();
+        rateCards.remove(Booking.CabType.SUV);
+
+        assertThatThrownBy(() -> new RateCardFareEngine(rateCards, 30.0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("SUV");
+    }
+
+    private static Map<Booking.CabType, RateCard> rateCards() {
+        Map<Booking.CabType, RateCard> rateCards = new EnumMap<>(Booking.CabType.class);
+        rateCards.put(Booking.CabType.HATCHBACK, new RateCard(5000, 1000));
+        rateCards.put(Booking.CabType.SEDAN, new RateCard(5000, 1200));
+        rateCards.put(Booking.CabType.SUV, new RateCard(5000, 1500));
+        rateCards.put(Booking.CabType.LUXURY, new RateCard(5000, 2000));
+        return rateCards;
+    }
+}
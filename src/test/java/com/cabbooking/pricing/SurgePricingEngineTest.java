@@ -0,0 +1,125 @@
+package com.cabbooking.pricing;
+
+import com.cabbooking.entity.Driver;
+import com.cabbooking.geo.DriverPositionStore;
+import com.cabbooking.geo.DriverSpatialIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SurgePricingEngineTest {
+
+    private static final double LAT = 12.971;
+    private static final double LNG = 77.591;
+
+    private final DriverPositionStore positionStore = new DriverPositionStore(new DriverSpatialIndex(0.01), 16);
+    private final SurgePricingEngine engine = new SurgePricingEngine(positionStore, new SurgeProperties());
+
+    @Test
+    @DisplayName("a zone surges once waiting bookings outnumber available drivers")
+    void recompute_surgesWhenDemandExceedsSupply() {
+        engine.putDriver(1L, LAT, LNG);
+        engine.addDemand(LAT, LNG, 2);
+        engine.recompute();
+        assertThat(engine.multiplierAt(LAT, LNG)).isEqualTo(1.0);
+
+        engine.addDemand(LAT, LNG, 3);
+        engine.recompute();
+        // 5 bookings for 1 driver: 1 + 0.5 * (5 - 1)
+        assertThat(engine.multiplierAt(LAT, LNG)).isEqualTo(3.0);
+        assertThat(engine.multiplierAt(LAT + 1, LNG)).isEqualTo(1.0);
+
+        engine.putDriver(2L, LAT, LNG);
+        engine.recompute();
+        assertThat(engine.multiplierAt(LAT, LNG)).isEqualTo(1.8);
+    }
+
+    @Test
+    @DisplayName("the multiplier is capped")
+    void multiplier_isCapped() {
+        assertThat(engine.multiplier(100, 0)).isEqualTo(3.0);
+        assertThat(engine.multiplier(-1, 0)).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("drivers are counted once, in the zone of their last status change or live position")
+    void supply_followsStatusAndMoves() {
+        engine.addDemand(LAT, LNG, 4);
+        engine.putDriver(1L, LAT, LNG);
+        engine.putDriver(1L, LAT, LNG);
+        engine.putDriver(2L, LAT, LNG);
+        engine.recompute();
+        assertThat(engine.multiplierAt(LAT, LNG)).isEqualTo(1.5);
+
+        positionStore.register(1L, LAT, LNG);
+        positionStore.record(1L, LAT + 1, LNG, null, null, LocalDateTime.now());
+        engine.recompute();
+        assertThat(engine.multiplierAt(LAT, LNG)).isEqualTo(2.5);
+
+        engine.evictDriver(1L);
+        engine.putDriver(2L, LAT, LNG);
+        engine.putDriver(3L, LAT, LNG);
+        engine.recompute();
+        assertThat(engine.multiplierAt(LAT, LNG)).isEqualTo(1.5);
+    }
+
+    @Test
+    @DisplayName("status updates for unavailable drivers remove them from supply")
+    void update_countsOnlyOnlineVerifiedDrivers() {
+        engine.addDemand(LAT, LNG, 3);
+        Driver driver = new Driver();
+        driver.setId(1L);
+        driver.setStatus(Driver.DriverStatus.ONLINE);
+        driver.setVerificationStatus(Driver.VerificationStatus.VERIFIED);
+        driver.setCurrentLatitude(LAT);
+        driver.setCurrentLongitude(LNG);
+        engine.update(driver);
+        engine.recompute();
+        assertThat(engine.multiplierAt(LAT, LNG)).isEqualTo(2.0);
+
+        driver.setStatus(Driver.DriverStatus.BUSY);
+        engine.update(driver);
+        engine.recompute();
+        assertThat(engine.multiplierAt(LAT, LNG)).isEqualTo(2.0);
+        engine.putDriver(2L, LAT, LNG);
+        engine.putDriver(3L, LAT, LNG);
+        engine.recompute();
+        // 3 bookings for 2 drivers: 1.25, shown in tenths
+        assertThat(engine.multiplierAt(LAT, LNG)).isEqualTo(1.3);
+    }
+
+    @Test
+    @DisplayName("concurrent counter updates are not lost")
+    void addDemand_isThreadSafe() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        engine.addDemand(LAT, LNG, 1);
+                        engine.addDemand(LAT, LNG, -1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        engine.putDriver(1L, LAT, LNG);
+        engine.addDemand(LAT, LNG, 3);
+        engine.recompute();
+        assertThat(engine.multiplierAt(LAT, LNG)).isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,212 @@
+package com.cabbooking.reactive;
+
+import com.cabbooking.dto.DriverSummaryDto;
+import com.cabbooking.entity.Driver;
+import com.cabbooking.entity.LocationLog;
+import com.cabbooking.entity.User;
+import com.cabbooking.geo.DriverPositionStore;
+import com.cabbooking.repository.DriverRepository;
+import com.cabbooking.repository.LocationLogRepository;
+import com.cabbooking.repository.UserRepository;
+import com.cabbooking.testdata.DriverTestDataBuilder;
+import com.cabbooking.testdata.UserTestDataBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "reactive.enabled=true",
+        "reactive.server.port=0",
+        "reactive.server.event-loop-threads=2",
+        "reactive.r2dbc.url=r2dbc:h2:mem:///testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@ActiveProfiles("test")
+class ReactiveApiTests {
+
+    @Autowired
+    private ReactiveHttpServer server;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private LocationLogRepository locationLogRepository;
+
+    @Autowired
+    private DriverPositionStore driverPositionStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private WebTestClient client;
+    private User user;
+    private Driver nearby;
+    private Driver farAway;
+    private Driver offline;
+
+    private final LocalDateTime start = LocalDateTime.of(2024, 5, 1, 9, 0);
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + server.getPort() + "/reactive/api").build();
+        user = userRepository.save(UserTestDataBuilder.aUser().withRole(User.UserRole.DRIVER).build());
+        nearby = driverRepository.save(DriverTestDataBuilder.aDriver().withUser(user).atLocation(19.4330, -99.1330).build());
+        farAway = driverRepository.save(DriverTestDataBuilder.aDriver().withUser(user).atLocation(20.0, -99.0).build());
+        offline = driverRepository.save(DriverTestDataBuilder.aDriver().withUser(user)
+                .withStatus(Driver.DriverStatus.OFFLINE).atLocation(19.4326, -99.1332).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driverPositionStore.remove(nearby.getId());
+        transaction.executeWithoutResult(status -> locationLogRepository.deleteByDriverId(nearby.getId()));
+        driverRepository.deleteAll(List.of(nearby, farAway, offline));
+        userRepository.delete(user);
+    }
+
+    @Test
+    @DisplayName("nearby drivers are the online, verified ones within the radius")
+    void nearby_returnsAvailableDriversWithinRadius() {
+        client.get().uri("/drivers/nearby?latitude=19.4326&longitude=-99.1332&radiusKm=5")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(DriverSummaryDto.class)
+                .value(drivers -> {
+                    assertThat(drivers).extracting(DriverSummaryDto::getId)
+                            .contains(nearby.getId())
+                            .doesNotContain(farAway.getId(), offline.getId());
+                    DriverSummaryDto summary = drivers.stream()
+                            .filter(driver -> driver.getId().equals(nearby.getId())).findFirst().orElseThrow();
+                    assertThat(summary.getStatus()).isEqualTo("ONLINE");
+                    assertThat(summary.getUser().getEmail()).isEqualTo(user.getEmail());
+                });
+    }
+
+    @Test
+    @DisplayName("a missing coordinate is rejected")
+    void nearby_rejectsMissingLongitude() {
+        client.get().uri("/drivers/nearby?latitude=19.4326").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("history is read newest first, one page at a time or limited to a time range")
+    void driverHistory_returnsLogsNewestFirst() {
+        locationLogRepository.save(log(start));
+        locationLogRepository.save(log(start.plusMinutes(5)));
+        locationLogRepository.save(log(start.plusMinutes(10)));
+
+        client.get().uri("/locations/driver/{id}", nearby.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[0].timestamp").isEqualTo("2024-05-01T09:10:00")
+                .jsonPath("$[0].driverId").isEqualTo(nearby.getId());
+
+        client.get().uri("/locations/driver/{id}?limit=2&before=2024-05-01T09:10:00", nearby.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].timestamp").isEqualTo("2024-05-01T09:05:00");
+
+        client.get().uri("/locations/driver/{id}?limit=0", nearby.getId()).exchange().expectStatus().isBadRequest();
+
+        client.get().uri("/locations/driver/{id}/date-range?startTime=2024-05-01T09:00:00&endTime=2024-05-01T09:05:00",
+                        nearby.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("an accepted ping is visible right away as the driver's latest location")
+    void logLocation_acceptsPingAndUpdatesLatest() throws InterruptedException {
+        // Drivers saved through DriverService are registered with the store; these bypass it
+        driverPositionStore.register(nearby.getId(), nearby.getCurrentLatitude(), nearby.getCurrentLongitude());
+
+        client.post().uri("/locations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("driver", Map.of("id", nearby.getId()),
+                        "latitude", 19.44, "longitude", -99.14, "speed", 32.0, "heading", 90.0))
+                .exchange()
+                .expectStatus().isAccepted();
+
+        client.get().uri("/locations/driver/{id}/latest", nearby.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.latitude").isEqualTo(19.44)
+                .jsonPath("$.speed").isEqualTo(32.0);
+
+        // The history row follows with the ingestion pipeline's next flush
+        awaitPersistedLogs(1);
+    }
+
+    @Test
+    @DisplayName("a ping from a driver this node does not track is accepted once the driver is found")
+    void logLocation_acceptsPingOfUntrackedDriver() throws InterruptedException {
+        client.post().uri("/locations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("driver", Map.of("id", nearby.getId()),
+                        "latitude", 19.44, "longitude", -99.14, "speed", 32.0, "heading", 90.0))
+                .exchange()
+                .expectStatus().isAccepted();
+
+        awaitPersistedLogs(1);
+    }
+
+    @Test
+    @DisplayName("a ping from an unknown driver is rejected instead of being buffered")
+    void logLocation_rejectsUnknownDriver() {
+        client.post().uri("/locations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("driver", Map.of("id", Long.MAX_VALUE),
+                        "latitude", 19.44, "longitude", -99.14, "speed", 32.0, "heading", 90.0))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("a ping failing validation is rejected")
+    void logLocation_rejectsInvalidPing() {
+        client.post().uri("/locations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("driver", Map.of("id", nearby.getId()), "latitude", 19.44))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private void awaitPersistedLogs(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (locationLogRepository.findByDriverIdOrderByTimestampDesc(nearby.getId()).size() < count) {
+            assertThat(System.nanoTime()).as("ping persisted in time").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private LocationLog log(LocalDateTime timestamp) {
+        return new LocationLog(null, nearby, null, 19.4330, -99.1330, 20.0, 180.0, timestamp);
+    }
+}
@@ -0,0 +1,83 @@
+package com.cabbooking.repository;
+
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.BookingEvent;
+import com.cabbooking.entity.User;
+import com.cabbooking.testdata.BookingTestDataBuilder;
+import com.cabbooking.testdata.UserTestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class BookingEventRepositoryTest {
+
+    private static final EnumSet<Booking.BookingStatus> LIVE = EnumSet.complementOf(
+            EnumSet.of(Booking.BookingStatus.COMPLETED, Booking.BookingStatus.CANCELLED));
+
+    @Autowired
+    private BookingEventRepository bookingEventRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(UserTestDataBuilder.aUser().build());
+    }
+
+    @Test
+    @DisplayName("two events cannot claim the same sequence number of one booking")
+    void save_rejectsDuplicateSequenceNumber() {
+        Booking booking = booking(Booking.BookingStatus.REQUESTED, 1);
+        bookingEventRepository.saveAndFlush(event(booking, 2, Booking.BookingStatus.ACCEPTED));
+
+        assertThatThrownBy(() -> bookingEventRepository.saveAndFlush(event(booking, 2, Booking.BookingStatus.CANCELLED)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("unprojected events are those past their live booking's sequence, in order")
+    void findUnprojected_returnsEventsPastTheRow() {
+        Booking trailing = booking(Booking.BookingStatus.ACCEPTED, 2);
+        bookingEventRepository.save(event(trailing, 1, Booking.BookingStatus.REQUESTED));
+        bookingEventRepository.save(event(trailing, 2, Booking.BookingStatus.ACCEPTED));
+        BookingEvent assigned = bookingEventRepository.save(event(trailing, 3, Booking.BookingStatus.DRIVER_ASSIGNED));
+        BookingEvent arrived = bookingEventRepository.save(event(trailing, 4, Booking.BookingStatus.DRIVER_ARRIVED));
+
+        Booking caughtUp = booking(Booking.BookingStatus.REQUESTED, 1);
+        bookingEventRepository.save(event(caughtUp, 1, Booking.BookingStatus.REQUESTED));
+
+        List<BookingEvent> unprojected = bookingEventRepository.findUnprojected(LIVE, PageRequest.of(0, 10));
+
+        assertThat(unprojected).extracting(BookingEvent::getId).containsExactly(assigned.getId(), arrived.getId());
+        assertThat(bookingEventRepository.findByBookingIdAndSequenceNumberGreaterThanOrderBySequenceNumber(
+                trailing.getId(), 2)).extracting(BookingEvent::getSequenceNumber).containsExactly(3, 4);
+    }
+
+    private Booking booking(Booking.BookingStatus status, int eventSequence) {
+        Booking booking = BookingTestDataBuilder.aBooking().withUser(user).withStatus(status).build();
+        booking.setEventSequence(eventSequence);
+        return bookingRepository.save(booking);
+    }
+
+    private static BookingEvent event(Booking booking, int sequenceNumber, Booking.BookingStatus status) {
+        return new BookingEvent(null, booking.getId(), sequenceNumber, status, null, null, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,164 @@
+package com.cabbooking.repository;
+
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.Cab;
+import com.cabbooking.entity.Driver;
+import com.cabbooking.entity.User;
+import com.cabbooking.support.SqlStatementRecorder;
+import com.cabbooking.testdata.BookingTestDataBuilder;
+import com.cabbooking.testdata.DriverTestDataBuilder;
+import com.cabbooking.testdata.UserTestDataBuilder;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of SQL statements each booking read issues, including walking to the
+ * user, driver, driver's user and cab the way a response does. Seeds bookings with distinct
+ * associations, so a missing fetch plan shows up as one extra select per booking.
+ */
+@DataJpaTest(properties = SqlStatementRecorder.PROPERTY)
+class BookingRepositoryFetchPlanTest {
+
+    private static final int BOOKINGS = 3;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private CabRepository cabRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Booking> bookings = new ArrayList<>();
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        from = now.minusHours(1);
+        to = now.plusHours(1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            User rider = userRepository.save(UserTestDataBuilder.aUser().build());
+            User driverUser = userRepository.save(
+                    UserTestDataBuilder.aUser().withRole(User.UserRole.DRIVER).build());
+            Driver driver = driverRepository.save(DriverTestDataBuilder.aDriver().withUser(driverUser).build());
+            Cab cab = cabRepository.save(cab(driver, "FP-" + i));
+            bookings.add(bookingRepository.save(BookingTestDataBuilder.aBooking()
+                    .withUser(rider).withDriver(driver).withCab(cab)
+                    .withStatus(Booking.BookingStatus.ACCEPTED)
+                    .withCreatedAt(now.minusMinutes(i + 1))
+                    .withRequestedTime(now.minusMinutes(i + 1))
+                    .build()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> bookingReadsIssueAFixedNumberOfStatements() {
+        Booking first = bookings.get(0);
+        Long userId = first.getUser().getId();
+        Long driverId = first.getDriver().getId();
+        Booking.BookingStatus accepted = Booking.BookingStatus.ACCEPTED;
+        LocalDateTime now = LocalDateTime.now();
+
+        // Expected statement counts, associations included
+        Map<String, Map.Entry<Integer, Supplier<?>>> reads = new LinkedHashMap<>();
+        reads.put("findById", Map.entry(1, () -> bookingRepository.findById(first.getId())));
+        reads.put("findByBookingNumber", Map.entry(1,
+                () -> bookingRepository.findByBookingNumber(first.getBookingNumber())));
+        reads.put("findByUserId", Map.entry(1, () -> bookingRepository.findByUserId(userId)));
+        reads.put("findByDriverId", Map.entry(1, () -> bookingRepository.findByDriverId(driverId)));
+        reads.put("findByStatus", Map.entry(1, () -> bookingRepository.findByStatus(accepted)));
+        reads.put("findByUserIdAndStatus", Map.entry(1,
+                () -> bookingRepository.findByUserIdAndStatus(userId, accepted)));
+        reads.put("findByDriverIdAndStatus", Map.entry(1,
+                () -> bookingRepository.findByDriverIdAndStatus(driverId, accepted)));
+        reads.put("findByDateRange", Map.entry(1, () -> bookingRepository.findByDateRange(from, to)));
+        reads.put("findByUserIdAndDateRange", Map.entry(1,
+                () -> bookingRepository.findByUserIdAndDateRange(userId, from, to)));
+        reads.put("findByDriverIdAndDateRange", Map.entry(1,
+                () -> bookingRepository.findByDriverIdAndDateRange(driverId, from, to)));
+        reads.put("findPendingBookings", Map.entry(1, () -> bookingRepository.findPendingBookings(now)));
+        reads.put("findActiveBookingByDriverId", Map.entry(1,
+                () -> bookingRepository.findActiveBookingByDriverId(driverId)));
+
+        return reads.entrySet().stream().map(read -> DynamicTest.dynamicTest(read.getKey(), () -> {
+            entityManager.clear();
+            int expected = read.getValue().getKey();
+            SqlStatementRecorder.assertStatementCount(expected, () -> {
+                Collection<Booking> loaded = asBookings(read.getValue().getValue().get());
+                assertThat(loaded).isNotEmpty();
+                loaded.forEach(BookingRepositoryFetchPlanTest::walkAssociations);
+            });
+        }));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> bookingOnlyReadsIssueOneStatement() {
+        Map<String, Runnable> reads = new LinkedHashMap<>();
+        reads.put("findDispatchableBookings", () -> assertThat(bookingRepository
+                .findDispatchableBookings(LocalDateTime.now(), PageRequest.of(0, 10))).isEmpty());
+        reads.put("countByStatus", () -> assertThat(
+                bookingRepository.countByStatus(Booking.BookingStatus.ACCEPTED)).isEqualTo(BOOKINGS));
+
+        return reads.entrySet().stream().map(read -> DynamicTest.dynamicTest(read.getKey(), () -> {
+            entityManager.clear();
+            SqlStatementRecorder.assertStatementCount(1, read.getValue());
+        }));
+    }
+
+    private static Collection<Booking> asBookings(Object result) {
+        if (result instanceof Optional<?> optional) {
+            return optional.map(b -> List.of((Booking) b)).orElse(List.of());
+        }
+        @SuppressWarnings("unchecked")
+        Collection<Booking> list = (Collection<Booking>) result;
+        return list;
+    }
+
+    private static void walkAssociations(Booking booking) {
+        assertThat(booking.getUser().getEmail()).isNotNull();
+        assertThat(booking.getDriver().getLicenseNumber()).isNotNull();
+        assertThat(booking.getDriver().getUser().getEmail()).isNotNull();
+        assertThat(booking.getCab().getLicensePlate()).isNotNull();
+    }
+
+    private static Cab cab(Driver driver, String plate) {
+        Cab cab = new Cab();
+        cab.setDriver(driver);
+        cab.setLicensePlate(plate);
+        cab.setMake("Toyota");
+        cab.setModel("Prius");
+        cab.setColor("White");
+        cab.setYear(2022);
+        cab.setCabType(Cab.CabType.SEDAN);
+        cab.setSeatingCapacity(4);
+        return cab;
+    }
+}
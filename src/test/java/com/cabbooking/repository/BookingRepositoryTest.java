@@ -1,23 +1,27 @@
 package com.cabbooking.repository;
 
+import com.cabbooking.dto.BookingResponseDto;
 import com.cabbooking.entity.Booking;
 import com.cabbooking.entity.Driver;
 import com.cabbooking.entity.User;
+import com.cabbooking.support.SqlStatementRecorder;
 import com.cabbooking.testdata.BookingTestDataBuilder;
 import com.cabbooking.testdata.DriverTestDataBuilder;
 import com.cabbooking.testdata.UserTestDataBuilder;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = SqlStatementRecorder.PROPERTY)
 class BookingRepositoryTest {
 
     @Autowired
@@ -29,6 +33,9 @@ class BookingRepositoryTest {
     @Autowired
     private DriverRepository driverRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User user;
     private Driver driver;
 
@@ -105,4 +112,65 @@ class BookingRepositoryTest {
         List<Booking> pendingNull = bookingRepository.findPendingBookings(null);
         assertThat(pendingNull).isEmpty();
     }
+
+    @Test
+    @DisplayName("findResponseById fills the booking, user and driver summaries from a single statement")
+    void findResponseById_singleStatement() {
+        Booking booking = bookingRepository.findPendingBookings(LocalDateTime.now()).get(0);
+        entityManager.clear();
+        SqlStatementRecorder.reset();
+
+        BookingResponseDto response = bookingRepository.findResponseById(booking.getId()).orElseThrow();
+
+        assertThat(SqlStatementRecorder.statements()).hasSize(1);
+        assertThat(response.getBookingNumber()).isEqualTo(booking.getBookingNumber());
+        assertThat(response.getStatus()).isEqualTo(booking.getStatus().name());
+        assertThat(response.getUser().getFirstName()).isEqualTo("Jess");
+        assertThat(response.getDriver().getId()).isEqualTo(driver.getId());
+        assertThat(response.getDriver().getUser().getId()).isEqualTo(user.getId());
+        // No cab assigned: the outer join yields no summary rather than an empty one
+        assertThat(response.getCab()).isNull();
+    }
+
+    @Test
+    @DisplayName("transition changes the row only from an allowed status at the expected sequence")
+    void transition_isConditionalOnStatusAndSequence() {
+        Booking accepted = bookingRepository.findByStatus(Booking.BookingStatus.ACCEPTED).get(0);
+        Long version = accepted.getVersion();
+        LocalDateTime acceptedTime = LocalDateTime.now();
+
+        // IN_PROGRESS cannot follow ACCEPTED
+        assertThat(transition(accepted, Booking.BookingStatus.IN_PROGRESS, 1, null)).isZero();
+        assertThat(transition(accepted, Booking.BookingStatus.DRIVER_ASSIGNED, 1, acceptedTime)).isEqualTo(1);
+        // The same event again finds the row past it
+        assertThat(transition(accepted, Booking.BookingStatus.DRIVER_ASSIGNED, 1, null)).isZero();
+
+        entityManager.clear();
+        Booking updated = bookingRepository.findById(accepted.getId()).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(Booking.BookingStatus.DRIVER_ASSIGNED);
+        assertThat(updated.getEventSequence()).isEqualTo(1);
+        assertThat(updated.getAcceptedTime()).isEqualToIgnoringNanos(acceptedTime);
+        assertThat(updated.getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    @DisplayName("updateActualFare changes one column in a single statement and reports missing bookings")
+    void updateActualFare_singleStatement() {
+        Booking booking = bookingRepository.findByStatus(Booking.BookingStatus.CANCELLED).get(0);
+        entityManager.clear();
+        SqlStatementRecorder.reset();
+
+        assertThat(bookingRepository.updateActualFare(booking.getId(), new BigDecimal("245.50"))).isEqualTo(1);
+        assertThat(SqlStatementRecorder.statements()).hasSize(1);
+        assertThat(bookingRepository.updateActualFare(-1L, BigDecimal.ONE)).isZero();
+
+        entityManager.clear();
+        assertThat(bookingRepository.findById(booking.getId()).orElseThrow().getActualFare())
+                .isEqualByComparingTo("245.50");
+    }
+
+    private int transition(Booking booking, Booking.BookingStatus to, int sequence, LocalDateTime acceptedTime) {
+        return bookingRepository.transition(booking.getId(), to.allowedFrom(), to, sequence,
+                acceptedTime, null, null, null);
+    }
 }
@@ -0,0 +1,116 @@
+package com.cabbooking.repository;
+
+import com.cabbooking.config.EntityCacheConfig;
+import com.cabbooking.entity.Cab;
+import com.cabbooking.entity.Driver;
+import com.cabbooking.entity.User;
+import com.cabbooking.support.SqlStatementRecorder;
+import com.cabbooking.testdata.DriverTestDataBuilder;
+import com.cabbooking.testdata.UserTestDataBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs without a test transaction: Hibernate does not cache rows inserted by a transaction
+ * that has not committed yet, so each repository call here commits on its own.
+ */
+@DataJpaTest(properties = SqlStatementRecorder.PROPERTY)
+@Import(EntityCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private CabRepository cabRepository;
+
+    private User user;
+    private Driver driver;
+    private Cab cab;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(UserTestDataBuilder.aUser().withRole(User.UserRole.DRIVER).build());
+        driver = driverRepository.save(DriverTestDataBuilder.aDriver().withUser(user).build());
+        cab = cabRepository.save(newCab());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cabRepository.deleteById(cab.getId());
+        driverRepository.deleteById(driver.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @DisplayName("findById serves users, drivers and cabs from the cache once loaded")
+    void findById_secondLoadIssuesNoStatements() {
+        userRepository.findById(user.getId()).orElseThrow();
+        driverRepository.findById(driver.getId()).orElseThrow();
+        cabRepository.findById(cab.getId()).orElseThrow();
+
+        SqlStatementRecorder.assertStatementCount(0, () -> {
+            assertThat(userRepository.findById(user.getId())).isPresent();
+            assertThat(driverRepository.findById(driver.getId()).orElseThrow().getLicenseNumber())
+                    .isEqualTo(driver.getLicenseNumber());
+            assertThat(cabRepository.findById(cab.getId()).orElseThrow().getLicensePlate())
+                    .isEqualTo(cab.getLicensePlate());
+        });
+    }
+
+    @Test
+    @DisplayName("loadByDriverId resolves the cab through the natural-id cache once loaded")
+    void loadByDriverId_secondLoadIssuesNoStatements() {
+        assertThat(cabRepository.loadByDriverId(driver.getId())).isPresent();
+
+        SqlStatementRecorder.assertStatementCount(0, () ->
+                assertThat(cabRepository.loadByDriverId(driver.getId()).orElseThrow().getId())
+                        .isEqualTo(cab.getId()));
+    }
+
+    @Test
+    @DisplayName("an update through Hibernate refreshes the cached entry")
+    void save_refreshesCachedEntry() {
+        Cab loaded = cabRepository.findById(cab.getId()).orElseThrow();
+        loaded.setStatus(Cab.CabStatus.BUSY);
+        cab = cabRepository.save(loaded);
+
+        SqlStatementRecorder.assertStatementCount(0, () ->
+                assertThat(cabRepository.findById(cab.getId()).orElseThrow().getStatus())
+                        .isEqualTo(Cab.CabStatus.BUSY));
+    }
+
+    @Test
+    @DisplayName("a driver cannot have a second cab, which the natural-id cache relies on")
+    void save_rejectsSecondCabOfDriver() {
+        assertThatThrownBy(() -> cabRepository.save(newCab()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private Cab newCab() {
+        Cab newCab = new Cab();
+        newCab.setDriver(driver);
+        newCab.setLicensePlate("EC-" + System.nanoTime());
+        newCab.setMake("Toyota");
+        newCab.setModel("Prius");
+        newCab.setColor("White");
+        newCab.setYear(2022);
+        newCab.setCabType(Cab.CabType.SEDAN);
+        return newCab;
+    }
+}
@@ -0,0 +1,89 @@
+package com.cabbooking.repository;
+
+import com.cabbooking.entity.Driver;
+import com.cabbooking.entity.LocationTrajectory;
+import com.cabbooking.entity.User;
+import com.cabbooking.testdata.DriverTestDataBuilder;
+import com.cabbooking.testdata.UserTestDataBuilder;
+import com.cabbooking.trajectory.TrajectoryCodec;
+import com.cabbooking.trajectory.TrajectoryPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class LocationTrajectoryRepositoryTest {
+
+    @Autowired
+    private LocationTrajectoryRepository locationTrajectoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Driver driver;
+    private final LocalDateTime nine = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.saveAndFlush(
+                UserTestDataBuilder.aUser().withFirstName("Tracked").build());
+        driver = driverRepository.saveAndFlush(
+                DriverTestDataBuilder.aDriver().withUser(user).build());
+
+        locationTrajectoryRepository.save(trajectory(nine, nine.plusMinutes(30)));
+        locationTrajectoryRepository.save(trajectory(nine.plusHours(1), nine.plusHours(2)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("encoded points round-trip through the blob column")
+    void save_persistsEncodedPoints() {
+        LocationTrajectory loaded = locationTrajectoryRepository.findLatestByDriverId(driver.getId());
+
+        List<TrajectoryPoint> points = TrajectoryCodec.decode(loaded.getEncodedPoints());
+        assertThat(points).hasSize(2);
+        assertThat(points.get(1).getTimestamp()).isEqualTo(nine.plusHours(2));
+    }
+
+    @Test
+    @DisplayName("range lookups return only the segments overlapping the window")
+    void findByDriverIdOverlapping_returnsOverlappingSegments() {
+        List<LocationTrajectory> overlapping = locationTrajectoryRepository.findByDriverIdOverlapping(
+                driver.getId(), nine.plusMinutes(45), nine.plusMinutes(75));
+
+        assertThat(overlapping).extracting(LocationTrajectory::getStartTime)
+                .containsExactly(nine.plusHours(1));
+        assertThat(locationTrajectoryRepository.findByDriverIdOverlapping(
+                driver.getId(), nine.plusMinutes(20), nine.plusMinutes(70))).hasSize(2);
+    }
+
+    private LocationTrajectory trajectory(LocalDateTime startTime, LocalDateTime endTime) {
+        List<TrajectoryPoint> points = List.of(
+                new TrajectoryPoint(19.4326, -99.1332, 20.0, 45.0, startTime),
+                new TrajectoryPoint(19.4400, -99.1300, 25.0, 50.0, endTime));
+
+        LocationTrajectory trajectory = new LocationTrajectory();
+        trajectory.setDriver(driver);
+        trajectory.setStartTime(startTime);
+        trajectory.setEndTime(endTime);
+        trajectory.setPointCount(points.size());
+        trajectory.setSourcePointCount(10);
+        trajectory.setEncodedPoints(TrajectoryCodec.encode(points));
+        return trajectory;
+    }
+}
@@ -0,0 +1,88 @@
+package com.cabbooking.repository;
+
+import com.cabbooking.entity.OutboxMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class OutboxMessageRepositoryTest {
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("only unprocessed messages that are due are picked up, oldest first")
+    void findDue_skipsProcessedAndBackedOffMessages() {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxMessage older = outboxMessageRepository.save(message(now.minusMinutes(2)));
+        OutboxMessage newer = outboxMessageRepository.save(message(now.minusMinutes(1)));
+        OutboxMessage processed = message(now.minusMinutes(3));
+        processed.setProcessedAt(now);
+        outboxMessageRepository.save(processed);
+        OutboxMessage backedOff = message(now.minusMinutes(3));
+        backedOff.setAvailableAt(now.plusMinutes(1));
+        outboxMessageRepository.save(backedOff);
+
+        assertThat(outboxMessageRepository.findDue(now, PageRequest.of(0, 10)))
+                .extracting(OutboxMessage::getId)
+                .containsExactly(older.getId(), newer.getId());
+        assertThat(outboxMessageRepository.countByProcessedAtIsNull()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("a message can be marked processed once; failures push it back until then")
+    void markProcessed_claimsOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxMessage message = outboxMessageRepository.saveAndFlush(message(now));
+
+        assertThat(outboxMessageRepository.recordFailure(message.getId(), "Driver not found", now.plusSeconds(1)))
+                .isEqualTo(1);
+        assertThat(outboxMessageRepository.markProcessed(message.getId(), now)).isEqualTo(1);
+        assertThat(outboxMessageRepository.markProcessed(message.getId(), now)).isZero();
+        assertThat(outboxMessageRepository.recordFailure(message.getId(), "late", now)).isZero();
+
+        entityManager.clear();
+        OutboxMessage stored = outboxMessageRepository.findById(message.getId()).orElseThrow();
+        assertThat(stored.getAttempts()).isEqualTo(2);
+        assertThat(stored.getLastError()).isEqualTo("Driver not found");
+        assertThat(stored.getProcessedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("only messages processed before the cutoff are purged")
+    void deleteByIds_purgesOldProcessedMessages() {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxMessage old = message(now.minusDays(10));
+        old.setProcessedAt(now.minusDays(9));
+        outboxMessageRepository.save(old);
+        OutboxMessage recent = message(now.minusDays(10));
+        recent.setProcessedAt(now.minusHours(1));
+        outboxMessageRepository.save(recent);
+        OutboxMessage pending = outboxMessageRepository.save(message(now.minusDays(10)));
+
+        List<Long> ids = outboxMessageRepository.findIdsProcessedBefore(now.minusDays(7), PageRequest.of(0, 10));
+        assertThat(ids).containsExactly(old.getId());
+        assertThat(outboxMessageRepository.deleteByIds(ids)).isEqualTo(1);
+
+        entityManager.clear();
+        assertThat(outboxMessageRepository.findAll()).extracting(OutboxMessage::getId)
+                .containsExactlyInAnyOrder(recent.getId(), pending.getId());
+    }
+
+    private static OutboxMessage message(LocalDateTime createdAt) {
+        return OutboxMessage.of(OutboxMessage.Type.RIDE_ENDED, 1L, createdAt);
+    }
+}
@@ -0,0 +1,379 @@
+package com.cabbooking.repository;
+
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.Cab;
+import com.cabbooking.entity.Driver;
+import com.cabbooking.entity.User;
+import com.cabbooking.support.SqlStatementRecorder;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every repository query, captures the SQL Hibernate issues for it and checks the
+ * database's EXPLAIN output for full table scans. Query methods found on the repositories
+ * without an entry here fail the build, so new ones cannot skip the check. Works against H2 (the test database) and
+ * MySQL, so pointing the test datasource at MySQL checks the production planner too.
+ */
+@DataJpaTest(properties = SqlStatementRecorder.PROPERTY)
+class RepositoryQueryPlanTest {
+
+    // Queries that cannot use a B-tree index by design
+    private static final Set<String> FULL_SCAN_ALLOWED = Set.of(
+            // Leading-wildcard LIKE on names
+            "UserRepository.findByNameContaining",
+            "UserRepository.findSummariesByNameContaining",
+            // Loads every driver's position into the in-memory store at startup
+            "DriverRepository.findAllPositions");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private CabRepository cabRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingEventRepository bookingEventRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private LocationLogRepository locationLogRepository;
+
+    @Autowired
+    private LocationTrajectoryRepository locationTrajectoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    @DisplayName("every repository query method is checked")
+    void everyQueryMethodHasAPlanCheck() {
+        Repositories repositories = new Repositories(applicationContext);
+        Set<String> queryMethods = new TreeSet<>();
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation repository = repositories.getRequiredRepositoryInformation(domainType);
+            repository.getQueryMethods().forEach(method -> queryMethods.add(
+                    repository.getRepositoryInterface().getSimpleName() + "." + method.getName()));
+        }
+
+        assertThat(queryMethods).isNotEmpty();
+        assertThat(queries().keySet())
+                .as("repository query methods without a plan check")
+                .containsAll(queryMethods);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseIndexes() {
+        return queries().entrySet().stream().map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+            entityManager.clear();
+            SqlStatementRecorder.reset();
+            query.getValue().run();
+            List<String> statements = SqlStatementRecorder.statements();
+            assertThat(statements).as("SQL issued by %s", query.getKey()).isNotEmpty();
+
+            if (FULL_SCAN_ALLOWED.contains(query.getKey())) {
+                return;
+            }
+            for (String sql : statements) {
+                assertThat(fullScans(sql))
+                        .as("%s scans a whole table:%n%s", query.getKey(), sql)
+                        .isEmpty();
+            }
+        }));
+    }
+
+    private Map<String, Runnable> queries() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+
+        queries.put("UserRepository.findByEmail", () -> userRepository.findByEmail("a@b.com"));
+        queries.put("UserRepository.findByPhoneNumber", () -> userRepository.findByPhoneNumber("9999999999"));
+        queries.put("UserRepository.existsByEmail", () -> userRepository.existsByEmail("a@b.com"));
+        queries.put("UserRepository.existsByPhoneNumber", () -> userRepository.existsByPhoneNumber("9999999999"));
+        queries.put("UserRepository.findByRole", () -> userRepository.findByRole(User.UserRole.DRIVER));
+        queries.put("UserRepository.findByStatus", () -> userRepository.findByStatus(User.UserStatus.ACTIVE));
+        queries.put("UserRepository.findByRoleAndStatus",
+                () -> userRepository.findByRoleAndStatus(User.UserRole.DRIVER, User.UserStatus.ACTIVE));
+        queries.put("UserRepository.findByNameContaining", () -> userRepository.findByNameContaining("jo"));
+        queries.put("UserRepository.findSummaryById", () -> userRepository.findSummaryById(1L));
+        queries.put("UserRepository.findSummaryByEmail", () -> userRepository.findSummaryByEmail("a@b.com"));
+        queries.put("UserRepository.findSummariesByRole",
+                () -> userRepository.findSummariesByRole(User.UserRole.DRIVER));
+        queries.put("UserRepository.findSummariesByStatus",
+                () -> userRepository.findSummariesByStatus(User.UserStatus.ACTIVE));
+        queries.put("UserRepository.findSummariesByNameContaining",
+                () -> userRepository.findSummariesByNameContaining("jo"));
+        queries.put("UserRepository.findSummaryPageAfter",
+                () -> userRepository.findSummaryPageAfter(100L, PageRequest.of(0, 50)));
+        queries.put("UserRepository.streamSummaries", () -> drain(userRepository.streamSummaries()));
+
+        queries.put("DriverRepository.findByUserId", () -> driverRepository.findByUserId(1L));
+        queries.put("DriverRepository.findByLicenseNumber", () -> driverRepository.findByLicenseNumber("DL-1"));
+        queries.put("DriverRepository.findByStatus", () -> driverRepository.findByStatus(Driver.DriverStatus.ONLINE));
+        queries.put("DriverRepository.findByVerificationStatus",
+                () -> driverRepository.findByVerificationStatus(Driver.VerificationStatus.VERIFIED));
+        queries.put("DriverRepository.findByStatusAndVerificationStatus",
+                () -> driverRepository.findByStatusAndVerificationStatus(
+                        Driver.DriverStatus.ONLINE, Driver.VerificationStatus.VERIFIED));
+        queries.put("DriverRepository.findNearbyAvailableDrivers",
+                () -> driverRepository.findNearbyAvailableDrivers(19.43, -99.13, 5.0));
+        queries.put("DriverRepository.findByMinimumRating", () -> driverRepository.findByMinimumRating(4.5));
+        queries.put("DriverRepository.getAverageRating", () -> driverRepository.getAverageRating());
+        queries.put("DriverRepository.findAllPositions", () -> driverRepository.findAllPositions());
+        queries.put("DriverRepository.findSummaryById", () -> driverRepository.findSummaryById(1L));
+        queries.put("DriverRepository.findSummariesByIdIn",
+                () -> driverRepository.findSummariesByIdIn(List.of(1L, 2L)));
+        queries.put("DriverRepository.findSummaryByUserId", () -> driverRepository.findSummaryByUserId(1L));
+        queries.put("DriverRepository.findSummaryByLicenseNumber",
+                () -> driverRepository.findSummaryByLicenseNumber("DL-1"));
+        queries.put("DriverRepository.findSummariesByStatus",
+                () -> driverRepository.findSummariesByStatus(Driver.DriverStatus.ONLINE));
+        queries.put("DriverRepository.findSummariesByVerificationStatus",
+                () -> driverRepository.findSummariesByVerificationStatus(Driver.VerificationStatus.VERIFIED));
+        queries.put("DriverRepository.findSummariesByStatusAndVerificationStatus",
+                () -> driverRepository.findSummariesByStatusAndVerificationStatus(
+                        Driver.DriverStatus.ONLINE, Driver.VerificationStatus.VERIFIED));
+        queries.put("DriverRepository.findSummariesByMinimumRating",
+                () -> driverRepository.findSummariesByMinimumRating(4.5));
+        queries.put("DriverRepository.findSummaryPageAfter",
+                () -> driverRepository.findSummaryPageAfter(100L, PageRequest.of(0, 50)));
+        queries.put("DriverRepository.streamSummaries", () -> drain(driverRepository.streamSummaries()));
+
+        queries.put("CabRepository.findByDriverId", () -> cabRepository.findByDriverId(1L));
+        queries.put("CabRepository.loadByDriverId", () -> cabRepository.loadByDriverId(1L));
+        queries.put("CabRepository.findByLicensePlate", () -> cabRepository.findByLicensePlate("KA-01"));
+        queries.put("CabRepository.findByDriverIdIn", () -> cabRepository.findByDriverIdIn(List.of(1L, 2L)));
+        queries.put("CabRepository.findByCabType", () -> cabRepository.findByCabType(Cab.CabType.SEDAN));
+        queries.put("CabRepository.findByStatus", () -> cabRepository.findByStatus(Cab.CabStatus.AVAILABLE));
+        queries.put("CabRepository.findByCabTypeAndStatus",
+                () -> cabRepository.findByCabTypeAndStatus(Cab.CabType.SEDAN, Cab.CabStatus.AVAILABLE));
+        queries.put("CabRepository.findAvailableCabsByType",
+                () -> cabRepository.findAvailableCabsByType(Cab.CabType.SEDAN));
+        queries.put("CabRepository.findByMinimumYear", () -> cabRepository.findByMinimumYear(2020));
+        queries.put("CabRepository.countByStatus", () -> cabRepository.countByStatus(Cab.CabStatus.AVAILABLE));
+        queries.put("CabRepository.findSummaryById", () -> cabRepository.findSummaryById(1L));
+        queries.put("CabRepository.findSummaryByDriverId", () -> cabRepository.findSummaryByDriverId(1L));
+        queries.put("CabRepository.findSummaryByLicensePlate", () -> cabRepository.findSummaryByLicensePlate("KA-01"));
+        queries.put("CabRepository.findSummariesByCabType",
+                () -> cabRepository.findSummariesByCabType(Cab.CabType.SEDAN));
+        queries.put("CabRepository.findSummariesByStatus",
+                () -> cabRepository.findSummariesByStatus(Cab.CabStatus.AVAILABLE));
+        queries.put("CabRepository.findAvailableSummariesByType",
+                () -> cabRepository.findAvailableSummariesByType(Cab.CabType.SEDAN));
+        queries.put("CabRepository.findSummariesByMinimumYear", () -> cabRepository.findSummariesByMinimumYear(2020));
+        queries.put("CabRepository.findSummaryPageAfter",
+                () -> cabRepository.findSummaryPageAfter(100L, PageRequest.of(0, 50)));
+        queries.put("CabRepository.streamSummaries", () -> drain(cabRepository.streamSummaries()));
+
+        queries.put("BookingRepository.findByBookingNumber", () -> bookingRepository.findByBookingNumber("CAB1"));
+        queries.put("BookingRepository.findByUserId", () -> bookingRepository.findByUserId(1L));
+        queries.put("BookingRepository.findByDriverId", () -> bookingRepository.findByDriverId(1L));
+        queries.put("BookingRepository.findByStatus",
+                () -> bookingRepository.findByStatus(Booking.BookingStatus.REQUESTED));
+        queries.put("BookingRepository.findByUserIdAndStatus",
+                () -> bookingRepository.findByUserIdAndStatus(1L, Booking.BookingStatus.COMPLETED));
+        queries.put("BookingRepository.findByDriverIdAndStatus",
+                () -> bookingRepository.findByDriverIdAndStatus(1L, Booking.BookingStatus.COMPLETED));
+        queries.put("BookingRepository.findByDateRange",
+                () -> bookingRepository.findByDateRange(now.minusDays(1), now));
+        queries.put("BookingRepository.findByUserIdAndDateRange",
+                () -> bookingRepository.findByUserIdAndDateRange(1L, now.minusDays(1), now));
+        queries.put("BookingRepository.findByDriverIdAndDateRange",
+                () -> bookingRepository.findByDriverIdAndDateRange(1L, now.minusDays(1), now));
+        queries.put("BookingRepository.countByStatus",
+                () -> bookingRepository.countByStatus(Booking.BookingStatus.REQUESTED));
+        queries.put("BookingRepository.findPickupPointsByStatus",
+                () -> bookingRepository.findPickupPointsByStatus(Booking.BookingStatus.REQUESTED));
+        queries.put("BookingRepository.findPendingBookings", () -> bookingRepository.findPendingBookings(now));
+        queries.put("BookingRepository.findDispatchableBookings",
+                () -> bookingRepository.findDispatchableBookings(now, PageRequest.of(0, 50)));
+        queries.put("BookingRepository.findActiveBookingByDriverId",
+                () -> bookingRepository.findActiveBookingByDriverId(1L));
+        queries.put("BookingRepository.findResponseById", () -> bookingRepository.findResponseById(1L));
+        queries.put("BookingRepository.findResponseByBookingNumber",
+                () -> bookingRepository.findResponseByBookingNumber("CAB1"));
+        queries.put("BookingRepository.findPendingResponses", () -> bookingRepository.findPendingResponses(now));
+        queries.put("BookingRepository.findActiveResponseByDriverId",
+                () -> bookingRepository.findActiveResponseByDriverId(1L));
+        queries.put("BookingRepository.findResponsesByDateRange",
+                () -> bookingRepository.findResponsesByDateRange(now.minusDays(1), now));
+        queries.put("BookingRepository.findResponsesByUserIdAndDateRange",
+                () -> bookingRepository.findResponsesByUserIdAndDateRange(1L, now.minusDays(1), now));
+        queries.put("BookingRepository.findResponsesByDriverIdAndDateRange",
+                () -> bookingRepository.findResponsesByDriverIdAndDateRange(1L, now.minusDays(1), now));
+        queries.put("BookingRepository.findResponsesByStatusAfter",
+                () -> bookingRepository.findResponsesByStatusAfter(
+                        Booking.BookingStatus.COMPLETED, 100L, PageRequest.of(0, 50)));
+        queries.put("BookingRepository.findResponsesByUserIdAfter",
+                () -> bookingRepository.findResponsesByUserIdAfter(1L, 100L, PageRequest.of(0, 50)));
+        queries.put("BookingRepository.findResponsesByDriverIdAfter",
+                () -> bookingRepository.findResponsesByDriverIdAfter(1L, 100L, PageRequest.of(0, 50)));
+        queries.put("BookingRepository.streamResponses", () -> drain(bookingRepository.streamResponses()));
+        queries.put("BookingRepository.findTransitionTargetsByIdIn",
+                () -> bookingRepository.findTransitionTargetsByIdIn(List.of(1L, 2L)));
+        queries.put("BookingRepository.transition",
+                () -> bookingRepository.transition(1L, Booking.BookingStatus.IN_PROGRESS.allowedFrom(),
+                        Booking.BookingStatus.IN_PROGRESS, 5, null, now, null, null));
+        queries.put("BookingRepository.assignDriver",
+                () -> bookingRepository.assignDriver(1L, Booking.BookingStatus.ACCEPTED.allowedFrom(),
+                        null, null, now, 2));
+        queries.put("BookingRepository.updateActualFare",
+                () -> bookingRepository.updateActualFare(1L, BigDecimal.TEN));
+        queries.put("BookingRepository.updatePaymentStatus",
+                () -> bookingRepository.updatePaymentStatus(1L, Booking.PaymentStatus.COMPLETED));
+
+        queries.put("BookingEventRepository.findByBookingIdOrderBySequenceNumber",
+                () -> bookingEventRepository.findByBookingIdOrderBySequenceNumber(1L));
+        queries.put("BookingEventRepository.findByBookingIdAndSequenceNumberGreaterThanOrderBySequenceNumber",
+                () -> bookingEventRepository.findByBookingIdAndSequenceNumberGreaterThanOrderBySequenceNumber(1L, 1));
+        queries.put("BookingEventRepository.findUnprojected",
+                () -> bookingEventRepository.findUnprojected(
+                        EnumSet.of(Booking.BookingStatus.REQUESTED, Booking.BookingStatus.ACCEPTED),
+                        PageRequest.of(0, 50)));
+
+        queries.put("OutboxMessageRepository.findDue",
+                () -> outboxMessageRepository.findDue(now, PageRequest.of(0, 100)));
+        queries.put("OutboxMessageRepository.markProcessed", () -> outboxMessageRepository.markProcessed(1L, now));
+        queries.put("OutboxMessageRepository.recordFailure",
+                () -> outboxMessageRepository.recordFailure(1L, "error", now));
+        queries.put("OutboxMessageRepository.countByProcessedAtIsNull",
+                () -> outboxMessageRepository.countByProcessedAtIsNull());
+        queries.put("OutboxMessageRepository.findIdsProcessedBefore",
+                () -> outboxMessageRepository.findIdsProcessedBefore(now, PageRequest.of(0, 100)));
+        queries.put("OutboxMessageRepository.deleteByIds",
+                () -> outboxMessageRepository.deleteByIds(List.of(1L, 2L)));
+
+        queries.put("LocationLogRepository.findByDriverIdOrderByTimestampDesc",
+                () -> locationLogRepository.findByDriverIdOrderByTimestampDesc(1L));
+        queries.put("LocationLogRepository.findByBookingIdOrderByTimestampDesc",
+                () -> locationLogRepository.findByBookingIdOrderByTimestampDesc(1L));
+        queries.put("LocationLogRepository.findPageByDriverId",
+                () -> locationLogRepository.findPageByDriverId(1L, PageRequest.of(0, 50)));
+        queries.put("LocationLogRepository.findPageByDriverIdBefore",
+                () -> locationLogRepository.findPageByDriverIdBefore(1L, now, PageRequest.of(0, 50)));
+        queries.put("LocationLogRepository.findPageByDriverIdBeforeRow",
+                () -> locationLogRepository.findPageByDriverIdBeforeRow(1L, now, 100L, PageRequest.of(0, 50)));
+        queries.put("LocationLogRepository.findByDriverIdAndTimeRange",
+                () -> locationLogRepository.findByDriverIdAndTimeRange(1L, now.minusHours(1), now));
+        queries.put("LocationLogRepository.findByBookingIdAndTimeRange",
+                () -> locationLogRepository.findByBookingIdAndTimeRange(1L, now.minusHours(1), now));
+        queries.put("LocationLogRepository.findDriverIdsWithLogsBefore",
+                () -> locationLogRepository.findDriverIdsWithLogsBefore(now, PageRequest.of(0, 10)));
+        queries.put("LocationLogRepository.findByDriverIdBefore",
+                () -> locationLogRepository.findByDriverIdBefore(1L, now, PageRequest.of(0, 10)));
+        queries.put("LocationLogRepository.deleteByDriverId", () -> locationLogRepository.deleteByDriverId(1L));
+        queries.put("LocationLogRepository.clearBookingsOfUser",
+                () -> locationLogRepository.clearBookingsOfUser(1L));
+        queries.put("LocationLogRepository.findLatestLocationByDriverId",
+                () -> locationLogRepository.findLatestLocationByDriverId(1L));
+
+        queries.put("LocationTrajectoryRepository.findPageByDriverId",
+                () -> locationTrajectoryRepository.findPageByDriverId(1L, PageRequest.of(0, 10)));
+        queries.put("LocationTrajectoryRepository.findPageByDriverIdStartingBy",
+                () -> locationTrajectoryRepository.findPageByDriverIdStartingBy(1L, now, PageRequest.of(0, 10)));
+        queries.put("LocationTrajectoryRepository.findByBookingIdOrderByStartTimeDesc",
+                () -> locationTrajectoryRepository.findByBookingIdOrderByStartTimeDesc(1L));
+        queries.put("LocationTrajectoryRepository.findByDriverIdOverlapping",
+                () -> locationTrajectoryRepository.findByDriverIdOverlapping(1L, now.minusHours(1), now));
+        queries.put("LocationTrajectoryRepository.findByBookingIdOverlapping",
+                () -> locationTrajectoryRepository.findByBookingIdOverlapping(1L, now.minusHours(1), now));
+        queries.put("LocationTrajectoryRepository.findLatestByDriverId",
+                () -> locationTrajectoryRepository.findLatestByDriverId(1L));
+        return queries;
+    }
+
+    private static void drain(Stream<?> rows) {
+        try (rows) {
+            rows.forEach(row -> { });
+        }
+    }
+
+    /**
+     * Tables the statement reads in full, according to the database's EXPLAIN.
+     */
+    private List<String> fullScans(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            bindSampleParameters(explain);
+            List<String> scans = new ArrayList<>();
+            boolean mySql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            try (ResultSet plan = explain.executeQuery()) {
+                while (plan.next()) {
+                    if (mySql) {
+                        // One row per table; access type ALL is a full scan
+                        if ("ALL".equals(plan.getString("type"))) {
+                            scans.add(plan.getString("table"));
+                        }
+                    } else if (plan.getString(1).contains(".tableScan")) {
+                        scans.add(plan.getString(1));
+                    }
+                }
+            }
+            return scans;
+        }
+    }
+
+    private void bindSampleParameters(PreparedStatement statement) throws SQLException {
+        ParameterMetaData metaData = statement.getParameterMetaData();
+        for (int i = 1; i <= metaData.getParameterCount(); i++) {
+            int type;
+            try {
+                type = metaData.getParameterType(i);
+            } catch (SQLException e) {
+                type = Types.VARCHAR;
+            }
+            switch (type) {
+                case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT -> statement.setLong(i, 1L);
+                case Types.DOUBLE, Types.FLOAT, Types.REAL -> statement.setDouble(i, 1.0);
+                case Types.DECIMAL, Types.NUMERIC -> statement.setBigDecimal(i, BigDecimal.ONE);
+                case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE, Types.DATE ->
+                        statement.setTimestamp(i, Timestamp.valueOf(LocalDateTime.now()));
+                case Types.BOOLEAN, Types.BIT -> statement.setBoolean(i, true);
+                default -> statement.setString(i, "1");
+            }
+        }
+    }
+}
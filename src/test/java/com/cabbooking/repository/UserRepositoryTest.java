@@ -1,12 +1,16 @@
 package com.cabbooking.repository;
 
+import com.cabbooking.dto.UserSummaryDto;
 import com.cabbooking.entity.User;
 import com.cabbooking.testdata.UserTestDataBuilder;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -71,4 +75,32 @@ class UserRepositoryTest {
         // assert
         assertThat(found).isEmpty();
     }
+
+    @Test
+    @DisplayName("findSummaryPageAfter should walk every user exactly once in id order")
+    void findSummaryPageAfter_walksAllUsersInIdOrder() {
+        // arrange
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(userRepository.saveAndFlush(UserTestDataBuilder.aUser()
+                    .withEmail("page" + i + "@example.com")
+                    .withPhoneNumber("900000000" + i)
+                    .build()).getId());
+        }
+
+        // act
+        List<Long> seen = new ArrayList<>();
+        long after = ids.get(0) - 1;
+        List<UserSummaryDto> page;
+        do {
+            page = userRepository.findSummaryPageAfter(after, PageRequest.of(0, 2));
+            page.forEach(user -> seen.add(user.getId()));
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 2);
+
+        // assert
+        assertThat(seen).containsExactlyElementsOf(ids);
+    }
 }
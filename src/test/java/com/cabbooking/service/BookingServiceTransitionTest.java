@@ -0,0 +1,246 @@
+package com.cabbooking.service;
+
+import com.cabbooking.cache.LookupCache;
+import com.cabbooking.dispatch.DriverReservationRegistry;
+import com.cabbooking.dto.BookingResponseDto;
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.BookingEvent;
+import com.cabbooking.entity.Cab;
+import com.cabbooking.entity.Driver;
+import com.cabbooking.entity.OutboxMessage;
+import com.cabbooking.pricing.FareEngine;
+import com.cabbooking.pricing.SurgePricingEngine;
+import com.cabbooking.repository.BookingEventRepository;
+import com.cabbooking.repository.BookingRepository;
+import com.cabbooking.repository.OutboxMessageRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.cabbooking.util.ApplicationConstants.BOOKING_CHANGED_CONCURRENTLY;
+import static com.cabbooking.util.ApplicationConstants.BOOKING_NOT_FOUND;
+import static com.cabbooking.util.ApplicationConstants.DRIVER_RESERVED_FOR_ANOTHER_BOOKING;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BookingServiceTransitionTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingEventRepository bookingEventRepository = mock(BookingEventRepository.class);
+    private final OutboxMessageRepository outboxMessageRepository = mock(OutboxMessageRepository.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final DriverService driverService = mock(DriverService.class);
+    private final CabService cabService = mock(CabService.class);
+    private final DriverReservationRegistry driverReservations = new DriverReservationRegistry();
+    @SuppressWarnings("unchecked")
+    private final LookupCache<String, BookingResponseDto> bookingsByNumber = mock(LookupCache.class);
+    private final BookingService bookingService = new BookingService(
+            bookingRepository, bookingEventRepository, outboxMessageRepository, entityManager, mock(UserService.class), driverService,
+            cabService, driverReservations, new ModelMapper(), mock(FareEngine.class),
+            mock(SurgePricingEngine.class), bookingsByNumber);
+
+    private final Booking booking = new Booking();
+
+    @Test
+    @DisplayName("a transition is checked against the log, not the row, and only appends an event")
+    void updateBookingStatus_appendsEventPastPendingOnes() {
+        row(Booking.BookingStatus.ACCEPTED, 2);
+        pending(event(3, Booking.BookingStatus.DRIVER_ASSIGNED), event(4, Booking.BookingStatus.DRIVER_ARRIVED));
+        when(bookingEventRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Booking updated = bookingService.updateBookingStatus(1L, Booking.BookingStatus.IN_PROGRESS);
+
+        ArgumentCaptor<BookingEvent> appended = ArgumentCaptor.forClass(BookingEvent.class);
+        verify(bookingEventRepository).save(appended.capture());
+        assertThat(appended.getValue().getSequenceNumber()).isEqualTo(5);
+        assertThat(appended.getValue().getStatus()).isEqualTo(Booking.BookingStatus.IN_PROGRESS);
+        assertThat(updated.getStatus()).isEqualTo(Booking.BookingStatus.IN_PROGRESS);
+        assertThat(updated.getStartTime()).isNotNull();
+        verify(entityManager).detach(booking);
+        verify(bookingRepository, never()).save(any());
+        verifyNoInteractions(driverService, cabService, outboxMessageRepository);
+        // The cached row would still show the old status until the projector catches up
+        verify(bookingsByNumber).invalidate("CAB1");
+    }
+
+    @Test
+    @DisplayName("ending a ride leaves releasing the driver and cab to an outbox message")
+    void updateBookingStatus_recordsOutboxMessageWhenRideEnds() {
+        row(Booking.BookingStatus.IN_PROGRESS, 5);
+        pending();
+        when(bookingEventRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        bookingService.updateBookingStatus(1L, Booking.BookingStatus.COMPLETED);
+
+        ArgumentCaptor<OutboxMessage> message = ArgumentCaptor.forClass(OutboxMessage.class);
+        verify(outboxMessageRepository).save(message.capture());
+        assertThat(message.getValue().getMessageType()).isEqualTo(OutboxMessage.Type.RIDE_ENDED);
+        assertThat(message.getValue().getAggregateId()).isEqualTo(1L);
+        assertThat(message.getValue().getProcessedAt()).isNull();
+        verifyNoInteractions(driverService, cabService);
+    }
+
+    @Test
+    @DisplayName("a transition the log's latest status does not allow is rejected")
+    void updateBookingStatus_rejectsTransitionFromPendingStatus() {
+        row(Booking.BookingStatus.REQUESTED, 1);
+        pending(event(2, Booking.BookingStatus.CANCELLED));
+
+        assertThatThrownBy(() -> bookingService.updateBookingStatus(1L, Booking.BookingStatus.ACCEPTED))
+                .hasMessage("Invalid status transition from CANCELLED to ACCEPTED");
+        verify(bookingEventRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("losing the race for the next sequence number fails the transition")
+    void updateBookingStatus_failsWhenAnotherTransitionWon() {
+        row(Booking.BookingStatus.DRIVER_ARRIVED, 4);
+        pending();
+        when(bookingEventRepository.save(any())).thenThrow(new DataIntegrityViolationException("uk_booking_event_sequence"));
+
+        assertThatThrownBy(() -> bookingService.updateBookingStatus(1L, Booking.BookingStatus.CANCELLED))
+                .hasMessage(BOOKING_CHANGED_CONCURRENTLY);
+    }
+
+    @Test
+    @DisplayName("assignment writes the row with one conditional update and claims the driver and cab")
+    void assignDriverToBooking_updatesRowConditionally() {
+        row(Booking.BookingStatus.REQUESTED, 1);
+        pending();
+        Cab cab = onlineDriverWithCab();
+        when(bookingRepository.assignDriver(eq(1L), eq(Booking.BookingStatus.ACCEPTED.allowedFrom()), any(),
+                eq(cab), any(), eq(2))).thenReturn(1);
+
+        Booking assigned = inTransaction(() -> {
+            Booking result = bookingService.assignDriverToBooking(1L, 7L);
+            // Held until the transaction completes
+            assertThat(driverReservations.isReserved(7L)).isTrue();
+            return result;
+        });
+
+        assertThat(driverReservations.isReserved(7L)).isFalse();
+        assertThat(assigned.getStatus()).isEqualTo(Booking.BookingStatus.ACCEPTED);
+        assertThat(assigned.getEventSequence()).isEqualTo(2);
+        assertThat(assigned.getCab()).isSameAs(cab);
+        verify(bookingRepository, never()).save(any());
+        verify(driverService).updateDriverStatus(7L, Driver.DriverStatus.BUSY);
+        verify(cabService).updateCabStatus(cab.getId(), Cab.CabStatus.BUSY);
+    }
+
+    @Test
+    @DisplayName("assignment fails when the row moved before its conditional update")
+    void assignDriverToBooking_failsWhenRowMoved() {
+        row(Booking.BookingStatus.REQUESTED, 1);
+        pending();
+        onlineDriverWithCab();
+        when(bookingRepository.assignDriver(any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        inTransaction(() -> assertThatThrownBy(() -> bookingService.assignDriverToBooking(1L, 7L))
+                .hasMessage(BOOKING_CHANGED_CONCURRENTLY));
+        verify(driverService, never()).updateDriverStatus(any(), any());
+        assertThat(driverReservations.isReserved(7L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("assignment outside a transaction fails before claiming the driver")
+    void assignDriverToBooking_requiresTransaction() {
+        assertThatThrownBy(() -> bookingService.assignDriverToBooking(1L, 7L))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(driverReservations.isReserved(7L)).isFalse();
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    @DisplayName("a failed claim does not release the claim another assignment holds")
+    void assignDriverToBooking_leavesOthersClaimWhenReservedElsewhere() {
+        driverReservations.tryReserve(7L, 1L);
+
+        inTransaction(() -> assertThatThrownBy(() -> bookingService.assignDriverToBooking(1L, 7L))
+                .hasMessage(DRIVER_RESERVED_FOR_ANOTHER_BOOKING));
+
+        assertThat(driverReservations.isReserved(7L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("a fare update is the one UPDATE and answers with what it wrote")
+    void updateBookingFare_doesNotReadRowBack() {
+        when(bookingRepository.updateActualFare(1L, new BigDecimal("18.40"))).thenReturn(1);
+
+        BookingResponseDto response = bookingService.updateBookingFare(1L, new BigDecimal("18.40"));
+
+        assertThat(response.getId()).isEqualTo(1L);
+        assertThat(response.getActualFare()).isEqualByComparingTo("18.40");
+        verify(bookingRepository, never()).findResponseById(any());
+        verify(bookingsByNumber).invalidateIf(any());
+    }
+
+    @Test
+    @DisplayName("a fare update for a missing booking fails")
+    void updateBookingFare_failsWhenNoRowMatched() {
+        when(bookingRepository.updateActualFare(1L, BigDecimal.TEN)).thenReturn(0);
+
+        assertThatThrownBy(() -> bookingService.updateBookingFare(1L, BigDecimal.TEN))
+                .hasMessage(BOOKING_NOT_FOUND);
+        verifyNoInteractions(bookingsByNumber);
+    }
+
+    // Stands in for the surrounding transaction: runs the body, then the completion callbacks
+    private static <T> T inTransaction(Supplier<T> body) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            return body.get();
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        }
+    }
+
+    private Cab onlineDriverWithCab() {
+        Driver driver = new Driver();
+        driver.setId(7L);
+        driver.setStatus(Driver.DriverStatus.ONLINE);
+        Cab cab = new Cab();
+        cab.setId(14L);
+        when(driverService.findById(7L)).thenReturn(Optional.of(driver));
+        when(cabService.findByDriverId(7L)).thenReturn(Optional.of(cab));
+        when(bookingEventRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        return cab;
+    }
+
+    private void row(Booking.BookingStatus status, int eventSequence) {
+        booking.setId(1L);
+        booking.setBookingNumber("CAB1");
+        booking.setStatus(status);
+        booking.setEventSequence(eventSequence);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+    }
+
+    private void pending(BookingEvent... events) {
+        when(bookingEventRepository.findByBookingIdAndSequenceNumberGreaterThanOrderBySequenceNumber(
+                1L, booking.getEventSequence())).thenReturn(List.of(events));
+    }
+
+    private static BookingEvent event(int sequenceNumber, Booking.BookingStatus status) {
+        return new BookingEvent((long) sequenceNumber, 1L, sequenceNumber, status, null, null, LocalDateTime.now());
+    }
+}
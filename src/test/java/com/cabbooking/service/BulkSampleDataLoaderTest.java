@@ -0,0 +1,141 @@
+package com.cabbooking.service;
+
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.User;
+import com.cabbooking.pricing.FareEngine;
+import com.cabbooking.pricing.RateCard;
+import com.cabbooking.pricing.RateCardFareEngine;
+import com.cabbooking.repository.BookingRepository;
+import com.cabbooking.repository.UserRepository;
+import com.cabbooking.testdata.UserTestDataBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs without a test transaction: the loader commits each chunk on its own connection.
+ */
+@DataJpaTest(properties = {
+        "sample.data.bulk.days=30",
+        "sample.data.bulk.chunk-size=700",
+        "sample.data.bulk.threads=4"})
+@Import({BulkSampleDataLoader.class, BulkSampleDataLoaderTest.Beans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkSampleDataLoaderTest {
+
+    private static final int BOOKINGS = 5_000;
+
+    @Autowired
+    private BulkSampleDataLoader loader;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @AfterEach
+    void tearDown() {
+        for (String table : new String[]{"bookings", "cabs", "drivers", "users"}) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    @DisplayName("seeds bookings with a tenth as many customers and a fiftieth as many drivers, each with a cab")
+    void load_insertsRelatedRows() {
+        loader.load(BOOKINGS);
+
+        assertThat(count("SELECT COUNT(*) FROM bookings")).isEqualTo(BOOKINGS);
+        assertThat(count("SELECT COUNT(*) FROM users WHERE role = 'CUSTOMER'")).isEqualTo(BOOKINGS / 10);
+        assertThat(count("SELECT COUNT(*) FROM drivers")).isEqualTo(BOOKINGS / 50);
+        assertThat(count("SELECT COUNT(*) FROM cabs c JOIN drivers d ON d.id = c.driver_id")).isEqualTo(BOOKINGS / 50);
+        assertThat(count("SELECT COUNT(*) FROM bookings b JOIN cabs c ON c.id = b.cab_id "
+                + "WHERE c.driver_id <> b.driver_id OR c.cab_type <> b.requested_cab_type")).isZero();
+    }
+
+    @Test
+    @DisplayName("only recent bookings are still in flight, and finished ones are consistent")
+    void load_followsBookingLifecycle() {
+        loader.load(BOOKINGS);
+
+        long live = count("SELECT COUNT(*) FROM bookings WHERE status NOT IN ('COMPLETED', 'CANCELLED')");
+        assertThat(live).isLessThan(BOOKINGS / 100);
+        assertThat(count("SELECT COUNT(*) FROM bookings WHERE status = 'COMPLETED' AND "
+                + "(end_time IS NULL OR actual_fare IS NULL OR payment_status <> 'COMPLETED')")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM bookings WHERE status <> 'REQUESTED' AND driver_id IS NULL")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM bookings WHERE requested_time > CURRENT_TIMESTAMP")).isZero();
+    }
+
+    @Test
+    @DisplayName("seeded rows load through JPA and later inserts get ids past them")
+    void load_leavesIdentityColumnsUsable() {
+        loader.load(BOOKINGS);
+
+        Booking booking = bookingRepository.findByBookingNumber("CABS0000000").orElseThrow();
+        assertThat(booking.getUser().getRole()).isEqualTo(User.UserRole.CUSTOMER);
+
+        long maxUserId = count("SELECT MAX(id) FROM users");
+        User user = userRepository.save(UserTestDataBuilder.aUser().build());
+        assertThat(user.getId()).isGreaterThan(maxUserId);
+    }
+
+    @Test
+    @DisplayName("the same seed produces the same rows")
+    void load_isDeterministic() {
+        loader.load(1_000);
+        String first = fingerprint();
+        tearDown();
+
+        loader.load(1_000);
+
+        assertThat(fingerprint()).isEqualTo(first);
+    }
+
+    private String fingerprint() {
+        return jdbcTemplate.queryForObject("SELECT CONCAT(SUM(pickup_latitude), '/', SUM(estimated_fare), '/', "
+                + "COUNT(DISTINCT user_id), '/', SUM(CASE WHEN status = 'CANCELLED' THEN 1 ELSE 0 END)) "
+                + "FROM bookings", String.class);
+    }
+
+    private long count(String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @TestConfiguration
+    static class Beans {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder();
+        }
+
+        @Bean
+        FareEngine fareEngine() {
+            Map<Booking.CabType, RateCard> rateCards = new EnumMap<>(Booking.CabType.class);
+            for (Booking.CabType cabType : Booking.CabType.values()) {
+                rateCards.put(cabType, new RateCard(5_000, 1_200));
+            }
+            return new RateCardFareEngine(rateCards, 30.0);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.cabbooking.service;
+
+import com.cabbooking.dto.LocationBatchDto;
+import com.cabbooking.dto.LocationBatchResponseDto;
+import com.cabbooking.dto.LocationPointDto;
+import com.cabbooking.entity.Driver;
+import com.cabbooking.entity.LocationLog;
+import com.cabbooking.entity.LocationTrajectory;
+import com.cabbooking.geo.DriverPositionStore;
+import com.cabbooking.repository.BookingRepository;
+import com.cabbooking.repository.DriverRepository;
+import com.cabbooking.repository.LocationLogRepository;
+import com.cabbooking.repository.LocationTrajectoryRepository;
+import com.cabbooking.trajectory.TrajectoryCodec;
+import com.cabbooking.trajectory.TrajectoryPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LocationServiceBatchTest {
+
+    private final LocationLogRepository locationLogRepository = mock(LocationLogRepository.class);
+    private final LocationTrajectoryRepository locationTrajectoryRepository = mock(LocationTrajectoryRepository.class);
+    private final DriverRepository driverRepository = mock(DriverRepository.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final DriverService driverService = mock(DriverService.class);
+    private final DriverPositionStore driverPositionStore = mock(DriverPositionStore.class);
+    private final LocationService locationService = new LocationService(
+            locationLogRepository, locationTrajectoryRepository, driverRepository, bookingRepository,
+            driverService, driverPositionStore);
+
+    private final LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Test
+    @DisplayName("all points are saved together and the driver moves once, to the newest point")
+    @SuppressWarnings("unchecked")
+    void logLocationBatch_savesAllPointsAndUpdatesDriverOnce() {
+        Driver driver = new Driver();
+        driver.setId(7L);
+        when(driverRepository.existsById(7L)).thenReturn(true);
+        when(driverRepository.getReferenceById(7L)).thenReturn(driver);
+
+        // Out of order on purpose: apps may flush their buffer unsorted
+        LocationBatchDto batch = new LocationBatchDto(7L, null, List.of(
+                point(12.93, 77.62, 2),
+                point(12.91, 77.60, 0),
+                point(12.95, 77.64, 5),
+                point(12.92, 77.61, 1)));
+
+        LocationBatchResponseDto result = locationService.logLocationBatch(batch);
+
+        ArgumentCaptor<List<LocationLog>> saved = ArgumentCaptor.forClass(List.class);
+        verify(locationLogRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(LocationLog::getTimestamp).isSorted().hasSize(4);
+        assertThat(saved.getValue()).allMatch(log -> log.getDriver() == driver);
+
+        verify(driverService, times(1)).recordDriverPosition(7L, 12.95, 77.64, 90.0, 30.0, start.plusMinutes(5));
+        assertThat(result.getSavedPoints()).isEqualTo(4);
+        assertThat(result.getLatestTimestamp()).isEqualTo(start.plusMinutes(5));
+    }
+
+    @Test
+    @DisplayName("an unknown driver rejects the whole batch before anything is written")
+    void logLocationBatch_unknownDriver_writesNothing() {
+        when(driverRepository.existsById(99L)).thenReturn(false);
+        LocationBatchDto batch = new LocationBatchDto(99L, null, List.of(point(12.91, 77.60, 0)));
+
+        assertThatThrownBy(() -> locationService.logLocationBatch(batch))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Driver not found");
+        verify(locationLogRepository, never()).saveAll(any());
+        verify(driverService, never()).recordDriverPosition(anyLong(), anyDouble(), anyDouble(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("drivers tracked by the position store are known without a query; others are looked up")
+    void isKnownDriver_checksStoreThenDatabase() {
+        when(driverPositionStore.contains(7L)).thenReturn(true);
+        when(driverRepository.existsById(8L)).thenReturn(true);
+
+        assertThat(locationService.isKnownDriver(7L)).isTrue();
+        assertThat(locationService.isKnownDriver(8L)).isTrue();
+        assertThat(locationService.isKnownDriver(99L)).isFalse();
+        verify(driverRepository, never()).existsById(7L);
+    }
+
+    @Test
+    @DisplayName("a history page merges rows and trajectories and decodes no further back than it reaches")
+    void getDriverLocationHistory_pagesNewestFirst() {
+        when(locationLogRepository.findPageByDriverId(eq(7L), any())).thenReturn(List.of(
+                log(2, at(50)), log(1, at(40))));
+        // Newest end first; the hourly segment overlaps the booking's
+        LocationTrajectory hour = trajectory(11, at(5), at(55));
+        LocationTrajectory booking = trajectory(10, at(20), at(35));
+        when(locationTrajectoryRepository.findPageByDriverId(eq(7L), any())).thenReturn(List.of(hour, booking));
+
+        LocationHistoryPage page = locationService.getDriverLocationHistory(7L, null, 3);
+
+        assertThat(page.getLocations())
+                .extracting(LocationLog::getTimestamp)
+                .containsExactly(at(55), at(50), at(40));
+        assertThat(page.getNextCursor()).isEqualTo(LocationHistoryCursor.ofRow(at(40), 1));
+    }
+
+    @Test
+    @DisplayName("the next page holds only points older than the cursor")
+    void getDriverLocationHistory_continuesBeforeCursor() {
+        when(locationLogRepository.findPageByDriverIdBeforeRow(eq(7L), eq(at(50)), eq(2L), any())).thenReturn(List.of(
+                log(1, at(40))));
+        when(locationTrajectoryRepository.findPageByDriverIdStartingBy(eq(7L), eq(at(50)), any())).thenReturn(List.of(
+                trajectory(11, at(5), at(55)), trajectory(10, at(20), at(35)), trajectory(9, at(-60), at(-30))));
+
+        LocationHistoryPage page = locationService.getDriverLocationHistory(
+                7L, LocationHistoryCursor.ofRow(at(50), 2), 3);
+
+        assertThat(page.getLocations())
+                .extracting(LocationLog::getTimestamp)
+                .containsExactly(at(40), at(35), at(20));
+        assertThat(page.getNextCursor()).isEqualTo(LocationHistoryCursor.ofTrajectoryPoint(at(20), 10, 0));
+    }
+
+    @Test
+    @DisplayName("a page boundary inside a run of equal timestamps loses and repeats no point")
+    void getDriverLocationHistory_splitsRunOfEqualTimestamps() {
+        // Three rows and two trajectory points share at(30); pages of two walk through them
+        LocationTrajectory trajectory = trajectory(10, at(30), at(30));
+        when(locationLogRepository.findPageByDriverId(eq(7L), any())).thenReturn(List.of(
+                log(3, at(30)), log(2, at(30))));
+        when(locationLogRepository.findPageByDriverIdBeforeRow(eq(7L), eq(at(30)), eq(2L), any())).thenReturn(List.of(
+                log(1, at(30))));
+        when(locationLogRepository.findPageByDriverIdBeforeRow(eq(7L), eq(at(30)), eq(1L), any())).thenReturn(List.of());
+        when(locationTrajectoryRepository.findPageByDriverId(eq(7L), any())).thenReturn(List.of(trajectory));
+        when(locationTrajectoryRepository.findPageByDriverIdStartingBy(eq(7L), eq(at(30)), any()))
+                .thenReturn(List.of(trajectory));
+        when(locationLogRepository.findPageByDriverIdBefore(eq(7L), eq(at(30)), any())).thenReturn(List.of());
+
+        List<LocationHistoryCursor> seen = new ArrayList<>();
+        LocationHistoryCursor cursor = null;
+        do {
+            LocationHistoryPage page = locationService.getDriverLocationHistory(7L, cursor, 2);
+            assertThat(page.getLocations()).allSatisfy(log -> assertThat(log.getTimestamp()).isEqualTo(at(30)));
+            seen.add(page.getNextCursor());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly(
+                LocationHistoryCursor.ofRow(at(30), 2),
+                LocationHistoryCursor.ofTrajectoryPoint(at(30), 10, 1),
+                null);
+    }
+
+    @Test
+    @DisplayName("cursors round-trip through their text form, and a bare timestamp still parses")
+    void locationHistoryCursor_parsesWhatItWrites() {
+        LocationHistoryCursor row = LocationHistoryCursor.ofRow(at(30), 42);
+        LocationHistoryCursor point = LocationHistoryCursor.ofTrajectoryPoint(at(30), 17, 3);
+
+        assertThat(LocationHistoryCursor.parse(row.toString())).isEqualTo(row);
+        assertThat(LocationHistoryCursor.parse(point.toString())).isEqualTo(point);
+        assertThat(LocationHistoryCursor.parse("2024-01-01T10:30:00")).isEqualTo(LocationHistoryCursor.before(at(30)));
+        assertThat(row.isFollowedBy(point)).isTrue();
+        assertThatThrownBy(() -> LocationHistoryCursor.parse("2024-01-01T10:30:00~tx"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private LocalDateTime at(int minutesAfterStart) {
+        return start.plusMinutes(minutesAfterStart);
+    }
+
+    private static LocationLog log(long id, LocalDateTime timestamp) {
+        return new LocationLog(id, null, null, 12.91, 77.60, 30.0, 90.0, timestamp);
+    }
+
+    private static LocationTrajectory trajectory(long id, LocalDateTime startTime, LocalDateTime endTime) {
+        LocationTrajectory trajectory = new LocationTrajectory();
+        trajectory.setId(id);
+        trajectory.setStartTime(startTime);
+        trajectory.setEndTime(endTime);
+        trajectory.setEncodedPoints(TrajectoryCodec.encode(List.of(
+                new TrajectoryPoint(12.91, 77.60, 30.0, 90.0, startTime),
+                new TrajectoryPoint(12.92, 77.61, 30.0, 90.0, endTime))));
+        return trajectory;
+    }
+
+    private LocationPointDto point(double latitude, double longitude, int minutesAfterStart) {
+        return new LocationPointDto(latitude, longitude, 30.0, 90.0, start.plusMinutes(minutesAfterStart));
+    }
+}
@@ -0,0 +1,113 @@
+package com.cabbooking.service;
+
+import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.Cab;
+import com.cabbooking.entity.Driver;
+import com.cabbooking.entity.LocationLog;
+import com.cabbooking.entity.User;
+import com.cabbooking.repository.BookingRepository;
+import com.cabbooking.repository.CabRepository;
+import com.cabbooking.repository.DriverRepository;
+import com.cabbooking.repository.LocationLogRepository;
+import com.cabbooking.repository.UserRepository;
+import com.cabbooking.testdata.BookingTestDataBuilder;
+import com.cabbooking.testdata.DriverTestDataBuilder;
+import com.cabbooking.testdata.UserTestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs without a test transaction so entities reach the second-level cache before the delete.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserServiceDeleteTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private CabRepository cabRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private LocationLogRepository locationLogRepository;
+
+    private User user;
+    private Driver driver;
+    private Cab cab;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(UserTestDataBuilder.aUser().withRole(User.UserRole.DRIVER).build());
+        driver = driverRepository.save(DriverTestDataBuilder.aDriver().withUser(user).build());
+        Cab newCab = new Cab();
+        newCab.setDriver(driver);
+        newCab.setLicensePlate("DEL-" + System.nanoTime());
+        newCab.setMake("Toyota");
+        newCab.setModel("Prius");
+        newCab.setColor("White");
+        newCab.setYear(2022);
+        newCab.setCabType(Cab.CabType.SEDAN);
+        cab = cabRepository.save(newCab);
+    }
+
+    @Test
+    @DisplayName("deleting a driver's user leaves no cached driver or cab behind")
+    void deleteUser_evictsDriverAndCab() {
+        // Load everything into the cache first
+        assertThat(driverRepository.findById(driver.getId())).isPresent();
+        assertThat(cabRepository.findById(cab.getId())).isPresent();
+        assertThat(cabRepository.loadByDriverId(driver.getId())).isPresent();
+
+        userService.deleteUser(user.getId());
+
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+        assertThat(driverRepository.findById(driver.getId())).isEmpty();
+        assertThat(cabRepository.findById(cab.getId())).isEmpty();
+        assertThat(cabRepository.loadByDriverId(driver.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deleting a user removes their driver's location history and detaches it from their bookings")
+    void deleteUser_cleansUpLocationHistory() {
+        User customer = userRepository.save(UserTestDataBuilder.aUser().build());
+        Booking booking = bookingRepository.save(BookingTestDataBuilder.aBooking().withUser(customer).build());
+        locationLogRepository.save(log(driver, booking));
+
+        User otherDriverUser = userRepository.save(UserTestDataBuilder.aUser().withRole(User.UserRole.DRIVER).build());
+        Driver otherDriver = driverRepository.save(DriverTestDataBuilder.aDriver().withUser(otherDriverUser).build());
+        LocationLog otherLog = locationLogRepository.save(log(otherDriver, booking));
+
+        userService.deleteUser(user.getId());
+        userService.deleteUser(customer.getId());
+
+        assertThat(locationLogRepository.findByDriverIdOrderByTimestampDesc(driver.getId())).isEmpty();
+        assertThat(locationLogRepository.findByBookingIdOrderByTimestampDesc(booking.getId())).isEmpty();
+        assertThat(locationLogRepository.findById(otherLog.getId())).hasValueSatisfying(
+                remaining -> assertThat(remaining.bookingId()).isNull());
+
+        userService.deleteUser(otherDriverUser.getId());
+        assertThat(locationLogRepository.findById(otherLog.getId())).isEmpty();
+    }
+
+    private static LocationLog log(Driver driver, Booking booking) {
+        return new LocationLog(null, driver, booking, 19.43, -99.13, 20.0, 90.0, LocalDateTime.now());
+    }
+}
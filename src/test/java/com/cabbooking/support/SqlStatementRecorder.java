@@ -0,0 +1,49 @@
+package com.cabbooking.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hibernate statement inspector that keeps the SQL issued on the current thread, so tests
+ * can assert on the statements a repository call produced. Enable it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    public static final String PROPERTY =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+            "com.cabbooking.support.SqlStatementRecorder";
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+
+    /**
+     * Runs {@code action} and fails unless it issued exactly {@code expected} statements,
+     * listing them in the failure message.
+     */
+    public static void assertStatementCount(int expected, Runnable action) {
+        reset();
+        action.run();
+        List<String> issued = statements();
+        assertThat(issued)
+                .as("SQL statements issued:%n%s", String.join(System.lineSeparator(), issued))
+                .hasSize(expected);
+    }
+}
@@ -1,6 +1,7 @@
 package com.cabbooking.testdata;
 
 import com.cabbooking.entity.Booking;
+import com.cabbooking.entity.Cab;
 import com.cabbooking.entity.Driver;
 import com.cabbooking.entity.User;
 
@@ -13,6 +14,7 @@ public class BookingTestDataBuilder {
     private LocalDateTime requestedTime = LocalDateTime.now().minusMinutes(5);
     private User user;
     private Driver driver;
+    private Cab cab;
 
     private String pickupAddress = "123 Main St";
     private Double pickupLatitude = 10.0;
@@ -51,6 +53,11 @@ public class BookingTestDataBuilder {
         return this;
     }
 
+    public BookingTestDataBuilder withCab(Cab cab) {
+        this.cab = cab;
+        return this;
+    }
+
     public Booking build() {
         Booking b = new Booking();
         b.setBookingNumber(bookingNumber);
@@ -68,6 +75,7 @@ public class BookingTestDataBuilder {
 
         b.setUser(user);
         b.setDriver(driver);
+        b.setCab(cab);
         return b;
     }
 }
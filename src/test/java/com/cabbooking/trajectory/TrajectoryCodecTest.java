@@ -0,0 +1,87 @@
+package com.cabbooking.trajectory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class TrajectoryCodecTest {
+
+    private final LocalDateTime start = LocalDateTime.of(2024, 3, 1, 8, 30);
+
+    @Test
+    @DisplayName("points survive a round trip to within the quantisation step")
+    void roundTrip_preservesPointsWithinQuantisation() {
+        List<TrajectoryPoint> points = drive(500, new Random(42));
+
+        List<TrajectoryPoint> decoded = TrajectoryCodec.decode(TrajectoryCodec.encode(points));
+
+        assertThat(decoded).hasSameSizeAs(points);
+        for (int i = 0; i < points.size(); i++) {
+            TrajectoryPoint expected = points.get(i);
+            TrajectoryPoint actual = decoded.get(i);
+            assertThat(actual.getLatitude()).isCloseTo(expected.getLatitude(), within(1e-6));
+            assertThat(actual.getLongitude()).isCloseTo(expected.getLongitude(), within(1e-6));
+            assertThat(actual.getSpeed()).isCloseTo(expected.getSpeed(), within(0.05));
+            assertThat(actual.getHeading()).isCloseTo(expected.getHeading(), within(0.05));
+            assertThat(actual.getTimestamp()).isEqualTo(expected.getTimestamp());
+        }
+    }
+
+    @Test
+    @DisplayName("a regular GPS track packs into a few bytes per point")
+    void encode_isCompactForRegularTracks() {
+        List<TrajectoryPoint> points = drive(1000, new Random(7));
+
+        byte[] encoded = TrajectoryCodec.encode(points);
+
+        assertThat(encoded.length).isLessThan(points.size() * 12);
+    }
+
+    @Test
+    @DisplayName("negative coordinates and an empty track are handled")
+    void roundTrip_handlesEdgeCases() {
+        assertThat(TrajectoryCodec.decode(TrajectoryCodec.encode(List.of()))).isEmpty();
+
+        List<TrajectoryPoint> southWest = List.of(
+                new TrajectoryPoint(-33.868820, -151.209290, 0.0, 359.9, start),
+                new TrajectoryPoint(-33.868900, 179.999999, 12.5, 0.0, start.plusSeconds(1)));
+        List<TrajectoryPoint> decoded = TrajectoryCodec.decode(TrajectoryCodec.encode(southWest));
+        assertThat(decoded.get(0).getLongitude()).isCloseTo(-151.209290, within(1e-6));
+        assertThat(decoded.get(1).getLongitude()).isCloseTo(179.999999, within(1e-6));
+    }
+
+    @Test
+    @DisplayName("truncated data is rejected")
+    void decode_rejectsTruncatedData() {
+        byte[] encoded = TrajectoryCodec.encode(drive(10, new Random(1)));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 3);
+
+        assertThatThrownBy(() -> TrajectoryCodec.decode(truncated))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<TrajectoryPoint> drive(int count, Random random) {
+        List<TrajectoryPoint> points = new ArrayList<>(count);
+        double latitude = 12.9716;
+        double longitude = 77.5946;
+        double heading = 90;
+        LocalDateTime time = start;
+        for (int i = 0; i < count; i++) {
+            latitude += (random.nextDouble() - 0.5) * 0.0002;
+            longitude += (random.nextDouble() - 0.5) * 0.0002;
+            heading = (heading + random.nextDouble() * 10 + 350) % 360;
+            time = time.plusSeconds(1 + random.nextInt(3));
+            points.add(new TrajectoryPoint(latitude, longitude, random.nextDouble() * 60, heading, time));
+        }
+        return points;
+    }
+}
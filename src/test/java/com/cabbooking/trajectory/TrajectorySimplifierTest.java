@@ -0,0 +1,81 @@
+package com.cabbooking.trajectory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrajectorySimplifierTest {
+
+    private final LocalDateTime start = LocalDateTime.of(2024, 3, 1, 8, 30);
+
+    @Test
+    @DisplayName("a straight stretch collapses to its end points")
+    void simplify_collapsesStraightLine() {
+        List<TrajectoryPoint> points = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            points.add(point(12.97, 77.59 + i * 0.0001, i));
+        }
+
+        List<TrajectoryPoint> simplified = TrajectorySimplifier.simplify(points, 1.0);
+
+        assertThat(simplified).containsExactly(points.get(0), points.get(100));
+    }
+
+    @Test
+    @DisplayName("a turn sharper than the tolerance is kept")
+    void simplify_keepsCorners() {
+        List<TrajectoryPoint> points = new ArrayList<>();
+        for (int i = 0; i <= 50; i++) {
+            points.add(point(12.97, 77.59 + i * 0.0001, i));
+        }
+        for (int i = 1; i <= 50; i++) {
+            points.add(point(12.97 + i * 0.0001, 77.595, 50 + i));
+        }
+
+        List<TrajectoryPoint> simplified = TrajectorySimplifier.simplify(points, 5.0);
+
+        assertThat(simplified).containsExactly(points.get(0), points.get(50), points.get(100));
+    }
+
+    @Test
+    @DisplayName("no dropped point is farther than the tolerance from the simplified line")
+    void simplify_respectsTolerance() {
+        List<TrajectoryPoint> points = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            points.add(point(12.97 + Math.sin(i / 20.0) * 0.001, 77.59 + i * 0.00005, i));
+        }
+
+        List<TrajectoryPoint> simplified = TrajectorySimplifier.simplify(points, 3.0);
+
+        assertThat(simplified.size()).isLessThan(points.size() / 3);
+        int segment = 0;
+        for (TrajectoryPoint point : points) {
+            while (simplified.get(segment + 1).getTimestamp().isBefore(point.getTimestamp())) {
+                segment++;
+            }
+            double distance = TrajectorySimplifier.distanceToSegmentMeters(
+                    point, simplified.get(segment), simplified.get(segment + 1));
+            assertThat(distance).isLessThanOrEqualTo(3.0 + 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("distance to a segment is measured in metres")
+    void distanceToSegment_isInMetres() {
+        // 0.001 degrees of latitude is ~111 m
+        double distance = TrajectorySimplifier.distanceToSegmentMeters(
+                point(0.001, 0.0, 1), point(0.0, -0.01, 0), point(0.0, 0.01, 2));
+
+        assertThat(distance).isCloseTo(111.2, within(0.5));
+    }
+
+    private TrajectoryPoint point(double latitude, double longitude, int seconds) {
+        return new TrajectoryPoint(latitude, longitude, 30.0, 90.0, start.plusSeconds(seconds));
+    }
+}
@@ -0,0 +1,48 @@
+package com.cabbooking.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConnectionLimitingDataSourceTest {
+
+    private final DataSource target = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, 50);
+
+    @Test
+    @DisplayName("a caller beyond the limit times out until a connection is closed, and closing twice frees one permit")
+    void getConnection_waitsForAPermit() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection first = dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        first.close();
+        verify(connection, times(2)).close();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+        assertThat(dataSource.getConnection()).isNotNull();
+        assertThat(dataSource.getAvailablePermits()).isZero();
+    }
+
+    @Test
+    @DisplayName("a failed checkout from the pool gives its permit back")
+    void getConnection_releasesPermitWhenPoolFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+}